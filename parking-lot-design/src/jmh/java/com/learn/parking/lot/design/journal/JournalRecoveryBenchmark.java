@@ -0,0 +1,136 @@
+package com.learn.parking.lot.design.journal;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.VehicleType;
+import com.learn.parking.lot.design.service.ParkingLot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery of a lot after 1M gate events (entries and exits, about 15k vehicles still
+ * parked at the end). replayJournal reads the raw segments as a crash would leave them;
+ * replaySnapshot reads the same state after compaction. Both rebuild the spots and tickets.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=JournalRecoveryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class JournalRecoveryBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+    private static final int FLOORS = 20;
+    private static final int SPOTS_PER_FLOOR = 1000;
+    private static final int MAX_PARKED = 15_000;
+
+    private Path journalDir;
+    private Path snapshotDir;
+    private ParkingLot lot;
+
+    @Setup(Level.Trial)
+    public void writeJournals() throws IOException {
+        journalDir = Files.createTempDirectory("journal-replay");
+        snapshotDir = Files.createTempDirectory("journal-snapshot");
+        writeEvents(journalDir);
+        writeEvents(snapshotDir);
+        // reopening compacts the segments into one snapshot
+        MappedTicketJournal.open(snapshotDir, 64 << 20, false, Long.MAX_VALUE).close();
+    }
+
+    private static void writeEvents(Path dir) {
+        MappedTicketJournal journal = MappedTicketJournal.open(dir, 64 << 20, false, Long.MAX_VALUE);
+        Random random = new Random(42);
+        List<String> freeSpots = new ArrayList<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            for (int i = 1; i <= SPOTS_PER_FLOOR; i++) {
+                freeSpots.add(spotId(f, i));
+            }
+        }
+        List<String[]> parked = new ArrayList<>(); // {ticketId, spotId}
+        LocalDateTime now = LocalDateTime.now();
+        for (int event = 0; event < EVENTS; event++) {
+            boolean enter = parked.isEmpty() || (parked.size() < MAX_PARKED && random.nextInt(100) < 52);
+            if (enter) {
+                String spotId = removeAt(freeSpots, random.nextInt(freeSpots.size()));
+                String ticketId = "T" + event;
+                journal.append(JournalRecord.entry(ticketId, now, VehicleType.CAR, "PLATE-" + event, spotId));
+                parked.add(new String[]{ticketId, spotId});
+            } else {
+                String[] ticket = removeAt(parked, random.nextInt(parked.size()));
+                journal.append(JournalRecord.exit(ticket[0], now, 5.0));
+                freeSpots.add(ticket[1]);
+            }
+        }
+        // no close(): the segments stay as a crash would leave them
+    }
+
+    private static <T> T removeAt(List<T> list, int index) {
+        T last = list.remove(list.size() - 1);
+        return index == list.size() ? last : list.set(index, last);
+    }
+
+    private static String spotId(int floor, int spot) {
+        return "F" + floor + "-R" + String.format("%03d", spot);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyLot() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            Floor floor = new Floor(f);
+            for (int i = 1; i <= SPOTS_PER_FLOOR; i++) {
+                floor.addSpot(new ParkingSpot(spotId(f, i), SpotType.REGULAR, f));
+            }
+            floors.add(floor);
+        }
+        lot = new ParkingLot("bench", "bench", floors);
+    }
+
+    @Benchmark
+    public ParkingLot replayJournal() throws IOException {
+        lot.restore(MappedTicketJournal.recover(journalDir).getOpenEntries());
+        return lot;
+    }
+
+    @Benchmark
+    public ParkingLot replaySnapshot() throws IOException {
+        lot.restore(MappedTicketJournal.recover(snapshotDir).getOpenEntries());
+        return lot;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournals() throws IOException {
+        for (Path dir : List.of(journalDir, snapshotDir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
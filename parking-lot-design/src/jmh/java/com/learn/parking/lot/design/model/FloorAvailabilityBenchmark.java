@@ -0,0 +1,91 @@
+package com.learn.parking.lot.design.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitmap free-spot index vs. the old linear scans on a 50k-spot floor (20/70/6/4 mix, like the
+ * demo garage). The *LinearScan methods replay what Floor did before the bitmap: walk the spot
+ * list for the first free spot, or stream-count the free ones.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=FloorAvailabilityBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloorAvailabilityBenchmark {
+
+    private static final int SPOTS = 50_000;
+
+    // share of REGULAR spots already taken
+    @Param({"0.0", "0.9", "0.999"})
+    double fill;
+
+    private Floor floor;
+    private List<ParkingSpot> regularSpots;
+    private Car car;
+
+    @Setup
+    public void setUp() {
+        floor = new Floor(1);
+        addSpots(SpotType.COMPACT, SPOTS * 20 / 100);
+        addSpots(SpotType.REGULAR, SPOTS * 70 / 100);
+        addSpots(SpotType.LARGE, SPOTS * 6 / 100);
+        addSpots(SpotType.HANDICAPPED, SPOTS * 4 / 100);
+
+        regularSpots = floor.getSpotsByType().get(SpotType.REGULAR);
+        int parked = (int) (regularSpots.size() * fill);
+        for (int i = 0; i < parked; i++) {
+            floor.findAndAssignSpot(new Car("FILL-" + i));
+        }
+        car = new Car("BENCH-1");
+    }
+
+    private void addSpots(SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F1-" + type.name().charAt(0) + i, type, 1));
+        }
+    }
+
+    @Benchmark
+    public int availableCount() {
+        return floor.getAvailableSpotCount(SpotType.REGULAR);
+    }
+
+    @Benchmark
+    public int availableCountLinearScan() {
+        return (int) regularSpots.stream().filter(spot -> !spot.isOccupied()).count();
+    }
+
+    @Benchmark
+    public ParkingSpot assignAndRelease() {
+        ParkingSpot spot = floor.findAndAssignSpot(car);
+        floor.releaseSpot(spot);
+        return spot;
+    }
+
+    @Benchmark
+    public ParkingSpot assignAndReleaseLinearScan() {
+        for (ParkingSpot spot : regularSpots) {
+            if (!spot.isOccupied() && spot.assignVehicle(car)) {
+                spot.removeVehicle();
+                return spot;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.learn.parking.lot.design.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gates racing for spots on one shared 10k-spot floor (20/70/6/4 mix): each operation parks a
+ * car with Floor.findAndAssignSpot and frees the spot again, so the fill level holds. Runs at
+ * 1, 4, 16 and 64 threads against an empty, 90% and 99% full floor (share of the REGULAR and
+ * LARGE spots a car can use), reporting throughput and the latency distribution. Near full, a
+ * car may find nothing free while other gates hold the last spots; that counts as an operation.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=FloorContentionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class FloorContentionBenchmark {
+
+    private static final int SPOTS = 10_000;
+
+    @Param({"0.0", "0.9", "0.99"})
+    double fill;
+
+    private Floor floor;
+
+    @State(Scope.Thread)
+    public static class Gate {
+        private static final AtomicInteger GATES = new AtomicInteger();
+
+        Car car;
+
+        @Setup
+        public void setUp() {
+            car = new Car("GATE-" + GATES.incrementAndGet());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        floor = new Floor(1);
+        addSpots(SpotType.COMPACT, SPOTS * 20 / 100);
+        addSpots(SpotType.REGULAR, SPOTS * 70 / 100);
+        addSpots(SpotType.LARGE, SPOTS * 6 / 100);
+        addSpots(SpotType.HANDICAPPED, SPOTS * 4 / 100);
+
+        int usable = floor.getTotalSpotCount(SpotType.REGULAR) + floor.getTotalSpotCount(SpotType.LARGE);
+        int parked = (int) (usable * fill);
+        for (int i = 0; i < parked; i++) {
+            floor.findAndAssignSpot(new Car("FILL-" + i));
+        }
+    }
+
+    private void addSpots(SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F1-" + type.name().charAt(0) + i, type, 1));
+        }
+    }
+
+    private ParkingSpot assignAndRelease(Gate gate) {
+        ParkingSpot spot = floor.findAndAssignSpot(gate.car);
+        if (spot != null) {
+            floor.releaseSpot(spot);
+        }
+        return spot;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ParkingSpot threads01(Gate gate) {
+        return assignAndRelease(gate);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ParkingSpot threads04(Gate gate) {
+        return assignAndRelease(gate);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ParkingSpot threads16(Gate gate) {
+        return assignAndRelease(gate);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ParkingSpot threads64(Gate gate) {
+        return assignAndRelease(gate);
+    }
+}
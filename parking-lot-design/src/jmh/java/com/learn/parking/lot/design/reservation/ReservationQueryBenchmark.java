@@ -0,0 +1,85 @@
+package com.learn.parking.lot.design.reservation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.VehicleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation lookups on a 10-floor, 2000-REGULAR-spot lot with 0 or 100k bookings of 1-4 hours
+ * spread over the next 30 days. findFreeSpot answers "any REGULAR spot free for this 4-hour
+ * window"; reserveAndCancel books the first free spot for the window and gives it back.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=ReservationQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationQueryBenchmark {
+
+    private static final int FLOORS = 10;
+    private static final int SPOTS_PER_FLOOR = 200;
+    private static final int WINDOWS = 1024;
+
+    @Param({"0", "100000"})
+    int reservations;
+
+    private ReservationBook book;
+    private LocalDateTime now;
+    private final LocalDateTime[] windowStarts = new LocalDateTime[WINDOWS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            Floor floor = new Floor(f);
+            for (int i = 0; i < SPOTS_PER_FLOOR; i++) {
+                floor.addSpot(new ParkingSpot("F" + f + "-R" + i, SpotType.REGULAR, f));
+            }
+            floors.add(floor);
+        }
+        book = new ReservationBook(floors, () -> { });
+        now = LocalDateTime.of(2026, 1, 5, 0, 0);
+        Random random = new Random(42);
+        for (int i = 0; i < reservations; i++) {
+            LocalDateTime start = now.plusDays(1).plusMinutes(random.nextInt(29 * 24 * 60));
+            book.reserve("B-" + i, VehicleType.CAR, start, start.plusMinutes(60 + random.nextInt(180)), now);
+        }
+        for (int i = 0; i < WINDOWS; i++) {
+            windowStarts[i] = now.plusDays(1).plusMinutes(random.nextInt(29 * 24 * 60));
+        }
+    }
+
+    @Benchmark
+    public ParkingSpot findFreeSpot() {
+        LocalDateTime start = windowStarts[next++ & (WINDOWS - 1)];
+        return book.findFreeSpot(SpotType.REGULAR, start, start.plusHours(4), now);
+    }
+
+    @Benchmark
+    public Reservation reserveAndCancel() {
+        LocalDateTime start = windowStarts[next++ & (WINDOWS - 1)];
+        Reservation reservation = book.reserve("BENCH", VehicleType.CAR, start, start.plusHours(4), now);
+        return book.cancel(reservation.getReservationId());
+    }
+}
@@ -0,0 +1,112 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.journal.MappedTicketJournal;
+import com.learn.parking.lot.design.journal.TicketJournal;
+import com.learn.parking.lot.design.model.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A 2000-vehicle arrival wave (20% motorcycles, 10% trucks) into an empty 10-floor lot, parked
+ * one issueTicket call at a time vs. one issueTickets batch. With journal=fsync every entry is
+ * made durable before the call returns, so the sequential run pays one flush per vehicle.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=BulkEntryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+@Fork(1)
+public class BulkEntryBenchmark {
+
+    private static final int FLOORS = 10;
+    private static final int WAVE = 2000;
+
+    @Param({"none", "fsync"})
+    String journal;
+
+    private Path journalDir;
+    private ParkingLot lot;
+    private List<Vehicle> wave;
+
+    @Setup(Level.Invocation)
+    public void newLot() throws IOException {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            Floor floor = new Floor(f);
+            addSpots(floor, SpotType.COMPACT, 60);
+            addSpots(floor, SpotType.REGULAR, 200);
+            addSpots(floor, SpotType.LARGE, 30);
+            addSpots(floor, SpotType.HANDICAPPED, 10);
+            floors.add(floor);
+        }
+        TicketJournal ticketJournal = TicketJournal.NONE;
+        if ("fsync".equals(journal)) {
+            journalDir = Files.createTempDirectory("bulk-entry");
+            ticketJournal = MappedTicketJournal.open(journalDir, 4 << 20, true, Long.MAX_VALUE);
+        }
+        lot = new ParkingLot("bench", "Bench Garage", floors, ticketJournal);
+
+        wave = new ArrayList<>(WAVE);
+        for (int i = 0; i < WAVE; i++) {
+            wave.add(switch (i % 10) {
+                case 0, 5 -> new Motorcycle("M-" + i);
+                case 7 -> new Truck("T-" + i);
+                default -> new Car("C-" + i);
+            });
+        }
+    }
+
+    private static void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + i, type, floor.getFloorNumber()));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLot() throws IOException {
+        lot.getJournal().close();
+        if (journalDir != null) {
+            try (Stream<Path> files = Files.walk(journalDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            journalDir = null;
+        }
+    }
+
+    @Benchmark
+    public int sequentialEntries() {
+        int parked = 0;
+        for (Vehicle vehicle : wave) {
+            lot.issueTicket(vehicle);
+            parked++;
+        }
+        return parked;
+    }
+
+    @Benchmark
+    public List<EntryResult> batchEntry() {
+        return lot.issueTickets(wave);
+    }
+}
@@ -0,0 +1,120 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.model.*;
+import com.learn.parking.lot.design.payment.CashPayment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full gate cycles on one shared 10-floor lot without a journal: each operation is
+ * ParkingLot.issueTicket for a car and processExit paying cash, so plate index, ticket map,
+ * availability snapshot, stats and payment executor are all in the path. Runs at 1, 4, 16 and
+ * 64 threads against an empty, 90% and 99% full lot (share of the REGULAR and LARGE spots),
+ * reporting throughput and the latency distribution. A "lot full" rejection near full counts as
+ * an operation. Run with {@code ./gradlew jmh -PjmhIncludes=GateContentionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class GateContentionBenchmark {
+
+    private static final int FLOORS = 10;
+
+    @Param({"0.0", "0.9", "0.99"})
+    double fill;
+
+    private ParkingLot lot;
+
+    @State(Scope.Thread)
+    public static class Gate {
+        private static final AtomicInteger GATES = new AtomicInteger();
+
+        Car car;
+        // covers any stay the benchmark can produce
+        final CashPayment cash = new CashPayment(1_000);
+
+        @Setup
+        public void setUp() {
+            car = new Car("GATE-" + GATES.incrementAndGet());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= FLOORS; f++) {
+            Floor floor = new Floor(f);
+            addSpots(floor, SpotType.COMPACT, 60);
+            addSpots(floor, SpotType.REGULAR, 200);
+            addSpots(floor, SpotType.LARGE, 30);
+            addSpots(floor, SpotType.HANDICAPPED, 10);
+            floors.add(floor);
+        }
+        lot = new ParkingLot("bench", "Bench", floors);
+
+        int usable = FLOORS * (200 + 30);
+        List<Vehicle> parked = new ArrayList<>();
+        for (int i = 0; i < (int) (usable * fill); i++) {
+            parked.add(new Car("FILL-" + i));
+        }
+        lot.issueTickets(parked);
+    }
+
+    private static void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + i, type, floor.getFloorNumber()));
+        }
+    }
+
+    private Receipt parkAndLeave(Gate gate) {
+        ParkingTicket ticket;
+        try {
+            ticket = lot.issueTicket(gate.car);
+        } catch (RuntimeException full) {
+            return null;
+        }
+        return lot.processExit(ticket.getTicketId(), gate.cash);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Receipt threads01(Gate gate) {
+        return parkAndLeave(gate);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Receipt threads04(Gate gate) {
+        return parkAndLeave(gate);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Receipt threads16(Gate gate) {
+        return parkAndLeave(gate);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Receipt threads64(Gate gate) {
+        return parkAndLeave(gate);
+    }
+}
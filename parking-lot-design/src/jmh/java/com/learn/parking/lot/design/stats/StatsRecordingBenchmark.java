@@ -0,0 +1,68 @@
+package com.learn.parking.lot.design.stats;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.VehicleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the stats cost a gate: one occupancy sample plus one stay-length sample, as recorded on
+ * every exit, on a 10-floor lot. snapshot60 is the /stats read of the last hour.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=StatsRecordingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsRecordingBenchmark {
+
+    private ParkingStats stats;
+    private ParkingSpot spot;
+    private final LocalDateTime entry = LocalDateTime.of(2026, 1, 5, 8, 0);
+    private final LocalDateTime exit = LocalDateTime.of(2026, 1, 5, 11, 37);
+
+    @Setup
+    public void setUp() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= 10; f++) {
+            Floor floor = new Floor(f);
+            for (int i = 0; i < 300; i++) {
+                floor.addSpot(new ParkingSpot("F" + f + "-R" + i, SpotType.REGULAR, f));
+            }
+            floors.add(floor);
+        }
+        Clock clock = Clock.systemDefaultZone();
+        stats = new ParkingStats(floors, ParkingStats.DEFAULT_OCCUPANCY_MINUTES, () -> clock);
+        spot = floors.get(9).getSpotsByType().get(SpotType.REGULAR).get(0);
+    }
+
+    @Benchmark
+    public void recordExit() {
+        stats.recordOccupancy(spot);
+        stats.recordStay(VehicleType.CAR, entry, exit);
+    }
+
+    @Benchmark
+    public Map<String, Object> snapshot60() {
+        return stats.snapshot(60);
+    }
+}
@@ -0,0 +1,24 @@
+package com.learn.parking.lot.design.allocation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.Vehicle;
+
+import java.util.List;
+
+// Smallest fitting spot type anywhere in the lot before any larger one, so cars don't use up LARGE spots trucks need
+public class BestFitStrategy implements SpotAllocationStrategy {
+    @Override
+    public ParkingSpot allocate(List<Floor> floors, Vehicle vehicle) {
+        for (SpotType type : vehicle.getRequiredSpotType().fallbackOrder()) {
+            for (Floor floor : floors) {
+                ParkingSpot spot = floor.assignSpotOfType(type, vehicle, false);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+}
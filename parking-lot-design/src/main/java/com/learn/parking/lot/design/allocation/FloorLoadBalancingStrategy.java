@@ -0,0 +1,83 @@
+package com.learn.parking.lot.design.allocation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Best-fit by spot type, then the floor with the largest free share of that type, so traffic
+ * spreads over all floors instead of piling onto floor 1. Free shares come from the floors'
+ * O(1) counters; if the chosen floor loses the race for its last spot, the next-best floor is tried.
+ */
+public class FloorLoadBalancingStrategy implements SpotAllocationStrategy {
+    @Override
+    public ParkingSpot allocate(List<Floor> floors, Vehicle vehicle) {
+        for (SpotType type : vehicle.getRequiredSpotType().fallbackOrder()) {
+            boolean[] tried = new boolean[floors.size()];
+            while (true) {
+                int best = -1;
+                double bestFreeShare = 0;
+                for (int i = 0; i < floors.size(); i++) {
+                    Floor floor = floors.get(i);
+                    int total = floor.getTotalSpotCount(type);
+                    if (tried[i] || total == 0) {
+                        continue;
+                    }
+                    double freeShare = (double) floor.getAvailableSpotCount(type) / total;
+                    if (freeShare > bestFreeShare) {
+                        best = i;
+                        bestFreeShare = freeShare;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                ParkingSpot spot = floors.get(best).assignSpotOfType(type, vehicle, false);
+                if (spot != null) {
+                    return spot;
+                }
+                tried[best] = true;
+            }
+        }
+        return null;
+    }
+
+    // Claims runs of free spots a floor at a time, largest free share first, instead of one search per vehicle
+    @Override
+    public int allocateAll(List<Floor> floors, List<Vehicle> vehicles, ParkingSpot[] spots) {
+        int assigned = 0;
+        for (SpotType type : vehicles.get(0).getRequiredSpotType().fallbackOrder()) {
+            for (Floor floor : floorsByFreeShare(floors, type)) {
+                if (assigned == spots.length) {
+                    return assigned;
+                }
+                assigned += floor.assignSpotsOfType(type, vehicles, assigned, spots.length, spots);
+            }
+        }
+        return assigned;
+    }
+
+    // Shares are read once up front: they move under concurrent gates, which would upset the sort
+    private static List<Floor> floorsByFreeShare(List<Floor> floors, SpotType type) {
+        double[] freeShare = new double[floors.size()];
+        List<Integer> ordered = new ArrayList<>(floors.size());
+        for (int i = 0; i < floors.size(); i++) {
+            int total = floors.get(i).getTotalSpotCount(type);
+            if (total > 0) {
+                freeShare[i] = (double) floors.get(i).getAvailableSpotCount(type) / total;
+                ordered.add(i);
+            }
+        }
+        ordered.sort(Comparator.comparingDouble((Integer i) -> freeShare[i]).reversed());
+        List<Floor> result = new ArrayList<>(ordered.size());
+        for (int i : ordered) {
+            result.add(floors.get(i));
+        }
+        return result;
+    }
+}
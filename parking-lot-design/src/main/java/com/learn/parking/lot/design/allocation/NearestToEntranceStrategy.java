@@ -0,0 +1,24 @@
+package com.learn.parking.lot.design.allocation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.Vehicle;
+
+import java.util.List;
+
+// Lowest floor first, and on each floor the lowest-numbered free spot, trying larger types before going up
+public class NearestToEntranceStrategy implements SpotAllocationStrategy {
+    @Override
+    public ParkingSpot allocate(List<Floor> floors, Vehicle vehicle) {
+        for (Floor floor : floors) {
+            for (SpotType type : vehicle.getRequiredSpotType().fallbackOrder()) {
+                ParkingSpot spot = floor.assignSpotOfType(type, vehicle, true);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.learn.parking.lot.design.allocation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.Vehicle;
+
+import java.util.List;
+
+/**
+ * Decides which floor and spot type a vehicle gets. Implementations only pick candidates from the
+ * floors' O(1) free counters; claiming a spot goes through {@link Floor#assignSpotOfType}, which is
+ * lock-free and never scans spots. A claim is not O(1), though: it reads one bitmap summary word
+ * per 4096 spots of the candidate type until it finds a word with a free bit, and retries its CAS
+ * when another gate takes the same bit first. Chosen per lot with {@code parking.lots[].allocation}.
+ */
+public interface SpotAllocationStrategy {
+    // Returns the assigned spot, or null if no compatible spot is free
+    ParkingSpot allocate(List<Floor> floors, Vehicle vehicle);
+
+    /**
+     * Parks a batch of vehicles that all need the same spot type: spots[i] receives the spot of
+     * vehicles.get(i), or stays null if none is free. Returns how many were parked. By default
+     * each vehicle goes through {@link #allocate}; a strategy can claim runs of spots instead.
+     */
+    default int allocateAll(List<Floor> floors, List<Vehicle> vehicles, ParkingSpot[] spots) {
+        int assigned = 0;
+        for (int i = 0; i < vehicles.size(); i++) {
+            spots[i] = allocate(floors, vehicles.get(i));
+            if (spots[i] != null) {
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+}
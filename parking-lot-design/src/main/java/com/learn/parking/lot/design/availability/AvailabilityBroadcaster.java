@@ -0,0 +1,206 @@
+package com.learn.parking.lot.design.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes availability snapshots to display boards over server-sent events. A single ticker checks
+ * the published version at most {@code parking.availability.max-updates-per-second} times a
+ * second per lot, so a burst of entries collapses into one event, and each new version is
+ * serialized once no matter how many boards are connected. Boards subscribe to one lot.
+ *
+ * <p>The ticker never writes to a socket. It drops the new version into each board's one-slot
+ * mailbox and, if that board has no send in flight, starts one on a virtual thread. A board whose
+ * client reads slowly therefore only delays itself, and while it is busy newer versions overwrite
+ * the mailbox, so it skips straight to the latest state instead of queueing every update.
+ */
+@Component
+public class AvailabilityBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+    private static final long STREAM_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30); // EventSource reconnects on its own
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, LotStream> streams = new LinkedHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("availability-send-", 0).factory());
+    private final AtomicLong boardIds = new AtomicLong();
+
+    public AvailabilityBroadcaster(ParkingLotRegistry registry, ObjectMapper objectMapper,
+                                   @Value("${parking.availability.max-updates-per-second:4}") int maxUpdatesPerSecond) {
+        if (maxUpdatesPerSecond <= 0) {
+            throw new IllegalArgumentException("parking.availability.max-updates-per-second must be positive");
+        }
+        this.objectMapper = objectMapper;
+        for (ParkingLot lot : registry.getLots()) {
+            streams.put(lot.getLotId(), new LotStream(lot));
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("availability-sse").daemon().factory());
+        long periodMicros = 1_000_000L / maxUpdatesPerSecond;
+        ticker.scheduleAtFixedRate(this::broadcast, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public SseEmitter subscribe(ParkingLot lot) {
+        LotStream stream = streams.get(lot.getLotId());
+        Board board = new Board(boardIds.incrementAndGet(), stream, new SseEmitter(STREAM_TIMEOUT_MS), senders);
+        board.emitter.onCompletion(() -> stream.boards.remove(board));
+        board.emitter.onTimeout(() -> stream.boards.remove(board));
+        board.emitter.onError(e -> stream.boards.remove(board));
+        stream.boards.add(board);
+        // A new board sees the current state right away instead of waiting for the next change
+        AvailabilitySnapshot snapshot = lot.getAvailabilitySnapshot();
+        board.offer(snapshot.getVersion(), serialize(snapshot));
+        return board.emitter;
+    }
+
+    private void broadcast() {
+        for (LotStream stream : streams.values()) {
+            try {
+                stream.broadcast();
+            } catch (RuntimeException e) {
+                // Logged and swallowed: an exception would cancel the periodic task and silence every board
+                log.warn("Broadcasting availability of lot {} failed", stream.lot.getLotId(), e);
+            }
+        }
+    }
+
+    private String serialize(AvailabilitySnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize availability snapshot", e);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return streams.values().stream().mapToInt(stream -> stream.boards.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (LotStream stream : streams.values()) {
+            for (Board board : stream.boards) {
+                board.emitter.complete();
+            }
+        }
+    }
+
+    private final class LotStream {
+        private final ParkingLot lot;
+        private final List<Board> boards = new CopyOnWriteArrayList<>();
+        private long lastBroadcastVersion = -1;
+
+        LotStream(ParkingLot lot) {
+            this.lot = lot;
+        }
+
+        void broadcast() {
+            AvailabilitySnapshot snapshot = lot.getAvailabilitySnapshot();
+            if (snapshot.getVersion() == lastBroadcastVersion || boards.isEmpty()) {
+                return;
+            }
+            lastBroadcastVersion = snapshot.getVersion();
+            String json = serialize(snapshot);
+            for (Board board : boards) {
+                board.offer(snapshot.getVersion(), json);
+            }
+        }
+    }
+
+    private record Update(long version, String json) {}
+
+    // Sends run one at a time per board, off the ticker; versions keep each board moving forward only
+    private static final class Board {
+        private final long id;
+        private final LotStream stream;
+        private final SseEmitter emitter;
+        private final ExecutorService senders;
+        // latest update not yet sent; a newer one replaces it
+        private final AtomicReference<Update> mailbox = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private long lastVersion = -1;
+
+        Board(long id, LotStream stream, SseEmitter emitter, ExecutorService senders) {
+            this.id = id;
+            this.stream = stream;
+            this.emitter = emitter;
+            this.senders = senders;
+        }
+
+        void offer(long version, String json) {
+            mailbox.set(new Update(version, json));
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // shutting down
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Update update;
+                while ((update = mailbox.getAndSet(null)) != null) {
+                    if (!send(update)) {
+                        return;
+                    }
+                }
+                sending.set(false);
+                // an offer that lost the race with the reset above left an update with no sender
+            } while (mailbox.get() != null && sending.compareAndSet(false, true));
+        }
+
+        private boolean send(Update update) {
+            if (update.version() <= lastVersion) {
+                return true;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(update.version()))
+                        .name("availability")
+                        .data(update.json(), MediaType.APPLICATION_JSON));
+                lastVersion = update.version();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already ended
+                log.debug("Dropping availability board {} of lot {}: {}", id, stream.lot.getLotId(), e.toString());
+                drop(e);
+                return false;
+            } catch (RuntimeException e) {
+                log.warn("Dropping availability board {} of lot {} after a failed send", id, stream.lot.getLotId(), e);
+                drop(e);
+                return false;
+            }
+        }
+
+        private void drop(Exception cause) {
+            stream.boards.remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.learn.parking.lot.design.availability;
+
+import com.learn.parking.lot.design.model.Floor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+/**
+ * Publishes a fresh {@link AvailabilitySnapshot} after every allocation and release. Readers just
+ * read the reference, so polling boards never lock or walk the ticket map.
+ *
+ * <p>Each change takes a version number before reading the counters, so a snapshot reflects at
+ * least every change numbered up to its version. Concurrent publishers can finish out of order;
+ * the reference only moves forward, so an older snapshot never replaces a newer one.
+ */
+public class AvailabilityPublisher {
+    private final List<Floor> floors;
+    private final IntSupplier activeTickets;
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<AvailabilitySnapshot> current;
+
+    public AvailabilityPublisher(List<Floor> floors, IntSupplier activeTickets) {
+        this.floors = floors;
+        this.activeTickets = activeTickets;
+        this.current = new AtomicReference<>(AvailabilitySnapshot.capture(0, floors, activeTickets.getAsInt()));
+    }
+
+    public void publish() {
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.capture(versions.incrementAndGet(), floors, activeTickets.getAsInt());
+        current.accumulateAndGet(snapshot, (old, fresh) -> fresh.getVersion() > old.getVersion() ? fresh : old);
+    }
+
+    public AvailabilitySnapshot current() {
+        return current.get();
+    }
+}
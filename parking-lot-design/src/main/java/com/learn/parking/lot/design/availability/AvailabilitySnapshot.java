@@ -0,0 +1,68 @@
+package com.learn.parking.lot.design.availability;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.SpotType;
+
+import java.util.*;
+
+/**
+ * Immutable free-spot counts per floor and spot type, as of one version. Versions only grow, so a
+ * reader holding two snapshots can tell which is newer, and a board can skip what it already shows.
+ */
+public final class AvailabilitySnapshot {
+    private final long version;
+    private final long timestamp;
+    private final int activeTickets;
+    private final Map<SpotType, Integer> availability;
+    private final List<FloorAvailability> floors;
+
+    private AvailabilitySnapshot(long version, long timestamp, int activeTickets,
+                                 Map<SpotType, Integer> availability, List<FloorAvailability> floors) {
+        this.version = version;
+        this.timestamp = timestamp;
+        this.activeTickets = activeTickets;
+        this.availability = availability;
+        this.floors = floors;
+    }
+
+    // Reads the floors' O(1) free counters; never touches individual spots
+    static AvailabilitySnapshot capture(long version, List<Floor> floors, int activeTickets) {
+        EnumMap<SpotType, Integer> totals = new EnumMap<>(SpotType.class);
+        List<FloorAvailability> perFloor = new ArrayList<>(floors.size());
+        for (SpotType type : SpotType.values()) {
+            totals.put(type, 0);
+        }
+        for (Floor floor : floors) {
+            EnumMap<SpotType, Integer> available = new EnumMap<>(SpotType.class);
+            for (SpotType type : SpotType.values()) {
+                int count = floor.getAvailableSpotCount(type);
+                available.put(type, count);
+                totals.merge(type, count, Integer::sum);
+            }
+            perFloor.add(new FloorAvailability(floor.getFloorNumber(), Collections.unmodifiableMap(available)));
+        }
+        return new AvailabilitySnapshot(version, System.currentTimeMillis(), activeTickets,
+                Collections.unmodifiableMap(totals), Collections.unmodifiableList(perFloor));
+    }
+
+    public static final class FloorAvailability {
+        private final int floorNumber;
+        private final Map<SpotType, Integer> available;
+
+        FloorAvailability(int floorNumber, Map<SpotType, Integer> available) {
+            this.floorNumber = floorNumber;
+            this.available = available;
+        }
+
+        // Getters
+        public int getFloorNumber() { return floorNumber; }
+        public Map<SpotType, Integer> getAvailable() { return available; }
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public long getTimestamp() { return timestamp; }
+    public int getActiveTickets() { return activeTickets; }
+    public Map<SpotType, Integer> getAvailability() { return availability; }
+    public List<FloorAvailability> getFloors() { return floors; }
+}
@@ -0,0 +1,176 @@
+package com.learn.parking.lot.design.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Garage layouts, bound from {@code parking.*}. The shipped layouts live in
+ * {@code parking-lots.yml}; point {@code spring.config.import} at another YAML file (or a JSON
+ * one, with a {@code [.yaml]} hint) to run a different set of garages.
+ */
+@ConfigurationProperties("parking")
+public class ParkingLotProperties {
+    // Lot served by the unscoped /api/parking and /api/demo endpoints
+    private String defaultLot;
+    private List<Lot> lots = new ArrayList<>();
+    private Journal journal = new Journal();
+    private Payments payments = new Payments();
+    private Reservations reservations = new Reservations();
+    private Stats stats = new Stats();
+    private Map<String, TariffProperties> tariffs = new LinkedHashMap<>();
+
+    public static class Lot {
+        private String id;
+        private String name;
+        // Name of an entry under parking.tariffs
+        private String tariff = "standard";
+        // load-balanced, best-fit or nearest-to-entrance
+        private String allocation = "load-balanced";
+        private List<FloorLayout> floors = new ArrayList<>();
+
+        // Getters and setters
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getTariff() { return tariff; }
+        public void setTariff(String tariff) { this.tariff = tariff; }
+        public String getAllocation() { return allocation; }
+        public void setAllocation(String allocation) { this.allocation = allocation; }
+        public List<FloorLayout> getFloors() { return floors; }
+        public void setFloors(List<FloorLayout> floors) { this.floors = floors; }
+    }
+
+    // Spot counts per type for one floor; repeat stacks identical floors
+    public static class FloorLayout {
+        private int repeat = 1;
+        private int compact;
+        private int regular;
+        private int large;
+        private int handicapped;
+
+        // Getters and setters
+        public int getRepeat() { return repeat; }
+        public void setRepeat(int repeat) { this.repeat = repeat; }
+        public int getCompact() { return compact; }
+        public void setCompact(int compact) { this.compact = compact; }
+        public int getRegular() { return regular; }
+        public void setRegular(int regular) { this.regular = regular; }
+        public int getLarge() { return large; }
+        public void setLarge(int large) { this.large = large; }
+        public int getHandicapped() { return handicapped; }
+        public void setHandicapped(int handicapped) { this.handicapped = handicapped; }
+    }
+
+    // Write-ahead journal; each lot gets its own subdirectory named after its id
+    public static class Journal {
+        private boolean enabled = true;
+        private String dir = "data/journal";
+        // wait for fsync before a gate gets its ticket or receipt
+        private boolean fsync = true;
+        private int segmentSizeMb = 64;
+        private long snapshotEveryRecords = 100_000;
+
+        // Getters and setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+        public boolean isFsync() { return fsync; }
+        public void setFsync(boolean fsync) { this.fsync = fsync; }
+        public int getSegmentSizeMb() { return segmentSizeMb; }
+        public void setSegmentSizeMb(int segmentSizeMb) { this.segmentSizeMb = segmentSizeMb; }
+        public long getSnapshotEveryRecords() { return snapshotEveryRecords; }
+        public void setSnapshotEveryRecords(long snapshotEveryRecords) { this.snapshotEveryRecords = snapshotEveryRecords; }
+    }
+
+    // Exit payments; the stub gateway stands in for a real card processor
+    public static class Payments {
+        // per PaymentMethod name (CASH, CREDIT_CARD); methods not listed wait 5 seconds
+        private Map<String, Duration> timeouts = new LinkedHashMap<>();
+        // how long a repeated exit request with the same idempotency key gets the first receipt back
+        private Duration idempotencyRetention = Duration.ofHours(24);
+        private StubGateway stubGateway = new StubGateway();
+
+        // Getters and setters
+        public Map<String, Duration> getTimeouts() { return timeouts; }
+        public void setTimeouts(Map<String, Duration> timeouts) { this.timeouts = timeouts; }
+        public Duration getIdempotencyRetention() { return idempotencyRetention; }
+        public void setIdempotencyRetention(Duration idempotencyRetention) { this.idempotencyRetention = idempotencyRetention; }
+        public StubGateway getStubGateway() { return stubGateway; }
+        public void setStubGateway(StubGateway stubGateway) { this.stubGateway = stubGateway; }
+    }
+
+    public static class StubGateway {
+        private long minLatencyMs = 50;
+        private long maxLatencyMs = 300;
+        private double declineRate = 0.0;
+        // share of charges that take slowLatencyMs, to exercise the payment timeout
+        private double slowRate = 0.0;
+        private long slowLatencyMs = 10_000;
+
+        // Getters and setters
+        public long getMinLatencyMs() { return minLatencyMs; }
+        public void setMinLatencyMs(long minLatencyMs) { this.minLatencyMs = minLatencyMs; }
+        public long getMaxLatencyMs() { return maxLatencyMs; }
+        public void setMaxLatencyMs(long maxLatencyMs) { this.maxLatencyMs = maxLatencyMs; }
+        public double getDeclineRate() { return declineRate; }
+        public void setDeclineRate(double declineRate) { this.declineRate = declineRate; }
+        public double getSlowRate() { return slowRate; }
+        public void setSlowRate(double slowRate) { this.slowRate = slowRate; }
+        public long getSlowLatencyMs() { return slowLatencyMs; }
+        public void setSlowLatencyMs(long slowLatencyMs) { this.slowLatencyMs = slowLatencyMs; }
+    }
+
+    // Time-window reservations
+    public static class Reservations {
+        // how long before its window check-in opens for a reservation
+        private Duration holdBefore = Duration.ofMinutes(60);
+        // a reserved vehicle that has not arrived this long after its window starts loses the spot
+        private Duration noShowGrace = Duration.ofMinutes(30);
+        // walk-ins leave a spot free for each booking whose window starts this soon
+        private Duration walkInHorizon = Duration.ofHours(4);
+        private Duration tick = Duration.ofSeconds(15);
+
+        // Getters and setters
+        public Duration getHoldBefore() { return holdBefore; }
+        public void setHoldBefore(Duration holdBefore) { this.holdBefore = holdBefore; }
+        public Duration getNoShowGrace() { return noShowGrace; }
+        public void setNoShowGrace(Duration noShowGrace) { this.noShowGrace = noShowGrace; }
+        public Duration getWalkInHorizon() { return walkInHorizon; }
+        public void setWalkInHorizon(Duration walkInHorizon) { this.walkInHorizon = walkInHorizon; }
+        public Duration getTick() { return tick; }
+        public void setTick(Duration tick) { this.tick = tick; }
+    }
+
+    // Occupancy time series and stay-length histograms served by /stats
+    public static class Stats {
+        // length of the per-minute occupancy ring buffers
+        private int occupancyMinutes = 24 * 60;
+
+        // Getters and setters
+        public int getOccupancyMinutes() { return occupancyMinutes; }
+        public void setOccupancyMinutes(int occupancyMinutes) { this.occupancyMinutes = occupancyMinutes; }
+    }
+
+    // Getters and setters
+    public String getDefaultLot() { return defaultLot; }
+    public void setDefaultLot(String defaultLot) { this.defaultLot = defaultLot; }
+    public List<Lot> getLots() { return lots; }
+    public void setLots(List<Lot> lots) { this.lots = lots; }
+    public Journal getJournal() { return journal; }
+    public void setJournal(Journal journal) { this.journal = journal; }
+    public Payments getPayments() { return payments; }
+    public void setPayments(Payments payments) { this.payments = payments; }
+    public Reservations getReservations() { return reservations; }
+    public void setReservations(Reservations reservations) { this.reservations = reservations; }
+    public Stats getStats() { return stats; }
+    public void setStats(Stats stats) { this.stats = stats; }
+    public Map<String, TariffProperties> getTariffs() { return tariffs; }
+    public void setTariffs(Map<String, TariffProperties> tariffs) { this.tariffs = tariffs; }
+}
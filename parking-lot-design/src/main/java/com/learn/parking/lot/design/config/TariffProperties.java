@@ -0,0 +1,58 @@
+package com.learn.parking.lot.design.config;
+
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One tariff as written in configuration ({@code parking.tariffs.<name>}). All amounts are in
+ * cents; {@code TariffPricingStrategy} compiles this into lookup tables once at startup.
+ */
+public class TariffProperties {
+    // Stays up to this long are free; longer stays are billed per minute from the start
+    private int graceMinutes;
+    private DayRates weekday = new DayRates();
+    // Saturday and Sunday; falls back to the weekday rates when not configured
+    private DayRates weekend;
+
+    public static class DayRates {
+        private Map<VehicleType, Long> hourlyCents = new EnumMap<>(VehicleType.class);
+        // Most a vehicle pays for one calendar day; missing means uncapped
+        private Map<VehicleType, Long> dailyCapCents = new EnumMap<>(VehicleType.class);
+        private List<Band> bands = new ArrayList<>();
+
+        // Getters and setters
+        public Map<VehicleType, Long> getHourlyCents() { return hourlyCents; }
+        public void setHourlyCents(Map<VehicleType, Long> hourlyCents) { this.hourlyCents = hourlyCents; }
+        public Map<VehicleType, Long> getDailyCapCents() { return dailyCapCents; }
+        public void setDailyCapCents(Map<VehicleType, Long> dailyCapCents) { this.dailyCapCents = dailyCapCents; }
+        public List<Band> getBands() { return bands; }
+        public void setBands(List<Band> bands) { this.bands = bands; }
+    }
+
+    // Time-of-day rate override, e.g. from 07:00 to 19:00; to may be 24:00 or wrap past midnight
+    public static class Band {
+        private String from;
+        private String to;
+        private Map<VehicleType, Long> hourlyCents = new EnumMap<>(VehicleType.class);
+
+        // Getters and setters
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+        public String getTo() { return to; }
+        public void setTo(String to) { this.to = to; }
+        public Map<VehicleType, Long> getHourlyCents() { return hourlyCents; }
+        public void setHourlyCents(Map<VehicleType, Long> hourlyCents) { this.hourlyCents = hourlyCents; }
+    }
+
+    // Getters and setters
+    public int getGraceMinutes() { return graceMinutes; }
+    public void setGraceMinutes(int graceMinutes) { this.graceMinutes = graceMinutes; }
+    public DayRates getWeekday() { return weekday; }
+    public void setWeekday(DayRates weekday) { this.weekday = weekday; }
+    public DayRates getWeekend() { return weekend; }
+    public void setWeekend(DayRates weekend) { this.weekend = weekend; }
+}
@@ -2,6 +2,7 @@ package com.learn.parking.lot.design.controller;
 
 import com.learn.parking.lot.design.model.*;
 import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
 import com.learn.parking.lot.design.payment.CashPayment;
 import com.learn.parking.lot.design.payment.CreditCardPayment;
 import org.springframework.web.bind.annotation.*;
@@ -12,7 +13,12 @@ import java.util.*;
 @RequestMapping("/api/demo")
 public class DemoController {
     
-    private final ParkingLot parkingLot = ParkingLot.getInstance();
+    private final ParkingLot parkingLot;
+    
+    // Demo scenarios run against the default lot
+    public DemoController(ParkingLotRegistry registry) {
+        this.parkingLot = registry.getDefaultLot();
+    }
     
     @GetMapping("/scenario1")
     public Map<String, Object> scenario1_CarEntryAndExit() {
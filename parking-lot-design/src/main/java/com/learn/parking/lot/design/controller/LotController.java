@@ -0,0 +1,35 @@
+package com.learn.parking.lot.design.controller;
+
+import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/lots")
+public class LotController {
+    
+    private final ParkingLotRegistry registry;
+    
+    public LotController(ParkingLotRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @GetMapping
+    public List<Map<String, Object>> listLots() {
+        List<Map<String, Object>> lots = new ArrayList<>();
+        for (ParkingLot lot : registry.getLots()) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("lotId", lot.getLotId());
+            summary.put("name", lot.getName());
+            summary.put("floors", lot.getFloors().size());
+            summary.put("default", lot == registry.getDefaultLot());
+            summary.put("availability", lot.getAvailabilitySummary());
+            lots.add(summary);
+        }
+        return lots;
+    }
+}
@@ -1,24 +1,53 @@
 package com.learn.parking.lot.design.controller;
 
+import com.learn.parking.lot.design.availability.AvailabilityBroadcaster;
+import com.learn.parking.lot.design.availability.AvailabilitySnapshot;
 import com.learn.parking.lot.design.model.*;
 import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import com.learn.parking.lot.design.service.UnknownLotException;
 import com.learn.parking.lot.design.payment.CashPayment;
 import com.learn.parking.lot.design.payment.CreditCardPayment;
 import com.learn.parking.lot.design.payment.PaymentMethod;
+import com.learn.parking.lot.design.pricing.PricingStrategy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+// Every endpoint is scoped to one lot; the unscoped /api/parking paths address the default lot
 @RestController
-@RequestMapping("/api/parking")
+@RequestMapping({"/api/lots/{lotId}", "/api/parking"})
 public class ParkingController {
     
-    private final ParkingLot parkingLot = ParkingLot.getInstance();
+    private static final int MAX_QUOTES_PER_BATCH = 10_000;
+    private static final int MAX_ENTRIES_PER_BATCH = 5_000;
+    
+    private final ParkingLotRegistry registry;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    
+    public ParkingController(ParkingLotRegistry registry, AvailabilityBroadcaster availabilityBroadcaster) {
+        this.registry = registry;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+    }
+    
+    private ParkingLot lot(String lotId) {
+        return lotId == null ? registry.getDefaultLot() : registry.getLot(lotId);
+    }
     
     @PostMapping("/entry")
-    public Map<String, Object> vehicleEntry(@RequestBody VehicleEntryRequest request) {
+    public Map<String, Object> vehicleEntry(@PathVariable(required = false) String lotId,
+                                            @RequestBody VehicleEntryRequest request) {
+        ParkingLot parkingLot = lot(lotId);
         try {
             Vehicle vehicle = createVehicle(request.getVehicleType(), request.getLicensePlate());
             ParkingTicket ticket = parkingLot.issueTicket(vehicle);
@@ -36,45 +65,179 @@ public class ParkingController {
         }
     }
     
+    // Event-surge arrivals: one result per vehicle, in request order
+    @PostMapping("/entry/batch")
+    public Map<String, Object> vehicleEntryBatch(@PathVariable(required = false) String lotId,
+                                                 @RequestBody EntryBatchRequest request) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<VehicleEntryRequest> entries = request.getVehicles();
+            if (entries == null || entries.size() > MAX_ENTRIES_PER_BATCH) {
+                throw new IllegalArgumentException("A batch must hold at most " + MAX_ENTRIES_PER_BATCH + " vehicles");
+            }
+            // Malformed entries are rejected in place; the rest are parked together
+            EntryResult[] results = new EntryResult[entries.size()];
+            List<Vehicle> vehicles = new ArrayList<>(entries.size());
+            List<Integer> positions = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                VehicleEntryRequest entry = entries.get(i);
+                try {
+                    vehicles.add(createVehicle(entry.getVehicleType(), entry.getLicensePlate()));
+                    positions.add(i);
+                } catch (RuntimeException e) {
+                    results[i] = EntryResult.rejected(entry.getLicensePlate(), e.getMessage());
+                }
+            }
+            List<EntryResult> issued = parkingLot.issueTickets(vehicles);
+            for (int i = 0; i < issued.size(); i++) {
+                results[positions.get(i)] = issued.get(i);
+            }
+            int parked = 0;
+            for (EntryResult result : results) {
+                if (result.isSuccess()) {
+                    parked++;
+                }
+            }
+            response.put("success", true);
+            response.put("results", results);
+            response.put("parked", parked);
+            response.put("rejected", results.length - parked);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+    
+    // Answered once the payment settles; the servlet thread is released while the gateway works
     @PostMapping("/exit")
-    public Map<String, Object> vehicleExit(@RequestBody VehicleExitRequest request) {
+    public CompletableFuture<Map<String, Object>> vehicleExit(@PathVariable(required = false) String lotId,
+                                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                              @RequestBody VehicleExitRequest request) {
+        ParkingLot parkingLot = lot(lotId);
+        CompletableFuture<Receipt> exit;
         try {
             PaymentMethod paymentMethod = createPaymentMethod(request.getPaymentMethod(), request.getPaymentDetails());
-            Receipt receipt = parkingLot.processExit(request.getTicketId(), paymentMethod);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("receipt", receipt);
-            return response;
+            exit = parkingLot.processExitAsync(request.getTicketId(), paymentMethod, idempotencyKey);
         } catch (Exception e) {
+            exit = CompletableFuture.failedFuture(e);
+        }
+        return exit.handle((receipt, error) -> {
             Map<String, Object> response = new HashMap<>();
+            if (error == null) {
+                response.put("success", true);
+                response.put("receipt", receipt);
+            } else {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                response.put("success", false);
+                response.put("error", cause.getMessage());
+            }
+            return response;
+        });
+    }
+    
+    // Prices hypothetical stays with the lot's tariff; quotes are in cents, in request order
+    @PostMapping("/quote/batch")
+    public Map<String, Object> quoteBatch(@PathVariable(required = false) String lotId,
+                                          @RequestBody QuoteBatchRequest request) {
+        PricingStrategy pricing = lot(lotId).getPricingStrategy();
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<StayQuoteRequest> stays = request.getStays();
+            if (stays == null || stays.size() > MAX_QUOTES_PER_BATCH) {
+                throw new IllegalArgumentException("A batch must hold at most " + MAX_QUOTES_PER_BATCH + " stays");
+            }
+            long[] quotesCents = new long[stays.size()];
+            long totalCents = 0;
+            for (int i = 0; i < quotesCents.length; i++) {
+                StayQuoteRequest stay = stays.get(i);
+                if (stay.getEntryTime() == null || stay.getExitTime() == null || stay.getExitTime().isBefore(stay.getEntryTime())) {
+                    throw new IllegalArgumentException("Stay " + i + " needs an entryTime no later than its exitTime");
+                }
+                VehicleType vehicleType = VehicleType.valueOf(stay.getVehicleType().toUpperCase());
+                quotesCents[i] = pricing.calculatePriceCents(vehicleType, stay.getEntryTime(), stay.getExitTime());
+                totalCents += quotesCents[i];
+            }
+            response.put("success", true);
+            response.put("quotesCents", quotesCents);
+            response.put("totalCents", totalCents);
+        } catch (RuntimeException e) {
             response.put("success", false);
             response.put("error", e.getMessage());
-            return response;
         }
+        return response;
+    }
+    
+    // Lost-ticket lookup by license plate
+    @GetMapping("/tickets")
+    public Map<String, Object> findTicket(@PathVariable(required = false) String lotId,
+                                          @RequestParam String plate) {
+        ParkingTicket ticket = lot(lotId).findTicketByPlate(plate);
+        
+        Map<String, Object> response = new HashMap<>();
+        if (ticket == null) {
+            response.put("success", false);
+            response.put("error", "No parked vehicle with plate " + plate);
+        } else {
+            response.put("success", true);
+            response.put("ticket", ticket);
+        }
+        return response;
     }
     
     @GetMapping("/availability")
-    public Map<String, Object> getAvailability() {
-        Map<SpotType, Integer> availability = parkingLot.getAvailabilitySummary();
-        List<ParkingTicket> activeTickets = parkingLot.getActiveTickets();
+    public Map<String, Object> getAvailability(@PathVariable(required = false) String lotId) {
+        ParkingLot parkingLot = lot(lotId);
+        AvailabilitySnapshot snapshot = parkingLot.getAvailabilitySnapshot();
         
         Map<String, Object> response = new HashMap<>();
-        response.put("availability", availability);
-        response.put("activeTickets", activeTickets.size());
-        response.put("timestamp", System.currentTimeMillis());
+        response.put("lotId", parkingLot.getLotId());
+        response.put("availability", snapshot.getAvailability());
+        response.put("floors", snapshot.getFloors());
+        response.put("activeTickets", snapshot.getActiveTickets());
+        response.put("version", snapshot.getVersion());
+        response.put("timestamp", snapshot.getTimestamp());
         return response;
     }
     
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@PathVariable(required = false) String lotId) {
+        return availabilityBroadcaster.subscribe(lot(lotId));
+    }
+    
     @GetMapping("/status")
-    public Map<String, Object> getParkingLotStatus() {
+    public Map<String, Object> getParkingLotStatus(@PathVariable(required = false) String lotId) {
+        ParkingLot parkingLot = lot(lotId);
         Map<String, Object> status = new HashMap<>();
+        status.put("lotId", parkingLot.getLotId());
+        status.put("name", parkingLot.getName());
         status.put("floors", parkingLot.getFloors().size());
         status.put("availability", parkingLot.getAvailabilitySummary());
         status.put("activeTickets", parkingLot.getActiveTickets());
         return status;
     }
     
+    // Capacity planning: per-minute occupancy over the last minutes, and stay-length percentiles
+    @GetMapping("/stats")
+    public Map<String, Object> getStats(@PathVariable(required = false) String lotId,
+                                        @RequestParam(defaultValue = "60") int minutes) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lotId", parkingLot.getLotId());
+        stats.putAll(parkingLot.getStats().snapshot(minutes));
+        return stats;
+    }
+    
+    @ExceptionHandler(UnknownLotException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> unknownLot(UnknownLotException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        return response;
+    }
+    
     private Vehicle createVehicle(String vehicleType, String licensePlate) {
         switch (vehicleType.toUpperCase()) {
             case "MOTORCYCLE":
@@ -116,6 +279,36 @@ public class ParkingController {
         public void setLicensePlate(String licensePlate) { this.licensePlate = licensePlate; }
     }
     
+    public static class EntryBatchRequest {
+        private List<VehicleEntryRequest> vehicles;
+        
+        // Getters and setters
+        public List<VehicleEntryRequest> getVehicles() { return vehicles; }
+        public void setVehicles(List<VehicleEntryRequest> vehicles) { this.vehicles = vehicles; }
+    }
+    
+    public static class QuoteBatchRequest {
+        private List<StayQuoteRequest> stays;
+        
+        // Getters and setters
+        public List<StayQuoteRequest> getStays() { return stays; }
+        public void setStays(List<StayQuoteRequest> stays) { this.stays = stays; }
+    }
+    
+    public static class StayQuoteRequest {
+        private String vehicleType;
+        private LocalDateTime entryTime;
+        private LocalDateTime exitTime;
+        
+        // Getters and setters
+        public String getVehicleType() { return vehicleType; }
+        public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+        public LocalDateTime getEntryTime() { return entryTime; }
+        public void setEntryTime(LocalDateTime entryTime) { this.entryTime = entryTime; }
+        public LocalDateTime getExitTime() { return exitTime; }
+        public void setExitTime(LocalDateTime exitTime) { this.exitTime = exitTime; }
+    }
+    
     public static class VehicleExitRequest {
         private String ticketId;
         private String paymentMethod;
@@ -0,0 +1,149 @@
+package com.learn.parking.lot.design.controller;
+
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.ParkingTicket;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.VehicleType;
+import com.learn.parking.lot.design.reservation.Reservation;
+import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import com.learn.parking.lot.design.service.UnknownLotException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pre-booked spots; like ParkingController, the unscoped paths address the default lot
+@RestController
+@RequestMapping({"/api/lots/{lotId}/reservations", "/api/parking/reservations"})
+public class ReservationController {
+
+    private final ParkingLotRegistry registry;
+
+    public ReservationController(ParkingLotRegistry registry) {
+        this.registry = registry;
+    }
+
+    private ParkingLot lot(String lotId) {
+        return lotId == null ? registry.getDefaultLot() : registry.getLot(lotId);
+    }
+
+    @PostMapping
+    public Map<String, Object> reserve(@PathVariable(required = false) String lotId,
+                                       @RequestBody ReservationRequest request) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (request.getStartTime() == null || request.getEndTime() == null) {
+                throw new IllegalArgumentException("A reservation needs a startTime and an endTime");
+            }
+            VehicleType vehicleType = VehicleType.valueOf(request.getVehicleType().toUpperCase());
+            Reservation reservation = parkingLot.getReservations().reserve(request.getLicensePlate(), vehicleType,
+                    request.getStartTime(), request.getEndTime(), LocalDateTime.now());
+            response.put("success", true);
+            response.put("reservation", reservation);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    // "Is any REGULAR spot free from 14:00 to 18:00?" without booking it
+    @GetMapping("/availability")
+    public Map<String, Object> findFreeSpot(@PathVariable(required = false) String lotId,
+                                            @RequestParam String spotType,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            SpotType type = SpotType.valueOf(spotType.toUpperCase());
+            ParkingSpot spot = parkingLot.getReservations().findFreeSpot(type, start, end, LocalDateTime.now());
+            response.put("success", true);
+            response.put("available", spot != null);
+            response.put("spotId", spot != null ? spot.getSpotId() : null);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @GetMapping("/{reservationId}")
+    public Map<String, Object> getReservation(@PathVariable(required = false) String lotId,
+                                              @PathVariable String reservationId) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("reservation", parkingLot.getReservations().getReservation(reservationId));
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @DeleteMapping("/{reservationId}")
+    public Map<String, Object> cancel(@PathVariable(required = false) String lotId,
+                                      @PathVariable String reservationId) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("reservation", parkingLot.getReservations().cancel(reservationId));
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    // The reserved vehicle arrives: park it in its held spot
+    @PostMapping("/{reservationId}/check-in")
+    public Map<String, Object> checkIn(@PathVariable(required = false) String lotId,
+                                       @PathVariable String reservationId) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ParkingTicket ticket = parkingLot.checkIn(reservationId);
+            response.put("success", true);
+            response.put("ticket", ticket);
+            response.put("message", "Vehicle parked in its reserved spot");
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        }
+        return response;
+    }
+
+    @ExceptionHandler(UnknownLotException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> unknownLot(UnknownLotException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        return response;
+    }
+
+    public static class ReservationRequest {
+        private String vehicleType;
+        private String licensePlate;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+
+        // Getters and setters
+        public String getVehicleType() { return vehicleType; }
+        public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+        public String getLicensePlate() { return licensePlate; }
+        public void setLicensePlate(String licensePlate) { this.licensePlate = licensePlate; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+        public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    }
+}
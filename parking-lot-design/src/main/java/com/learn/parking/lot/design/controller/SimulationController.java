@@ -0,0 +1,68 @@
+package com.learn.parking.lot.design.controller;
+
+import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import com.learn.parking.lot.design.service.UnknownLotException;
+import com.learn.parking.lot.design.simulation.SimulationSettings;
+import com.learn.parking.lot.design.simulation.TrafficSimulation;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Rush-hour simulation on a private copy of the lot; the live lot is never touched
+@RestController
+@RequestMapping({"/api/lots/{lotId}/simulation", "/api/parking/simulation"})
+public class SimulationController {
+
+    private final ParkingLotRegistry registry;
+    // one run at a time: a run saturates the gates it simulates and skews anything measured beside it
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SimulationController(ParkingLotRegistry registry) {
+        this.registry = registry;
+    }
+
+    private ParkingLot lot(String lotId) {
+        return lotId == null ? registry.getDefaultLot() : registry.getLot(lotId);
+    }
+
+    // Blocks for the run's wall time (simulatedMinutes * 60 / speedup seconds)
+    @PostMapping
+    public Map<String, Object> simulate(@PathVariable(required = false) String lotId,
+                                        @RequestBody(required = false) SimulationSettings settings) {
+        ParkingLot parkingLot = lot(lotId);
+        Map<String, Object> response = new HashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            response.put("success", false);
+            response.put("error", "A simulation is already running");
+            return response;
+        }
+        try {
+            TrafficSimulation simulation = new TrafficSimulation(parkingLot, settings != null ? settings : new SimulationSettings());
+            response.put("success", true);
+            response.put("report", simulation.run());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.put("success", false);
+            response.put("error", "Simulation interrupted");
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return response;
+    }
+
+    @ExceptionHandler(UnknownLotException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, Object> unknownLot(UnknownLotException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", e.getMessage());
+        return response;
+    }
+}
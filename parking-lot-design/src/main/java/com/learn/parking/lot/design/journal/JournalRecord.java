@@ -0,0 +1,127 @@
+package com.learn.parking.lot.design.journal;
+
+import com.learn.parking.lot.design.model.ParkingTicket;
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One gate event in the journal. An ENTRY carries everything needed to re-park the vehicle in the
+ * same spot; an EXIT only names the ticket it closes (the fee is kept for auditing).
+ *
+ * <p>Encoding: type (1 byte), time as UTC epoch millis (8), ticket id; then for ENTRY the vehicle
+ * type (1), plate and spot id, for EXIT the fee (8). Strings are a 2-byte length plus UTF-8.
+ */
+public final class JournalRecord {
+    public enum Type { ENTRY, EXIT }
+
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final Type type;
+    private final String ticketId;
+    private final long timeMillis;
+    private final VehicleType vehicleType;
+    private final String licensePlate;
+    private final String spotId;
+    private final double fee;
+
+    private JournalRecord(Type type, String ticketId, long timeMillis, VehicleType vehicleType,
+                          String licensePlate, String spotId, double fee) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.timeMillis = timeMillis;
+        this.vehicleType = vehicleType;
+        this.licensePlate = licensePlate;
+        this.spotId = spotId;
+        this.fee = fee;
+    }
+
+    public static JournalRecord entry(String ticketId, LocalDateTime entryTime, VehicleType vehicleType,
+                                      String licensePlate, String spotId) {
+        return new JournalRecord(Type.ENTRY, ticketId, toMillis(entryTime), vehicleType, licensePlate, spotId, 0.0);
+    }
+
+    public static JournalRecord entry(ParkingTicket ticket) {
+        return entry(ticket.getTicketId(), ticket.getEntryTime(), ticket.getVehicle().getType(),
+                ticket.getVehicle().getLicensePlate(), ticket.getAssignedSpot().getSpotId());
+    }
+
+    public static JournalRecord exit(String ticketId, LocalDateTime exitTime, double fee) {
+        return new JournalRecord(Type.EXIT, ticketId, toMillis(exitTime), null, null, null, fee);
+    }
+
+    byte[] encode() {
+        byte[] id = ticketId.getBytes(StandardCharsets.UTF_8);
+        if (type == Type.EXIT) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 2 + id.length + 8);
+            buffer.put((byte) type.ordinal()).putLong(timeMillis);
+            putString(buffer, id);
+            buffer.putDouble(fee);
+            return buffer.array();
+        }
+        byte[] plate = licensePlate.getBytes(StandardCharsets.UTF_8);
+        byte[] spot = spotId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 2 + id.length + 1 + 2 + plate.length + 2 + spot.length);
+        buffer.put((byte) type.ordinal()).putLong(timeMillis);
+        putString(buffer, id);
+        buffer.put((byte) vehicleType.ordinal());
+        putString(buffer, plate);
+        putString(buffer, spot);
+        return buffer.array();
+    }
+
+    // Reads one payload of the given length starting at the buffer's position
+    static JournalRecord decode(ByteBuffer buffer) {
+        Type type = buffer.get() == 0 ? Type.ENTRY : Type.EXIT;
+        long timeMillis = buffer.getLong();
+        String ticketId = getString(buffer);
+        if (type == Type.EXIT) {
+            return new JournalRecord(type, ticketId, timeMillis, null, null, null, buffer.getDouble());
+        }
+        VehicleType vehicleType = VEHICLE_TYPES[buffer.get()];
+        String licensePlate = getString(buffer);
+        String spotId = getString(buffer);
+        return new JournalRecord(type, ticketId, timeMillis, vehicleType, licensePlate, spotId, 0.0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Journal field too long: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public LocalDateTime getTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneOffset.UTC);
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public String getTicketId() { return ticketId; }
+    public VehicleType getVehicleType() { return vehicleType; }
+    public String getLicensePlate() { return licensePlate; }
+    public String getSpotId() { return spotId; }
+    public double getFee() { return fee; }
+}
@@ -0,0 +1,498 @@
+package com.learn.parking.lot.design.journal;
+
+import com.learn.parking.lot.design.model.ParkingTicket;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of one lot's gate events in memory-mapped segment files.
+ *
+ * <p>An append copies the framed record ({@code [length][crc32c][payload]}) into the mapped
+ * segment under a short lock and, in fsync mode, waits until a background flusher has forced it
+ * to disk. The flusher forces everything written since its last pass in one call, so concurrent
+ * gates share a single fsync (group commit) instead of paying one each. A zero length marks the
+ * end of a segment; a torn record at the tail fails its CRC and is dropped on recovery.
+ *
+ * <p>The journal also keeps the set of open ENTRY records. A record joins (or leaves) that set
+ * only once the flush covering it has succeeded, so a failed append never shows up in a later
+ * snapshot. Every {@code snapshotEveryRecords}
+ * appends the flusher rolls to a new segment N, writes that set to {@code snapshot-N.snap} and
+ * deletes the older segments and snapshots, so recovery reads one compact snapshot plus at most
+ * a few segments no matter how long the lot has been running.
+ */
+public class MappedTicketJournal implements TicketJournal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x504C534E;
+    private static final int FRAME_HEADER = 8;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final long snapshotEveryRecords;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    // guarded by lock
+    private final Map<String, JournalRecord> openEntries;
+    // written records not yet known to be durable, in write order, each with its end position
+    private final ArrayDeque<Unflushed> unflushed = new ArrayDeque<>();
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+    private long written;   // logical position: segmentIndex * segmentSize + offset in segment
+    private long durable;
+    private long recordsSinceSnapshot;
+    private boolean snapshotRequested;
+    private boolean closed;
+    private RuntimeException failure;
+
+    private final Recovery recovery;
+    private final Thread flusher;
+
+    private MappedTicketJournal(Path dir, int segmentSize, boolean fsync, long snapshotEveryRecords,
+                                Recovery recovery) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.recovery = recovery;
+        this.openEntries = new HashMap<>(recovery.openEntries);
+
+        // Start on a fresh segment and compact what was recovered, so the next start is fast too
+        segmentIndex = recovery.lastSegmentIndex + 1;
+        segment = mapSegment(segmentIndex);
+        written = durable = segmentIndex * segmentSize;
+        writeSnapshot(segmentIndex, openEntries.values());
+
+        flusher = Thread.ofPlatform().name("journal-" + dir.getFileName()).daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Recovers the journal in dir (creating it if needed) and opens it for appending. The open
+     * ENTRY records found are available from {@link #getRecovery()}.
+     */
+    public static MappedTicketJournal open(Path dir, int segmentSize, boolean fsync, long snapshotEveryRecords) {
+        try {
+            Files.createDirectories(dir);
+            return new MappedTicketJournal(dir, segmentSize, fsync, snapshotEveryRecords, recover(dir));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + dir, e);
+        }
+    }
+
+    @Override
+    public void recordEntry(ParkingTicket ticket) {
+        append(JournalRecord.entry(ticket));
+    }
+
+    @Override
+    public void recordExit(String ticketId, LocalDateTime exitTime, double fee) {
+        append(JournalRecord.exit(ticketId, exitTime, fee));
+    }
+
+    @Override
+    public void recordEntries(List<ParkingTicket> tickets) {
+        List<JournalRecord> records = new ArrayList<>(tickets.size());
+        for (ParkingTicket ticket : tickets) {
+            records.add(JournalRecord.entry(ticket));
+        }
+        append(records);
+    }
+
+    void append(JournalRecord record) {
+        append(List.of(record));
+    }
+
+    // Appends the records back to back and waits for one flush that covers all of them
+    void append(List<JournalRecord> records) {
+        byte[][] payloads = new byte[records.size()][];
+        int[] crcs = new int[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = records.get(i).encode();
+            crcs[i] = crc(ByteBuffer.wrap(payloads[i]));
+            // every segment keeps 4 bytes for the zero-length end marker
+            if (FRAME_HEADER + payloads[i].length + 4 > segmentSize) {
+                throw new IllegalArgumentException("Journal record larger than a segment: " + (FRAME_HEADER + payloads[i].length) + " bytes");
+            }
+        }
+        lock.lock();
+        try {
+            checkUsable();
+            for (int i = 0; i < payloads.length; i++) {
+                int frameLength = FRAME_HEADER + payloads[i].length;
+                int offset = (int) (written - segmentIndex * segmentSize);
+                if (offset + frameLength + 4 > segmentSize) {
+                    roll();
+                    offset = 0;
+                }
+                // length goes in last: a reader never sees a length whose payload is not fully written
+                segment.putInt(offset + 4, crcs[i]);
+                segment.put(offset + FRAME_HEADER, payloads[i]);
+                segment.putInt(offset, payloads[i].length);
+                written += frameLength;
+
+                unflushed.add(new Unflushed(written, records.get(i)));
+                if (++recordsSinceSnapshot >= snapshotEveryRecords) {
+                    snapshotRequested = true;
+                }
+            }
+            long end = written;
+            pending.signal();
+
+            if (fsync) {
+                while (durable < end) {
+                    checkUsable();
+                    durableAdvanced.awaitUninterruptibly();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkUsable() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal " + dir + " is closed");
+        }
+    }
+
+    // Caller holds the lock. Everything up to position to is on disk: apply those records and wake their writers.
+    private void advanceDurable(long to) {
+        durable = Math.max(durable, to);
+        while (!unflushed.isEmpty() && unflushed.peekFirst().end() <= durable) {
+            apply(openEntries, unflushed.pollFirst().record());
+        }
+        durableAdvanced.signalAll();
+    }
+
+    // Caller holds the lock. Seals the current segment on disk and maps the next one.
+    private void roll() {
+        try {
+            segment.force();
+        } catch (RuntimeException e) {
+            failure = e;
+            durableAdvanced.signalAll();
+            throw e;
+        }
+        // the old segment is sealed, so every record written so far is durable
+        advanceDurable(written);
+        segmentIndex++;
+        try {
+            segment = mapSegment(segmentIndex);
+        } catch (IOException e) {
+            failure = new UncheckedIOException("Cannot create journal segment in " + dir, e);
+            durableAdvanced.signalAll();
+            throw failure;
+        }
+        written = durable = segmentIndex * segmentSize;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long base;
+            long from;
+            long to;
+            boolean snapshot;
+            lock.lock();
+            try {
+                while (!closed && failure == null && written == durable && !snapshotRequested) {
+                    pending.awaitUninterruptibly();
+                }
+                if (failure != null || (closed && written == durable)) {
+                    return;
+                }
+                target = segment;
+                base = segmentIndex * segmentSize;
+                from = durable;
+                to = written;
+                snapshot = snapshotRequested && !closed;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (to > from) {
+                    // one force covers every append since the last pass
+                    target.force((int) (from - base), (int) (to - from));
+                    lock.lock();
+                    try {
+                        // a roll in between already covered this range; positions only grow
+                        advanceDurable(to);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                if (snapshot) {
+                    compact();
+                }
+            } catch (RuntimeException | IOException e) {
+                lock.lock();
+                try {
+                    failure = e instanceof RuntimeException runtime ? runtime : new UncheckedIOException((IOException) e);
+                    durableAdvanced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        long snapshotIndex;
+        List<JournalRecord> entries;
+        lock.lock();
+        try {
+            roll();
+            snapshotIndex = segmentIndex;
+            entries = new ArrayList<>(openEntries.values());
+            recordsSinceSnapshot = 0;
+            snapshotRequested = false;
+        } finally {
+            lock.unlock();
+        }
+        writeSnapshot(snapshotIndex, entries);
+    }
+
+    // Snapshot N holds the open entries as of the start of segment N; older files become garbage
+    private void writeSnapshot(long index, Collection<JournalRecord> entries) throws IOException {
+        Path target = dir.resolve(SNAPSHOT_PREFIX + pad(index) + SNAPSHOT_SUFFIX);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(entries.size());
+            for (JournalRecord entry : entries) {
+                byte[] payload = entry.encode();
+                out.writeInt(payload.length);
+                out.writeInt(crc(ByteBuffer.wrap(payload)));
+                out.write(payload);
+            }
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+
+        for (Path path : list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (indexOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX) < index) {
+                Files.deleteIfExists(path);
+            }
+        }
+        for (Path path : list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (indexOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < index) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not every platform can fsync a directory; the rename is still atomic
+        }
+    }
+
+    private MappedByteBuffer mapSegment(long index) throws IOException {
+        Path path = dir.resolve(SEGMENT_PREFIX + pad(index) + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Rebuilds the open entries from the newest readable snapshot plus every segment after it.
+     * Read-only: opening the journal afterwards is what compacts it.
+     */
+    public static Recovery recover(Path dir) throws IOException {
+        long started = System.nanoTime();
+        Map<String, JournalRecord> openEntries = new HashMap<>();
+        long fromSegment = 0;
+
+        List<Path> snapshots = list(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        Collections.reverse(snapshots);
+        for (Path snapshot : snapshots) {
+            if (readSnapshot(snapshot, openEntries)) {
+                fromSegment = indexOf(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                break;
+            }
+            openEntries.clear();
+        }
+
+        long events = 0;
+        long lastSegmentIndex = fromSegment - 1;
+        for (Path path : list(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            long index = indexOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            lastSegmentIndex = Math.max(lastSegmentIndex, index);
+            if (index >= fromSegment) {
+                events += replaySegment(path, openEntries);
+            }
+        }
+        return new Recovery(openEntries, events, lastSegmentIndex, System.nanoTime() - started);
+    }
+
+    private static long replaySegment(Path path, Map<String, JournalRecord> openEntries) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        long events = 0;
+        int offset = 0;
+        int limit = buffer.capacity();
+        while (offset + FRAME_HEADER <= limit) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + FRAME_HEADER + length > limit) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(offset + FRAME_HEADER, length);
+            if (crc(payload.duplicate()) != buffer.getInt(offset + 4)) {
+                break; // torn write at the tail
+            }
+            apply(openEntries, JournalRecord.decode(payload));
+            events++;
+            offset += FRAME_HEADER + length;
+        }
+        return events;
+    }
+
+    private static boolean readSnapshot(Path path, Map<String, JournalRecord> openEntries) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            int count = in.readInt();
+            byte[] payload = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = in.readInt();
+                int crc = in.readInt();
+                if (length <= 0 || length > 1 << 20) {
+                    return false;
+                }
+                if (payload.length < length) {
+                    payload = new byte[length];
+                }
+                in.readFully(payload, 0, length);
+                ByteBuffer buffer = ByteBuffer.wrap(payload, 0, length);
+                if (crc(buffer.duplicate()) != crc) {
+                    return false;
+                }
+                JournalRecord entry = JournalRecord.decode(buffer);
+                openEntries.put(entry.getTicketId(), entry);
+            }
+            return in.readInt() == SNAPSHOT_MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static void apply(Map<String, JournalRecord> openEntries, JournalRecord record) {
+        if (record.getType() == JournalRecord.Type.ENTRY) {
+            openEntries.put(record.getTicketId(), record);
+        } else {
+            openEntries.remove(record.getTicketId());
+        }
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    // Matching files, oldest first
+    private static List<Path> list(Path dir, String prefix, String suffix) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted(Comparator.comparingLong(path -> indexOf(path, prefix, suffix)))
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private static long indexOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static String pad(long index) {
+        return String.format("%012d", index);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (failure == null) {
+                segment.force();
+                advanceDurable(written);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Recovery getRecovery() { return recovery; }
+
+    private record Unflushed(long end, JournalRecord record) {}
+
+    // What a start found on disk: the open entries and how long it took to rebuild them
+    public static final class Recovery {
+        private final Map<String, JournalRecord> openEntries;
+        private final long replayedEvents;
+        private final long lastSegmentIndex;
+        private final long nanos;
+
+        Recovery(Map<String, JournalRecord> openEntries, long replayedEvents, long lastSegmentIndex, long nanos) {
+            this.openEntries = openEntries;
+            this.replayedEvents = replayedEvents;
+            this.lastSegmentIndex = lastSegmentIndex;
+            this.nanos = nanos;
+        }
+
+        // Getters
+        public Collection<JournalRecord> getOpenEntries() { return openEntries.values(); }
+        public long getReplayedEvents() { return replayedEvents; }
+        public long getMillis() { return TimeUnit.NANOSECONDS.toMillis(nanos); }
+    }
+}
@@ -0,0 +1,41 @@
+package com.learn.parking.lot.design.journal;
+
+import com.learn.parking.lot.design.model.ParkingTicket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Durable log of one lot's gate events. A record call returns once the event is as durable as
+ * the journal promises, so a ticket handed out or closed survives a crash.
+ */
+public interface TicketJournal extends AutoCloseable {
+    // Journal for lots that keep no state across restarts
+    TicketJournal NONE = new TicketJournal() {
+        @Override
+        public void recordEntry(ParkingTicket ticket) {
+        }
+
+        @Override
+        public void recordExit(String ticketId, LocalDateTime exitTime, double fee) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    void recordEntry(ParkingTicket ticket);
+
+    // Records a batch of entries; journals that can should make them durable with one flush
+    default void recordEntries(List<ParkingTicket> tickets) {
+        for (ParkingTicket ticket : tickets) {
+            recordEntry(ticket);
+        }
+    }
+
+    void recordExit(String ticketId, LocalDateTime exitTime, double fee);
+
+    @Override
+    void close();
+}
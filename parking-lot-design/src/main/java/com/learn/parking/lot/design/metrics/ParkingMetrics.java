@@ -0,0 +1,151 @@
+package com.learn.parking.lot.design.metrics;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.SpotType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of one lot, all tagged with its id: gate latencies (entry, spot search,
+ * pricing, payment, exit), "full" rejections and fallbacks to a larger spot type, and per floor
+ * and spot type the free spots and the claim retries of its bitmap. Allocation is lock-free, so
+ * those retries (lost CAS races) are what contention between gates looks like here.
+ *
+ * <p>Meters are looked up once and kept in fields, so the gates pay for a timer update and no
+ * registry lookup. Gauges and retry counters read the floors when scraped.
+ */
+public class ParkingMetrics {
+    public enum EntryOutcome { ISSUED, FULL, REJECTED }
+    public enum PaymentOutcome { APPROVED, DECLINED, TIMEOUT, ERROR }
+    public enum ExitOutcome { COMPLETED, FAILED }
+
+    private final MeterRegistry registry;
+    private final String lotId;
+    private final Map<EntryOutcome, Timer> entries = new EnumMap<>(EntryOutcome.class);
+    private final Map<ExitOutcome, Timer> exits = new EnumMap<>(ExitOutcome.class);
+    private final Timer spotSearchFound;
+    private final Timer spotSearchNone;
+    private final Timer pricing;
+    // payment method name -> timer per PaymentOutcome
+    private final Map<String, Timer[]> payments = new ConcurrentHashMap<>();
+    private final Map<SpotType, Counter> fullRejections = new EnumMap<>(SpotType.class);
+    // [required][assigned]
+    private final Counter[][] fallbacks = new Counter[SpotType.values().length][SpotType.values().length];
+
+    public ParkingMetrics(MeterRegistry registry, String lotId, List<Floor> floors) {
+        this.registry = registry;
+        this.lotId = lotId;
+        for (EntryOutcome outcome : EntryOutcome.values()) {
+            entries.put(outcome, timer("parking.entry", "Ticket issuance at the entry gate", "outcome", outcome));
+        }
+        for (ExitOutcome outcome : ExitOutcome.values()) {
+            exits.put(outcome, timer("parking.exit", "Exit from request to receipt, payment included", "outcome", outcome));
+        }
+        this.spotSearchFound = timer("parking.spot.search", "Finding and claiming a spot", "result", "found");
+        this.spotSearchNone = timer("parking.spot.search", "Finding and claiming a spot", "result", "none");
+        this.pricing = timer("parking.pricing", "Pricing a stay", null, null);
+        for (SpotType required : SpotType.values()) {
+            fullRejections.put(required, Counter.builder("parking.entry.full")
+                    .description("Vehicles turned away because no fitting spot was free")
+                    .tags("lot", lotId, "spot.type", required.name())
+                    .register(registry));
+            for (SpotType assigned : required.fallbackOrder()) {
+                if (assigned != required) {
+                    fallbacks[required.ordinal()][assigned.ordinal()] = Counter.builder("parking.allocation.fallback")
+                            .description("Vehicles parked in a larger spot type than they need")
+                            .tags("lot", lotId, "required", required.name(), "assigned", assigned.name())
+                            .register(registry);
+                }
+            }
+        }
+        for (Floor floor : floors) {
+            for (SpotType type : SpotType.values()) {
+                if (floor.getTotalSpotCount(type) == 0) {
+                    continue;
+                }
+                String floorNumber = String.valueOf(floor.getFloorNumber());
+                Gauge.builder("parking.spots.free", floor, f -> f.getAvailableSpotCount(type))
+                        .description("Free spots")
+                        .tags("lot", lotId, "floor", floorNumber, "spot.type", type.name())
+                        .register(registry);
+                Gauge.builder("parking.spots.capacity", floor, f -> f.getTotalSpotCount(type))
+                        .description("Spots")
+                        .tags("lot", lotId, "floor", floorNumber, "spot.type", type.name())
+                        .register(registry);
+                FunctionCounter.builder("parking.spots.claim.retries", floor, f -> f.getClaimRetries(type))
+                        .description("Spot claims that lost a CAS race to another gate and retried")
+                        .tags("lot", lotId, "floor", floorNumber, "spot.type", type.name())
+                        .register(registry);
+            }
+        }
+    }
+
+    // Meters that record nothing, for lots built outside the Spring context
+    public static ParkingMetrics none(String lotId, List<Floor> floors) {
+        // a composite without child registries hands out no-op meters
+        return new ParkingMetrics(new CompositeMeterRegistry(), lotId, floors);
+    }
+
+    private Timer timer(String name, String description, String tag, Object value) {
+        Timer.Builder builder = Timer.builder(name).description(description).tag("lot", lotId);
+        if (tag != null) {
+            builder.tag(tag, value.toString().toLowerCase());
+        }
+        return builder.register(registry);
+    }
+
+    public void recordEntry(EntryOutcome outcome, long nanos) {
+        entries.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSpotSearch(boolean found, long nanos) {
+        (found ? spotSearchFound : spotSearchNone).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPricing(long nanos) {
+        pricing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayment(String method, PaymentOutcome outcome, long nanos) {
+        payments.computeIfAbsent(method, this::paymentTimers)[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] paymentTimers(String method) {
+        Timer[] timers = new Timer[PaymentOutcome.values().length];
+        for (PaymentOutcome outcome : PaymentOutcome.values()) {
+            timers[outcome.ordinal()] = Timer.builder("parking.payment")
+                    .description("Payment from request to gateway decision")
+                    .tags("lot", lotId, "method", method, "outcome", outcome.name().toLowerCase())
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    public void recordExit(ExitOutcome outcome, long nanos) {
+        exits.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFull(SpotType required) {
+        fullRejections.get(required).increment();
+    }
+
+    // After a vehicle got a spot; counts it if the spot is larger than it needs
+    public void recordAllocation(SpotType required, SpotType assigned) {
+        if (required != assigned) {
+            Counter fallback = fallbacks[required.ordinal()][assigned.ordinal()];
+            if (fallback != null) {
+                fallback.increment();
+            }
+        }
+    }
+}
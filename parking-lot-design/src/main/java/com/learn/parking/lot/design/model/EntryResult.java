@@ -0,0 +1,28 @@
+package com.learn.parking.lot.design.model;
+
+// Outcome of one vehicle in a bulk entry: its ticket, or why it was turned away
+public class EntryResult {
+    private String licensePlate;
+    private ParkingTicket ticket;
+    private String error;
+    
+    private EntryResult(String licensePlate, ParkingTicket ticket, String error) {
+        this.licensePlate = licensePlate;
+        this.ticket = ticket;
+        this.error = error;
+    }
+    
+    public static EntryResult issued(ParkingTicket ticket) {
+        return new EntryResult(ticket.getVehicle().getLicensePlate(), ticket, null);
+    }
+    
+    public static EntryResult rejected(String licensePlate, String error) {
+        return new EntryResult(licensePlate, null, error);
+    }
+    
+    // Getters
+    public boolean isSuccess() { return ticket != null; }
+    public String getLicensePlate() { return licensePlate; }
+    public ParkingTicket getTicket() { return ticket; }
+    public String getError() { return error; }
+}
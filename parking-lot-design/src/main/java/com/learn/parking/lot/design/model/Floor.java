@@ -1,79 +1,128 @@
 package com.learn.parking.lot.design.model;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class Floor {
     private int floorNumber;
     private Map<SpotType, List<ParkingSpot>> spotsByType;
-    private Map<SpotType, ReadWriteLock> spotTypeLocks;
+    private Map<SpotType, SpotBitmap> occupancyByType;
     
     public Floor(int floorNumber) {
         this.floorNumber = floorNumber;
-        this.spotsByType = new HashMap<>();
-        this.spotTypeLocks = new HashMap<>();
+        this.spotsByType = new EnumMap<>(SpotType.class);
+        this.occupancyByType = new EnumMap<>(SpotType.class);
         
         // Initialize spot types
         for (SpotType type : SpotType.values()) {
             spotsByType.put(type, new ArrayList<>());
-            spotTypeLocks.put(type, new ReentrantReadWriteLock());
+            occupancyByType.put(type, new SpotBitmap());
         }
     }
     
-    public void addSpot(ParkingSpot spot) {
+    // Floors are built before they serve traffic; allocation itself is lock-free
+    public synchronized void addSpot(ParkingSpot spot) {
+        spot.setSlot(occupancyByType.get(spot.getType()).addSlot());
         spotsByType.get(spot.getType()).add(spot);
     }
     
+    // Spreads over the floor, smallest fitting spot type first
     public ParkingSpot findAndAssignSpot(Vehicle vehicle) {
-        SpotType requiredType = vehicle.getRequiredSpotType();
-        ReadWriteLock lock = spotTypeLocks.get(requiredType);
-        
-        lock.writeLock().lock();
-        try {
-            // Try exact match first
-            ParkingSpot spot = findAvailableSpotOfType(requiredType);
-            if (spot != null && spot.assignVehicle(vehicle)) {
+        for (SpotType type : vehicle.getRequiredSpotType().fallbackOrder()) {
+            ParkingSpot spot = assignSpotOfType(type, vehicle, false);
+            if (spot != null) {
                 return spot;
             }
-            
-            // Try larger spots
-            for (SpotType type : SpotType.values()) {
-                if (type != requiredType && spot.canAccommodate(requiredType)) {
-                    spot = findAvailableSpotOfType(type);
-                    if (spot != null && spot.assignVehicle(vehicle)) {
-                        return spot;
-                    }
-                }
-            }
-        } finally {
-            lock.writeLock().unlock();
         }
-        
         return null;
     }
     
-    private ParkingSpot findAvailableSpotOfType(SpotType type) {
-        for (ParkingSpot spot : spotsByType.get(type)) {
-            if (!spot.isOccupied()) {
-                return spot;
+    /**
+     * Claims a free spot of exactly the given type. nearestFirst takes the lowest-numbered free
+     * spot (spots are added nearest-first); otherwise the search starts at a per-thread offset
+     * so parallel gates don't race for the same spot. Returns null if none is free.
+     */
+    public ParkingSpot assignSpotOfType(SpotType type, Vehicle vehicle, boolean nearestFirst) {
+        if (!vehicle.getRequiredSpotType().fitsIn(type)) {
+            return null;
+        }
+        int slot = occupancyByType.get(type).claim(nearestFirst ? 0 : startHint());
+        if (slot < 0) {
+            return null;
+        }
+        ParkingSpot spot = spotsByType.get(type).get(slot);
+        if (!spot.assignVehicle(vehicle)) {
+            throw new IllegalStateException("Spot " + spot.getSpotId() + " was claimed but is already occupied");
+        }
+        return spot;
+    }
+    
+    /**
+     * Bulk form of {@link #assignSpotOfType}: parks vehicles[from..to) in free spots of the given
+     * type, claiming runs of bitmap slots at once. The first n vehicles get spots, where n is the
+     * return value; spots[i] receives vehicles[i]'s spot.
+     */
+    public int assignSpotsOfType(SpotType type, List<Vehicle> vehicles, int from, int to, ParkingSpot[] spots) {
+        for (int i = from; i < to; i++) {
+            if (!vehicles.get(i).getRequiredSpotType().fitsIn(type)) {
+                throw new IllegalArgumentException(vehicles.get(i) + " does not fit a " + type + " spot");
             }
         }
-        return null;
+        int[] slots = new int[to - from];
+        int claimed = occupancyByType.get(type).claimBatch(startHint(), slots.length, slots, 0);
+        List<ParkingSpot> spotsOfType = spotsByType.get(type);
+        for (int i = 0; i < claimed; i++) {
+            ParkingSpot spot = spotsOfType.get(slots[i]);
+            if (!spot.assignVehicle(vehicles.get(from + i))) {
+                throw new IllegalStateException("Spot " + spot.getSpotId() + " was claimed but is already occupied");
+            }
+            spots[from + i] = spot;
+        }
+        return claimed;
     }
     
-    public int getAvailableSpotCount(SpotType type) {
-        ReadWriteLock lock = spotTypeLocks.get(type);
-        lock.readLock().lock();
-        try {
-            return (int) spotsByType.get(type).stream()
-                    .filter(spot -> !spot.isOccupied())
-                    .count();
-        } finally {
-            lock.readLock().unlock();
+    // Takes one specific spot, e.g. when rebuilding state from the journal
+    public void occupySpot(ParkingSpot spot, Vehicle vehicle, LocalDateTime occupiedAt) {
+        if (!occupancyByType.get(spot.getType()).claimSlot(spot.getSlot()) || !spot.assignVehicle(vehicle, occupiedAt)) {
+            throw new IllegalStateException("Spot " + spot.getSpotId() + " is already occupied");
+        }
+    }
+    
+    /**
+     * Takes a free spot out of walk-in allocation without parking anything in it, e.g. for a
+     * reservation about to start. Returns false if the spot is occupied or already held.
+     */
+    public boolean holdSpot(ParkingSpot spot) {
+        return occupancyByType.get(spot.getType()).claimSlot(spot.getSlot());
+    }
+    
+    // Parks the vehicle the spot was held for
+    public void occupyHeldSpot(ParkingSpot spot, Vehicle vehicle, LocalDateTime occupiedAt) {
+        if (!occupancyByType.get(spot.getType()).isOccupied(spot.getSlot()) || !spot.assignVehicle(vehicle, occupiedAt)) {
+            throw new IllegalStateException("Spot " + spot.getSpotId() + " is not held for " + vehicle);
         }
     }
     
+    public void releaseSpot(ParkingSpot spot) {
+        spot.removeVehicle();
+        occupancyByType.get(spot.getType()).release(spot.getSlot());
+    }
+    
+    // Spreads concurrent gates over different bitmap words so their CASes rarely collide
+    private static int startHint() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40);
+    }
+    
+    public int getAvailableSpotCount(SpotType type) {
+        return occupancyByType.get(type).getFreeCount();
+    }
+    
+    // Lost CAS races and re-scans while claiming spots of the type: the floor's contention
+    public long getClaimRetries(SpotType type) {
+        return occupancyByType.get(type).getClaimRetries();
+    }
+    
     public int getTotalSpotCount(SpotType type) {
         return spotsByType.get(type).size();
     }
@@ -90,4 +139,3 @@ public class Floor {
     public int getFloorNumber() { return floorNumber; }
     public Map<SpotType, List<ParkingSpot>> getSpotsByType() { return spotsByType; }
 }
-
@@ -5,10 +5,11 @@ import java.time.LocalDateTime;
 public class ParkingSpot {
     private String spotId;
     private SpotType type;
-    private boolean isOccupied;
+    private volatile boolean isOccupied;
     private Vehicle parkedVehicle;
     private LocalDateTime occupiedAt;
     private int floorNumber;
+    private int slot = -1; // index in the floor's bitmap for this spot type
     
     public ParkingSpot(String spotId, SpotType type, int floorNumber) {
         this.spotId = spotId;
@@ -17,13 +18,17 @@ public class ParkingSpot {
         this.isOccupied = false;
     }
     
-    public synchronized boolean assignVehicle(Vehicle vehicle) {
+    public boolean assignVehicle(Vehicle vehicle) {
+        return assignVehicle(vehicle, LocalDateTime.now());
+    }
+    
+    synchronized boolean assignVehicle(Vehicle vehicle, LocalDateTime occupiedAt) {
         if (isOccupied) {
             return false;
         }
         this.isOccupied = true;
         this.parkedVehicle = vehicle;
-        this.occupiedAt = LocalDateTime.now();
+        this.occupiedAt = occupiedAt;
         return true;
     }
     
@@ -34,11 +39,12 @@ public class ParkingSpot {
     }
     
     public boolean canAccommodate(SpotType requiredType) {
+        return !isOccupied && fits(type, requiredType);
+    }
+    
+    public static boolean fits(SpotType spotType, SpotType requiredType) {
         // A vehicle can park in a spot of its required type or larger
-        return !isOccupied && (type == requiredType || 
-               (requiredType == SpotType.COMPACT && type == SpotType.REGULAR) ||
-               (requiredType == SpotType.REGULAR && type == SpotType.LARGE) ||
-               (requiredType == SpotType.COMPACT && type == SpotType.LARGE));
+        return requiredType.fitsIn(spotType);
     }
     
     // Getters
@@ -48,6 +54,8 @@ public class ParkingSpot {
     public Vehicle getParkedVehicle() { return parkedVehicle; }
     public LocalDateTime getOccupiedAt() { return occupiedAt; }
     public int getFloorNumber() { return floorNumber; }
+    int getSlot() { return slot; }
+    void setSlot(int slot) { this.slot = slot; }
     
     @Override
     public String toString() {
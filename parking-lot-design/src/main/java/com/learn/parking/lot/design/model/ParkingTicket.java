@@ -21,13 +21,23 @@ public class ParkingTicket {
         this.amountPaid = 0.0;
     }
     
+    // Rebuilds an active ticket from the journal after a restart
+    public ParkingTicket(String ticketId, Vehicle vehicle, ParkingSpot assignedSpot, LocalDateTime entryTime) {
+        this(ticketId, vehicle, assignedSpot);
+        this.entryTime = entryTime;
+    }
+    
     public long getHoursParked() {
         LocalDateTime endTime = exitTime != null ? exitTime : LocalDateTime.now();
         return ChronoUnit.HOURS.between(entryTime, endTime);
     }
     
     public void completeTicket(double amountPaid) {
-        this.exitTime = LocalDateTime.now();
+        completeTicket(amountPaid, LocalDateTime.now());
+    }
+    
+    public void completeTicket(double amountPaid, LocalDateTime exitTime) {
+        this.exitTime = exitTime;
         this.amountPaid = amountPaid;
         this.status = TicketStatus.COMPLETED;
     }
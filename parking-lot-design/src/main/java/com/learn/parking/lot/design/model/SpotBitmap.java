@@ -0,0 +1,283 @@
+package com.learn.parking.lot.design.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free occupancy bitmap for the spots of one type on one floor. Bit i is set while spot i is
+ * taken. A claim finds a clear bit and sets it with a CAS on its 64-spot word, so concurrent gates
+ * never need a lock and a lost race just retries on the fresh word value. An exact free counter
+ * answers availability in O(1).
+ *
+ * <p>A summary level keeps one bit per word that may still have a free slot, so the lowest free
+ * slot at or after a start position is found by skipping 4096 spots per summary word instead of
+ * reading every occupancy word. Slot order is priority order: spots are added nearest-first, so a
+ * claim from 0 returns the nearest free spot, while callers that only need spreading start at a
+ * per-thread word.
+ *
+ * <p>Slots are added while the floor is being built, before it serves traffic.
+ */
+public class SpotBitmap {
+    // Full scans a claim makes before giving up when the counter says free but no bit is clear
+    private static final int MAX_EMPTY_PASSES = 3;
+
+    private volatile AtomicLongArray words = new AtomicLongArray(1);
+    // bit w set => words[w] may have a free slot; never clear while words[w] has one
+    private volatile AtomicLongArray summary = new AtomicLongArray(1);
+    private volatile int size;
+    private final AtomicInteger freeCount = new AtomicInteger();
+    // claims that lost a CAS race or found the counter ahead of the bits and had to go again
+    private final LongAdder claimRetries = new LongAdder();
+
+    // Registers a new (free) slot and returns its index
+    public synchronized int addSlot() {
+        int index = size;
+        int wordIndex = index >>> 6;
+        if (wordIndex >= words.length()) {
+            words = grow(words, words.length() * 2);
+        }
+        if ((wordIndex >>> 6) >= summary.length()) {
+            summary = grow(summary, summary.length() * 2);
+        }
+        setBit(summary, wordIndex);
+        size = index + 1;
+        freeCount.incrementAndGet();
+        return index;
+    }
+
+    /**
+     * Claims the lowest free slot at or after word startWord (mod word count), wrapping around.
+     * Returns the slot index, or -1 if every slot is taken. The free counter trails the bits while
+     * another claimer is between its CAS and its decrement, so a scan can find every bit set with
+     * the counter still positive; after {@link #MAX_EMPTY_PASSES} such scans the bitmap is treated
+     * as full rather than spinning on a claimer that may have been descheduled.
+     */
+    public int claim(int startWord) {
+        for (int pass = 0; pass < MAX_EMPTY_PASSES && freeCount.get() > 0; pass++) {
+            int slot = claimPass(startWord);
+            if (slot >= 0) {
+                return slot;
+            }
+            claimRetries.increment();
+            Thread.onSpinWait();
+        }
+        return -1;
+    }
+
+    private int claimPass(int startWord) {
+        AtomicLongArray words = this.words;
+        AtomicLongArray summary = this.summary;
+        int size = this.size;
+        int wordCount = (size + 63) >>> 6;
+        int summaryCount = (wordCount + 63) >>> 6;
+        int start = Math.floorMod(startWord, wordCount);
+        int summaryIndex = start >>> 6;
+        long mask = -1L << start;
+        // one extra step revisits the low bits of the first summary word after wrapping
+        for (int scanned = 0; scanned <= summaryCount; scanned++) {
+            long candidates = summary.get(summaryIndex) & mask;
+            while (candidates != 0) {
+                int wordIndex = (summaryIndex << 6) + Long.numberOfTrailingZeros(candidates);
+                int slot = claimInWord(words, wordIndex, size);
+                if (slot >= 0) {
+                    return slot;
+                }
+                // word is full: drop its summary bit, then restore it if a release slipped in
+                clearBit(summary, wordIndex);
+                if (hasFree(words, wordIndex, size)) {
+                    setBit(summary, wordIndex);
+                }
+                candidates &= candidates - 1;
+            }
+            mask = -1L;
+            if (++summaryIndex == summaryCount) {
+                summaryIndex = 0;
+            }
+        }
+        return -1;
+    }
+
+    private int claimInWord(AtomicLongArray words, int wordIndex, int size) {
+        long validMask = validMask(wordIndex, size);
+        long word = words.get(wordIndex);
+        long free;
+        while ((free = ~word & validMask) != 0) {
+            long bit = Long.lowestOneBit(free);
+            long witness = words.compareAndExchange(wordIndex, word, word | bit);
+            if (witness == word) {
+                freeCount.decrementAndGet();
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(bit);
+            }
+            word = witness;
+            claimRetries.increment();
+        }
+        return -1;
+    }
+
+    /**
+     * Claims up to max free slots starting at word startWord, like {@link #claim}, and writes
+     * their indices to slots from offset on. Each bitmap word is claimed with a single CAS that
+     * takes as many of its free bits as are still needed, so a batch of n vehicles costs about
+     * n/64 CASes instead of n. Returns the number claimed, less than max only when the bitmap ran
+     * out of free slots (or, as in {@link #claim}, several full scans in a row found none).
+     */
+    public int claimBatch(int startWord, int max, int[] slots, int offset) {
+        int claimed = 0;
+        int emptyPasses = 0;
+        while (claimed < max && emptyPasses < MAX_EMPTY_PASSES && freeCount.get() > 0) {
+            int passClaimed = claimBatchPass(startWord, max - claimed, slots, offset + claimed);
+            if (passClaimed == 0) {
+                emptyPasses++;
+                claimRetries.increment();
+                Thread.onSpinWait();
+            }
+            claimed += passClaimed;
+        }
+        return claimed;
+    }
+
+    private int claimBatchPass(int startWord, int max, int[] slots, int offset) {
+        AtomicLongArray words = this.words;
+        AtomicLongArray summary = this.summary;
+        int size = this.size;
+        int wordCount = (size + 63) >>> 6;
+        int summaryCount = (wordCount + 63) >>> 6;
+        int start = Math.floorMod(startWord, wordCount);
+        int summaryIndex = start >>> 6;
+        long mask = -1L << start;
+        int claimed = 0;
+        for (int scanned = 0; scanned <= summaryCount; scanned++) {
+            long candidates = summary.get(summaryIndex) & mask;
+            while (candidates != 0) {
+                int wordIndex = (summaryIndex << 6) + Long.numberOfTrailingZeros(candidates);
+                claimed += claimManyInWord(words, wordIndex, size, max - claimed, slots, offset + claimed);
+                if (claimed == max) {
+                    return claimed;
+                }
+                // took every free bit, so the word is full now
+                clearBit(summary, wordIndex);
+                if (hasFree(words, wordIndex, size)) {
+                    setBit(summary, wordIndex);
+                }
+                candidates &= candidates - 1;
+            }
+            mask = -1L;
+            if (++summaryIndex == summaryCount) {
+                summaryIndex = 0;
+            }
+        }
+        return claimed;
+    }
+
+    private int claimManyInWord(AtomicLongArray words, int wordIndex, int size, int max, int[] slots, int offset) {
+        long validMask = validMask(wordIndex, size);
+        long word = words.get(wordIndex);
+        long free;
+        while ((free = ~word & validMask) != 0) {
+            long take = lowestBits(free, max);
+            long witness = words.compareAndExchange(wordIndex, word, word | take);
+            if (witness == word) {
+                int count = Long.bitCount(take);
+                freeCount.addAndGet(-count);
+                for (int i = 0; i < count; i++) {
+                    slots[offset + i] = (wordIndex << 6) + Long.numberOfTrailingZeros(take);
+                    take &= take - 1;
+                }
+                return count;
+            }
+            word = witness;
+            claimRetries.increment();
+        }
+        return 0;
+    }
+
+    // The n lowest set bits of bits, or all of them if it has fewer
+    private static long lowestBits(long bits, int n) {
+        if (Long.bitCount(bits) <= n) {
+            return bits;
+        }
+        long taken = 0;
+        for (int i = 0; i < n; i++) {
+            long bit = Long.lowestOneBit(bits);
+            taken |= bit;
+            bits ^= bit;
+        }
+        return taken;
+    }
+
+    // Claims one specific slot, e.g. when replaying the journal; false if it is already taken
+    public boolean claimSlot(int index) {
+        if (!setBit(words, index)) {
+            return false;
+        }
+        freeCount.decrementAndGet();
+        return true;
+    }
+
+    public boolean release(int index) {
+        int wordIndex = index >>> 6;
+        if (!clearBit(words, index)) {
+            return false;
+        }
+        setBit(summary, wordIndex);
+        freeCount.incrementAndGet();
+        return true;
+    }
+
+    public boolean isOccupied(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private static boolean hasFree(AtomicLongArray words, int wordIndex, int size) {
+        return (~words.get(wordIndex) & validMask(wordIndex, size)) != 0;
+    }
+
+    // Bits of word wordIndex that map to real slots
+    private static long validMask(int wordIndex, int size) {
+        int lastWord = (size - 1) >>> 6;
+        return wordIndex == lastWord && (size & 63) != 0 ? (1L << size) - 1 : -1L;
+    }
+
+    // Returns true if this call set the bit
+    private static boolean setBit(AtomicLongArray array, int bitIndex) {
+        int i = bitIndex >>> 6;
+        long bit = 1L << bitIndex;
+        long word = array.get(i);
+        while ((word & bit) == 0) {
+            long witness = array.compareAndExchange(i, word, word | bit);
+            if (witness == word) {
+                return true;
+            }
+            word = witness;
+        }
+        return false;
+    }
+
+    // Returns true if this call cleared the bit
+    private static boolean clearBit(AtomicLongArray array, int bitIndex) {
+        int i = bitIndex >>> 6;
+        long bit = 1L << bitIndex;
+        long word = array.get(i);
+        while ((word & bit) != 0) {
+            long witness = array.compareAndExchange(i, word, word & ~bit);
+            if (witness == word) {
+                return true;
+            }
+            word = witness;
+        }
+        return false;
+    }
+
+    private static AtomicLongArray grow(AtomicLongArray array, int length) {
+        AtomicLongArray grown = new AtomicLongArray(length);
+        for (int i = 0; i < array.length(); i++) {
+            grown.set(i, array.get(i));
+        }
+        return grown;
+    }
+
+    public int getFreeCount() { return freeCount.get(); }
+    public long getClaimRetries() { return claimRetries.sum(); }
+    public int getSize() { return size; }
+}
@@ -1,9 +1,37 @@
 package com.learn.parking.lot.design.model;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 public enum SpotType {
     COMPACT,    // For motorcycles
     REGULAR,    // For cars
     LARGE,      // For trucks/vans
-    HANDICAPPED // For handicapped vehicles
+    HANDICAPPED; // For handicapped vehicles
+    
+    // Spot types a vehicle needing this type may park in, smallest (best fit) first
+    private static final Map<SpotType, List<SpotType>> FALLBACK_ORDER = new EnumMap<>(SpotType.class);
+    private static final boolean[][] FITS = new boolean[values().length][values().length];
+    
+    static {
+        FALLBACK_ORDER.put(COMPACT, List.of(COMPACT, REGULAR, LARGE));
+        FALLBACK_ORDER.put(REGULAR, List.of(REGULAR, LARGE));
+        FALLBACK_ORDER.put(LARGE, List.of(LARGE));
+        FALLBACK_ORDER.put(HANDICAPPED, List.of(HANDICAPPED));
+        for (Map.Entry<SpotType, List<SpotType>> entry : FALLBACK_ORDER.entrySet()) {
+            for (SpotType spotType : entry.getValue()) {
+                FITS[entry.getKey().ordinal()][spotType.ordinal()] = true;
+            }
+        }
+    }
+    
+    public List<SpotType> fallbackOrder() {
+        return FALLBACK_ORDER.get(this);
+    }
+    
+    // Whether a vehicle requiring this type can park in a spot of spotType
+    public boolean fitsIn(SpotType spotType) {
+        return FITS[ordinal()][spotType.ordinal()];
+    }
 }
-
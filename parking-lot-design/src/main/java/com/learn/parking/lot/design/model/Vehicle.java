@@ -11,6 +11,14 @@ public abstract class Vehicle {
     
     public abstract SpotType getRequiredSpotType();
     
+    public static Vehicle create(VehicleType type, String licensePlate) {
+        return switch (type) {
+            case MOTORCYCLE -> new Motorcycle(licensePlate);
+            case CAR -> new Car(licensePlate);
+            case TRUCK -> new Truck(licensePlate);
+        };
+    }
+    
     public String getLicensePlate() { return licensePlate; }
     public VehicleType getType() { return type; }
     
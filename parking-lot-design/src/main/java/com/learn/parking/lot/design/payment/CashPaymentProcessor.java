@@ -2,12 +2,11 @@ package com.learn.parking.lot.design.payment;
 
 public class CashPaymentProcessor implements PaymentProcessor {
     @Override
-    public boolean processPayment(PaymentMethod method, double amount) {
+    public boolean processPayment(PaymentMethod method, long amountCents, String idempotencyKey) {
         if (method instanceof CashPayment) {
             CashPayment cashPayment = (CashPayment) method;
-            return cashPayment.getAmountGiven() >= amount;
+            return Math.round(cashPayment.getAmountGiven() * 100) >= amountCents;
         }
         return false;
     }
 }
-
@@ -1,16 +1,22 @@
 package com.learn.parking.lot.design.payment;
 
 public class CreditCardPaymentProcessor implements PaymentProcessor {
+    private final PaymentGateway gateway;
+    
+    public CreditCardPaymentProcessor(PaymentGateway gateway) {
+        this.gateway = gateway;
+    }
+    
     @Override
-    public boolean processPayment(PaymentMethod method, double amount) {
+    public boolean processPayment(PaymentMethod method, long amountCents, String idempotencyKey) {
         if (method instanceof CreditCardPayment) {
-            // Simulate credit card processing
             CreditCardPayment cardPayment = (CreditCardPayment) method;
-            // In real implementation, this would call a payment gateway
-            return cardPayment.getCardNumber().length() >= 16 && 
-                   cardPayment.getCvv().length() == 3;
+            // Malformed cards are rejected before they reach the gateway
+            if (cardPayment.getCardNumber().length() < 16 || cardPayment.getCvv().length() != 3) {
+                return false;
+            }
+            return gateway.charge(cardPayment.getCardNumber(), amountCents, idempotencyKey);
         }
         return false;
     }
 }
-
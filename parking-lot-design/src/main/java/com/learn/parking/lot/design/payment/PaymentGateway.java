@@ -0,0 +1,10 @@
+package com.learn.parking.lot.design.payment;
+
+/**
+ * External card gateway. The idempotency key identifies one payment request: a gateway charges
+ * a key at most once, and a repeated call for an approved key reports the original approval
+ * without charging again. That is what makes it safe to retry a call that timed out.
+ */
+public interface PaymentGateway {
+    boolean charge(String cardNumber, long amountCents, String idempotencyKey);
+}
@@ -1,6 +1,5 @@
 package com.learn.parking.lot.design.payment;
 
 public interface PaymentProcessor {
-    boolean processPayment(PaymentMethod method, double amount);
+    boolean processPayment(PaymentMethod method, long amountCents, String idempotencyKey);
 }
-
@@ -1,13 +1,21 @@
 package com.learn.parking.lot.design.payment;
 
+// Processors are stateless, so each method's processor is created once and shared
 public class PaymentProcessorFactory {
-    public static PaymentProcessor getProcessor(PaymentMethod method) {
+    private final PaymentProcessor cashProcessor;
+    private final PaymentProcessor creditCardProcessor;
+    
+    public PaymentProcessorFactory(PaymentGateway gateway) {
+        this.cashProcessor = new CashPaymentProcessor();
+        this.creditCardProcessor = new CreditCardPaymentProcessor(gateway);
+    }
+    
+    public PaymentProcessor getProcessor(PaymentMethod method) {
         if (method instanceof CashPayment) {
-            return new CashPaymentProcessor();
+            return cashProcessor;
         } else if (method instanceof CreditCardPayment) {
-            return new CreditCardPaymentProcessor();
+            return creditCardProcessor;
         }
         throw new IllegalArgumentException("Unsupported payment method: " + method.getClass());
     }
 }
-
@@ -0,0 +1,46 @@
+package com.learn.parking.lot.design.payment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs payments off the request thread. Each payment gets its own virtual thread, so a slow card
+ * gateway parks cheap threads instead of stalling exit gates, and each payment method has its own
+ * timeout. The idempotency key is passed through to the gateway, so retrying a payment that
+ * timed out cannot charge the card twice.
+ */
+public class PaymentService implements AutoCloseable {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final PaymentProcessorFactory processors;
+    // keyed by PaymentMethod.getMethodName()
+    private final Map<String, Duration> timeouts;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PaymentService(PaymentGateway gateway, Map<String, Duration> timeouts) {
+        this.processors = new PaymentProcessorFactory(gateway);
+        this.timeouts = Map.copyOf(timeouts);
+    }
+
+    // Payments with no gateway latency, for lots built outside the Spring context
+    public static PaymentService immediate() {
+        return new PaymentService(new StubPaymentGateway(0, 0, 0.0, 0.0, 0), Map.of());
+    }
+
+    // Completes with the approval decision, or exceptionally with a TimeoutException
+    public CompletableFuture<Boolean> pay(PaymentMethod method, long amountCents, String idempotencyKey) {
+        PaymentProcessor processor = processors.getProcessor(method);
+        Duration timeout = timeouts.getOrDefault(method.getMethodName(), DEFAULT_TIMEOUT);
+        return CompletableFuture.supplyAsync(() -> processor.processPayment(method, amountCents, idempotencyKey), executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
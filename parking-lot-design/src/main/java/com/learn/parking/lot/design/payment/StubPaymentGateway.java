@@ -0,0 +1,62 @@
+package com.learn.parking.lot.design.payment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for a card gateway, for demos and exit load tests. Each call sleeps for a
+ * random latency, a share of calls is declined, and a share is "slow" (long enough to hit the
+ * payment timeout). Approvals are remembered per idempotency key, like a real gateway, so
+ * getChargeCount shows whether anything was charged twice; a key reused for a different amount
+ * is declined instead of reporting an approval for money that was never taken.
+ */
+public class StubPaymentGateway implements PaymentGateway {
+    private final long minLatencyMs;
+    private final long maxLatencyMs;
+    private final double declineRate;
+    private final double slowRate;
+    private final long slowLatencyMs;
+    private final Map<String, Long> approvedKeys = new ConcurrentHashMap<>();
+    private final AtomicLong charges = new AtomicLong();
+
+    public StubPaymentGateway(long minLatencyMs, long maxLatencyMs, double declineRate, double slowRate, long slowLatencyMs) {
+        if (minLatencyMs < 0 || maxLatencyMs < minLatencyMs) {
+            throw new IllegalArgumentException("Invalid stub gateway latency range: " + minLatencyMs + ".." + maxLatencyMs);
+        }
+        this.minLatencyMs = minLatencyMs;
+        this.maxLatencyMs = maxLatencyMs;
+        this.declineRate = declineRate;
+        this.slowRate = slowRate;
+        this.slowLatencyMs = slowLatencyMs;
+    }
+
+    @Override
+    public boolean charge(String cardNumber, long amountCents, String idempotencyKey) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = random.nextDouble() < slowRate ? slowLatencyMs : random.nextLong(minLatencyMs, maxLatencyMs + 1);
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        Long approved = approvedKeys.get(idempotencyKey);
+        if (approved != null) {
+            return approved == amountCents;
+        }
+        if (random.nextDouble() < declineRate) {
+            return false;
+        }
+        // Only the first approval for a key moves money
+        if (approvedKeys.putIfAbsent(idempotencyKey, amountCents) == null) {
+            charges.incrementAndGet();
+        }
+        return true;
+    }
+
+    public long getChargeCount() { return charges.get(); }
+}
@@ -1,32 +1,34 @@
 package com.learn.parking.lot.design.pricing;
 
 import com.learn.parking.lot.design.model.VehicleType;
-import java.util.HashMap;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
 import java.util.Map;
 
+// Flat hourly rates; used when no tariff is configured
 public class HourlyPricingStrategy implements PricingStrategy {
-    private Map<VehicleType, Double> hourlyRates;
+    private Map<VehicleType, Long> hourlyCents;
     
     public HourlyPricingStrategy() {
-        this.hourlyRates = new HashMap<>();
-        hourlyRates.put(VehicleType.MOTORCYCLE, 2.0);
-        hourlyRates.put(VehicleType.CAR, 5.0);
-        hourlyRates.put(VehicleType.TRUCK, 10.0);
+        this.hourlyCents = new EnumMap<>(VehicleType.class);
+        hourlyCents.put(VehicleType.MOTORCYCLE, 200L);
+        hourlyCents.put(VehicleType.CAR, 500L);
+        hourlyCents.put(VehicleType.TRUCK, 1000L);
     }
     
     @Override
-    public double calculatePrice(VehicleType vehicleType, long hoursParked) {
-        if (hoursParked == 0) hoursParked = 1; // Minimum 1 hour
+    public long calculatePriceCents(VehicleType vehicleType, LocalDateTime entryTime, LocalDateTime exitTime) {
+        long hoursParked = Math.max(1, ChronoUnit.HOURS.between(entryTime, exitTime)); // Minimum 1 hour
         
-        double baseRate = hourlyRates.get(vehicleType);
-        double totalPrice = baseRate * hoursParked;
+        long totalCents = hourlyCents.get(vehicleType) * hoursParked;
         
         // 20% discount for 24+ hours
         if (hoursParked >= 24) {
-            totalPrice *= 0.8;
+            totalCents = totalCents * 4 / 5;
         }
         
-        return totalPrice;
+        return totalCents;
     }
 }
-
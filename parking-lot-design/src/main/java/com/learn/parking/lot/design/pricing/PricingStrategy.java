@@ -2,7 +2,9 @@ package com.learn.parking.lot.design.pricing;
 
 import com.learn.parking.lot.design.model.VehicleType;
 
+import java.time.LocalDateTime;
+
 public interface PricingStrategy {
-    double calculatePrice(VehicleType vehicleType, long hoursParked);
+    // Fee in cents for a stay from entryTime to exitTime
+    long calculatePriceCents(VehicleType vehicleType, LocalDateTime entryTime, LocalDateTime exitTime);
 }
-
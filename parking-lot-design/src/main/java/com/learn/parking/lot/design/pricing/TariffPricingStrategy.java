@@ -0,0 +1,188 @@
+package com.learn.parking.lot.design.pricing;
+
+import com.learn.parking.lot.design.config.TariffProperties;
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A {@link TariffProperties} rule set compiled into flat lookup tables, all in integer cents.
+ *
+ * <p>Each day type (weekday, weekend) splits the day into segments at every band boundary, and
+ * each segment has one hourly rate per vehicle type. A stay is billed per minute once it outlasts
+ * the grace period: the partial first and last days walk their segments, each calendar day is
+ * clipped to its daily cap, and whole days in between are counted per day type and multiplied by
+ * a precomputed full-day charge. Pricing a stay is O(bands) however many days it spans.
+ */
+public final class TariffPricingStrategy implements PricingStrategy {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WEEKDAY = 0;
+    private static final int WEEKEND = 1;
+
+    private final int graceMinutes;
+    // [dayType][segment] first minute of the segment; segment 0 starts at 0
+    private final int[][] segmentStarts;
+    // [dayType][vehicleType][segment]
+    private final long[][][] hourlyCents;
+    // [dayType][vehicleType], Long.MAX_VALUE when uncapped
+    private final long[][] dailyCapCents;
+    private final long[][] fullDayCents;
+
+    private TariffPricingStrategy(int graceMinutes, int[][] segmentStarts, long[][][] hourlyCents, long[][] dailyCapCents) {
+        this.graceMinutes = graceMinutes;
+        this.segmentStarts = segmentStarts;
+        this.hourlyCents = hourlyCents;
+        this.dailyCapCents = dailyCapCents;
+        this.fullDayCents = new long[2][VehicleType.values().length];
+        for (int dayType = WEEKDAY; dayType <= WEEKEND; dayType++) {
+            for (int vehicle = 0; vehicle < fullDayCents[dayType].length; vehicle++) {
+                fullDayCents[dayType][vehicle] = dayCharge(dayType, vehicle, 0, MINUTES_PER_DAY);
+            }
+        }
+    }
+
+    public static TariffPricingStrategy compile(String name, TariffProperties tariff) {
+        if (tariff.getGraceMinutes() < 0) {
+            throw new IllegalStateException("Tariff " + name + " has a negative grace period");
+        }
+        TariffProperties.DayRates weekend = tariff.getWeekend() != null ? tariff.getWeekend() : tariff.getWeekday();
+        int vehicleTypes = VehicleType.values().length;
+        int[][] segmentStarts = new int[2][];
+        long[][][] hourlyCents = new long[2][vehicleTypes][];
+        long[][] dailyCapCents = new long[2][vehicleTypes];
+        compileDay(name + " weekday", tariff.getWeekday(), WEEKDAY, segmentStarts, hourlyCents, dailyCapCents);
+        compileDay(name + " weekend", weekend, WEEKEND, segmentStarts, hourlyCents, dailyCapCents);
+        return new TariffPricingStrategy(tariff.getGraceMinutes(), segmentStarts, hourlyCents, dailyCapCents);
+    }
+
+    private static void compileDay(String name, TariffProperties.DayRates rates, int dayType,
+                                   int[][] segmentStarts, long[][][] hourlyCents, long[][] dailyCapCents) {
+        // Each band covers one or two [from, to) minute ranges; later bands win where they overlap
+        List<int[]> ranges = new ArrayList<>();
+        List<Map<VehicleType, Long>> rangeRates = new ArrayList<>();
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add(0);
+        for (TariffProperties.Band band : rates.getBands()) {
+            int from = parseMinute(name, band.getFrom());
+            int to = parseMinute(name, band.getTo());
+            if (from == to || from == MINUTES_PER_DAY) {
+                throw new IllegalStateException("Tariff " + name + " has an empty band at " + band.getFrom());
+            }
+            if (from < to) {
+                ranges.add(new int[]{from, to});
+                rangeRates.add(band.getHourlyCents());
+            } else {
+                ranges.add(new int[]{from, MINUTES_PER_DAY});
+                rangeRates.add(band.getHourlyCents());
+                ranges.add(new int[]{0, to});
+                rangeRates.add(band.getHourlyCents());
+            }
+            boundaries.add(from);
+            boundaries.add(to);
+        }
+        boundaries.remove(MINUTES_PER_DAY);
+        int[] starts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+        segmentStarts[dayType] = starts;
+
+        for (VehicleType vehicleType : VehicleType.values()) {
+            Long base = rates.getHourlyCents().get(vehicleType);
+            if (base == null || base < 0) {
+                throw new IllegalStateException("Tariff " + name + " has no hourly rate for " + vehicleType);
+            }
+            long[] segmentRates = new long[starts.length];
+            for (int segment = 0; segment < starts.length; segment++) {
+                segmentRates[segment] = base;
+                for (int i = 0; i < ranges.size(); i++) {
+                    Long bandRate = rangeRates.get(i).get(vehicleType);
+                    if (bandRate != null && ranges.get(i)[0] <= starts[segment] && starts[segment] < ranges.get(i)[1]) {
+                        segmentRates[segment] = bandRate;
+                    }
+                }
+            }
+            hourlyCents[dayType][vehicleType.ordinal()] = segmentRates;
+            Long cap = rates.getDailyCapCents().get(vehicleType);
+            dailyCapCents[dayType][vehicleType.ordinal()] = cap != null ? cap : Long.MAX_VALUE;
+        }
+    }
+
+    private static int parseMinute(String name, String time) {
+        if ("24:00".equals(time)) {
+            return MINUTES_PER_DAY;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(time);
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Tariff " + name + " has an invalid band time: " + time, e);
+        }
+    }
+
+    @Override
+    public long calculatePriceCents(VehicleType vehicleType, LocalDateTime entryTime, LocalDateTime exitTime) {
+        long seconds = Duration.between(entryTime, exitTime).getSeconds();
+        long minutes = (seconds + 59) / 60; // started minutes are billed
+        if (minutes <= graceMinutes) {
+            return 0;
+        }
+        int vehicle = vehicleType.ordinal();
+        LocalDate date = entryTime.toLocalDate();
+        int startMinute = entryTime.getHour() * 60 + entryTime.getMinute();
+
+        int firstDayEnd = (int) Math.min(MINUTES_PER_DAY, startMinute + minutes);
+        long total = dayCharge(dayType(date.getDayOfWeek()), vehicle, startMinute, firstDayEnd);
+        long remaining = minutes - (firstDayEnd - startMinute);
+        date = date.plusDays(1);
+
+        long fullDays = remaining / MINUTES_PER_DAY;
+        if (fullDays > 0) {
+            long weekendDays = countWeekendDays(date.getDayOfWeek(), fullDays);
+            total += weekendDays * fullDayCents[WEEKEND][vehicle] + (fullDays - weekendDays) * fullDayCents[WEEKDAY][vehicle];
+            date = date.plusDays(fullDays);
+            remaining -= fullDays * MINUTES_PER_DAY;
+        }
+        if (remaining > 0) {
+            total += dayCharge(dayType(date.getDayOfWeek()), vehicle, 0, (int) remaining);
+        }
+        return total;
+    }
+
+    // Charge for minutes [from, to) of one day: per-minute sum over the segments, then the cap
+    private long dayCharge(int dayType, int vehicle, int from, int to) {
+        int[] starts = segmentStarts[dayType];
+        long[] rates = hourlyCents[dayType][vehicle];
+        long centMinutes = 0;
+        for (int segment = 0; segment < starts.length; segment++) {
+            int segmentEnd = segment + 1 < starts.length ? starts[segment + 1] : MINUTES_PER_DAY;
+            int overlap = Math.min(to, segmentEnd) - Math.max(from, starts[segment]);
+            if (overlap > 0) {
+                centMinutes += overlap * rates[segment];
+            }
+        }
+        long cents = (centMinutes + 59) / 60; // round part-cents up
+        return Math.min(cents, dailyCapCents[dayType][vehicle]);
+    }
+
+    private static int dayType(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY ? WEEKEND : WEEKDAY;
+    }
+
+    private static long countWeekendDays(DayOfWeek first, long days) {
+        long weekendDays = days / 7 * 2;
+        DayOfWeek day = first;
+        for (long i = 0; i < days % 7; i++) {
+            if (dayType(day) == WEEKEND) {
+                weekendDays++;
+            }
+            day = day.plus(1);
+        }
+        return weekendDays;
+    }
+}
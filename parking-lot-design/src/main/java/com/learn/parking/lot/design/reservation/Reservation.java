@@ -0,0 +1,57 @@
+package com.learn.parking.lot.design.reservation;
+
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pre-booked spot for a time window. Walk-ins leave room for it as the window approaches; the
+ * spot itself is taken out of walk-in allocation when check-in opens (HELD), a short while before
+ * the window starts.
+ */
+public class Reservation {
+    public enum Status {
+        BOOKED,      // window is booked on the spot's schedule; the spot is not held yet
+        HELD,        // check-in is open and the spot is kept free for this vehicle
+        CHECKED_IN,  // vehicle parked on a ticket
+        COMPLETED,
+        CANCELLED,
+        EXPIRED,     // vehicle did not arrive within the no-show grace period
+        BUMPED       // a vehicle was still parked in the spot and no other spot was free for the window
+    }
+
+    private final String reservationId;
+    private final String licensePlate;
+    private final VehicleType vehicleType;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    // guarded by the ReservationBook lock; the spot can move if a vehicle is still parked in it when check-in opens
+    private volatile ParkingSpot spot;
+    private volatile Status status;
+    private volatile String ticketId;
+
+    Reservation(String reservationId, String licensePlate, VehicleType vehicleType,
+                LocalDateTime startTime, LocalDateTime endTime) {
+        this.reservationId = reservationId;
+        this.licensePlate = licensePlate;
+        this.vehicleType = vehicleType;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = Status.BOOKED;
+    }
+
+    void setSpot(ParkingSpot spot) { this.spot = spot; }
+    void setStatus(Status status) { this.status = status; }
+    void setTicketId(String ticketId) { this.ticketId = ticketId; }
+
+    // Getters
+    public String getReservationId() { return reservationId; }
+    public String getLicensePlate() { return licensePlate; }
+    public VehicleType getVehicleType() { return vehicleType; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public ParkingSpot getSpot() { return spot; }
+    public Status getStatus() { return status; }
+    public String getTicketId() { return ticketId; }
+}
@@ -0,0 +1,429 @@
+package com.learn.parking.lot.design.reservation;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.model.Vehicle;
+import com.learn.parking.lot.design.model.VehicleType;
+import com.learn.parking.lot.design.service.TicketIdGenerator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-window reservations for one lot. Every spot has a {@link SpotSchedule} of its booked
+ * windows, so "is this spot free from 14:00 to 18:00" costs O(log k) in the spot's own bookings
+ * and a search for a free spot never reads other spots' reservations.
+ *
+ * <p>Booking only writes the spot's schedule. A spot of the type whose schedule is free for the
+ * window exists only while fewer bookings than spots overlap it, so the search is the per-type
+ * capacity check; vehicles parked in the lot now do not count, because they may well be gone by
+ * then. The spot's bit in the floor bitmap is claimed when check-in opens, holdBefore ahead of
+ * the window (HELD), and from then on walk-in allocation and the availability counts skip it.
+ * Until then a walk-in is admitted to a spot type only while its free spots outnumber the bookings
+ * of that type starting within walkInHorizon ({@link #freeForWalkIns}). If a vehicle is still
+ * parked in the spot when check-in opens, the reservation moves to another spot that is free for
+ * its window; one that finds no spot by its no-show deadline is BUMPED. A held reservation whose
+ * vehicle has not arrived noShowGrace after the window starts, or by the end of the window if that
+ * comes first, expires.
+ *
+ * <p>Reservations are kept in memory only and are not replayed from the ticket journal.
+ */
+public class ReservationBook {
+    private static final Duration MAX_WINDOW = Duration.ofDays(30);
+
+    private final List<Floor> floors;
+    // holding spots changes the free counts the availability snapshots are built from
+    private final Runnable availabilityChanged;
+    private final Map<SpotType, List<ParkingSpot>> spotsByType = new EnumMap<>(SpotType.class);
+    // built once; read without locking
+    private final Map<ParkingSpot, SpotSchedule> schedules = new IdentityHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final TicketIdGenerator ids = new TicketIdGenerator();
+    // Searches start where the previous booking went, so bookings spread over the spots
+    private final AtomicInteger cursor = new AtomicInteger();
+    // Spots whose bit is claimed for a HELD reservation while no vehicle is parked in them; guarded by lock
+    private final Map<SpotType, Set<ParkingSpot>> setAside = new EnumMap<>(SpotType.class);
+    // BOOKED reservations per spot type, by window start -> count; written under the lock, read by walk-ins without it
+    private final Map<SpotType, ConcurrentSkipListMap<LocalDateTime, Integer>> upcoming = new EnumMap<>(SpotType.class);
+
+    // Lifecycle changes are rare next to gate traffic and go through one lock
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ordered by window start and by no-show deadline. Cancelled and checked-in entries are not
+    // removed (that is a linear scan); advance drops them when they reach the head.
+    private final PriorityQueue<Reservation> awaitingHold;
+    private final PriorityQueue<Arrival> awaitingArrival;
+    private volatile Duration holdBefore = Duration.ofMinutes(60);
+    private volatile Duration noShowGrace = Duration.ofMinutes(30);
+    private volatile Duration walkInHorizon = Duration.ofHours(4);
+
+    public ReservationBook(List<Floor> floors, Runnable availabilityChanged) {
+        this.floors = floors;
+        this.availabilityChanged = availabilityChanged;
+        for (SpotType type : SpotType.values()) {
+            spotsByType.put(type, new ArrayList<>());
+            setAside.put(type, Collections.newSetFromMap(new IdentityHashMap<>()));
+            upcoming.put(type, new ConcurrentSkipListMap<>());
+        }
+        for (Floor floor : floors) {
+            for (ParkingSpot spot : floor.getAllSpots()) {
+                spotsByType.get(spot.getType()).add(spot);
+                schedules.put(spot, new SpotSchedule());
+            }
+        }
+        this.awaitingHold = new PriorityQueue<>(Comparator.comparing(Reservation::getStartTime));
+        this.awaitingArrival = new PriorityQueue<>(Comparator.comparing(Arrival::deadline));
+    }
+
+    /**
+     * Books a spot, smallest fitting type first, that is free for the whole window. Fails once
+     * every spot of the fitting types is booked for part of it. A booking whose check-in is
+     * already open also needs a spot with no vehicle in it right now.
+     *
+     * <p>First-fit from spot 0 would pack bookings into the first spots and make every later
+     * search walk past them; rotating the starting spot keeps bookings spread out, so a search
+     * usually stops after a few spots even with 100k bookings on the lot.
+     */
+    public Reservation reserve(String licensePlate, VehicleType vehicleType, LocalDateTime start, LocalDateTime end,
+                               LocalDateTime now) {
+        if (!start.isBefore(end) || !end.isAfter(now)) {
+            throw new IllegalArgumentException("A reservation needs a start before its end and an end in the future");
+        }
+        if (Duration.between(start, end).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("A reservation can be at most " + MAX_WINDOW.toDays() + " days long");
+        }
+        SpotType required = Vehicle.create(vehicleType, licensePlate).getRequiredSpotType();
+        String reservationId = "R" + TicketIdGenerator.encode(ids.nextId()).substring(1);
+        Reservation reservation = new Reservation(reservationId, licensePlate, vehicleType, start, end);
+        lock.lock();
+        try {
+            advance(now);
+            int first = cursor.getAndIncrement();
+            for (SpotType type : required.fallbackOrder()) {
+                List<ParkingSpot> spots = spotsByType.get(type);
+                for (int i = 0; i < spots.size(); i++) {
+                    if (place(reservation, spots.get(Math.floorMod(first + i, spots.size())), now)) {
+                        reservations.put(reservationId, reservation);
+                        return reservation;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        throw new RuntimeException("No " + required + " spot is free from " + start + " to " + end);
+    }
+
+    // Caller holds the lock. Books the window on the spot, opening check-in now if the hold is due.
+    private boolean place(Reservation reservation, ParkingSpot spot, LocalDateTime now) {
+        if (!book(reservation, spot)) {
+            return false;
+        }
+        if (!isHoldDue(reservation.getStartTime(), now)) {
+            awaitingHold.add(reservation);
+            return true;
+        }
+        if (claim(reservation)) {
+            return true;
+        }
+        unbook(reservation);
+        return false;
+    }
+
+    // Caller holds the lock. Writes the window on the spot's schedule; the reservation stays BOOKED.
+    private boolean book(Reservation reservation, ParkingSpot spot) {
+        if (!schedules.get(spot).book(reservation)) {
+            return false;
+        }
+        reservation.setSpot(spot);
+        upcoming.get(spot.getType()).merge(reservation.getStartTime(), 1, Integer::sum);
+        return true;
+    }
+
+    // Caller holds the lock. Takes a BOOKED reservation off its spot's schedule.
+    private void unbook(Reservation reservation) {
+        schedules.get(reservation.getSpot()).remove(reservation);
+        upcoming.get(reservation.getSpot().getType())
+                .computeIfPresent(reservation.getStartTime(), (_, n) -> n == 1 ? null : n - 1);
+    }
+
+    // Caller holds the lock. Opens check-in on the booked spot if no vehicle is parked in it.
+    private boolean claim(Reservation reservation) {
+        ParkingSpot spot = reservation.getSpot();
+        Set<ParkingSpot> spots = setAside.get(spot.getType());
+        if (!spots.contains(spot)) {
+            if (!floorOf(spot).holdSpot(spot)) {
+                return false;
+            }
+            spots.add(spot);
+            availabilityChanged.run();
+        }
+        upcoming.get(spot.getType()).computeIfPresent(reservation.getStartTime(), (_, n) -> n == 1 ? null : n - 1);
+        reservation.setStatus(Reservation.Status.HELD);
+        awaitArrival(reservation);
+        return true;
+    }
+
+    // Caller holds the lock. Gives a set-aside spot back to walk-ins once no held reservation needs it.
+    private void releaseIfUnheld(ParkingSpot spot) {
+        if (!schedules.get(spot).contains(Reservation.Status.HELD) && setAside.get(spot.getType()).remove(spot)) {
+            floorOf(spot).releaseSpot(spot);
+            availabilityChanged.run();
+        }
+    }
+
+    /**
+     * Free spots of this type a walk-in may take now: the free count less the bookings of the
+     * type whose window starts within walkInHorizon and whose spot is not held yet. Below one
+     * the type is full for walk-ins; read without the lifecycle lock, so it can be off by a
+     * booking made concurrently.
+     */
+    public int freeForWalkIns(SpotType type, LocalDateTime now) {
+        int free = 0;
+        for (Floor floor : floors) {
+            free += floor.getAvailableSpotCount(type);
+        }
+        int booked = 0;
+        for (int count : upcoming.get(type).headMap(now.plus(walkInHorizon), true).values()) {
+            booked += count;
+        }
+        return free - booked;
+    }
+
+    /**
+     * Any spot of exactly this type that could be booked for the window, or null. Reads the
+     * schedules without taking the lifecycle lock, so the answer can be stale by the time a
+     * reservation is made.
+     */
+    public ParkingSpot findFreeSpot(SpotType type, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        List<ParkingSpot> spots = spotsByType.get(type);
+        int first = cursor.get();
+        for (int i = 0; i < spots.size(); i++) {
+            ParkingSpot spot = spots.get(Math.floorMod(first + i, spots.size()));
+            // Who is parked now only matters if check-in for the window is already open
+            if (schedules.get(spot).isFree(start, end) && (!isHoldDue(start, now) || !spot.isOccupied())) {
+                return spot;
+            }
+        }
+        return null;
+    }
+
+    public Reservation getReservation(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new RuntimeException("Unknown reservation: " + reservationId);
+        }
+        return reservation;
+    }
+
+    public Reservation cancel(String reservationId) {
+        lock.lock();
+        try {
+            Reservation reservation = getReservation(reservationId);
+            if (reservation.getStatus() != Reservation.Status.BOOKED && reservation.getStatus() != Reservation.Status.HELD) {
+                throw new RuntimeException("Reservation " + reservationId + " is " + reservation.getStatus());
+            }
+            close(reservation, Reservation.Status.CANCELLED);
+            return reservation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the reservation's vehicle as arrived. On return the spot is held for it and the caller
+     * parks the vehicle there; {@link #revertCheckIn} undoes this if issuing the ticket fails.
+     */
+    public Reservation checkIn(String reservationId, String ticketId, LocalDateTime now) {
+        lock.lock();
+        try {
+            advance(now);
+            Reservation reservation = getReservation(reservationId);
+            if (reservation.getStatus() == Reservation.Status.BOOKED) {
+                throw new RuntimeException("Reservation " + reservationId + " starts at " + reservation.getStartTime()
+                        + "; check-in opens " + holdBefore.toMinutes() + " minutes before");
+            }
+            if (reservation.getStatus() != Reservation.Status.HELD) {
+                throw new RuntimeException("Reservation " + reservationId + " is " + reservation.getStatus());
+            }
+            reservation.setTicketId(ticketId);
+            reservation.setStatus(Reservation.Status.CHECKED_IN);
+            // The bit stays claimed: the caller parks the vehicle on it
+            setAside.get(reservation.getSpot().getType()).remove(reservation.getSpot());
+            return reservation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The spot stays held and the no-show expiry applies again
+    public void revertCheckIn(Reservation reservation) {
+        lock.lock();
+        try {
+            reservation.setTicketId(null);
+            reservation.setStatus(Reservation.Status.HELD);
+            setAside.get(reservation.getSpot().getType()).add(reservation.getSpot());
+            awaitArrival(reservation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called when the reserved vehicle leaves, in place of releasing its spot: the spot goes back
+     * to walk-ins, or stays set aside if check-in for a later window on it is already open. The
+     * rest of the vehicle's window becomes bookable again.
+     */
+    public void complete(Reservation reservation) {
+        lock.lock();
+        try {
+            ParkingSpot spot = reservation.getSpot();
+            close(reservation, Reservation.Status.COMPLETED);
+            if (schedules.get(spot).contains(Reservation.Status.HELD)) {
+                spot.removeVehicle();
+                setAside.get(spot.getType()).add(spot);
+            } else {
+                floorOf(spot).releaseSpot(spot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void close(Reservation reservation, Reservation.Status status) {
+        if (reservation.getStatus() == Reservation.Status.BOOKED) {
+            unbook(reservation);
+        } else {
+            schedules.get(reservation.getSpot()).remove(reservation);
+        }
+        reservation.setStatus(status);
+        reservations.remove(reservation.getReservationId());
+        releaseIfUnheld(reservation.getSpot());
+    }
+
+    /**
+     * Starts the holds that are due and expires the reservations whose vehicle has not arrived by
+     * their no-show deadline, giving back spots no other held reservation needs. Runs on a ticker and
+     * before every check-in and booking, so the state is current whenever it is acted on.
+     */
+    public void advance(LocalDateTime now) {
+        lock.lock();
+        try {
+            List<Reservation> blocked = new ArrayList<>();
+            Reservation next;
+            while ((next = awaitingHold.peek()) != null && isHoldDue(next.getStartTime(), now)) {
+                awaitingHold.poll();
+                if (next.getStatus() != Reservation.Status.BOOKED) {
+                    continue;
+                }
+                if (hold(next, now)) {
+                    continue;
+                }
+                if (!noShowDeadline(next).isAfter(now)) {
+                    // No spot came free for the window in time: the lot could not honor it
+                    close(next, Reservation.Status.BUMPED);
+                } else {
+                    blocked.add(next);
+                }
+            }
+            // Still blocked by an overstaying vehicle and no other spot free: retry on the next
+            // tick, until the deadline above bumps it
+            awaitingHold.addAll(blocked);
+
+            Arrival due;
+            while ((due = awaitingArrival.peek()) != null && !due.deadline().isAfter(now)) {
+                awaitingArrival.poll();
+                Reservation held = due.reservation();
+                if (held.getStatus() != Reservation.Status.HELD) {
+                    continue;
+                }
+                close(held, Reservation.Status.EXPIRED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock. Opens check-in on the booked spot, or on another one if it is taken.
+    private boolean hold(Reservation reservation, LocalDateTime now) {
+        if (claim(reservation)) {
+            return true;
+        }
+        // A vehicle is still parked in the spot: move to a spot that is free for the window,
+        // trying spots already set aside before empty ones
+        ParkingSpot current = reservation.getSpot();
+        unbook(reservation);
+        SpotType required = Vehicle.create(reservation.getVehicleType(), reservation.getLicensePlate()).getRequiredSpotType();
+        for (SpotType type : required.fallbackOrder()) {
+            for (ParkingSpot spot : List.copyOf(setAside.get(type))) {
+                if (place(reservation, spot, now)) {
+                    return true;
+                }
+            }
+            // A full type has no candidate, so a blocked hold costs nothing until a spot frees up
+            if (!hasEmptySpot(type)) {
+                continue;
+            }
+            // Like a booking: start at the cursor and ask the spot's schedule first
+            List<ParkingSpot> spots = spotsByType.get(type);
+            int first = cursor.get();
+            for (int i = 0; i < spots.size(); i++) {
+                ParkingSpot spot = spots.get(Math.floorMod(first + i, spots.size()));
+                if (spot != current && !spot.isOccupied() && place(reservation, spot, now)) {
+                    return true;
+                }
+            }
+        }
+        book(reservation, current);
+        return false;
+    }
+
+    private boolean hasEmptySpot(SpotType type) {
+        for (Floor floor : floors) {
+            if (floor.getAvailableSpotCount(type) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Caller holds the lock
+    private void awaitArrival(Reservation reservation) {
+        awaitingArrival.add(new Arrival(noShowDeadline(reservation), reservation));
+    }
+
+    // noShowGrace after the window starts, but never past its end
+    private LocalDateTime noShowDeadline(Reservation reservation) {
+        LocalDateTime graceOver = reservation.getStartTime().plus(noShowGrace);
+        return graceOver.isBefore(reservation.getEndTime()) ? graceOver : reservation.getEndTime();
+    }
+
+    private boolean isHoldDue(LocalDateTime start, LocalDateTime now) {
+        return !start.minus(holdBefore).isAfter(now);
+    }
+
+    private Floor floorOf(ParkingSpot spot) {
+        for (Floor floor : floors) {
+            if (floor.getFloorNumber() == spot.getFloorNumber()) {
+                return floor;
+            }
+        }
+        throw new IllegalStateException("Unknown floor: " + spot.getFloorNumber());
+    }
+
+    public int getReservationCount() { return reservations.size(); }
+    public Duration getHoldBefore() { return holdBefore; }
+    public void setHoldBefore(Duration holdBefore) { this.holdBefore = holdBefore; }
+    public Duration getNoShowGrace() { return noShowGrace; }
+    public void setNoShowGrace(Duration noShowGrace) { this.noShowGrace = noShowGrace; }
+    public Duration getWalkInHorizon() { return walkInHorizon; }
+    public void setWalkInHorizon(Duration walkInHorizon) { this.walkInHorizon = walkInHorizon; }
+
+    private record Arrival(LocalDateTime deadline, Reservation reservation) {}
+}
@@ -0,0 +1,49 @@
+package com.learn.parking.lot.design.reservation;
+
+import com.learn.parking.lot.design.config.ParkingLotProperties;
+import com.learn.parking.lot.design.service.ParkingLot;
+import com.learn.parking.lot.design.service.ParkingLotRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves every lot's reservations through their holds and no-show expiries on a fixed tick
+@Component
+public class ReservationScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ReservationScheduler.class);
+
+    private final ParkingLotRegistry registry;
+    private final ScheduledExecutorService ticker;
+
+    public ReservationScheduler(ParkingLotRegistry registry, ParkingLotProperties properties) {
+        this.registry = registry;
+        long periodMillis = properties.getReservations().getTick().toMillis();
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("parking.reservations.tick must be positive");
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("reservations").daemon().factory());
+        ticker.scheduleAtFixedRate(this::advance, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void advance() {
+        for (ParkingLot lot : registry.getLots()) {
+            try {
+                lot.getReservations().advance(LocalDateTime.now(lot.getClock()));
+            } catch (RuntimeException e) {
+                // An exception would cancel the periodic task for every lot
+                log.warn("Advancing reservations of lot {} failed", lot.getLotId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
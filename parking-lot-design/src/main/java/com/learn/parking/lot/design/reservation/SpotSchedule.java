@@ -0,0 +1,51 @@
+package com.learn.parking.lot.design.reservation;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Interval tree of the booked windows of one spot. Windows are half-open [start, end) and a
+ * spot's windows never overlap, so ordering them by start also orders them by end: the tree is a
+ * plain ordered map, and the only window that can overlap [start, end) is the last one starting
+ * before end. Overlap checks, bookings and removals are O(log k) for k windows on the spot.
+ */
+public class SpotSchedule {
+    private final TreeMap<LocalDateTime, Reservation> windows = new TreeMap<>();
+
+    public synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Reservation> before = windows.lowerEntry(end);
+        return before == null || !before.getValue().getEndTime().isAfter(start);
+    }
+
+    // Books the reservation's window if nothing overlaps it
+    public synchronized boolean book(Reservation reservation) {
+        if (!isFree(reservation.getStartTime(), reservation.getEndTime())) {
+            return false;
+        }
+        windows.put(reservation.getStartTime(), reservation);
+        return true;
+    }
+
+    public synchronized void remove(Reservation reservation) {
+        windows.remove(reservation.getStartTime(), reservation);
+    }
+
+    // Whether a reservation on the spot is in this status; k is small, so a scan is fine
+    public synchronized boolean contains(Reservation.Status status) {
+        for (Reservation reservation : windows.values()) {
+            if (reservation.getStatus() == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized boolean isEmpty() {
+        return windows.isEmpty();
+    }
+
+    public synchronized int size() {
+        return windows.size();
+    }
+}
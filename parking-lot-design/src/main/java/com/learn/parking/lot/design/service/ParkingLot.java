@@ -1,130 +1,613 @@
 package com.learn.parking.lot.design.service;
 
+import com.learn.parking.lot.design.allocation.FloorLoadBalancingStrategy;
+import com.learn.parking.lot.design.allocation.SpotAllocationStrategy;
+import com.learn.parking.lot.design.availability.AvailabilityPublisher;
+import com.learn.parking.lot.design.availability.AvailabilitySnapshot;
+import com.learn.parking.lot.design.journal.JournalRecord;
+import com.learn.parking.lot.design.journal.TicketJournal;
+import com.learn.parking.lot.design.metrics.ParkingMetrics;
 import com.learn.parking.lot.design.model.*;
 import com.learn.parking.lot.design.pricing.PricingStrategy;
+import com.learn.parking.lot.design.reservation.Reservation;
+import com.learn.parking.lot.design.reservation.ReservationBook;
+import com.learn.parking.lot.design.stats.ParkingStats;
 import com.learn.parking.lot.design.pricing.HourlyPricingStrategy;
 import com.learn.parking.lot.design.payment.PaymentMethod;
-import com.learn.parking.lot.design.payment.PaymentProcessorFactory;
-import com.learn.parking.lot.design.payment.PaymentProcessor;
+import com.learn.parking.lot.design.payment.PaymentService;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
 
 public class ParkingLot {
-    private static ParkingLot instance;
+    private final String lotId;
+    private final String name;
     private List<Floor> floors;
     private Map<String, ParkingTicket> activeTickets;
-    private PricingStrategy pricingStrategy;
+    // normalized plate -> ticket id of the vehicle parked under it
+    private final Map<String, String> parkedPlates;
+    private final TicketIdGenerator ticketIds;
+    // (ticket id, idempotency key) -> exit in flight or approved; declined and failed exits are removed
+    private final Map<ExitKey, CompletableFuture<Receipt>> exitsByKey;
+    private final Queue<CompletedExit> completedExits;
+    // ticket id -> idempotency key of the payment being processed for it
+    private final Map<String, String> paymentsInFlight;
+    // ticket id -> payment approved for it whose exit has not completed yet; a retry reuses it
+    private final Map<String, PricedExit> approvedPayments;
+    // ticket id -> idempotency key -> fee and exit time first charged under that key. A timed-out
+    // charge can still be approved late, so a retry with the key must ask for the same amount.
+    private final Map<String, Map<String, PricedExit>> quotedExits;
+    private volatile PaymentService payments;
+    private volatile Duration idempotencyRetention;
+    private volatile PricingStrategy pricingStrategy;
+    private volatile SpotAllocationStrategy allocationStrategy;
+    private final AvailabilityPublisher availability;
+    private final TicketJournal journal;
+    private final ReservationBook reservations;
+    private volatile ParkingStats stats;
+    private volatile ParkingMetrics metrics;
+    // entry and exit times; a simulation swaps in a compressed clock
+    private volatile Clock clock;
+    // ticket id -> reservation the vehicle checked in with
+    private final Map<String, Reservation> reservedTickets;
     
-    private ParkingLot() {
-        this.floors = new ArrayList<>();
-        this.activeTickets = new ConcurrentHashMap<>();
-        this.pricingStrategy = new HourlyPricingStrategy();
-        initializeParkingLot();
+    public ParkingLot(String lotId, String name, List<Floor> floors) {
+        this(lotId, name, floors, TicketJournal.NONE);
     }
     
-    public static synchronized ParkingLot getInstance() {
-        if (instance == null) {
-            instance = new ParkingLot();
-        }
-        return instance;
+    // Lots are built by ParkingLotRegistry from the configured layouts
+    public ParkingLot(String lotId, String name, List<Floor> floors, TicketJournal journal) {
+        this.lotId = lotId;
+        this.journal = journal;
+        this.name = name;
+        this.floors = List.copyOf(floors);
+        this.activeTickets = new ConcurrentHashMap<>();
+        this.parkedPlates = new ConcurrentHashMap<>();
+        this.ticketIds = new TicketIdGenerator();
+        this.exitsByKey = new ConcurrentHashMap<>();
+        this.completedExits = new ConcurrentLinkedQueue<>();
+        this.paymentsInFlight = new ConcurrentHashMap<>();
+        this.approvedPayments = new ConcurrentHashMap<>();
+        this.quotedExits = new ConcurrentHashMap<>();
+        this.payments = PaymentService.immediate();
+        this.idempotencyRetention = Duration.ofHours(24);
+        this.pricingStrategy = new HourlyPricingStrategy();
+        this.allocationStrategy = new FloorLoadBalancingStrategy();
+        this.availability = new AvailabilityPublisher(this.floors, activeTickets::size);
+        this.clock = Clock.systemDefaultZone();
+        this.stats = new ParkingStats(this.floors, ParkingStats.DEFAULT_OCCUPANCY_MINUTES, this::getClock);
+        this.metrics = ParkingMetrics.none(lotId, this.floors);
+        this.reservations = new ReservationBook(this.floors, () -> {
+            availability.publish();
+            stats.recordOccupancy();
+        });
+        this.reservedTickets = new ConcurrentHashMap<>();
     }
     
-    private void initializeParkingLot() {
-        // Create 3 floors with different spot distributions
-        for (int floorNum = 1; floorNum <= 3; floorNum++) {
-            Floor floor = new Floor(floorNum);
+    public ParkingTicket issueTicket(Vehicle vehicle) {
+        ParkingMetrics metrics = this.metrics;
+        long started = System.nanoTime();
+        ParkingMetrics.EntryOutcome outcome = ParkingMetrics.EntryOutcome.REJECTED;
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (isFull(vehicle.getRequiredSpotType(), now)) {
+                outcome = ParkingMetrics.EntryOutcome.FULL;
+                metrics.recordFull(vehicle.getRequiredSpotType());
+                throw new RuntimeException("Parking lot is full for " + vehicle.getRequiredSpotType() + " spots");
+            }
             
-            // Add spots based on the design document distribution
-            addSpotsToFloor(floor, SpotType.COMPACT, 33);    // ~20% of 165 spots per floor
-            addSpotsToFloor(floor, SpotType.REGULAR, 116);   // ~70% of 165 spots per floor
-            addSpotsToFloor(floor, SpotType.LARGE, 10);      // ~6% of 165 spots per floor
-            addSpotsToFloor(floor, SpotType.HANDICAPPED, 6); // ~4% of 165 spots per floor
+            // Reserving the plate first rejects a second entry of a parked vehicle in O(1)
+            String ticketId = ticketIds.next();
+            String plate = normalizePlate(vehicle.getLicensePlate());
+            String parkedUnder = parkedPlates.putIfAbsent(plate, ticketId);
+            if (parkedUnder != null) {
+                throw new RuntimeException("Vehicle " + vehicle.getLicensePlate() + " is already parked with ticket " + parkedUnder);
+            }
             
-            floors.add(floor);
-        }
-    }
-    
-    private void addSpotsToFloor(Floor floor, SpotType type, int count) {
-        for (int i = 1; i <= count; i++) {
-            String spotId = "F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + String.format("%03d", i);
-            ParkingSpot spot = new ParkingSpot(spotId, type, floor.getFloorNumber());
-            floor.addSpot(spot);
+            // Until the journal has the entry, any failure gives back the plate and the spot
+            ParkingSpot spot = null;
+            ParkingTicket ticket;
+            boolean recorded = false;
+            try {
+                spot = findAndAssignSpot(vehicle, metrics, now);
+                if (spot == null) {
+                    outcome = ParkingMetrics.EntryOutcome.FULL;
+                    metrics.recordFull(vehicle.getRequiredSpotType());
+                    throw new RuntimeException("No available spot found for " + vehicle);
+                }
+                metrics.recordAllocation(vehicle.getRequiredSpotType(), spot.getType());
+                
+                ticket = new ParkingTicket(ticketId, vehicle, spot, now);
+                journal.recordEntry(ticket);
+                recorded = true;
+            } finally {
+                if (!recorded) {
+                    if (spot != null) {
+                        getFloor(spot.getFloorNumber()).releaseSpot(spot);
+                    }
+                    parkedPlates.remove(plate, ticketId);
+                }
+            }
+            activeTickets.put(ticketId, ticket);
+            availability.publish();
+            stats.recordOccupancy(spot);
+            outcome = ParkingMetrics.EntryOutcome.ISSUED;
+            
+            return ticket;
+        } finally {
+            metrics.recordEntry(outcome, System.nanoTime() - started);
         }
     }
     
-    public ParkingTicket issueTicket(Vehicle vehicle) {
-        if (isFull(vehicle.getRequiredSpotType())) {
-            throw new RuntimeException("Parking lot is full for " + vehicle.getRequiredSpotType() + " spots");
+    /**
+     * Parks a reserved vehicle in the spot its reservation holds. Check-in opens when the hold
+     * starts, shortly before the reserved window.
+     */
+    public ParkingTicket checkIn(String reservationId) {
+        Reservation booked = reservations.getReservation(reservationId);
+        Vehicle vehicle = Vehicle.create(booked.getVehicleType(), booked.getLicensePlate());
+        String ticketId = ticketIds.next();
+        String plate = normalizePlate(vehicle.getLicensePlate());
+        String parkedUnder = parkedPlates.putIfAbsent(plate, ticketId);
+        if (parkedUnder != null) {
+            throw new RuntimeException("Vehicle " + vehicle.getLicensePlate() + " is already parked with ticket " + parkedUnder);
         }
         
-        ParkingSpot spot = findAndAssignSpot(vehicle);
-        if (spot == null) {
-            throw new RuntimeException("No available spot found for " + vehicle);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Reservation reservation;
+        try {
+            reservation = reservations.checkIn(reservationId, ticketId, now);
+        } catch (RuntimeException e) {
+            parkedPlates.remove(plate, ticketId);
+            throw e;
         }
-        
-        String ticketId = generateTicketId();
-        ParkingTicket ticket = new ParkingTicket(ticketId, vehicle, spot);
+        ParkingSpot spot = reservation.getSpot();
+        try {
+            getFloor(spot.getFloorNumber()).occupyHeldSpot(spot, vehicle, now);
+        } catch (RuntimeException e) {
+            reservations.revertCheckIn(reservation);
+            parkedPlates.remove(plate, ticketId);
+            throw e;
+        }
+        ParkingTicket ticket = new ParkingTicket(ticketId, vehicle, spot, now);
+        try {
+            journal.recordEntry(ticket);
+        } catch (RuntimeException e) {
+            spot.removeVehicle();
+            reservations.revertCheckIn(reservation);
+            parkedPlates.remove(plate, ticketId);
+            throw e;
+        }
+        reservedTickets.put(ticketId, reservation);
         activeTickets.put(ticketId, ticket);
+        availability.publish();
+        stats.recordOccupancy(spot);
         
         return ticket;
     }
     
+    /**
+     * Parks a whole arrival wave in one pass. Vehicles are grouped by required spot type and each
+     * group goes to the lot's allocation strategy in one call; the default strategy claims runs of
+     * free spots a floor at a time instead of searching once per vehicle. The tickets are
+     * journaled as one batch and one availability update is published. Each vehicle is recorded
+     * in the entry metrics with the time the whole batch took, and in the spot-search metrics with
+     * its group's share of the search time. Returns one result per vehicle, in input order; a
+     * journal failure rejects the whole batch.
+     */
+    public List<EntryResult> issueTickets(List<Vehicle> vehicles) {
+        ParkingMetrics metrics = this.metrics;
+        long started = System.nanoTime();
+        ParkingMetrics.EntryOutcome[] outcomes = new ParkingMetrics.EntryOutcome[vehicles.size()];
+        Arrays.fill(outcomes, ParkingMetrics.EntryOutcome.REJECTED);
+        try {
+            EntryResult[] results = new EntryResult[vehicles.size()];
+            String[] plates = new String[vehicles.size()];
+            String[] ticketIdsByVehicle = new String[vehicles.size()];
+            List<ParkingTicket> tickets = new ArrayList<>(vehicles.size());
+            List<Integer> issued = new ArrayList<>(vehicles.size());
+            // Until the journal has the batch, any failure gives back every plate and spot it took
+            List<ParkingSpot> claimed = new ArrayList<>(vehicles.size());
+            ParkingSpot[] pending = null;
+            boolean settled = false;
+            try {
+                Map<SpotType, List<Integer>> waiting = new EnumMap<>(SpotType.class);
+                for (int i = 0; i < vehicles.size(); i++) {
+                    Vehicle vehicle = vehicles.get(i);
+                    String ticketId = ticketIds.next();
+                    String plate = normalizePlate(vehicle.getLicensePlate());
+                    String parkedUnder = parkedPlates.putIfAbsent(plate, ticketId);
+                    if (parkedUnder != null) {
+                        results[i] = EntryResult.rejected(vehicle.getLicensePlate(),
+                                "Vehicle " + vehicle.getLicensePlate() + " is already parked with ticket " + parkedUnder);
+                        continue;
+                    }
+                    plates[i] = plate;
+                    ticketIdsByVehicle[i] = ticketId;
+                    waiting.computeIfAbsent(vehicle.getRequiredSpotType(), type -> new ArrayList<>()).add(i);
+                }
+            
+                SpotAllocationStrategy strategy = allocationStrategy;
+                LocalDateTime entryTime = LocalDateTime.now(clock);
+                for (Map.Entry<SpotType, List<Integer>> group : waiting.entrySet()) {
+                    List<Integer> indices = group.getValue();
+                    List<Vehicle> groupVehicles = new ArrayList<>(indices.size());
+                    for (int index : indices) {
+                        groupVehicles.add(vehicles.get(index));
+                    }
+                    ParkingSpot[] spots = new ParkingSpot[indices.size()];
+                    pending = spots;
+                    long searchStarted = System.nanoTime();
+                    strategy.allocateAll(floors, groupVehicles, spots);
+                    leaveRoomForBookings(groupVehicles, spots, entryTime);
+                    for (ParkingSpot spot : spots) {
+                        if (spot != null) {
+                            claimed.add(spot);
+                        }
+                    }
+                    pending = null;
+                    long searchNanos = (System.nanoTime() - searchStarted) / spots.length;
+                    for (int i = 0; i < spots.length; i++) {
+                        int index = indices.get(i);
+                        Vehicle vehicle = groupVehicles.get(i);
+                        metrics.recordSpotSearch(spots[i] != null, searchNanos);
+                        if (spots[i] == null) {
+                            parkedPlates.remove(plates[index], ticketIdsByVehicle[index]);
+                            outcomes[index] = ParkingMetrics.EntryOutcome.FULL;
+                            metrics.recordFull(vehicle.getRequiredSpotType());
+                            results[index] = EntryResult.rejected(vehicle.getLicensePlate(),
+                                    "Parking lot is full for " + vehicle.getRequiredSpotType() + " spots");
+                        } else {
+                            metrics.recordAllocation(vehicle.getRequiredSpotType(), spots[i].getType());
+                            ParkingTicket ticket = new ParkingTicket(ticketIdsByVehicle[index], vehicle, spots[i], entryTime);
+                            tickets.add(ticket);
+                            issued.add(index);
+                            results[index] = EntryResult.issued(ticket);
+                        }
+                    }
+                }
+                if (!tickets.isEmpty()) {
+                    journal.recordEntries(tickets);
+                }
+                settled = true;
+            } finally {
+                if (!settled) {
+                    for (ParkingSpot spot : claimed) {
+                        getFloor(spot.getFloorNumber()).releaseSpot(spot);
+                    }
+                    if (pending != null) {
+                        for (ParkingSpot spot : pending) {
+                            if (spot != null) {
+                                getFloor(spot.getFloorNumber()).releaseSpot(spot);
+                            }
+                        }
+                    }
+                    for (int i = 0; i < plates.length; i++) {
+                        if (plates[i] != null) {
+                            parkedPlates.remove(plates[i], ticketIdsByVehicle[i]);
+                        }
+                    }
+                }
+            }
+            if (tickets.isEmpty()) {
+                return Arrays.asList(results);
+            }
+            for (ParkingTicket ticket : tickets) {
+                activeTickets.put(ticket.getTicketId(), ticket);
+            }
+            for (int index : issued) {
+                outcomes[index] = ParkingMetrics.EntryOutcome.ISSUED;
+            }
+            availability.publish();
+            stats.recordOccupancy();
+            
+            return Arrays.asList(results);
+        } finally {
+            long nanos = System.nanoTime() - started;
+            for (ParkingMetrics.EntryOutcome outcome : outcomes) {
+                metrics.recordEntry(outcome, nanos);
+            }
+        }
+    }
+    
     public Receipt processExit(String ticketId, PaymentMethod paymentMethod) {
+        try {
+            return processExitAsync(ticketId, paymentMethod, null).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Charges the exit fee on the payment executor and frees the spot only once the payment is
+     * approved. A request repeated for the same ticket with the same idempotency key (the ticket
+     * id if none is given) gets the first request's outcome instead of a second charge; only
+     * declined, timed-out or failed attempts give the key back for another try. Once a payment is
+     * approved it stays recorded against the ticket, so if freeing the spot fails afterwards a
+     * retry only redoes that step and never goes back to the gateway. A retry under the same key
+     * charges the fee and exit time of the first attempt, so a timed-out charge the gateway
+     * approved late matches the receipt.
+     */
+    public CompletableFuture<Receipt> processExitAsync(String ticketId, PaymentMethod paymentMethod, String idempotencyKey) {
+        expireCompletedExits();
+        ExitKey key = new ExitKey(ticketId, idempotencyKey != null ? idempotencyKey : ticketId);
+        CompletableFuture<Receipt> exit = new CompletableFuture<>();
+        CompletableFuture<Receipt> earlier = exitsByKey.putIfAbsent(key, exit);
+        if (earlier != null) {
+            return earlier;
+        }
+        ParkingMetrics metrics = this.metrics;
+        long started = System.nanoTime();
+        exit.whenComplete((receipt, error) -> metrics.recordExit(
+                error == null ? ParkingMetrics.ExitOutcome.COMPLETED : ParkingMetrics.ExitOutcome.FAILED, System.nanoTime() - started));
+        
         ParkingTicket ticket = activeTickets.get(ticketId);
         if (ticket == null) {
-            throw new RuntimeException("Invalid ticket ID: " + ticketId);
+            return failExit(key, exit, new RuntimeException("Invalid ticket ID: " + ticketId));
         }
-        
-        double fee = pricingStrategy.calculatePrice(ticket.getVehicle().getType(), ticket.getHoursParked());
-        
-        PaymentProcessor processor = PaymentProcessorFactory.getProcessor(paymentMethod);
-        boolean paymentSuccess = processor.processPayment(paymentMethod, fee);
-        
-        if (!paymentSuccess) {
-            throw new RuntimeException("Payment failed for ticket: " + ticketId);
+        // Two gates paying the same ticket under different keys must not both charge
+        if (paymentsInFlight.putIfAbsent(ticketId, key.idempotencyKey()) != null) {
+            return failExit(key, exit, new RuntimeException("Payment already in progress for ticket: " + ticketId));
+        }
+        PricedExit earlierPayment = approvedPayments.get(ticketId);
+        if (earlierPayment != null) {
+            Receipt receipt;
+            try {
+                receipt = completeExit(ticket, earlierPayment.feeCents() / 100.0, earlierPayment.exitTime());
+            } catch (RuntimeException e) {
+                paymentsInFlight.remove(ticketId, key.idempotencyKey());
+                return failExit(key, exit, e);
+            }
+            paymentsInFlight.remove(ticketId, key.idempotencyKey());
+            completedExits.add(new CompletedExit(key, System.nanoTime()));
+            exit.complete(receipt);
+            return exit;
         }
         
-        ticket.getAssignedSpot().removeVehicle();
-        ticket.completeTicket(fee);
-        activeTickets.remove(ticketId);
+        PricedExit quoted = quotedExits.computeIfAbsent(ticketId, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key.idempotencyKey(), k -> price(ticket, metrics));
+        long feeCents = quoted.feeCents();
+        LocalDateTime exitTime = quoted.exitTime();
+        long paymentStarted = System.nanoTime();
+        CompletableFuture<Boolean> payment;
+        try {
+            // The gateway sees the ticket too, so one key reused across tickets charges each of them
+            payment = payments.pay(paymentMethod, feeCents, ticketId + ":" + key.idempotencyKey());
+        } catch (RuntimeException e) {
+            paymentsInFlight.remove(ticketId, key.idempotencyKey());
+            return failExit(key, exit, e);
+        }
+        payment.whenComplete((approved, error) -> {
+            String method = paymentMethod.getMethodName();
+            long paymentNanos = System.nanoTime() - paymentStarted;
+            Receipt receipt;
+            try {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        metrics.recordPayment(method, ParkingMetrics.PaymentOutcome.TIMEOUT, paymentNanos);
+                        throw new RuntimeException("Payment timed out for ticket: " + ticketId);
+                    }
+                    metrics.recordPayment(method, ParkingMetrics.PaymentOutcome.ERROR, paymentNanos);
+                    throw new RuntimeException("Payment error for ticket: " + ticketId, cause);
+                }
+                metrics.recordPayment(method, approved ? ParkingMetrics.PaymentOutcome.APPROVED : ParkingMetrics.PaymentOutcome.DECLINED, paymentNanos);
+                if (!approved) {
+                    throw new RuntimeException("Payment failed for ticket: " + ticketId);
+                }
+                approvedPayments.put(ticketId, quoted);
+                receipt = completeExit(ticket, feeCents / 100.0, exitTime);
+            } catch (RuntimeException e) {
+                paymentsInFlight.remove(ticketId, key.idempotencyKey());
+                failExit(key, exit, e);
+                return;
+            }
+            // Released before the caller hears back, so a gate retrying at once is not turned away
+            paymentsInFlight.remove(ticketId, key.idempotencyKey());
+            completedExits.add(new CompletedExit(key, System.nanoTime()));
+            exit.complete(receipt);
+        });
+        return exit;
+    }
+    
+    private PricedExit price(ParkingTicket ticket, ParkingMetrics metrics) {
+        LocalDateTime exitTime = LocalDateTime.now(clock);
+        long pricingStarted = System.nanoTime();
+        long feeCents = pricingStrategy.calculatePriceCents(ticket.getVehicle().getType(), ticket.getEntryTime(), exitTime);
+        metrics.recordPricing(System.nanoTime() - pricingStarted);
+        return new PricedExit(feeCents, exitTime);
+    }
+    
+    private CompletableFuture<Receipt> failExit(ExitKey key, CompletableFuture<Receipt> exit, RuntimeException error) {
+        exitsByKey.remove(key, exit);
+        exit.completeExceptionally(error);
+        return exit;
+    }
+    
+    // Runs once the payment is approved
+    private Receipt completeExit(ParkingTicket ticket, double fee, LocalDateTime exitTime) {
+        String ticketId = ticket.getTicketId();
+        if (!activeTickets.remove(ticketId, ticket)) {
+            throw new RuntimeException("Ticket already processed: " + ticketId);
+        }
+        try {
+            journal.recordExit(ticketId, exitTime, fee);
+        } catch (RuntimeException e) {
+            activeTickets.put(ticketId, ticket);
+            throw e;
+        }
+        parkedPlates.remove(normalizePlate(ticket.getVehicle().getLicensePlate()), ticketId);
+        ParkingSpot spot = ticket.getAssignedSpot();
+        Reservation reservation = reservedTickets.remove(ticketId);
+        if (reservation != null) {
+            // Keeps the spot set aside if later windows are booked on it
+            reservations.complete(reservation);
+        } else {
+            getFloor(spot.getFloorNumber()).releaseSpot(spot);
+        }
+        availability.publish();
+        stats.recordOccupancy(spot);
+        stats.recordStay(ticket.getVehicle().getType(), ticket.getEntryTime(), exitTime);
+        ticket.completeTicket(fee, exitTime);
+        approvedPayments.remove(ticketId);
+        quotedExits.remove(ticketId);
         
         return new Receipt(ticket, fee);
     }
     
-    private ParkingSpot findAndAssignSpot(Vehicle vehicle) {
+    // Approved exits stay answerable by key for the retention window, oldest first
+    private void expireCompletedExits() {
+        long cutoff = System.nanoTime() - idempotencyRetention.toNanos();
+        CompletedExit oldest;
+        while ((oldest = completedExits.peek()) != null && oldest.completedAt - cutoff < 0) {
+            if (completedExits.remove(oldest)) {
+                exitsByKey.remove(oldest.key);
+            }
+        }
+    }
+    
+    private record ExitKey(String ticketId, String idempotencyKey) {}
+    
+    private record PricedExit(long feeCents, LocalDateTime exitTime) {}
+    
+    private static final class CompletedExit {
+        private final ExitKey key;
+        private final long completedAt;
+        
+        CompletedExit(ExitKey key, long completedAt) {
+            this.key = key;
+            this.completedAt = completedAt;
+        }
+    }
+    
+    /**
+     * Re-parks the vehicles of the given open journal entries in their original spots and
+     * reopens their tickets. Called once at startup, before the lot serves traffic.
+     */
+    public void restore(Collection<JournalRecord> openEntries) {
+        Map<String, ParkingSpot> spotsById = new HashMap<>();
         for (Floor floor : floors) {
-            ParkingSpot spot = floor.findAndAssignSpot(vehicle);
-            if (spot != null) {
-                return spot;
+            for (ParkingSpot spot : floor.getAllSpots()) {
+                spotsById.put(spot.getSpotId(), spot);
+            }
+        }
+        for (JournalRecord entry : openEntries) {
+            ParkingSpot spot = spotsById.get(entry.getSpotId());
+            if (spot == null) {
+                throw new IllegalStateException("Journal of lot " + lotId + " references unknown spot " + entry.getSpotId());
+            }
+            Vehicle vehicle = Vehicle.create(entry.getVehicleType(), entry.getLicensePlate());
+            getFloor(spot.getFloorNumber()).occupySpot(spot, vehicle, entry.getTime());
+            activeTickets.put(entry.getTicketId(), new ParkingTicket(entry.getTicketId(), vehicle, spot, entry.getTime()));
+            parkedPlates.put(normalizePlate(entry.getLicensePlate()), entry.getTicketId());
+            ticketIds.advancePast(entry.getTicketId());
+        }
+        availability.publish();
+        stats.recordOccupancy();
+    }
+    
+    private ParkingSpot findAndAssignSpot(Vehicle vehicle, ParkingMetrics metrics, LocalDateTime now) {
+        long started = System.nanoTime();
+        ParkingSpot spot = allocationStrategy.allocate(floors, vehicle);
+        if (spot != null && reservations.freeForWalkIns(spot.getType(), now) < 0) {
+            getFloor(spot.getFloorNumber()).releaseSpot(spot);
+            spot = assignAroundBookings(vehicle, now);
+        }
+        metrics.recordSpotSearch(spot != null, System.nanoTime() - started);
+        return spot;
+    }
+    
+    // The strategy does not know about upcoming reservations, so the free-for-walk-ins count is
+    // checked after the claim: two gates racing for the last unbooked spot both see it taken and
+    // neither parks in room a booking needs. A spot that breaks the count goes back and the
+    // vehicle tries the next type that still has room.
+    private ParkingSpot assignAroundBookings(Vehicle vehicle, LocalDateTime now) {
+        for (SpotType type : vehicle.getRequiredSpotType().fallbackOrder()) {
+            if (reservations.freeForWalkIns(type, now) <= 0) {
+                continue;
+            }
+            for (Floor floor : floors) {
+                ParkingSpot spot = floor.assignSpotOfType(type, vehicle, true);
+                if (spot == null) {
+                    continue;
+                }
+                if (reservations.freeForWalkIns(type, now) >= 0) {
+                    return spot;
+                }
+                floor.releaseSpot(spot);
+                break;
             }
         }
         return null;
     }
     
-    private boolean isFull(SpotType requiredType) {
+    // Batch form of the check in findAndAssignSpot, latest vehicles first
+    private void leaveRoomForBookings(List<Vehicle> vehicles, ParkingSpot[] spots, LocalDateTime now) {
+        for (int i = spots.length - 1; i >= 0; i--) {
+            ParkingSpot spot = spots[i];
+            if (spot != null && reservations.freeForWalkIns(spot.getType(), now) < 0) {
+                // cleared first, so a failed reassignment is not given back a second time
+                spots[i] = null;
+                getFloor(spot.getFloorNumber()).releaseSpot(spot);
+                spots[i] = assignAroundBookings(vehicles.get(i), now);
+            }
+        }
+    }
+    
+    private Floor getFloor(int floorNumber) {
         for (Floor floor : floors) {
-            if (floor.getAvailableSpotCount(requiredType) > 0) {
+            if (floor.getFloorNumber() == floorNumber) {
+                return floor;
+            }
+        }
+        throw new IllegalStateException("Unknown floor: " + floorNumber);
+    }
+    
+    // Spots kept back for upcoming reservations count as taken
+    private boolean isFull(SpotType requiredType, LocalDateTime now) {
+        for (SpotType type : requiredType.fallbackOrder()) {
+            if (reservations.freeForWalkIns(type, now) > 0) {
                 return false;
             }
         }
         return true;
     }
     
-    private String generateTicketId() {
-        return "T" + System.currentTimeMillis() + "-" + (activeTickets.size() + 1);
+    // Lost-ticket lookup: the active ticket of the vehicle with this plate, or null
+    public ParkingTicket findTicketByPlate(String licensePlate) {
+        String ticketId = parkedPlates.get(normalizePlate(licensePlate));
+        return ticketId == null ? null : activeTickets.get(ticketId);
     }
     
-    public Map<SpotType, Integer> getAvailabilitySummary() {
-        Map<SpotType, Integer> summary = new HashMap<>();
-        for (SpotType type : SpotType.values()) {
-            int available = 0;
-            for (Floor floor : floors) {
-                available += floor.getAvailableSpotCount(type);
+    // "abc 1234" and "ABC-1234" are the same plate
+    private static String normalizePlate(String licensePlate) {
+        StringBuilder plate = new StringBuilder(licensePlate.length());
+        for (int i = 0; i < licensePlate.length(); i++) {
+            char c = licensePlate.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                plate.append(Character.toUpperCase(c));
             }
-            summary.put(type, available);
         }
-        return summary;
+        return plate.toString();
+    }
+    
+    public Map<SpotType, Integer> getAvailabilitySummary() {
+        return availability.current().getAvailability();
+    }
+    
+    // Latest published snapshot; lock-free, safe to call from every display board
+    public AvailabilitySnapshot getAvailabilitySnapshot() {
+        return availability.current();
     }
     
     public List<ParkingTicket> getActiveTickets() {
@@ -132,6 +615,21 @@ public class ParkingLot {
     }
     
     // Getters
+    public String getLotId() { return lotId; }
+    public String getName() { return name; }
+    public TicketJournal getJournal() { return journal; }
+    public ReservationBook getReservations() { return reservations; }
+    public ParkingStats getStats() { return stats; }
+    public void setStats(ParkingStats stats) { this.stats = stats; }
+    public ParkingMetrics getMetrics() { return metrics; }
+    public void setMetrics(ParkingMetrics metrics) { this.metrics = metrics; }
     public List<Floor> getFloors() { return floors; }
     public PricingStrategy getPricingStrategy() { return pricingStrategy; }
+    public void setPricingStrategy(PricingStrategy pricingStrategy) { this.pricingStrategy = pricingStrategy; }
+    public void setPayments(PaymentService payments) { this.payments = payments; }
+    public void setIdempotencyRetention(Duration idempotencyRetention) { this.idempotencyRetention = idempotencyRetention; }
+    public Clock getClock() { return clock; }
+    public void setClock(Clock clock) { this.clock = clock; }
+    public SpotAllocationStrategy getAllocationStrategy() { return allocationStrategy; }
+    public void setAllocationStrategy(SpotAllocationStrategy allocationStrategy) { this.allocationStrategy = allocationStrategy; }
 }
@@ -0,0 +1,166 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.allocation.BestFitStrategy;
+import com.learn.parking.lot.design.allocation.FloorLoadBalancingStrategy;
+import com.learn.parking.lot.design.allocation.NearestToEntranceStrategy;
+import com.learn.parking.lot.design.allocation.SpotAllocationStrategy;
+import com.learn.parking.lot.design.config.ParkingLotProperties;
+import com.learn.parking.lot.design.journal.MappedTicketJournal;
+import com.learn.parking.lot.design.metrics.ParkingMetrics;
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.payment.PaymentService;
+import com.learn.parking.lot.design.payment.StubPaymentGateway;
+import com.learn.parking.lot.design.pricing.HourlyPricingStrategy;
+import com.learn.parking.lot.design.pricing.PricingStrategy;
+import com.learn.parking.lot.design.pricing.TariffPricingStrategy;
+import com.learn.parking.lot.design.stats.ParkingStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * All garages this service runs, built once from {@link ParkingLotProperties}. Each lot is its
+ * own allocation domain with its own floors, bitmaps and ticket map, so lots never contend with
+ * each other; the registry itself is an immutable map that is only read after startup.
+ */
+@Component
+public class ParkingLotRegistry {
+    private static final Logger log = LoggerFactory.getLogger(ParkingLotRegistry.class);
+    
+    private final Map<String, ParkingLot> lots;
+    private final ParkingLot defaultLot;
+    // One payment executor and gateway connection shared by every lot
+    private final PaymentService payments;
+
+    public ParkingLotRegistry(ParkingLotProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getLots().isEmpty()) {
+            throw new IllegalStateException("No parking lots configured under parking.lots");
+        }
+        // Tariffs are compiled once and shared read-only by the lots that use them
+        Map<String, PricingStrategy> tariffs = new HashMap<>();
+        properties.getTariffs().forEach((name, tariff) -> tariffs.put(name, TariffPricingStrategy.compile(name, tariff)));
+        
+        this.payments = paymentServiceFor(properties.getPayments());
+        
+        Map<String, ParkingLot> lots = new LinkedHashMap<>();
+        for (ParkingLotProperties.Lot layout : properties.getLots()) {
+            ParkingLot lot = buildLot(layout, properties.getJournal());
+            lot.setPricingStrategy(pricingFor(layout, tariffs));
+            lot.setPayments(payments);
+            lot.setIdempotencyRetention(properties.getPayments().getIdempotencyRetention());
+            lot.getReservations().setHoldBefore(properties.getReservations().getHoldBefore());
+            lot.getReservations().setNoShowGrace(properties.getReservations().getNoShowGrace());
+            lot.getReservations().setWalkInHorizon(properties.getReservations().getWalkInHorizon());
+            if (properties.getStats().getOccupancyMinutes() != lot.getStats().getOccupancyMinutes()) {
+                lot.setStats(new ParkingStats(lot.getFloors(), properties.getStats().getOccupancyMinutes(), lot::getClock));
+            }
+            lot.setMetrics(new ParkingMetrics(meterRegistry, lot.getLotId(), lot.getFloors()));
+            if (lots.putIfAbsent(lot.getLotId(), lot) != null) {
+                throw new IllegalStateException("Duplicate parking lot id: " + lot.getLotId());
+            }
+        }
+        this.lots = Collections.unmodifiableMap(lots);
+        String defaultLotId = properties.getDefaultLot() != null ? properties.getDefaultLot() : properties.getLots().get(0).getId();
+        this.defaultLot = getLot(defaultLotId);
+    }
+
+    private static PaymentService paymentServiceFor(ParkingLotProperties.Payments config) {
+        ParkingLotProperties.StubGateway stub = config.getStubGateway();
+        StubPaymentGateway gateway = new StubPaymentGateway(stub.getMinLatencyMs(), stub.getMaxLatencyMs(),
+                stub.getDeclineRate(), stub.getSlowRate(), stub.getSlowLatencyMs());
+        return new PaymentService(gateway, config.getTimeouts());
+    }
+
+    private static PricingStrategy pricingFor(ParkingLotProperties.Lot layout, Map<String, PricingStrategy> tariffs) {
+        if (tariffs.isEmpty()) {
+            return new HourlyPricingStrategy();
+        }
+        PricingStrategy tariff = tariffs.get(layout.getTariff());
+        if (tariff == null) {
+            throw new IllegalStateException("Parking lot " + layout.getId() + " uses unknown tariff " + layout.getTariff());
+        }
+        return tariff;
+    }
+
+    private static SpotAllocationStrategy allocationFor(ParkingLotProperties.Lot layout) {
+        return switch (layout.getAllocation()) {
+            case "load-balanced" -> new FloorLoadBalancingStrategy();
+            case "best-fit" -> new BestFitStrategy();
+            case "nearest-to-entrance" -> new NearestToEntranceStrategy();
+            default -> throw new IllegalStateException("Parking lot " + layout.getId() + " uses unknown allocation "
+                    + layout.getAllocation() + " (expected load-balanced, best-fit or nearest-to-entrance)");
+        };
+    }
+    
+    private static ParkingLot buildLot(ParkingLotProperties.Lot layout, ParkingLotProperties.Journal journalConfig) {
+        if (layout.getId() == null || layout.getId().isBlank()) {
+            throw new IllegalStateException("Parking lot without an id");
+        }
+        SpotAllocationStrategy allocation = allocationFor(layout);
+        List<Floor> floors = new ArrayList<>();
+        for (ParkingLotProperties.FloorLayout floorLayout : layout.getFloors()) {
+            for (int i = 0; i < floorLayout.getRepeat(); i++) {
+                Floor floor = new Floor(floors.size() + 1);
+                addSpotsToFloor(floor, SpotType.COMPACT, floorLayout.getCompact());
+                addSpotsToFloor(floor, SpotType.REGULAR, floorLayout.getRegular());
+                addSpotsToFloor(floor, SpotType.LARGE, floorLayout.getLarge());
+                addSpotsToFloor(floor, SpotType.HANDICAPPED, floorLayout.getHandicapped());
+                floors.add(floor);
+            }
+        }
+        if (floors.isEmpty()) {
+            throw new IllegalStateException("Parking lot " + layout.getId() + " has no floors");
+        }
+        String name = layout.getName() != null ? layout.getName() : layout.getId();
+        if (!journalConfig.isEnabled()) {
+            ParkingLot lot = new ParkingLot(layout.getId(), name, floors);
+            lot.setAllocationStrategy(allocation);
+            return lot;
+        }
+        
+        // Rebuild the spots and tickets this lot had before the last stop
+        MappedTicketJournal journal = MappedTicketJournal.open(Path.of(journalConfig.getDir(), layout.getId()),
+                journalConfig.getSegmentSizeMb() << 20, journalConfig.isFsync(), journalConfig.getSnapshotEveryRecords());
+        MappedTicketJournal.Recovery recovery = journal.getRecovery();
+        ParkingLot lot = new ParkingLot(layout.getId(), name, floors, journal);
+        lot.setAllocationStrategy(allocation);
+        lot.restore(recovery.getOpenEntries());
+        log.info("Lot {}: recovered {} parked vehicles from {} journal events in {} ms",
+                layout.getId(), recovery.getOpenEntries().size(), recovery.getReplayedEvents(), recovery.getMillis());
+        return lot;
+    }
+
+    private static void addSpotsToFloor(Floor floor, SpotType type, int count) {
+        for (int i = 1; i <= count; i++) {
+            String spotId = "F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + String.format("%03d", i);
+            ParkingSpot spot = new ParkingSpot(spotId, type, floor.getFloorNumber());
+            floor.addSpot(spot);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (ParkingLot lot : lots.values()) {
+            lot.getJournal().close();
+        }
+        payments.close();
+    }
+    
+    public ParkingLot getLot(String lotId) {
+        ParkingLot lot = lots.get(lotId);
+        if (lot == null) {
+            throw new UnknownLotException(lotId);
+        }
+        return lot;
+    }
+
+    public Collection<ParkingLot> getLots() { return lots.values(); }
+    public ParkingLot getDefaultLot() { return defaultLot; }
+}
@@ -0,0 +1,76 @@
+package com.learn.parking.lot.design.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, time-ordered 64-bit ticket ids: milliseconds since 2025-01-01 UTC in the high 42
+ * bits (good for ~139 years) and a 22-bit sequence within the millisecond. Every id is strictly
+ * greater than the previous one, even when thousands are issued in the same millisecond or the
+ * clock steps back, so two gates can never get the same id.
+ *
+ * <p>Ids print as "T" plus 13 Crockford base-32 characters (no I, L, O or U, so they survive
+ * being read aloud or retyped). The encoding is fixed width, so printed ids sort like the numbers.
+ */
+public class TicketIdGenerator {
+    private static final long EPOCH_MILLIS = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 22;
+    private static final String PREFIX = "T";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+            DIGITS[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    private final AtomicLong last = new AtomicLong();
+
+    public long nextId() {
+        long floor = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        return last.updateAndGet(previous -> Math.max(previous + 1, floor));
+    }
+
+    public String next() {
+        return encode(nextId());
+    }
+
+    // After a restart, keeps new ids above the ones recovered from the journal
+    public void advancePast(String ticketId) {
+        long id = decode(ticketId);
+        if (id >= 0) {
+            last.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        chars[0] = PREFIX.charAt(0);
+        for (int i = chars.length - 1; i > 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Returns the numeric id, or -1 if the string is not an id issued by this generator
+    public static long decode(String ticketId) {
+        if (ticketId == null || ticketId.length() != PREFIX.length() + ENCODED_LENGTH || !ticketId.startsWith(PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < ticketId.length(); i++) {
+            char c = ticketId.charAt(i);
+            int digit = c < 128 ? DIGITS[c] : -1;
+            if (digit < 0 || (i == PREFIX.length() && digit > 15)) {
+                return -1;
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+}
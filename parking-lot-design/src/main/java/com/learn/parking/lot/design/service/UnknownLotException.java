@@ -0,0 +1,7 @@
+package com.learn.parking.lot.design.service;
+
+public class UnknownLotException extends RuntimeException {
+    public UnknownLotException(String lotId) {
+        super("Unknown parking lot: " + lotId);
+    }
+}
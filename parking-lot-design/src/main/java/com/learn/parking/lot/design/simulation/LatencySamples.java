@@ -0,0 +1,55 @@
+package com.learn.parking.lot.design.simulation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latencies recorded by one gate thread, in nanoseconds. Each gate appends to its own buffer
+ * without synchronization; the buffers are merged once the run is over.
+ */
+public class LatencySamples {
+    private long[] nanos = new long[1024];
+    private int size;
+
+    public void record(long latencyNanos) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+    }
+
+    public int size() { return size; }
+
+    // Count and exact percentiles in microseconds over all the gates' samples
+    public static Map<String, Object> summarize(List<LatencySamples> gates) {
+        int total = 0;
+        for (LatencySamples gate : gates) {
+            total += gate.size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (LatencySamples gate : gates) {
+            System.arraycopy(gate.nanos, 0, all, offset, gate.size);
+            offset += gate.size;
+        }
+        Arrays.sort(all);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("p50Micros", percentile(all, 50));
+        summary.put("p90Micros", percentile(all, 90));
+        summary.put("p99Micros", percentile(all, 99));
+        summary.put("p999Micros", percentile(all, 99.9));
+        summary.put("maxMicros", total == 0 ? 0.0 : all[total - 1] / 1000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+}
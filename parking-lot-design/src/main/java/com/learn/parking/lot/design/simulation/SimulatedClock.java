@@ -0,0 +1,55 @@
+package com.learn.parking.lot.design.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock that starts at a given instant and runs speedup times faster than real time, so a
+ * two-hour stay passes in seconds while tickets, fees and stay statistics still see two hours.
+ */
+public class SimulatedClock extends Clock {
+    private final Instant start;
+    private final double speedup;
+    private final long originNanos;
+    private final ZoneId zone;
+
+    public SimulatedClock(Instant start, double speedup, ZoneId zone) {
+        this(start, speedup, System.nanoTime(), zone);
+    }
+
+    private SimulatedClock(Instant start, double speedup, long originNanos, ZoneId zone) {
+        if (speedup <= 0) {
+            throw new IllegalArgumentException("Speedup must be positive");
+        }
+        this.start = start;
+        this.speedup = speedup;
+        this.originNanos = originNanos;
+        this.zone = zone;
+    }
+
+    // Simulated nanoseconds since the start
+    public long elapsedNanos() {
+        return (long) ((System.nanoTime() - originNanos) * speedup);
+    }
+
+    // The System.nanoTime() at which the given simulated time since the start is reached
+    public long realNanosAt(long simulatedNanos) {
+        return originNanos + (long) (simulatedNanos / speedup);
+    }
+
+    @Override
+    public Instant instant() {
+        return start.plusNanos(elapsedNanos());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(start, speedup, originNanos, zone);
+    }
+}
@@ -0,0 +1,74 @@
+package com.learn.parking.lot.design.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.SpotType;
+import com.learn.parking.lot.design.service.ParkingLot;
+
+import java.util.*;
+
+/**
+ * Runs one simulation from the command line, without starting the application:
+ * {@code ./gradlew simulate --args="--entryGates=8 --arrivalsPerHour=3000 --vehicleMix=CAR:0.8,TRUCK:0.2"}.
+ * Any {@link SimulationSettings} property can be given as --name=value. The lot has --floors
+ * floors (default 5) of --compact, --regular, --large and --handicapped spots (default
+ * 40/150/20/10). The report is printed as JSON.
+ */
+public class SimulationRunner {
+    private static final Set<String> LAYOUT = Set.of("floors", "compact", "regular", "large", "handicapped");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> options = new HashMap<>();
+        Map<String, Integer> layout = new HashMap<>(Map.of("floors", 5, "compact", 40, "regular", 150, "large", 20, "handicapped", 10));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (LAYOUT.contains(name)) {
+                layout.put(name, Integer.parseInt(value));
+            } else if (name.equals("vehicleMix")) {
+                options.put(name, parseMix(value));
+            } else {
+                options.put(name, value);
+            }
+        }
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        SimulationSettings settings = json.convertValue(options, SimulationSettings.class);
+
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= layout.get("floors"); f++) {
+            Floor floor = new Floor(f);
+            addSpots(floor, SpotType.COMPACT, layout.get("compact"));
+            addSpots(floor, SpotType.REGULAR, layout.get("regular"));
+            addSpots(floor, SpotType.LARGE, layout.get("large"));
+            addSpots(floor, SpotType.HANDICAPPED, layout.get("handicapped"));
+            floors.add(floor);
+        }
+        ParkingLot lot = new ParkingLot("cli", "Command-line lot", floors);
+        System.out.println(json.writeValueAsString(new TrafficSimulation(lot, settings).run()));
+    }
+
+    // "CAR:0.8,TRUCK:0.2"
+    private static Map<String, Double> parseMix(String value) {
+        Map<String, Double> mix = new LinkedHashMap<>();
+        for (String share : value.split(",")) {
+            String[] parts = share.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected TYPE:share in vehicleMix, got " + share);
+            }
+            mix.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 1; i <= count; i++) {
+            String spotId = "F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + String.format("%03d", i);
+            floor.addSpot(new ParkingSpot(spotId, type, floor.getFloorNumber()));
+        }
+    }
+}
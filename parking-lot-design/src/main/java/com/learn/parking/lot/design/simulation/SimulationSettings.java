@@ -0,0 +1,106 @@
+package com.learn.parking.lot.design.simulation;
+
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One traffic simulation run: gates, arrival rate, vehicle mix, stay lengths and the payment
+ * gateway's behavior. Durations are simulated; speedup compresses them, so the defaults run four
+ * rush hours in 20 seconds of wall time. Bound from the REST request body or from command-line
+ * --name=value arguments.
+ */
+public class SimulationSettings {
+    public enum DwellDistribution { EXPONENTIAL, LOGNORMAL, UNIFORM }
+
+    // Keeps a REST call from tying up a request thread for too long
+    public static final long MAX_WALL_SECONDS = 600;
+    public static final int MAX_GATES = 1000;
+
+    private int entryGates = 4;
+    private int exitGates = 4;
+    private int simulatedMinutes = 240;
+    private double speedup = 720;
+    // total over all entry gates, per simulated hour
+    private double arrivalsPerHour = 1200;
+    // vehicle type -> share of arrivals; normalized, so the shares need not add up to 1
+    private Map<String, Double> vehicleMix = new LinkedHashMap<>(Map.of("CAR", 0.75, "MOTORCYCLE", 0.15, "TRUCK", 0.10));
+    private DwellDistribution dwellDistribution = DwellDistribution.LOGNORMAL;
+    private double meanDwellMinutes = 120;
+    // sigma of the underlying normal for LOGNORMAL; half-width as a share of the mean for UNIFORM
+    private double dwellSpread = 0.6;
+    // the rest pay cash
+    private double cardShare = 0.7;
+    private long paymentMinLatencyMs = 20;
+    private long paymentMaxLatencyMs = 150;
+    private double declineRate = 0.02;
+    // null picks a fresh seed each run
+    private Long seed;
+
+    public void validate() {
+        if (entryGates < 1 || exitGates < 1 || entryGates > MAX_GATES || exitGates > MAX_GATES) {
+            throw new IllegalArgumentException("Entry and exit gates must be between 1 and " + MAX_GATES);
+        }
+        if (simulatedMinutes < 1 || speedup <= 0 || arrivalsPerHour <= 0 || meanDwellMinutes <= 0 || dwellSpread < 0) {
+            throw new IllegalArgumentException("Duration, speedup, arrival rate and mean stay must be positive");
+        }
+        if (simulatedMinutes * 60 / speedup > MAX_WALL_SECONDS) {
+            throw new IllegalArgumentException("Run would take " + (long) (simulatedMinutes * 60 / speedup)
+                    + " s of wall time; raise speedup to stay within " + MAX_WALL_SECONDS + " s");
+        }
+        if (dwellDistribution == DwellDistribution.UNIFORM && dwellSpread > 1) {
+            throw new IllegalArgumentException("UNIFORM stays need a dwellSpread of at most 1");
+        }
+        if (vehicleMix == null || vehicleMix.isEmpty()) {
+            throw new IllegalArgumentException("The vehicle mix is empty");
+        }
+        double total = 0;
+        for (Map.Entry<String, Double> share : vehicleMix.entrySet()) {
+            VehicleType.valueOf(share.getKey().toUpperCase());
+            if (share.getValue() == null || share.getValue() < 0) {
+                throw new IllegalArgumentException("Negative share for " + share.getKey());
+            }
+            total += share.getValue();
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The vehicle mix has no positive share");
+        }
+        if (cardShare < 0 || cardShare > 1 || declineRate < 0 || declineRate > 1) {
+            throw new IllegalArgumentException("cardShare and declineRate must be between 0 and 1");
+        }
+        if (paymentMinLatencyMs < 0 || paymentMaxLatencyMs < paymentMinLatencyMs) {
+            throw new IllegalArgumentException("Invalid payment latency range");
+        }
+    }
+
+    // Getters and setters
+    public int getEntryGates() { return entryGates; }
+    public void setEntryGates(int entryGates) { this.entryGates = entryGates; }
+    public int getExitGates() { return exitGates; }
+    public void setExitGates(int exitGates) { this.exitGates = exitGates; }
+    public int getSimulatedMinutes() { return simulatedMinutes; }
+    public void setSimulatedMinutes(int simulatedMinutes) { this.simulatedMinutes = simulatedMinutes; }
+    public double getSpeedup() { return speedup; }
+    public void setSpeedup(double speedup) { this.speedup = speedup; }
+    public double getArrivalsPerHour() { return arrivalsPerHour; }
+    public void setArrivalsPerHour(double arrivalsPerHour) { this.arrivalsPerHour = arrivalsPerHour; }
+    public Map<String, Double> getVehicleMix() { return vehicleMix; }
+    public void setVehicleMix(Map<String, Double> vehicleMix) { this.vehicleMix = vehicleMix; }
+    public DwellDistribution getDwellDistribution() { return dwellDistribution; }
+    public void setDwellDistribution(DwellDistribution dwellDistribution) { this.dwellDistribution = dwellDistribution; }
+    public double getMeanDwellMinutes() { return meanDwellMinutes; }
+    public void setMeanDwellMinutes(double meanDwellMinutes) { this.meanDwellMinutes = meanDwellMinutes; }
+    public double getDwellSpread() { return dwellSpread; }
+    public void setDwellSpread(double dwellSpread) { this.dwellSpread = dwellSpread; }
+    public double getCardShare() { return cardShare; }
+    public void setCardShare(double cardShare) { this.cardShare = cardShare; }
+    public long getPaymentMinLatencyMs() { return paymentMinLatencyMs; }
+    public void setPaymentMinLatencyMs(long paymentMinLatencyMs) { this.paymentMinLatencyMs = paymentMinLatencyMs; }
+    public long getPaymentMaxLatencyMs() { return paymentMaxLatencyMs; }
+    public void setPaymentMaxLatencyMs(long paymentMaxLatencyMs) { this.paymentMaxLatencyMs = paymentMaxLatencyMs; }
+    public double getDeclineRate() { return declineRate; }
+    public void setDeclineRate(double declineRate) { this.declineRate = declineRate; }
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+}
@@ -0,0 +1,302 @@
+package com.learn.parking.lot.design.simulation;
+
+import com.learn.parking.lot.design.model.*;
+import com.learn.parking.lot.design.payment.CashPayment;
+import com.learn.parking.lot.design.payment.CreditCardPayment;
+import com.learn.parking.lot.design.payment.PaymentMethod;
+import com.learn.parking.lot.design.payment.PaymentService;
+import com.learn.parking.lot.design.payment.StubPaymentGateway;
+import com.learn.parking.lot.design.service.ParkingLot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Rush-hour traffic against a real {@link ParkingLot}: entry and exit gates are virtual threads
+ * calling issueTicket and processExit directly, on a private copy of a lot's floors, pricing and
+ * allocation strategy, so a run never touches the live lot.
+ *
+ * <p>Each entry gate is a Poisson source (exponential gaps between arrivals, its share of the
+ * total rate) that serves its arrivals one at a time; a parked vehicle's departure is due after a
+ * stay drawn from the configured distribution. Departures queue for the next free exit gate,
+ * which pays by card through a stub gateway or in cash, falling back to cash when the card is
+ * declined or times out. The lot runs on a {@link SimulatedClock}, so tickets, fees and stay
+ * statistics see simulated hours while the run takes seconds; gate latencies are real.
+ *
+ * <p>An instance runs once; build a new one for the next run.
+ */
+public class TrafficSimulation {
+    // covers any fee a simulated stay can reach
+    private static final double CASH_TENDERED = 100_000;
+
+    private final ParkingLot source;
+    private final SimulationSettings settings;
+
+    private final AtomicInteger arrivals = new AtomicInteger();
+    private final AtomicInteger parked = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger exits = new AtomicInteger();
+    private final AtomicInteger cardDeclines = new AtomicInteger();
+    private final AtomicInteger exitErrors = new AtomicInteger();
+    private final AtomicInteger peakOccupancy = new AtomicInteger();
+    private final AtomicLong plates = new AtomicLong();
+    private final DoubleAdder revenue = new DoubleAdder();
+    private final DelayQueue<Departure> departures = new DelayQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public TrafficSimulation(ParkingLot source, SimulationSettings settings) {
+        settings.validate();
+        this.source = source;
+        this.settings = settings;
+    }
+
+    public Map<String, Object> run() throws InterruptedException {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("This simulation has already run");
+        }
+        long seed = settings.getSeed() != null ? settings.getSeed() : System.nanoTime();
+        VehicleType[] types = new VehicleType[settings.getVehicleMix().size()];
+        double[] cumulativeShares = new double[types.length];
+        cumulativeMix(types, cumulativeShares);
+
+        ParkingLot lot = copyOf(source);
+        StubPaymentGateway gateway = new StubPaymentGateway(settings.getPaymentMinLatencyMs(),
+                settings.getPaymentMaxLatencyMs(), settings.getDeclineRate(), 0.0, 0);
+        SimulatedClock clock = new SimulatedClock(Instant.now(), settings.getSpeedup(), ZoneId.systemDefault());
+        lot.setClock(clock);
+        long simulatedNanos = TimeUnit.MINUTES.toNanos(settings.getSimulatedMinutes());
+        long endNanos = clock.realNanosAt(simulatedNanos);
+
+        List<LatencySamples> entryLatency = new ArrayList<>();
+        List<LatencySamples> entryWait = new ArrayList<>();
+        List<LatencySamples> exitLatency = new ArrayList<>();
+        List<LatencySamples> exitWait = new ArrayList<>();
+        try (PaymentService payments = new PaymentService(gateway, Map.of());
+             ExecutorService gates = Executors.newVirtualThreadPerTaskExecutor()) {
+            lot.setPayments(payments);
+            List<Future<?>> running = new ArrayList<>();
+            double arrivalsPerGateNano = settings.getArrivalsPerHour() / settings.getEntryGates() / TimeUnit.HOURS.toNanos(1);
+            for (int g = 0; g < settings.getEntryGates(); g++) {
+                LatencySamples latency = new LatencySamples();
+                LatencySamples wait = new LatencySamples();
+                entryLatency.add(latency);
+                entryWait.add(wait);
+                Random random = new Random(seed + g);
+                running.add(gates.submit(() -> {
+                    entryGate(lot, clock, simulatedNanos, arrivalsPerGateNano, types, cumulativeShares, random, latency, wait);
+                    return null;
+                }));
+            }
+            for (int g = 0; g < settings.getExitGates(); g++) {
+                LatencySamples latency = new LatencySamples();
+                LatencySamples wait = new LatencySamples();
+                exitLatency.add(latency);
+                exitWait.add(wait);
+                Random random = new Random(seed - g - 1);
+                running.add(gates.submit(() -> {
+                    exitGate(lot, endNanos, random, latency, wait);
+                    return null;
+                }));
+            }
+            for (Future<?> gate : running) {
+                try {
+                    gate.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Simulation gate failed", e.getCause());
+                }
+            }
+        }
+        long wallNanos = System.nanoTime() - clock.realNanosAt(0);
+
+        double wallSeconds = wallNanos / 1e9;
+        double simulatedHours = settings.getSimulatedMinutes() / 60.0;
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("entriesPerSecond", parked.get() / wallSeconds);
+        throughput.put("exitsPerSecond", exits.get() / wallSeconds);
+        throughput.put("entriesPerSimulatedHour", parked.get() / simulatedHours);
+        throughput.put("exitsPerSimulatedHour", exits.get() / simulatedHours);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("entry", LatencySamples.summarize(entryLatency));
+        latency.put("entryQueueWait", LatencySamples.summarize(entryWait));
+        latency.put("exit", LatencySamples.summarize(exitLatency));
+        latency.put("exitQueueWait", LatencySamples.summarize(exitWait));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("lotId", source.getLotId());
+        report.put("seed", seed);
+        report.put("entryGates", settings.getEntryGates());
+        report.put("exitGates", settings.getExitGates());
+        report.put("simulatedMinutes", settings.getSimulatedMinutes());
+        report.put("wallClockMillis", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        report.put("arrivals", arrivals.get());
+        report.put("parked", parked.get());
+        report.put("rejected", rejected.get());
+        report.put("rejectionRate", arrivals.get() == 0 ? 0.0 : (double) rejected.get() / arrivals.get());
+        report.put("exits", exits.get());
+        report.put("cardDeclines", cardDeclines.get());
+        report.put("exitErrors", exitErrors.get());
+        report.put("peakOccupancy", peakOccupancy.get());
+        report.put("stillParked", lot.getActiveTickets().size());
+        report.put("revenue", revenue.sum());
+        report.put("throughput", throughput);
+        report.put("latency", latency);
+        report.put("stays", lot.getStats().snapshot(1).get("dwell"));
+        return report;
+    }
+
+    private void entryGate(ParkingLot lot, SimulatedClock clock, long simulatedNanos, double arrivalsPerNano,
+                           VehicleType[] types, double[] cumulativeShares, Random random,
+                           LatencySamples latency, LatencySamples wait) throws InterruptedException {
+        long arrival = 0;
+        while (true) {
+            // Poisson arrivals: exponentially distributed gaps
+            arrival += (long) (-Math.log(1 - random.nextDouble()) / arrivalsPerNano);
+            if (arrival >= simulatedNanos) {
+                return;
+            }
+            long due = clock.realNanosAt(arrival);
+            sleepUntil(due);
+            VehicleType type = pick(types, cumulativeShares, random.nextDouble());
+            Vehicle vehicle = Vehicle.create(type, "SIM-" + plates.incrementAndGet());
+            arrivals.incrementAndGet();
+            long started = System.nanoTime();
+            wait.record(started - due);
+            try {
+                ParkingTicket ticket = lot.issueTicket(vehicle);
+                latency.record(System.nanoTime() - started);
+                parked.incrementAndGet();
+                peakOccupancy.accumulateAndGet(lot.getAvailabilitySnapshot().getActiveTickets(), Math::max);
+                long stay = (long) (dwellMinutes(random) * TimeUnit.MINUTES.toNanos(1));
+                departures.add(new Departure(ticket.getTicketId(), clock.realNanosAt(arrival + stay)));
+            } catch (RuntimeException full) {
+                latency.record(System.nanoTime() - started);
+                rejected.incrementAndGet();
+            }
+        }
+    }
+
+    private void exitGate(ParkingLot lot, long endNanos, Random random, LatencySamples latency, LatencySamples wait)
+            throws InterruptedException {
+        while (true) {
+            long remaining = endNanos - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Departure departure = departures.poll(remaining, TimeUnit.NANOSECONDS);
+            if (departure == null) {
+                return;
+            }
+            long started = System.nanoTime();
+            wait.record(started - departure.dueNanos);
+            boolean card = random.nextDouble() < settings.getCardShare();
+            try {
+                Receipt receipt = exit(lot, departure.ticketId, card);
+                revenue.add(receipt.getAmountPaid());
+                exits.incrementAndGet();
+            } catch (RuntimeException e) {
+                exitErrors.incrementAndGet();
+            }
+            latency.record(System.nanoTime() - started);
+        }
+    }
+
+    // A declined or timed-out card is paid in cash instead
+    private Receipt exit(ParkingLot lot, String ticketId, boolean card) {
+        if (card) {
+            try {
+                return lot.processExit(ticketId, new CreditCardPayment("4111111111111111", "123", "12/30"));
+            } catch (RuntimeException declined) {
+                cardDeclines.incrementAndGet();
+            }
+        }
+        PaymentMethod cash = new CashPayment(CASH_TENDERED);
+        return lot.processExit(ticketId, cash);
+    }
+
+    private double dwellMinutes(Random random) {
+        double mean = settings.getMeanDwellMinutes();
+        double spread = settings.getDwellSpread();
+        return switch (settings.getDwellDistribution()) {
+            case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+            // mu chosen so the mean stay is the configured mean
+            case LOGNORMAL -> Math.exp(Math.log(mean) - spread * spread / 2 + spread * random.nextGaussian());
+            case UNIFORM -> mean * (1 + spread * (2 * random.nextDouble() - 1));
+        };
+    }
+
+    private void cumulativeMix(VehicleType[] types, double[] cumulativeShares) {
+        double total = 0;
+        for (double share : settings.getVehicleMix().values()) {
+            total += share;
+        }
+        int i = 0;
+        double cumulative = 0;
+        for (Map.Entry<String, Double> share : settings.getVehicleMix().entrySet()) {
+            cumulative += share.getValue() / total;
+            types[i] = VehicleType.valueOf(share.getKey().toUpperCase());
+            cumulativeShares[i++] = cumulative;
+        }
+    }
+
+    private static VehicleType pick(VehicleType[] types, double[] cumulativeShares, double draw) {
+        for (int i = 0; i < types.length - 1; i++) {
+            if (draw < cumulativeShares[i]) {
+                return types[i];
+            }
+        }
+        return types[types.length - 1];
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+
+    // Same floors and spots, all free, with the source lot's pricing and allocation
+    private static ParkingLot copyOf(ParkingLot source) {
+        List<Floor> floors = new ArrayList<>();
+        for (Floor sourceFloor : source.getFloors()) {
+            Floor floor = new Floor(sourceFloor.getFloorNumber());
+            for (List<ParkingSpot> spots : sourceFloor.getSpotsByType().values()) {
+                for (ParkingSpot spot : spots) {
+                    floor.addSpot(new ParkingSpot(spot.getSpotId(), spot.getType(), spot.getFloorNumber()));
+                }
+            }
+            floors.add(floor);
+        }
+        ParkingLot lot = new ParkingLot(source.getLotId() + "-simulation", source.getName() + " (simulation)", floors);
+        lot.setPricingStrategy(source.getPricingStrategy());
+        lot.setAllocationStrategy(source.getAllocationStrategy());
+        return lot;
+    }
+
+    private static final class Departure implements Delayed {
+        private final String ticketId;
+        private final long dueNanos;
+
+        Departure(String ticketId, long dueNanos) {
+            this.ticketId = ticketId;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Departure) other).dueNanos);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.learn.parking.lot.design.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of stay lengths in seconds, laid out like HdrHistogram. Values
+ * below 64 get a bucket each; above that every power of two is split into 32 buckets, so any
+ * recorded value is off by at most 1/32 (about 3%) at any scale. Recording is one atomic
+ * increment, and the histogram takes a fixed 7 KB however many stays it has seen.
+ */
+public class DwellHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 5;
+    // covers up to 2^31 s (68 years); longer stays land in the last bucket
+    private static final int MAX_MSB = 30;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_MSB - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalSeconds = new LongAdder();
+    private final AtomicLong maxSeconds = new AtomicLong();
+
+    public void record(long seconds) {
+        long value = Math.max(0, seconds);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        totalSeconds.add(value);
+        if (value > maxSeconds.get()) {
+            maxSeconds.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb > MAX_MSB) {
+            return BUCKETS - 1;
+        }
+        int shift = msb - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Highest value that falls in the bucket
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Smallest recorded value (to bucket precision) that at least the given share of stays do
+     * not exceed, or 0 if nothing has been recorded. Concurrent recording may shift the answer
+     * by the stays that land while it is being computed.
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxSeconds.get());
+            }
+        }
+        return maxSeconds.get();
+    }
+
+    // Count, mean and percentiles, in minutes for readability
+    public Map<String, Object> summary() {
+        long stays = count.sum();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", stays);
+        summary.put("meanMinutes", stays == 0 ? 0.0 : totalSeconds.sum() / 60.0 / stays);
+        summary.put("p50Minutes", valueAtPercentile(50) / 60.0);
+        summary.put("p90Minutes", valueAtPercentile(90) / 60.0);
+        summary.put("p99Minutes", valueAtPercentile(99) / 60.0);
+        summary.put("maxMinutes", maxSeconds.get() / 60.0);
+        return summary;
+    }
+
+    public long getCount() { return count.sum(); }
+}
@@ -0,0 +1,169 @@
+package com.learn.parking.lot.design.stats;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.SpotType;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-minute occupancy of every floor and spot type over a fixed window, kept in ring buffers.
+ * Gates call {@link #record} after each change; it reads the floor's free counter and writes the
+ * minute's peak and latest occupancy, each a single CAS-updated long that packs the minute
+ * number with the count. A slot that still holds an older minute is simply overwritten, so the
+ * rings never need clearing and memory stays at two longs per floor, type and minute.
+ *
+ * <p>Occupancy only changes at gate events, so a minute without any event had the latest
+ * occupancy of the minute before it all along; {@link #timeline} fills such gaps that way.
+ */
+public class OccupancyRecorder {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int TYPES = SpotType.values().length;
+
+    private final List<Floor> floors;
+    private final Map<Floor, Integer> floorIndex = new IdentityHashMap<>();
+    private final int minutes;
+    // the lot's current clock; minutes are counted on it, not on the wall clock
+    private final Supplier<Clock> clock;
+    // minutes before this have no data and read as 0
+    private final long createdMinute;
+    // [floor * TYPES + type] -> ring of (minute << COUNT_BITS | count)
+    private final AtomicLongArray[] peaks;
+    private final AtomicLongArray[] latest;
+
+    public OccupancyRecorder(List<Floor> floors, int minutes, Supplier<Clock> clock) {
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("Occupancy window must be at least one minute");
+        }
+        this.floors = floors;
+        this.minutes = minutes;
+        this.clock = clock;
+        for (int i = 0; i < floors.size(); i++) {
+            floorIndex.put(floors.get(i), i);
+        }
+        this.peaks = new AtomicLongArray[floors.size() * TYPES];
+        this.latest = new AtomicLongArray[floors.size() * TYPES];
+        for (int i = 0; i < peaks.length; i++) {
+            peaks[i] = new AtomicLongArray(minutes);
+            latest[i] = new AtomicLongArray(minutes);
+        }
+        this.createdMinute = currentMinute();
+        recordAll();
+    }
+
+    public void record(Floor floor, SpotType type) {
+        record(floor, type, currentMinute());
+    }
+
+    // After changes spread over many floors, e.g. a bulk entry
+    public void recordAll() {
+        long minute = currentMinute();
+        for (Floor floor : floors) {
+            for (SpotType type : SpotType.values()) {
+                record(floor, type, minute);
+            }
+        }
+    }
+
+    private void record(Floor floor, SpotType type, long minute) {
+        int series = floorIndex.get(floor) * TYPES + type.ordinal();
+        long occupied = Math.min(COUNT_MASK, floor.getTotalSpotCount(type) - floor.getAvailableSpotCount(type));
+        int slot = (int) (minute % minutes);
+        long packed = minute << COUNT_BITS | occupied;
+
+        // a gate that read its count just before a minute rolled over must not overwrite the new minute
+        AtomicLongArray ring = latest[series];
+        long current = ring.get(slot);
+        while ((current >>> COUNT_BITS) <= minute) {
+            long witness = ring.compareAndExchange(slot, current, packed);
+            if (witness == current) {
+                break;
+            }
+            current = witness;
+        }
+
+        ring = peaks[series];
+        current = ring.get(slot);
+        while ((current >>> COUNT_BITS) < minute || ((current >>> COUNT_BITS) == minute && (current & COUNT_MASK) < occupied)) {
+            long witness = ring.compareAndExchange(slot, current, packed);
+            if (witness == current) {
+                break;
+            }
+            current = witness;
+        }
+    }
+
+    /**
+     * The last window minutes (at most the ring size), oldest first: the start of the first
+     * minute, and the peak and end-of-minute occupancy for each floor and spot type with spots.
+     */
+    public Map<String, Object> timeline(int window) {
+        int length = Math.max(1, Math.min(window, minutes));
+        long now = currentMinute();
+        long first = now - length + 1;
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (Floor floor : floors) {
+            for (SpotType type : SpotType.values()) {
+                int capacity = floor.getTotalSpotCount(type);
+                if (capacity == 0) {
+                    continue;
+                }
+                int index = floorIndex.get(floor) * TYPES + type.ordinal();
+                long[] peak = new long[length];
+                long[] end = new long[length];
+                long carried = first <= createdMinute ? 0 : carriedInto(index, first, floor, type);
+                for (int i = 0; i < length; i++) {
+                    int slot = (int) ((first + i) % minutes);
+                    long latestPacked = latest[index].get(slot);
+                    long peakPacked = peaks[index].get(slot);
+                    // the minute opened at the previous minute's end value
+                    long opening = carried;
+                    if ((latestPacked >>> COUNT_BITS) == first + i) {
+                        carried = latestPacked & COUNT_MASK;
+                        long recordedPeak = (peakPacked >>> COUNT_BITS) == first + i ? peakPacked & COUNT_MASK : carried;
+                        peak[i] = Math.max(recordedPeak, opening);
+                    } else {
+                        peak[i] = carried;
+                    }
+                    end[i] = carried;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("floorNumber", floor.getFloorNumber());
+                entry.put("spotType", type);
+                entry.put("capacity", capacity);
+                entry.put("peak", peak);
+                entry.put("end", end);
+                series.add(entry);
+            }
+        }
+        Map<String, Object> timeline = new LinkedHashMap<>();
+        timeline.put("start", LocalDateTime.ofInstant(Instant.ofEpochMilli(TimeUnit.MINUTES.toMillis(first)), clock.get().getZone()));
+        timeline.put("minutes", length);
+        timeline.put("series", series);
+        return timeline;
+    }
+
+    // Latest occupancy recorded before minute, looking back through the ring
+    private long carriedInto(int index, long minute, Floor floor, SpotType type) {
+        for (long m = minute - 1; m > minute - minutes; m--) {
+            long packed = latest[index].get((int) Math.floorMod(m, (long) minutes));
+            if ((packed >>> COUNT_BITS) == m) {
+                return packed & COUNT_MASK;
+            }
+        }
+        // nothing recorded for a whole ring: the floor has been idle, so it is what it is now
+        return floor.getTotalSpotCount(type) - floor.getAvailableSpotCount(type);
+    }
+
+    private long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(clock.get().millis());
+    }
+
+    public int getMinutes() { return minutes; }
+}
@@ -0,0 +1,66 @@
+package com.learn.parking.lot.design.stats;
+
+import com.learn.parking.lot.design.model.Floor;
+import com.learn.parking.lot.design.model.ParkingSpot;
+import com.learn.parking.lot.design.model.VehicleType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Capacity-planning statistics for one lot: per-minute occupancy per floor and spot type, and
+ * the distribution of stay lengths per vehicle type. Both are fixed-size and lock-free, so the
+ * gates record into them on every entry and exit.
+ */
+public class ParkingStats {
+    public static final int DEFAULT_OCCUPANCY_MINUTES = 24 * 60;
+
+    private final List<Floor> floors;
+    private final OccupancyRecorder occupancy;
+    private final Map<VehicleType, DwellHistogram> dwell = new EnumMap<>(VehicleType.class);
+
+    // clock is the lot's, read on every record, so a simulation's compressed clock drives the minutes
+    public ParkingStats(List<Floor> floors, int occupancyMinutes, Supplier<Clock> clock) {
+        this.floors = floors;
+        this.occupancy = new OccupancyRecorder(floors, occupancyMinutes, clock);
+        for (VehicleType type : VehicleType.values()) {
+            dwell.put(type, new DwellHistogram());
+        }
+    }
+
+    // After a vehicle took or left the spot
+    public void recordOccupancy(ParkingSpot spot) {
+        for (Floor floor : floors) {
+            if (floor.getFloorNumber() == spot.getFloorNumber()) {
+                occupancy.record(floor, spot.getType());
+                return;
+            }
+        }
+    }
+
+    public void recordOccupancy() {
+        occupancy.recordAll();
+    }
+
+    public void recordStay(VehicleType type, LocalDateTime entryTime, LocalDateTime exitTime) {
+        dwell.get(type).record(Duration.between(entryTime, exitTime).getSeconds());
+    }
+
+    public Map<String, Object> snapshot(int minutes) {
+        Map<String, Object> stays = new LinkedHashMap<>();
+        dwell.forEach((type, histogram) -> stays.put(type.name(), histogram.summary()));
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("occupancy", occupancy.timeline(minutes));
+        snapshot.put("dwell", stays);
+        return snapshot;
+    }
+
+    public int getOccupancyMinutes() { return occupancy.getMinutes(); }
+    public DwellHistogram getDwellHistogram(VehicleType type) { return dwell.get(type); }
+}
@@ -1,11 +1,25 @@
 package com.learn.parking.lot.design;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.nio.file.Path;
+
+// The journal goes to a throwaway directory instead of ./data/journal, without fsync
+@SpringBootTest(properties = "parking.journal.fsync=false")
 class ParkingLotDesignApplicationTests {
 
+	@TempDir
+	static Path journalDir;
+
+	@DynamicPropertySource
+	static void journal(DynamicPropertyRegistry registry) {
+		registry.add("parking.journal.dir", journalDir::toString);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,80 @@
+package com.learn.parking.lot.design.allocation;
+
+import com.learn.parking.lot.design.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parks cars one at a time in two identical floors (3 regular and 2 large spots each) and checks
+ * the exact order each strategy hands out spots. Every floor fits in one bitmap word, so the
+ * per-thread start offset never changes which free spot a claim finds first.
+ */
+class SpotAllocationStrategyTest {
+
+    private List<Floor> newFloors() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= 2; f++) {
+            Floor floor = new Floor(f);
+            addSpots(floor, SpotType.REGULAR, 3);
+            addSpots(floor, SpotType.LARGE, 2);
+            floors.add(floor);
+        }
+        return floors;
+    }
+
+    private void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 1; i <= count; i++) {
+            floor.addSpot(new ParkingSpot("F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + i, type, floor.getFloorNumber()));
+        }
+    }
+
+    private List<String> parkUntilFull(SpotAllocationStrategy strategy) {
+        List<Floor> floors = newFloors();
+        List<String> order = new ArrayList<>();
+        for (int i = 0; ; i++) {
+            ParkingSpot spot = strategy.allocate(floors, new Car("C-" + i));
+            if (spot == null) {
+                return order;
+            }
+            order.add(spot.getSpotId());
+        }
+    }
+
+    @Test
+    void nearestToEntranceFillsTheLowestFloorBeforeGoingUp() {
+        assertEquals(List.of("F1-R1", "F1-R2", "F1-R3", "F1-L1", "F1-L2",
+                        "F2-R1", "F2-R2", "F2-R3", "F2-L1", "F2-L2"),
+                parkUntilFull(new NearestToEntranceStrategy()));
+    }
+
+    @Test
+    void bestFitUsesEveryRegularSpotBeforeAnyLargeOne() {
+        assertEquals(List.of("F1-R1", "F1-R2", "F1-R3", "F2-R1", "F2-R2", "F2-R3",
+                        "F1-L1", "F1-L2", "F2-L1", "F2-L2"),
+                parkUntilFull(new BestFitStrategy()));
+    }
+
+    @Test
+    void loadBalancingAlternatesFloorsWithinEachSpotType() {
+        // ties go to the lower floor
+        assertEquals(List.of("F1-R1", "F2-R1", "F1-R2", "F2-R2", "F1-R3", "F2-R3",
+                        "F1-L1", "F2-L1", "F1-L2", "F2-L2"),
+                parkUntilFull(new FloorLoadBalancingStrategy()));
+    }
+
+    @Test
+    void trucksNeverFallBackToSmallerSpots() {
+        List<Floor> floors = newFloors();
+        SpotAllocationStrategy strategy = new NearestToEntranceStrategy();
+        List<String> order = new ArrayList<>();
+        ParkingSpot spot;
+        for (int i = 0; (spot = strategy.allocate(floors, new Truck("T-" + i))) != null; i++) {
+            order.add(spot.getSpotId());
+        }
+        assertEquals(List.of("F1-L1", "F1-L2", "F2-L1", "F2-L2"), order);
+    }
+}
@@ -0,0 +1,173 @@
+package com.learn.parking.lot.design.journal;
+
+import com.learn.parking.lot.design.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTicketJournalTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private void enter(MappedTicketJournal journal, int i) {
+        journal.append(JournalRecord.entry("T" + i, NOON.plusMinutes(i), VehicleType.CAR, "PLATE-" + i, "F1-R" + i));
+    }
+
+    private Set<String> openTicketIds(Collection<JournalRecord> entries) {
+        return entries.stream().map(JournalRecord::getTicketId).collect(Collectors.toSet());
+    }
+
+    private Set<String> ids(int fromInclusive, int toExclusive) {
+        Set<String> ids = new HashSet<>();
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            ids.add("T" + i);
+        }
+        return ids;
+    }
+
+    // "journal-" segments or "snapshot-" files, oldest first; skips snapshots still being written
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .sorted().toList();
+        }
+    }
+
+    @Test
+    void restartRecoversOpenEntriesAndForgetsExits() throws IOException {
+        MappedTicketJournal journal = MappedTicketJournal.open(dir, 1 << 16, true, 1_000);
+        for (int i = 0; i < 5; i++) {
+            enter(journal, i);
+        }
+        journal.recordExit("T1", NOON.plusHours(2), 10.0);
+        journal.recordExit("T3", NOON.plusHours(2), 10.0);
+        journal.close();
+
+        MappedTicketJournal reopened = MappedTicketJournal.open(dir, 1 << 16, true, 1_000);
+        try {
+            assertEquals(Set.of("T0", "T2", "T4"), openTicketIds(reopened.getRecovery().getOpenEntries()));
+            JournalRecord t2 = reopened.getRecovery().getOpenEntries().stream()
+                    .filter(entry -> entry.getTicketId().equals("T2")).findFirst().orElseThrow();
+            assertEquals("PLATE-2", t2.getLicensePlate());
+            assertEquals("F1-R2", t2.getSpotId());
+            assertEquals(NOON.plusMinutes(2), t2.getTime());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void tornTailRecordIsDroppedAndTheJournalKeepsWorking() throws IOException {
+        MappedTicketJournal journal = MappedTicketJournal.open(dir, 1 << 16, true, 1_000);
+        for (int i = 0; i < 3; i++) {
+            enter(journal, i);
+        }
+        journal.close();
+
+        // flip a payload byte of the last record, as if the crash hit in the middle of writing it
+        Path segment = files("journal-").getLast();
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int offset = 0;
+        int last = -1;
+        while (buffer.getInt(offset) > 0) {
+            last = offset;
+            offset += 8 + buffer.getInt(offset);
+        }
+        assertTrue(last >= 0, "no record in " + segment);
+        bytes[last + 8] ^= (byte) 0xFF;
+        Files.write(segment, bytes);
+
+        MappedTicketJournal.Recovery recovery = MappedTicketJournal.recover(dir);
+        assertEquals(Set.of("T0", "T1"), openTicketIds(recovery.getOpenEntries()));
+
+        MappedTicketJournal reopened = MappedTicketJournal.open(dir, 1 << 16, true, 1_000);
+        enter(reopened, 7);
+        reopened.close();
+        assertEquals(Set.of("T0", "T1", "T7"), openTicketIds(MappedTicketJournal.recover(dir).getOpenEntries()));
+    }
+
+    @Test
+    void recordsSpanningManySegmentsAreReplayedInOrder() throws IOException {
+        // a few records per segment, so the run rolls many times
+        MappedTicketJournal journal = MappedTicketJournal.open(dir, 256, true, 1_000_000);
+        for (int i = 0; i < 60; i++) {
+            enter(journal, i);
+        }
+        for (int i = 0; i < 60; i += 3) {
+            journal.recordExit("T" + i, NOON.plusHours(3), 15.0);
+        }
+        // an exit followed by a re-entry under the same id must leave the ticket open
+        journal.recordExit("T1", NOON.plusHours(3), 15.0);
+        enter(journal, 1);
+        journal.close();
+        assertTrue(files("journal-").size() > 10, "expected the journal to roll, found " + files("journal-"));
+
+        Set<String> expected = ids(0, 60);
+        for (int i = 0; i < 60; i += 3) {
+            expected.remove("T" + i);
+        }
+        MappedTicketJournal.Recovery recovery = MappedTicketJournal.recover(dir);
+        assertEquals(expected, openTicketIds(recovery.getOpenEntries()));
+        assertEquals(60 + 20 + 2, recovery.getReplayedEvents());
+    }
+
+    @Test
+    void compactionSnapshotsOpenEntriesAndRestartReplaysOnlyTheTail() throws Exception {
+        MappedTicketJournal journal = MappedTicketJournal.open(dir, 1 << 16, true, 10);
+        for (int i = 0; i < 40; i++) {
+            enter(journal, i);
+        }
+        for (int i = 0; i < 20; i++) {
+            journal.recordExit("T" + i, NOON.plusHours(1), 5.0);
+        }
+        // compaction runs on the flusher after the append that crossed the threshold
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (files("snapshot-").getLast().equals(Path.of(dir.toString(), "snapshot-000000000000.snap"))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        enter(journal, 99);
+        journal.close();
+
+        List<Path> snapshots = files("snapshot-");
+        assertEquals(1, snapshots.size(), "older snapshots should be deleted: " + snapshots);
+        long snapshotIndex = index(snapshots.getFirst());
+        assertTrue(snapshotIndex > 0, "no compaction happened");
+        for (Path segment : files("journal-")) {
+            assertTrue(index(segment) >= snapshotIndex, "segment " + segment + " predates the snapshot");
+        }
+
+        Set<String> expected = ids(20, 40);
+        expected.add("T99");
+        MappedTicketJournal.Recovery recovery = MappedTicketJournal.recover(dir);
+        assertEquals(expected, openTicketIds(recovery.getOpenEntries()));
+        assertTrue(recovery.getReplayedEvents() < 61, "replayed " + recovery.getReplayedEvents() + " events despite the snapshot");
+
+        // and again after the restart compacts once more
+        MappedTicketJournal reopened = MappedTicketJournal.open(dir, 1 << 16, true, 10);
+        reopened.close();
+        MappedTicketJournal.Recovery second = MappedTicketJournal.recover(dir);
+        assertEquals(expected, openTicketIds(second.getOpenEntries()));
+        assertEquals(0, second.getReplayedEvents());
+    }
+
+    private static long index(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+}
@@ -0,0 +1,173 @@
+package com.learn.parking.lot.design.model;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloorConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private Floor newFloor(int compact, int regular, int large, int handicapped) {
+        Floor floor = new Floor(1);
+        addSpots(floor, SpotType.COMPACT, compact);
+        addSpots(floor, SpotType.REGULAR, regular);
+        addSpots(floor, SpotType.LARGE, large);
+        addSpots(floor, SpotType.HANDICAPPED, handicapped);
+        return floor;
+    }
+
+    private void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F1-" + type.name().charAt(0) + i, type, 1));
+        }
+    }
+
+    private Vehicle vehicle(int i) {
+        return switch (i % 5) {
+            case 0 -> new Motorcycle("M-" + i);
+            case 1 -> new Truck("T-" + i);
+            default -> new Car("C-" + i);
+        };
+    }
+
+    @RepeatedTest(5)
+    void concurrentEntriesNeverDoubleAssignAndFillEveryCompatibleSpot() throws Exception {
+        Floor floor = newFloor(300, 1200, 150, 50);
+        int arrivals = 5000;
+        ConcurrentLinkedQueue<ParkingSpot> assigned = new ConcurrentLinkedQueue<>();
+        Map<SpotType, AtomicInteger> rejectedByRequiredType = new ConcurrentHashMap<>();
+
+        runConcurrently(arrivals, i -> {
+            Vehicle vehicle = vehicle(i);
+            ParkingSpot spot = floor.findAndAssignSpot(vehicle);
+            if (spot == null) {
+                rejectedByRequiredType.computeIfAbsent(vehicle.getRequiredSpotType(), t -> new AtomicInteger()).incrementAndGet();
+                return;
+            }
+            assertSame(vehicle, spot.getParkedVehicle());
+            assertTrue(ParkingSpot.fits(spot.getType(), vehicle.getRequiredSpotType()));
+            assigned.add(spot);
+        });
+
+        Set<ParkingSpot> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(assigned);
+        assertEquals(assigned.size(), distinct.size(), "a spot was handed out twice");
+
+        // Demand exceeds supply for every type, so every spot any vehicle can use must be taken
+        for (SpotType type : List.of(SpotType.COMPACT, SpotType.REGULAR, SpotType.LARGE)) {
+            assertEquals(0, floor.getAvailableSpotCount(type), type + " spots left free while vehicles were rejected");
+        }
+        assertEquals(50, floor.getAvailableSpotCount(SpotType.HANDICAPPED));
+        assertEquals(300 + 1200 + 150, assigned.size());
+        assertCountersMatchSpots(floor);
+    }
+
+    @Test
+    void carsFallBackToLargeSpotsOnlyAfterRegularAreGone() throws Exception {
+        Floor floor = newFloor(0, 100, 50, 10);
+        ConcurrentLinkedQueue<ParkingSpot> firstWave = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<ParkingSpot> secondWave = new ConcurrentLinkedQueue<>();
+
+        // exactly as many cars as regular spots: none of them may be pushed onto a large spot
+        runConcurrently(100, i -> {
+            ParkingSpot spot = floor.findAndAssignSpot(new Car("C-" + i));
+            assertNotNull(spot, "car turned away while regular spots were free");
+            firstWave.add(spot);
+        });
+        assertTrue(firstWave.stream().allMatch(spot -> spot.getType() == SpotType.REGULAR),
+                "a car took a large spot while a regular one was free");
+        assertEquals(50, floor.getAvailableSpotCount(SpotType.LARGE));
+
+        // regular is full now, so every later car falls back to large until that runs out too
+        runConcurrently(100, i -> {
+            ParkingSpot spot = floor.findAndAssignSpot(new Car("C-" + (100 + i)));
+            if (spot != null) {
+                secondWave.add(spot);
+            }
+        });
+        assertEquals(50, secondWave.size());
+        assertTrue(secondWave.stream().allMatch(spot -> spot.getType() == SpotType.LARGE));
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.LARGE));
+        assertEquals(10, floor.getAvailableSpotCount(SpotType.HANDICAPPED));
+        assertCountersMatchSpots(floor);
+    }
+
+    @RepeatedTest(5)
+    void concurrentEntryAndExitChurnLeaksNoSpot() throws Exception {
+        Floor floor = newFloor(64, 200, 20, 8);
+        int operationsPerThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Deque<ParkingSpot> parked = new ArrayDeque<>();
+                for (int op = 0; op < operationsPerThread; op++) {
+                    if (parked.isEmpty() || random.nextInt(3) != 0) {
+                        Vehicle vehicle = vehicle(thread * operationsPerThread + op);
+                        ParkingSpot spot = floor.findAndAssignSpot(vehicle);
+                        if (spot != null) {
+                            assertSame(vehicle, spot.getParkedVehicle(), "spot taken over by another vehicle");
+                            parked.add(spot);
+                        }
+                    } else {
+                        ParkingSpot spot = random.nextBoolean() ? parked.pollFirst() : parked.pollLast();
+                        assertTrue(spot.isOccupied());
+                        floor.releaseSpot(spot);
+                    }
+                }
+                while (!parked.isEmpty()) {
+                    floor.releaseSpot(parked.poll());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        for (SpotType type : SpotType.values()) {
+            assertEquals(floor.getTotalSpotCount(type), floor.getAvailableSpotCount(type), type + " spots leaked");
+        }
+        assertTrue(floor.getAllSpots().stream().noneMatch(ParkingSpot::isOccupied));
+    }
+
+    private void assertCountersMatchSpots(Floor floor) {
+        for (SpotType type : SpotType.values()) {
+            long free = floor.getSpotsByType().get(type).stream().filter(spot -> !spot.isOccupied()).count();
+            assertEquals(free, floor.getAvailableSpotCount(type), "free counter drifted for " + type);
+        }
+    }
+
+    private void runConcurrently(int tasks, IntConsumer task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.accept(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,133 @@
+package com.learn.parking.lot.design.pricing;
+
+import com.learn.parking.lot.design.config.TariffProperties;
+import com.learn.parking.lot.design.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Car prices under the "standard" tariff from parking-lots.yml: 500 c/h, 600 c/h from 07:00 to
+ * 19:00 and an 8000 c daily cap on weekdays; 400 c/h capped at 5000 c on weekends; 10 minutes of
+ * grace. 2026-03-02 is a Monday.
+ */
+class TariffPricingStrategyTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+    private static final LocalDateTime FRIDAY = MONDAY.plusDays(4);
+    private static final LocalDateTime SATURDAY = MONDAY.plusDays(5);
+
+    private final TariffPricingStrategy standard = TariffPricingStrategy.compile("standard", standardTariff());
+
+    private static Map<VehicleType, Long> rates(long motorcycle, long car, long truck) {
+        Map<VehicleType, Long> rates = new EnumMap<>(VehicleType.class);
+        rates.put(VehicleType.MOTORCYCLE, motorcycle);
+        rates.put(VehicleType.CAR, car);
+        rates.put(VehicleType.TRUCK, truck);
+        return rates;
+    }
+
+    private static TariffProperties.Band band(String from, String to, Map<VehicleType, Long> hourlyCents) {
+        TariffProperties.Band band = new TariffProperties.Band();
+        band.setFrom(from);
+        band.setTo(to);
+        band.setHourlyCents(hourlyCents);
+        return band;
+    }
+
+    private static TariffProperties standardTariff() {
+        TariffProperties tariff = new TariffProperties();
+        tariff.setGraceMinutes(10);
+        tariff.getWeekday().setHourlyCents(rates(200, 500, 1000));
+        tariff.getWeekday().setDailyCapCents(rates(3200, 8000, 16000));
+        tariff.getWeekday().setBands(List.of(band("07:00", "19:00", rates(250, 600, 1200))));
+        TariffProperties.DayRates weekend = new TariffProperties.DayRates();
+        weekend.setHourlyCents(rates(150, 400, 800));
+        weekend.setDailyCapCents(rates(2000, 5000, 10000));
+        tariff.setWeekend(weekend);
+        return tariff;
+    }
+
+    private long car(LocalDateTime entry, LocalDateTime exit) {
+        return standard.calculatePriceCents(VehicleType.CAR, entry, exit);
+    }
+
+    @Test
+    void bandBoundariesSplitAStayByTheMinute() {
+        assertEquals(500, car(MONDAY.withHour(6), MONDAY.withHour(7)));
+        assertEquals(600, car(MONDAY.withHour(7), MONDAY.withHour(8)));
+        // 30 min at 500 c/h + 30 min at 600 c/h
+        assertEquals(550, car(MONDAY.withHour(6).withMinute(30), MONDAY.withHour(7).withMinute(30)));
+        // the band's end is exclusive: 18:00-19:00 at 600, 19:00-20:00 at 500
+        assertEquals(1100, car(MONDAY.withHour(18), MONDAY.withHour(20)));
+        assertEquals(500, car(MONDAY.withHour(19), MONDAY.withHour(20)));
+    }
+
+    @Test
+    void dailyCapAppliesPerCalendarDayAcrossMidnight() {
+        // Monday 08:00-24:00 would be 11 h at 600 + 5 h at 500 = 9100, capped at 8000;
+        // Tuesday 00:00-08:00 is 7 h at 500 + 1 h at 600 = 4100 and starts a fresh cap
+        assertEquals(12_100, car(MONDAY.withHour(8), MONDAY.plusDays(1).withHour(8)));
+        // below the cap on both sides of midnight: 4 h at 500 each day
+        assertEquals(4_000, car(MONDAY.withHour(20), MONDAY.plusDays(1).withHour(4)));
+    }
+
+    @Test
+    void overnightBandWrapsPastMidnight() {
+        TariffProperties night = standardTariff();
+        night.getWeekday().setBands(List.of(band("22:00", "06:00", rates(100, 300, 600))));
+        TariffPricingStrategy strategy = TariffPricingStrategy.compile("night", night);
+        // Mon 21-22 at 500, 22-24 at 300 = 1100; Tue 00-06 at 300, 06-07 at 500 = 2300
+        assertEquals(3_400, strategy.calculatePriceCents(VehicleType.CAR, MONDAY.withHour(21), MONDAY.plusDays(1).withHour(7)));
+    }
+
+    @Test
+    void weekendDaysUseWeekendRatesAndCaps() {
+        assertEquals(1_200, car(FRIDAY.withHour(10), FRIDAY.withHour(12)));
+        assertEquals(800, car(SATURDAY.withHour(10), SATURDAY.withHour(12)));
+        // Friday 22-24 at 500, Saturday 00-02 at 400
+        assertEquals(1_800, car(FRIDAY.withHour(22), SATURDAY.withHour(2)));
+        // a full Saturday: 24 h at 400 = 9600, capped at the weekend's 5000
+        assertEquals(5_000, car(SATURDAY, SATURDAY.plusDays(1)));
+        // Friday capped at 8000, then two whole weekend days at 5000 each
+        assertEquals(18_000, car(FRIDAY, FRIDAY.plusDays(3)));
+    }
+
+    @Test
+    void multiWeekStaysCountEachDayType() {
+        // 14 whole days from Monday: 10 weekdays at 8000 and 4 weekend days at 5000
+        assertEquals(100_000, car(MONDAY, MONDAY.plusDays(14)));
+    }
+
+    @Test
+    void graceCutoffIsInclusiveAndStartedMinutesAreBilled() {
+        LocalDateTime entry = MONDAY.withHour(6);
+        assertEquals(0, car(entry, entry.plusMinutes(9).plusSeconds(59)));
+        assertEquals(0, car(entry, entry.plusMinutes(10)));
+        // one second past grace bills 11 started minutes from entry: 11 * 500 / 60 = 91.67, rounded up
+        assertEquals(92, car(entry, entry.plusMinutes(10).plusSeconds(1)));
+        assertEquals(92, car(entry, entry.plusMinutes(11)));
+    }
+
+    @Test
+    void otherVehicleTypesHaveTheirOwnRates() {
+        assertEquals(250, standard.calculatePriceCents(VehicleType.MOTORCYCLE, MONDAY.withHour(9), MONDAY.withHour(10)));
+        assertEquals(1_200, standard.calculatePriceCents(VehicleType.TRUCK, MONDAY.withHour(9), MONDAY.withHour(10)));
+    }
+
+    @Test
+    void invalidTariffsFailToCompile() {
+        TariffProperties empty = standardTariff();
+        empty.getWeekday().setBands(List.of(band("08:00", "08:00", rates(1, 1, 1))));
+        assertThrows(IllegalStateException.class, () -> TariffPricingStrategy.compile("empty", empty));
+
+        TariffProperties missing = standardTariff();
+        missing.getWeekday().getHourlyCents().remove(VehicleType.TRUCK);
+        assertThrows(IllegalStateException.class, () -> TariffPricingStrategy.compile("missing", missing));
+    }
+}
@@ -0,0 +1,202 @@
+package com.learn.parking.lot.design.reservation;
+
+import com.learn.parking.lot.design.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationBookTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 14, 0);
+
+    private final Floor floor = new Floor(1);
+
+    private ReservationBook newBook(int regularSpots) {
+        for (int i = 0; i < regularSpots; i++) {
+            floor.addSpot(new ParkingSpot("F1-R" + i, SpotType.REGULAR, 1));
+        }
+        ReservationBook book = new ReservationBook(List.of(floor), () -> { });
+        book.setHoldBefore(Duration.ofMinutes(60));
+        book.setNoShowGrace(Duration.ofMinutes(30));
+        return book;
+    }
+
+    private ParkingSpot parkWalkIn(String plate) {
+        ParkingSpot spot = floor.findAndAssignSpot(new Car(plate));
+        assertNotNull(spot);
+        return spot;
+    }
+
+    // Parks the reservation's vehicle at the start of its window
+    private void checkIn(ReservationBook book, Reservation reservation) {
+        book.checkIn(reservation.getReservationId(), "T-" + reservation.getLicensePlate(), reservation.getStartTime());
+        floor.occupyHeldSpot(reservation.getSpot(), new Car(reservation.getLicensePlate()), reservation.getStartTime());
+    }
+
+    @Test
+    void walkInsLeaveRoomOnlyForBookingsStartingSoon() {
+        ReservationBook book = newBook(1);
+        book.setWalkInHorizon(Duration.ofHours(4));
+        Reservation reservation = book.reserve("RES-1", VehicleType.CAR, START, START.plusHours(4), START.minusDays(1));
+
+        // a day ahead the booking costs walk-ins nothing, and the spot is not held
+        assertEquals(1, book.freeForWalkIns(SpotType.REGULAR, START.minusDays(1)));
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+        assertEquals(0, book.freeForWalkIns(SpotType.REGULAR, START.minusHours(4)));
+
+        book.advance(START.minusMinutes(60));
+        assertEquals(Reservation.Status.HELD, reservation.getStatus());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+        assertEquals(0, book.freeForWalkIns(SpotType.REGULAR, START.minusMinutes(60)));
+        book.checkIn(reservation.getReservationId(), "T1", START.minusMinutes(10));
+        assertEquals(Reservation.Status.CHECKED_IN, reservation.getStatus());
+    }
+
+    @Test
+    void vehiclesParkedNowDoNotBlockALaterBooking() {
+        ReservationBook book = newBook(1);
+        ParkingSpot walkIn = parkWalkIn("WALK-1");
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START, START.plusHours(4), START.minusHours(5));
+        assertSame(walkIn, first.getSpot());
+        assertEquals(Reservation.Status.BOOKED, first.getStatus());
+
+        // one spot, so an overlapping window is over capacity
+        assertThrows(RuntimeException.class,
+                () -> book.reserve("RES-2", VehicleType.CAR, START.plusHours(2), START.plusHours(6), START.minusHours(5)));
+        assertNull(book.findFreeSpot(SpotType.REGULAR, START.plusHours(2), START.plusHours(6), START.minusHours(5)));
+        Reservation later = book.reserve("RES-3", VehicleType.CAR, START.plusHours(4), START.plusHours(6), START.minusHours(5));
+        assertSame(first.getSpot(), later.getSpot());
+
+        // check-in is already open for this window, so the walk-in parked in the spot does count
+        assertThrows(RuntimeException.class,
+                () -> book.reserve("RES-4", VehicleType.CAR, START.minusMinutes(30), START, START.minusHours(1)));
+        assertEquals(2, book.getReservationCount());
+    }
+
+    @Test
+    void lastHeldBookingOnASpotGivesItBack() {
+        ReservationBook book = newBook(1);
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START, START.plusHours(2), START.minusDays(1));
+        Reservation second = book.reserve("RES-2", VehicleType.CAR, START.plusHours(2), START.plusHours(4), START.minusDays(1));
+        book.advance(START.minusMinutes(60));
+        assertEquals(Reservation.Status.HELD, first.getStatus());
+        assertEquals(Reservation.Status.BOOKED, second.getStatus());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+
+        // the second window's check-in is not open yet, so nothing holds the spot
+        book.cancel(first.getReservationId());
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+        book.cancel(second.getReservationId());
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+        assertEquals(0, book.getReservationCount());
+        assertEquals(1, book.freeForWalkIns(SpotType.REGULAR, START));
+    }
+
+    @Test
+    void vehicleLeavingOnTimeHandsTheSpotToTheNextBooking() {
+        ReservationBook book = newBook(1);
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START.minusHours(4), START.minusHours(2), START.minusDays(1));
+        Reservation next = book.reserve("RES-2", VehicleType.CAR, START.minusHours(2), START, START.minusDays(1));
+        checkIn(book, first);
+        ParkingSpot spot = first.getSpot();
+
+        book.complete(first);
+        assertEquals(Reservation.Status.COMPLETED, first.getStatus());
+        assertFalse(spot.isOccupied());
+        assertEquals(0, book.freeForWalkIns(SpotType.REGULAR, START.minusHours(4)));
+
+        book.advance(START.minusHours(3));
+        assertEquals(Reservation.Status.HELD, next.getStatus());
+        assertSame(spot, next.getSpot());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+    }
+
+    @Test
+    void heldSpotStaysAsideWhenTheVehicleBeforeItLeaves() {
+        ReservationBook book = newBook(1);
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START.minusHours(2), START.minusMinutes(30), START.minusDays(1));
+        Reservation next = book.reserve("RES-2", VehicleType.CAR, START.minusMinutes(30), START, START.minusDays(1));
+        checkIn(book, first);
+        book.advance(START.minusMinutes(60));
+        // check-in for the next window is open while the first vehicle is still parked
+        assertEquals(Reservation.Status.BOOKED, next.getStatus());
+
+        book.complete(first);
+        book.advance(START.minusMinutes(59));
+        assertEquals(Reservation.Status.HELD, next.getStatus());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+    }
+
+    @Test
+    void bookingAfterAnOverstayMovesToAFreeSpot() {
+        ReservationBook book = newBook(2);
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START.minusHours(4), START.minusHours(2), START.minusDays(1));
+        Reservation other = book.reserve("OTHER", VehicleType.CAR, START.minusHours(4), START.minusHours(2), START.minusDays(1));
+        Reservation next = book.reserve("RES-2", VehicleType.CAR, START.minusHours(2), START, START.minusDays(1));
+        assertSame(first.getSpot(), next.getSpot());
+        book.cancel(other.getReservationId());
+        checkIn(book, first);
+
+        // RES-1 is still parked when the next booking's check-in opens
+        book.advance(START.minusHours(3));
+        assertEquals(Reservation.Status.HELD, next.getStatus());
+        assertNotSame(first.getSpot(), next.getSpot());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+
+        // nothing is booked on the first spot any more, so it goes back to walk-ins
+        book.complete(first);
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+    }
+
+    @Test
+    void bookingBlockedByAnOverstayIsBumpedAtItsNoShowDeadline() {
+        ReservationBook book = newBook(1);
+        Reservation first = book.reserve("RES-1", VehicleType.CAR, START.minusHours(4), START.minusHours(2), START.minusDays(1));
+        Reservation next = book.reserve("RES-2", VehicleType.CAR, START.minusHours(2), START, START.minusDays(1));
+        checkIn(book, first);
+
+        book.advance(START.minusHours(3));
+        assertEquals(Reservation.Status.BOOKED, next.getStatus());
+        book.advance(START.minusMinutes(91));
+        assertEquals(Reservation.Status.BOOKED, next.getStatus());
+
+        book.advance(START.minusMinutes(90));
+        assertEquals(Reservation.Status.BUMPED, next.getStatus());
+        assertEquals(1, book.getReservationCount());
+        assertTrue(first.getSpot().isOccupied());
+        book.complete(first);
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+    }
+
+    @Test
+    void heldReservationShorterThanTheGraceExpiresAtItsEnd() {
+        ReservationBook book = newBook(1);
+        Reservation reservation = book.reserve("RES-1", VehicleType.CAR, START, START.plusMinutes(20), START.minusDays(1));
+
+        book.advance(START.minusMinutes(60));
+        assertEquals(Reservation.Status.HELD, reservation.getStatus());
+        assertEquals(0, floor.getAvailableSpotCount(SpotType.REGULAR));
+
+        book.advance(START.plusMinutes(19));
+        assertEquals(Reservation.Status.HELD, reservation.getStatus());
+        book.advance(START.plusMinutes(20));
+        assertEquals(Reservation.Status.EXPIRED, reservation.getStatus());
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+    }
+
+    @Test
+    void reservationFirstSeenAfterItsWindowIsNeverHeld() {
+        ReservationBook book = newBook(1);
+        Reservation reservation = book.reserve("RES-1", VehicleType.CAR, START, START.plusMinutes(20), START.minusDays(1));
+
+        // no tick ran during the whole window
+        book.advance(START.plusHours(1));
+        assertEquals(Reservation.Status.EXPIRED, reservation.getStatus());
+        assertEquals(1, floor.getAvailableSpotCount(SpotType.REGULAR));
+        assertThrows(RuntimeException.class, () -> book.checkIn(reservation.getReservationId(), "T1", START.plusHours(1)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.allocation.NearestToEntranceStrategy;
+import com.learn.parking.lot.design.allocation.SpotAllocationStrategy;
+import com.learn.parking.lot.design.metrics.ParkingMetrics;
+import com.learn.parking.lot.design.model.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLotBulkEntryTest {
+
+    // Nearest-first, except that the given call throws, as a broken allocator might
+    private static final class FailingStrategy implements SpotAllocationStrategy {
+        private final SpotAllocationStrategy delegate = new NearestToEntranceStrategy();
+        private int callsUntilFailure;
+
+        FailingStrategy(int failingCall) {
+            this.callsUntilFailure = failingCall;
+        }
+
+        @Override
+        public ParkingSpot allocate(List<Floor> floors, Vehicle vehicle) {
+            if (--callsUntilFailure == 0) {
+                throw new IllegalStateException("allocator failed");
+            }
+            return delegate.allocate(floors, vehicle);
+        }
+    }
+
+    private ParkingLot newLot(int floors, int regularSpotsPerFloor) {
+        List<Floor> layout = new ArrayList<>();
+        for (int f = 1; f <= floors; f++) {
+            Floor floor = new Floor(f);
+            for (int i = 0; i < regularSpotsPerFloor; i++) {
+                floor.addSpot(new ParkingSpot("F" + f + "-R" + i, SpotType.REGULAR, f));
+            }
+            layout.add(floor);
+        }
+        return new ParkingLot("bulk", "Bulk", layout);
+    }
+
+    @Test
+    void batchUsesTheLotsAllocationStrategyAndRecordsEveryEntry() {
+        ParkingLot lot = newLot(2, 4);
+        lot.setAllocationStrategy(new NearestToEntranceStrategy());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        lot.setMetrics(new ParkingMetrics(registry, lot.getLotId(), lot.getFloors()));
+        lot.issueTicket(new Car("PARKED-1"));
+
+        List<Vehicle> wave = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            wave.add(new Car("WAVE-" + i));
+        }
+        wave.add(new Car("parked 1"));
+        List<EntryResult> results = lot.issueTickets(wave);
+
+        // nearest-first fills floor 1 from its lowest spot before going up
+        List<String> spotIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            assertTrue(results.get(i).isSuccess());
+            spotIds.add(results.get(i).getTicket().getAssignedSpot().getSpotId());
+        }
+        assertEquals(List.of("F1-R1", "F1-R2", "F1-R3", "F2-R0", "F2-R1", "F2-R2", "F2-R3"), spotIds);
+        assertFalse(results.get(7).isSuccess());
+        assertFalse(results.get(8).isSuccess());
+
+        assertEquals(8, registry.get("parking.entry").tag("outcome", "issued").timer().count());
+        assertEquals(1, registry.get("parking.entry").tag("outcome", "full").timer().count());
+        assertEquals(1, registry.get("parking.entry").tag("outcome", "rejected").timer().count());
+        assertEquals(8, registry.get("parking.spot.search").tag("result", "found").timer().count());
+        assertEquals(1, registry.get("parking.spot.search").tag("result", "none").timer().count());
+    }
+
+    @Test
+    void failedAllocationGivesThePlateBack() {
+        ParkingLot lot = newLot(1, 4);
+        lot.setAllocationStrategy(new FailingStrategy(1));
+
+        assertThrows(IllegalStateException.class, () -> lot.issueTicket(new Car("RETRY-1")));
+        assertNull(lot.findTicketByPlate("RETRY-1"));
+
+        ParkingTicket ticket = lot.issueTicket(new Car("RETRY-1"));
+        assertEquals("F1-R0", ticket.getAssignedSpot().getSpotId());
+        assertEquals(3, lot.getAvailabilitySummary().get(SpotType.REGULAR));
+    }
+
+    @Test
+    void failedBatchGivesBackEveryPlateAndSpotItTook() {
+        ParkingLot lot = newLot(1, 4);
+        // the first two vehicles get spots before the third call fails
+        lot.setAllocationStrategy(new FailingStrategy(3));
+        List<Vehicle> wave = List.of(new Car("WAVE-0"), new Car("WAVE-1"), new Car("WAVE-2"));
+
+        assertThrows(IllegalStateException.class, () -> lot.issueTickets(wave));
+        assertEquals(4, lot.getAvailabilitySummary().get(SpotType.REGULAR));
+
+        List<EntryResult> results = lot.issueTickets(wave);
+        assertTrue(results.stream().allMatch(EntryResult::isSuccess));
+        assertEquals(1, lot.getAvailabilitySummary().get(SpotType.REGULAR));
+    }
+}
@@ -0,0 +1,158 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.journal.TicketJournal;
+import com.learn.parking.lot.design.model.*;
+import com.learn.parking.lot.design.payment.CreditCardPayment;
+import com.learn.parking.lot.design.payment.PaymentGateway;
+import com.learn.parking.lot.design.payment.PaymentService;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLotExitTest {
+
+    private static final CreditCardPayment CARD = new CreditCardPayment("4111111111111111", "123", "12/30");
+    private static final Instant ENTRY = Instant.parse("2026-03-02T08:00:00Z");
+
+    // Approves every charge, once per idempotency key, and counts the ones that move money
+    private static final class CountingGateway implements PaymentGateway {
+        final Map<String, Long> charged = new ConcurrentHashMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public boolean charge(String cardNumber, long amountCents, String idempotencyKey) {
+            calls.incrementAndGet();
+            charged.putIfAbsent(idempotencyKey, amountCents);
+            return true;
+        }
+    }
+
+    // Fails the first exit it is asked to record
+    private static final class FlakyJournal implements TicketJournal {
+        final AtomicBoolean failNextExit = new AtomicBoolean(true);
+        final AtomicInteger exits = new AtomicInteger();
+
+        @Override
+        public void recordEntry(ParkingTicket ticket) {
+        }
+
+        @Override
+        public void recordExit(String ticketId, LocalDateTime exitTime, double fee) {
+            if (failNextExit.compareAndSet(true, false)) {
+                throw new IllegalStateException("journal unavailable");
+            }
+            exits.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private ParkingLot newLot(TicketJournal journal, PaymentGateway gateway) {
+        Floor floor = new Floor(1);
+        for (int i = 0; i < 4; i++) {
+            floor.addSpot(new ParkingSpot("F1-R" + i, SpotType.REGULAR, 1));
+        }
+        ParkingLot lot = new ParkingLot("exit", "Exit", List.of(floor), journal);
+        lot.setPayments(new PaymentService(gateway, Map.of()));
+        lot.setClock(Clock.fixed(ENTRY, ZoneOffset.UTC));
+        return lot;
+    }
+
+    @Test
+    void retryAfterJournalFailureFinishesTheExitWithoutChargingAgain() {
+        FlakyJournal journal = new FlakyJournal();
+        CountingGateway gateway = new CountingGateway();
+        ParkingLot lot = newLot(journal, gateway);
+        ParkingTicket ticket = lot.issueTicket(new Car("RETRY-1"));
+        lot.setClock(Clock.fixed(ENTRY.plus(Duration.ofHours(3)), ZoneOffset.UTC));
+
+        CompletionException failed = assertThrows(CompletionException.class,
+                () -> lot.processExitAsync(ticket.getTicketId(), CARD, "gate-1").join());
+        assertEquals("journal unavailable", failed.getCause().getMessage());
+        assertEquals(1, gateway.calls.get());
+        assertEquals(1, lot.getActiveTickets().size());
+
+        // later, and under a new key: the fee and exit time approved the first time still apply
+        lot.setClock(Clock.fixed(ENTRY.plus(Duration.ofHours(5)), ZoneOffset.UTC));
+        Receipt receipt = lot.processExitAsync(ticket.getTicketId(), CARD, "gate-2").join();
+        assertEquals(1, gateway.calls.get());
+        assertEquals(gateway.charged.values().iterator().next() / 100.0, receipt.getAmountPaid());
+        assertEquals(LocalDateTime.ofInstant(ENTRY.plus(Duration.ofHours(3)), ZoneOffset.UTC), ticket.getExitTime());
+        assertEquals(1, journal.exits.get());
+        assertTrue(lot.getActiveTickets().isEmpty());
+
+        // the receipt is remembered under the key that completed the exit
+        assertSame(receipt, lot.processExitAsync(ticket.getTicketId(), CARD, "gate-2").join());
+        assertEquals(1, gateway.calls.get());
+    }
+
+    @Test
+    void retryAfterATimeoutChargesWhatTheLateApprovalTook() throws InterruptedException {
+        CountDownLatch lateApproval = new CountDownLatch(1);
+        CountingGateway fast = new CountingGateway();
+        // the first call outlives the payment timeout and is approved after the exit has failed
+        PaymentGateway slowOnce = new PaymentGateway() {
+            final AtomicBoolean first = new AtomicBoolean(true);
+
+            @Override
+            public boolean charge(String cardNumber, long amountCents, String idempotencyKey) {
+                if (first.compareAndSet(true, false)) {
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    boolean approved = fast.charge(cardNumber, amountCents, idempotencyKey);
+                    lateApproval.countDown();
+                    return approved;
+                }
+                return fast.charge(cardNumber, amountCents, idempotencyKey);
+            }
+        };
+        ParkingLot lot = newLot(TicketJournal.NONE, slowOnce);
+        lot.setPayments(new PaymentService(slowOnce, Map.of("CREDIT_CARD", Duration.ofMillis(50))));
+        ParkingTicket ticket = lot.issueTicket(new Car("SLOW-1"));
+        lot.setClock(Clock.fixed(ENTRY.plus(Duration.ofHours(3)), ZoneOffset.UTC));
+
+        CompletionException failed = assertThrows(CompletionException.class,
+                () -> lot.processExitAsync(ticket.getTicketId(), CARD, "gate-1").join());
+        assertTrue(failed.getCause().getMessage().startsWith("Payment timed out"));
+        assertTrue(lateApproval.await(5, TimeUnit.SECONDS));
+
+        // the gate retries later with the same key; a new quote would be for a longer stay
+        lot.setClock(Clock.fixed(ENTRY.plus(Duration.ofHours(7)), ZoneOffset.UTC));
+        Receipt receipt = lot.processExitAsync(ticket.getTicketId(), CARD, "gate-1").join();
+        assertEquals(1, fast.charged.size());
+        assertEquals(fast.charged.values().iterator().next() / 100.0, receipt.getAmountPaid());
+        assertEquals(LocalDateTime.ofInstant(ENTRY.plus(Duration.ofHours(3)), ZoneOffset.UTC), ticket.getExitTime());
+    }
+
+    @Test
+    void oneIdempotencyKeyOnTwoTicketsPaysForEach() {
+        CountingGateway gateway = new CountingGateway();
+        ParkingLot lot = newLot(TicketJournal.NONE, gateway);
+        ParkingTicket first = lot.issueTicket(new Car("SHARED-1"));
+        ParkingTicket second = lot.issueTicket(new Car("SHARED-2"));
+        lot.setClock(Clock.fixed(ENTRY.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        Receipt firstReceipt = lot.processExitAsync(first.getTicketId(), CARD, "same-key").join();
+        Receipt secondReceipt = lot.processExitAsync(second.getTicketId(), CARD, "same-key").join();
+
+        assertSame(first, firstReceipt.getTicket());
+        assertSame(second, secondReceipt.getTicket());
+        assertEquals(2, gateway.charged.size());
+        assertTrue(lot.getActiveTickets().isEmpty());
+    }
+}
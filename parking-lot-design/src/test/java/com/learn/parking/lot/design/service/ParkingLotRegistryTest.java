@@ -0,0 +1,52 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.allocation.BestFitStrategy;
+import com.learn.parking.lot.design.allocation.FloorLoadBalancingStrategy;
+import com.learn.parking.lot.design.allocation.NearestToEntranceStrategy;
+import com.learn.parking.lot.design.config.ParkingLotProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLotRegistryTest {
+
+    private ParkingLotProperties.Lot lot(String id, String allocation) {
+        ParkingLotProperties.FloorLayout floor = new ParkingLotProperties.FloorLayout();
+        floor.setRegular(10);
+        ParkingLotProperties.Lot lot = new ParkingLotProperties.Lot();
+        lot.setId(id);
+        lot.setFloors(List.of(floor));
+        if (allocation != null) {
+            lot.setAllocation(allocation);
+        }
+        return lot;
+    }
+
+    private ParkingLotRegistry registry(ParkingLotProperties.Lot... lots) {
+        ParkingLotProperties properties = new ParkingLotProperties();
+        properties.getJournal().setEnabled(false);
+        properties.setLots(List.of(lots));
+        return new ParkingLotRegistry(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void eachLotGetsTheAllocationStrategyItNames() {
+        ParkingLotRegistry registry = registry(lot("a", null), lot("b", "best-fit"), lot("c", "nearest-to-entrance"));
+        try {
+            assertInstanceOf(FloorLoadBalancingStrategy.class, registry.getLot("a").getAllocationStrategy());
+            assertInstanceOf(BestFitStrategy.class, registry.getLot("b").getAllocationStrategy());
+            assertInstanceOf(NearestToEntranceStrategy.class, registry.getLot("c").getAllocationStrategy());
+        } finally {
+            registry.close();
+        }
+    }
+
+    @Test
+    void unknownAllocationFailsStartup() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry(lot("a", "random")));
+        assertTrue(e.getMessage().contains("random"));
+    }
+}
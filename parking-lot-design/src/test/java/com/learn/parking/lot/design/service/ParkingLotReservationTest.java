@@ -0,0 +1,78 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.model.*;
+import com.learn.parking.lot.design.reservation.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLotReservationTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T13:00:00Z");
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 14, 0);
+
+    private ParkingLot newLot(int regularSpots) {
+        Floor floor = new Floor(1);
+        for (int i = 0; i < regularSpots; i++) {
+            floor.addSpot(new ParkingSpot("F1-R" + i, SpotType.REGULAR, 1));
+        }
+        ParkingLot lot = new ParkingLot("reserved", "Reserved", List.of(floor));
+        lot.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        return lot;
+    }
+
+    @Test
+    void walkInsLeaveRoomForABookingStartingSoon() {
+        ParkingLot lot = newLot(2);
+        // check-in opens at 15:00, so at 13:00 the spot is booked but not held
+        Reservation reservation = lot.getReservations().reserve("RES-1", VehicleType.CAR, START.plusHours(2),
+                START.plusHours(4), LocalDateTime.now(lot.getClock()));
+        assertEquals(Reservation.Status.BOOKED, reservation.getStatus());
+
+        lot.issueTicket(new Car("WALK-1"));
+        assertEquals(1, lot.getAvailabilitySummary().get(SpotType.REGULAR));
+        assertThrows(RuntimeException.class, () -> lot.issueTicket(new Car("WALK-2")));
+        assertNull(lot.findTicketByPlate("WALK-2"));
+        List<EntryResult> wave = lot.issueTickets(List.of(new Car("WALK-3")));
+        assertFalse(wave.get(0).isSuccess());
+        assertNull(lot.findTicketByPlate("WALK-3"));
+    }
+
+    @Test
+    void bookingNextWeekCostsWalkInsNothingToday() {
+        ParkingLot lot = newLot(2);
+        lot.getReservations().reserve("RES-1", VehicleType.CAR, START.plusDays(7), START.plusDays(7).plusHours(2),
+                LocalDateTime.now(lot.getClock()));
+
+        lot.issueTicket(new Car("WALK-1"));
+        lot.issueTicket(new Car("WALK-2"));
+        assertEquals(0, lot.getAvailabilitySummary().get(SpotType.REGULAR));
+    }
+
+    @Test
+    void failedCheckInLeavesTheReservationHeldAndThePlateFree() {
+        ParkingLot lot = newLot(1);
+        Reservation reservation = lot.getReservations().reserve("RES-1", VehicleType.CAR, START, START.plusHours(2),
+                LocalDateTime.of(2026, 3, 1, 9, 0));
+        lot.getReservations().advance(LocalDateTime.now(lot.getClock()));
+        assertEquals(Reservation.Status.HELD, reservation.getStatus());
+
+        // Something is already parked in the held spot, so parking the reserved car there fails
+        ParkingSpot spot = reservation.getSpot();
+        assertTrue(spot.assignVehicle(new Car("SQUATTER")));
+        assertThrows(IllegalStateException.class, () -> lot.checkIn(reservation.getReservationId()));
+        assertEquals(Reservation.Status.HELD, reservation.getStatus());
+        assertNull(reservation.getTicketId());
+        assertNull(lot.findTicketByPlate("RES-1"));
+        assertTrue(lot.getActiveTickets().isEmpty());
+
+        spot.removeVehicle();
+        ParkingTicket ticket = lot.checkIn(reservation.getReservationId());
+        assertEquals(Reservation.Status.CHECKED_IN, reservation.getStatus());
+        assertSame(spot, ticket.getAssignedSpot());
+        assertSame(ticket, lot.findTicketByPlate("RES-1"));
+    }
+}
@@ -0,0 +1,219 @@
+package com.learn.parking.lot.design.service;
+
+import com.learn.parking.lot.design.availability.AvailabilitySnapshot;
+import com.learn.parking.lot.design.model.*;
+import com.learn.parking.lot.design.payment.CashPayment;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Randomized entry/exit traffic from many gates against one small lot, so it runs full and
+ * rejects often. Each run mixes single and bulk entries, re-entries of parked plates, exits,
+ * double exits of one ticket and late exits of tickets already gone, then checks that the lot's
+ * bookkeeping agrees with itself. Failures print the seed; rerun with it to replay a thread's
+ * choices (interleavings still vary).
+ */
+class ParkingLotStressTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 1500;
+    private static final CashPayment CASH = new CashPayment(1_000);
+
+    private ParkingLot newLot() {
+        List<Floor> floors = new ArrayList<>();
+        for (int f = 1; f <= 3; f++) {
+            Floor floor = new Floor(f);
+            addSpots(floor, SpotType.COMPACT, 10);
+            addSpots(floor, SpotType.REGULAR, 40);
+            addSpots(floor, SpotType.LARGE, 6);
+            addSpots(floor, SpotType.HANDICAPPED, 4);
+            floors.add(floor);
+        }
+        return new ParkingLot("stress", "Stress", floors);
+    }
+
+    private void addSpots(Floor floor, SpotType type, int count) {
+        for (int i = 0; i < count; i++) {
+            floor.addSpot(new ParkingSpot("F" + floor.getFloorNumber() + "-" + type.name().charAt(0) + i, type, floor.getFloorNumber()));
+        }
+    }
+
+    private Vehicle vehicle(String plate, Random random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> new Motorcycle(plate);
+            case 1 -> new Truck(plate);
+            default -> new Car(plate);
+        };
+    }
+
+    @RepeatedTest(5)
+    void randomizedTrafficKeepsTicketsSpotsAndCountersConsistent() throws Exception {
+        long seed = System.nanoTime();
+        ParkingLot lot = newLot();
+        // tickets issued and not yet handed to an exit
+        ConcurrentLinkedDeque<ParkingTicket> parked = new ConcurrentLinkedDeque<>();
+        ConcurrentLinkedQueue<String> exited = new ConcurrentLinkedQueue<>();
+        AtomicInteger entries = new AtomicInteger();
+        AtomicInteger exits = new AtomicInteger();
+        AtomicInteger plates = new AtomicInteger();
+
+        runGates(seed, (thread, random) -> {
+            for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                int choice = random.nextInt(10);
+                if (choice < 4) {
+                    Vehicle vehicle = vehicle("P-" + plates.incrementAndGet(), random);
+                    try {
+                        ParkingTicket ticket = lot.issueTicket(vehicle);
+                        assertSame(vehicle, ticket.getAssignedSpot().getParkedVehicle(), "seed " + seed);
+                        assertTrue(ParkingSpot.fits(ticket.getAssignedSpot().getType(), vehicle.getRequiredSpotType()), "seed " + seed);
+                        entries.incrementAndGet();
+                        parked.add(ticket);
+                    } catch (RuntimeException full) {
+                        // lot full for this type
+                    }
+                } else if (choice == 4) {
+                    List<Vehicle> wave = new ArrayList<>();
+                    for (int i = random.nextInt(20) + 1; i > 0; i--) {
+                        wave.add(vehicle("P-" + plates.incrementAndGet(), random));
+                    }
+                    for (EntryResult result : lot.issueTickets(wave)) {
+                        if (result.isSuccess()) {
+                            entries.incrementAndGet();
+                            parked.add(result.getTicket());
+                        }
+                    }
+                } else if (choice == 5) {
+                    // a plate at the gate again, in different spelling: refused while it is parked
+                    ParkingTicket ticket = parked.peekLast();
+                    if (ticket != null) {
+                        try {
+                            parked.add(lot.issueTicket(new Car(ticket.getVehicle().getLicensePlate().toLowerCase())));
+                            // it left in the meantime; a second live ticket would show in the plate check
+                            entries.incrementAndGet();
+                        } catch (RuntimeException expected) {
+                            // still parked, or full
+                        }
+                    }
+                } else if (choice == 6) {
+                    // two exits racing for one ticket under different keys: exactly one charges
+                    ParkingTicket ticket = random.nextBoolean() ? parked.pollFirst() : parked.pollLast();
+                    if (ticket != null) {
+                        CompletableFuture<Receipt> first = lot.processExitAsync(ticket.getTicketId(), CASH, "A-" + ticket.getTicketId());
+                        CompletableFuture<Receipt> second = lot.processExitAsync(ticket.getTicketId(), CASH, "B-" + ticket.getTicketId());
+                        int paid = succeeded(first) + succeeded(second);
+                        assertEquals(1, paid, "seed " + seed + ": ticket " + ticket.getTicketId() + " paid " + paid + " times");
+                        exits.incrementAndGet();
+                        exited.add(ticket.getTicketId());
+                    }
+                } else if (choice == 7) {
+                    String gone = exited.peek();
+                    if (gone != null) {
+                        // a fresh key gets no second charge for a ticket that has left
+                        assertEquals(0, succeeded(lot.processExitAsync(gone, CASH, "LATE-" + random.nextLong())), "seed " + seed);
+                    }
+                } else {
+                    ParkingTicket ticket = random.nextBoolean() ? parked.pollFirst() : parked.pollLast();
+                    if (ticket != null) {
+                        Receipt receipt = lot.processExit(ticket.getTicketId(), CASH);
+                        assertSame(ticket, receipt.getTicket(), "seed " + seed);
+                        exits.incrementAndGet();
+                        exited.add(ticket.getTicketId());
+                    }
+                }
+            }
+        });
+
+        assertEquals(entries.get() - exits.get(), lot.getActiveTickets().size(), "seed " + seed + ": tickets lost or duplicated");
+        assertConsistent(lot, "seed " + seed);
+
+        // Everyone leaves: every spot must come back
+        for (ParkingTicket ticket : lot.getActiveTickets()) {
+            lot.processExit(ticket.getTicketId(), CASH);
+        }
+        assertConsistent(lot, "seed " + seed + " after draining");
+        for (Floor floor : lot.getFloors()) {
+            for (SpotType type : SpotType.values()) {
+                assertEquals(floor.getTotalSpotCount(type), floor.getAvailableSpotCount(type),
+                        "seed " + seed + ": " + type + " spots leaked on floor " + floor.getFloorNumber());
+            }
+        }
+    }
+
+    private static int succeeded(CompletableFuture<Receipt> exit) {
+        try {
+            exit.get(10, TimeUnit.SECONDS);
+            return 1;
+        } catch (ExecutionException e) {
+            return 0;
+        } catch (InterruptedException | TimeoutException e) {
+            throw new AssertionError("exit did not finish", e);
+        }
+    }
+
+    /**
+     * Spot occupancy matches the active tickets one to one, the free counters and the published
+     * availability are exact, and every parked plate resolves to its ticket.
+     */
+    private void assertConsistent(ParkingLot lot, String context) {
+        Map<ParkingSpot, ParkingTicket> ticketsBySpot = new IdentityHashMap<>();
+        for (ParkingTicket ticket : lot.getActiveTickets()) {
+            ParkingTicket other = ticketsBySpot.put(ticket.getAssignedSpot(), ticket);
+            assertNull(other, context + ": spot " + ticket.getAssignedSpot().getSpotId() + " assigned twice");
+            assertSame(ticket.getVehicle(), ticket.getAssignedSpot().getParkedVehicle(),
+                    context + ": spot " + ticket.getAssignedSpot().getSpotId() + " holds another vehicle");
+            assertSame(ticket, lot.findTicketByPlate(ticket.getVehicle().getLicensePlate()), context + ": plate index out of date");
+        }
+
+        Map<SpotType, Integer> freeByType = new EnumMap<>(SpotType.class);
+        for (Floor floor : lot.getFloors()) {
+            for (SpotType type : SpotType.values()) {
+                int free = 0;
+                for (ParkingSpot spot : floor.getSpotsByType().get(type)) {
+                    assertEquals(ticketsBySpot.containsKey(spot), spot.isOccupied(),
+                            context + ": spot " + spot.getSpotId() + " occupied without a ticket, or the reverse");
+                    if (!spot.isOccupied()) {
+                        free++;
+                    }
+                }
+                assertEquals(free, floor.getAvailableSpotCount(type),
+                        context + ": free counter drifted for " + type + " on floor " + floor.getFloorNumber());
+                freeByType.merge(type, free, Integer::sum);
+            }
+        }
+
+        AvailabilitySnapshot snapshot = lot.getAvailabilitySnapshot();
+        assertEquals(freeByType, snapshot.getAvailability(), context + ": published availability is stale");
+        assertEquals(ticketsBySpot.size(), snapshot.getActiveTickets(), context);
+    }
+
+    private interface Gate {
+        void run(int thread, Random random) throws Exception;
+    }
+
+    private void runGates(long seed, Gate gate) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                gate.run(thread, new Random(seed + thread));
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.learn.parking.lot.design.stats;
+
+import com.learn.parking.lot.design.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyRecorderTest {
+
+    private static final Instant START = Instant.parse("2026-03-02T08:00:00Z");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void minutesAreCountedOnTheLotClock() {
+        Floor floor = new Floor(1);
+        for (int i = 0; i < 4; i++) {
+            floor.addSpot(new ParkingSpot("F1-R" + i, SpotType.REGULAR, 1));
+        }
+        AtomicReference<Clock> clock = new AtomicReference<>(Clock.fixed(START, ZoneOffset.UTC));
+        OccupancyRecorder recorder = new OccupancyRecorder(List.of(floor), 60, clock::get);
+
+        floor.findAndAssignSpot(new Car("A"));
+        floor.findAndAssignSpot(new Car("B"));
+        recorder.record(floor, SpotType.REGULAR);
+        clock.set(Clock.fixed(START.plus(Duration.ofMinutes(2)), ZoneOffset.UTC));
+        floor.findAndAssignSpot(new Car("C"));
+        recorder.record(floor, SpotType.REGULAR);
+
+        Map<String, Object> timeline = recorder.timeline(3);
+        assertEquals(LocalDateTime.of(2026, 3, 2, 8, 0), timeline.get("start"));
+        Map<String, Object> series = ((List<Map<String, Object>>) timeline.get("series")).get(0);
+        assertArrayEquals(new long[] {2, 2, 3}, (long[]) series.get("end"));
+        assertArrayEquals(new long[] {2, 2, 3}, (long[]) series.get("peak"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of the compiled blocklist at production scale (~5M domains).
+ * Run with {@code ./gradlew jmh -PjmhIncludes=BlocklistMatcherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BlocklistMatcherBenchmark {
+
+    @Param({"100000", "5000000"})
+    int domainCount;
+
+    @Param({"10000"})
+    int pathPatternCount;
+
+    private BlocklistMatcher matcher;
+    private URI blockedSubdomain;
+    private URI blockedPath;
+    private URI clean;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> domains = new ArrayList<>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            domains.add(randomLabel(random, 6, 14) + ".example-" + (i % 1000) + ".com");
+        }
+        List<String> paths = new ArrayList<>(pathPatternCount);
+        for (int i = 0; i < pathPatternCount; i++) {
+            paths.add("/" + randomLabel(random, 5, 12) + "/" + randomLabel(random, 3, 8));
+        }
+        matcher = BlocklistMatcher.compile(domains, paths);
+
+        blockedSubdomain = URI.create("https://cdn.assets." + domains.get(domainCount / 2) + "/index.html");
+        blockedPath = URI.create("https://shop.example.org/catalog" + paths.get(pathPatternCount / 2) + "?ref=mail");
+        clean = URI.create("https://docs.deep.sub.example.org/guides/getting-started/installation?lang=en&v=2");
+    }
+
+    @Benchmark
+    public boolean blockedSubdomain() {
+        return matcher.isBlocked(blockedSubdomain);
+    }
+
+    @Benchmark
+    public boolean blockedPath() {
+        return matcher.isBlocked(blockedPath);
+    }
+
+    @Benchmark
+    public boolean cleanUrl() {
+        return matcher.isBlocked(clean);
+    }
+
+    private static String randomLabel(SplittableRandom random, int min, int max) {
+        int length = random.nextInt(min, max + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
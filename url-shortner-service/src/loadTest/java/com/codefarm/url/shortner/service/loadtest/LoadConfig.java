@@ -0,0 +1,67 @@
+package com.codefarm.url.shortner.service.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code load.*} system properties (the Gradle task forwards
+ * {@code -Pload.<key>=<value>}). Rates describe an open model: arrivals are scheduled at a
+ * constant rate regardless of how fast the server answers.
+ */
+record LoadConfig(
+        Duration duration,
+        Duration warmup,
+        double rps,
+        double writeRatio,
+        int seedCount,
+        double zipfExponent,
+        long randomSeed,
+        int maxInFlight,
+        String profiles,
+        Path report) {
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                duration(System.getProperty("load.duration", "60s")),
+                duration(System.getProperty("load.warmup", "10s")),
+                Double.parseDouble(System.getProperty("load.rps", "200")),
+                Double.parseDouble(System.getProperty("load.writeRatio", "0.01")),
+                Integer.parseInt(System.getProperty("load.seedCount", "100")),
+                Double.parseDouble(System.getProperty("load.zipfExponent", "0.99")),
+                Long.parseLong(System.getProperty("load.randomSeed", "12345")),
+                Integer.parseInt(System.getProperty("load.maxInFlight", "10000")),
+                System.getProperty("load.profiles", ""),
+                Path.of(System.getProperty("load.report", "build/reports/load-test/report.json")));
+    }
+
+    Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("duration", duration.toString());
+        map.put("warmup", warmup.toString());
+        map.put("rps", rps);
+        map.put("writeRatio", writeRatio);
+        map.put("seedCount", seedCount);
+        map.put("zipfExponent", zipfExponent);
+        map.put("randomSeed", randomSeed);
+        map.put("maxInFlight", maxInFlight);
+        map.put("profiles", profiles);
+        return map;
+    }
+
+    // accepts k6-style "500ms", "30s", "2m" as well as ISO-8601 "PT30S"
+    private static Duration duration(String value) {
+        String v = value.trim();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s") && !v.startsWith("P")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m") && !v.startsWith("P")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.parse(v);
+    }
+}
@@ -0,0 +1,169 @@
+package com.codefarm.url.shortner.service.loadtest;
+
+import com.codefarm.url.shortner.service.UrlShortnerServiceApplication;
+import com.codefarm.url.shortner.service.db.BulkheadDataSource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-JVM replacement for {@code load-test/url-shortener.k6.js}. Boots the service on a random
+ * port, seeds short links, then drives a constant-arrival-rate mix of redirects (Zipfian over the
+ * seeded codes) and shortens from virtual-thread clients, and writes a JSON report with
+ * HdrHistogram percentiles. Run with {@code ./gradlew loadTest -Pload.rps=2000 -Pload.duration=60s}.
+ */
+public final class LoadHarness {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(UrlShortnerServiceApplication.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .profiles(config.profiles().isBlank() ? new String[0] : config.profiles().split(","))
+                .run(args);
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String baseUrl = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            List<String> codes = seed(client, baseUrl, config.seedCount());
+            Map<String, Object> report = run(client, baseUrl, codes, config);
+            // queue wait on the DB bulkhead over the whole run, seeding included; absent when it is disabled
+            BulkheadDataSource bulkhead = app.getBeanProvider(BulkheadDataSource.class).getIfAvailable();
+            if (bulkhead != null) {
+                report.put("dbBulkhead", bulkhead.stats());
+            }
+
+            Files.createDirectories(config.report().toAbsolutePath().getParent());
+            JSON.writeValue(config.report().toFile(), report);
+            System.out.println(JSON.writeValueAsString(report.get("scenarios")));
+            if (report.containsKey("dbBulkhead")) {
+                System.out.println(JSON.writeValueAsString(report.get("dbBulkhead")));
+            }
+            System.out.println("Report written to " + config.report().toAbsolutePath());
+        }
+    }
+
+    private static List<String> seed(HttpClient client, String baseUrl, int count) throws Exception {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(shortenRequest(baseUrl, "seed/" + i + "/" + System.nanoTime()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            JsonNode body = JSON.readTree(response.body());
+            codes.add(body.get("shortCode").asText());
+        }
+        return codes;
+    }
+
+    private static Map<String, Object> run(HttpClient client, String baseUrl, List<String> codes, LoadConfig config)
+            throws InterruptedException {
+        ScenarioStats redirects = new ScenarioStats("redirect", config.rps() * (1 - config.writeRatio()));
+        ScenarioStats shortens = new ScenarioStats("shorten", config.rps() * config.writeRatio());
+        ZipfianSampler popularity = new ZipfianSampler(codes.size(), config.zipfExponent());
+        SplittableRandom random = new SplittableRandom(config.randomSeed());
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        AtomicLong writeSeq = new AtomicLong();
+
+        double intervalNanos = 1_000_000_000.0 / config.rps();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                boolean write = random.nextDouble() < config.writeRatio();
+                ScenarioStats stats = write ? shortens : redirects;
+                boolean measured = intended >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        stats.drop();
+                    }
+                    continue;
+                }
+                HttpRequest request = write
+                        ? shortenRequest(baseUrl, "load/" + writeSeq.incrementAndGet() + "/" + config.randomSeed())
+                        : HttpRequest.newBuilder(URI.create(baseUrl + "/" + codes.get(popularity.sample(random))))
+                                .timeout(REQUEST_TIMEOUT).GET().build();
+                int expectedStatus = write ? 200 : 301;
+                requests.submit(() -> {
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (measured) {
+                            stats.record(intended, "HTTP " + response.statusCode(), response.statusCode() == expectedStatus);
+                        }
+                    } catch (Exception e) {
+                        if (measured) {
+                            stats.record(intended, e.getClass().getSimpleName(), false);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        double measuredSeconds = config.duration().toNanos() / 1e9;
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        scenarios.put(redirects.name(), redirects.report(measuredSeconds));
+        scenarios.put(shortens.name(), shortens.report(measuredSeconds));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("config", config.asMap());
+        report.put("scenarios", scenarios);
+        return report;
+    }
+
+    private static HttpRequest shortenRequest(String baseUrl, String path) {
+        String body = "{\"longUrl\":\"https://example.com/" + path + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/shorten"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.codefarm.url.shortner.service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one request type. Latency is measured from the request's
+ * intended start time, not from when it was actually sent, which corrects for coordinated omission:
+ * a server stall shows up as latency on every request scheduled during it.
+ */
+final class ScenarioStats {
+
+    private final String name;
+    private final double intendedRps;
+    private final Histogram latencyNanos = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(10), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    ScenarioStats(String name, double intendedRps) {
+        this.name = name;
+        this.intendedRps = intendedRps;
+        latencyNanos.setAutoResize(true);
+    }
+
+    void record(long intendedStartNanos, String outcome, boolean ok) {
+        latencyNanos.recordValue(Math.max(0, System.nanoTime() - intendedStartNanos));
+        outcomes.computeIfAbsent(outcome, _ -> new LongAdder()).increment();
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, Object> report(double measuredSeconds) {
+        long count = latencyNanos.getTotalCount();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(latencyNanos.getValueAtPercentile(50)));
+        latency.put("p90", millis(latencyNanos.getValueAtPercentile(90)));
+        latency.put("p99", millis(latencyNanos.getValueAtPercentile(99)));
+        latency.put("p99.9", millis(latencyNanos.getValueAtPercentile(99.9)));
+        latency.put("max", millis(latencyNanos.getMaxValue()));
+        latency.put("mean", latencyNanos.getMean() / 1_000_000.0);
+
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((k, v) -> outcomeCounts.put(k, v.sum()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("intendedRps", intendedRps);
+        report.put("achievedRps", measuredSeconds > 0 ? count / measuredSeconds : 0);
+        report.put("requests", count);
+        report.put("errors", errors.sum());
+        report.put("dropped", dropped.sum());
+        report.put("outcomes", outcomeCounts);
+        report.put("latencyMs", latency);
+        report.put("hdrHistogram", encode());
+        return report;
+    }
+
+    private String encode() {
+        Histogram copy = latencyNanos.copy();
+        ByteBuffer buffer = ByteBuffer.allocate(copy.getNeededByteBufferCapacity());
+        int length = copy.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,154 @@
+package com.codefarm.url.shortner.service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first successful redirect for the regular boot jar and the fast-start build
+ * (Spring AOT + trained class-data/AOT cache). Each run launches a fresh JVM on a free port, then
+ * polls shorten followed by redirect until the redirect answers 301; the clock starts just before
+ * the process is spawned. Run with {@code ./gradlew startupBenchmark}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private StartupBenchmark() {
+    }
+
+    record Mode(String name, List<String> command) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java");
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<String> jvmArgs = split(System.getProperty("startup.jvmArgs", ""));
+        Path report = Path.of(System.getProperty("startup.report", "build/reports/startup/report.json"));
+        Path logs = report.toAbsolutePath().getParent();
+        Files.createDirectories(logs);
+
+        List<Mode> modes = List.of(
+                new Mode("baseline", command(java, jvmArgs, List.of(), System.getProperty("startup.baselineJar"))),
+                new Mode("fast-start", command(java, jvmArgs, split(System.getProperty("startup.fastJvmArgs", "")),
+                        System.getProperty("startup.fastJar"))));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Mode mode : modes) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRedirect(client, mode, logs.resolve(mode.name() + "-" + run + ".log"));
+                System.out.printf("%-10s run %d: %d ms%n", mode.name(), run, millis[run]);
+            }
+            results.put(mode.name(), summarize(mode, millis));
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("timestamp", Instant.now().toString());
+        out.put("javaVersion", Runtime.version().toString());
+        out.put("runs", runs);
+        out.put("modes", results);
+        JSON.writeValue(report.toFile(), out);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    private static long timeToFirstRedirect(HttpClient client, Mode mode, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command());
+        command.add("--server.port=" + port);
+        String baseUrl = "http://localhost:" + port;
+        HttpRequest shorten = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/shorten"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"longUrl\":\"https://example.com/startup-probe\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<String> created = client.send(shorten, HttpResponse.BodyHandlers.ofString());
+                    if (created.statusCode() == 200) {
+                        String code = JSON.readTree(created.body()).path("shortCode").asText();
+                        HttpRequest redirect = HttpRequest.newBuilder(URI.create(baseUrl + "/" + code)).GET().build();
+                        if (client.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode() == 301) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        }
+                    }
+                } catch (IOException notListeningYet) {
+                    // server socket not bound yet
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException(mode.name() + " did not serve a redirect within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Map<String, Object> summarize(Mode mode, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("command", String.join(" ", mode.command()));
+        summary.put("timeToFirstRedirectMs", millis);
+        summary.put("minMs", sorted[0]);
+        summary.put("medianMs", sorted[sorted.length / 2]);
+        summary.put("maxMs", sorted[sorted.length - 1]);
+        return summary;
+    }
+
+    private static List<String> command(String java, List<String> jvmArgs, List<String> modeArgs, String jar) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(modeArgs);
+        command.add("-jar");
+        command.add(jar);
+        return command;
+    }
+
+    private static List<String> split(String args) {
+        return args.isBlank() ? List.of() : List.of(args.trim().split("\\s+"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
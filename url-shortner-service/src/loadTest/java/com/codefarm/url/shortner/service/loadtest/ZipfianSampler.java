@@ -0,0 +1,30 @@
+package com.codefarm.url.shortner.service.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^s}.
+ * {@code s = 0} is uniform; {@code s ≈ 1} matches typical link popularity.
+ */
+final class ZipfianSampler {
+
+    private final double[] cdf;
+
+    ZipfianSampler(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int idx = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(idx >= 0 ? idx : -idx - 1, cdf.length - 1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho–Corasick automaton answering "does the text contain any of the patterns". After
+ * construction the trie is flattened into sorted per-node edge arrays (CSR layout) so a scan is
+ * allocation-free and touches only primitive arrays.
+ */
+final class AhoCorasickMatcher {
+
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    private final boolean[] terminal;
+
+    private AhoCorasickMatcher(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int[] fail, boolean[] terminal) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.terminal = terminal;
+    }
+
+    static AhoCorasickMatcher compile(Collection<String> patterns) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(false);
+        int edges = 0;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(pattern.charAt(i), next);
+                    children.add(new TreeMap<>());
+                    ends.add(false);
+                    edges++;
+                }
+                node = next;
+            }
+            ends.set(node, true);
+        }
+
+        int nodes = children.size();
+        int[] edgeStart = new int[nodes + 1];
+        char[] edgeChars = new char[edges];
+        int[] edgeTargets = new int[edges];
+        boolean[] terminal = new boolean[nodes];
+        int e = 0;
+        for (int n = 0; n < nodes; n++) {
+            edgeStart[n] = e;
+            terminal[n] = ends.get(n);
+            for (Map.Entry<Character, Integer> edge : children.get(n).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e] = edge.getValue();
+                e++;
+            }
+        }
+        edgeStart[nodes] = e;
+        children.clear();
+
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(edgeStart, edgeChars, edgeTargets, new int[nodes], terminal);
+        matcher.buildFailureLinks();
+        return matcher;
+    }
+
+    boolean matchesAny(CharSequence text) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = transition(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = next < 0 ? 0 : next;
+            if (terminal[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int nodeCount() {
+        return fail.length;
+    }
+
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            fail[edgeTargets[e]] = 0;
+            queue.add(edgeTargets[e]);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int child = edgeTargets[e];
+                char c = edgeChars[e];
+                int f = fail[node];
+                int next;
+                while ((next = transition(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next < 0 ? 0 : next;
+                // any pattern ending at the failure target also ends here
+                terminal[child] |= terminal[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int transition(int node, char c) {
+        int lo = edgeStart[node];
+        int hi = edgeStart[node + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChars[mid];
+            if (m < c) {
+                lo = mid + 1;
+            } else if (m > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable, compiled blocklist. Domains match themselves and every subdomain; path patterns
+ * match as case-insensitive substrings of the path and query. Both are matched after
+ * normalization: the path and query are percent-decoded (repeatedly, so double encoding does not
+ * hide a pattern), the path has its dot segments removed, and the host loses any trailing dot.
+ * <p>
+ * File format, one entry per line: {@code #} starts a comment, a line containing {@code /} is a
+ * path pattern (e.g. {@code /wp-admin/}), anything else is a domain ({@code evil.com} or
+ * {@code *.evil.com}).
+ */
+public final class BlocklistMatcher {
+
+    private static final int MAX_DECODE_ROUNDS = 3;
+
+    public static final BlocklistMatcher EMPTY = compile(List.of(), List.of());
+
+    private final DomainHashSet domains;
+    private final AhoCorasickMatcher paths;
+    private final int pathPatternCount;
+
+    private BlocklistMatcher(DomainHashSet domains, AhoCorasickMatcher paths, int pathPatternCount) {
+        this.domains = domains;
+        this.paths = paths;
+        this.pathPatternCount = pathPatternCount;
+    }
+
+    public static BlocklistMatcher compile(List<String> domains, List<String> pathPatterns) {
+        List<String> lowered = pathPatterns.stream().map(p -> decode(p).toLowerCase(Locale.ROOT)).toList();
+        return new BlocklistMatcher(DomainHashSet.of(domains), AhoCorasickMatcher.compile(lowered), lowered.size());
+    }
+
+    public static BlocklistMatcher load(Path file) throws IOException {
+        List<String> domains = new ArrayList<>();
+        List<String> pathPatterns = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String entry = line.strip();
+                if (entry.isEmpty() || entry.startsWith("#")) {
+                    continue;
+                }
+                if (entry.indexOf('/') >= 0) {
+                    pathPatterns.add(entry);
+                } else {
+                    domains.add(stripWildcard(entry));
+                }
+            }
+        }
+        return compile(domains, pathPatterns);
+    }
+
+    public boolean isBlocked(URI uri) {
+        String host = normalizeHost(uri.getHost());
+        if (host != null && domains.matchesHostOrParent(host)) {
+            return true;
+        }
+        if (pathPatternCount == 0) {
+            return false;
+        }
+        String path = uri.getPath();
+        if (path != null && paths.matchesAny(normalizePath(path))) {
+            return true;
+        }
+        String query = uri.getQuery();
+        return query != null && paths.matchesAny(decode(query).toLowerCase(Locale.ROOT));
+    }
+
+    public int domainCount() {
+        return domains.size();
+    }
+
+    public int pathPatternCount() {
+        return pathPatternCount;
+    }
+
+    static String normalizeHost(String host) {
+        if (host == null) {
+            return null;
+        }
+        int end = host.length();
+        while (end > 0 && host.charAt(end - 1) == '.') {
+            end--;
+        }
+        return host.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    // RFC 3986 dot-segment removal on the decoded, case-folded path; empty segments collapse too,
+    // so "/a//b/./../wp-admin" and "/wp-admin" look the same to the patterns.
+    static String normalizePath(String path) {
+        String decoded = decode(path).replace('\\', '/').toLowerCase(Locale.ROOT);
+        List<String> segments = new ArrayList<>();
+        for (String segment : decoded.split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.equals("..")) {
+                if (!segments.isEmpty()) {
+                    segments.removeLast();
+                }
+            } else {
+                segments.add(segment);
+            }
+        }
+        StringBuilder normalized = new StringBuilder(decoded.length() + 1);
+        for (String segment : segments) {
+            normalized.append('/').append(segment);
+        }
+        boolean directory = decoded.endsWith("/") || decoded.endsWith("/.") || decoded.endsWith("/..");
+        if (normalized.isEmpty() || directory) {
+            normalized.append('/');
+        }
+        return normalized.toString();
+    }
+
+    // Percent-decodes until the text stops changing (bounded); malformed escapes are kept as-is
+    static String decode(String text) {
+        String current = text;
+        for (int round = 0; round < MAX_DECODE_ROUNDS && current.indexOf('%') >= 0; round++) {
+            String next = decodeOnce(current);
+            if (next.equals(current)) {
+                break;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private static String decodeOnce(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[utf8.length];
+        int length = 0;
+        for (int i = 0; i < utf8.length; i++) {
+            int hi = i + 2 < utf8.length ? Character.digit(utf8[i + 1], 16) : -1;
+            int lo = hi >= 0 ? Character.digit(utf8[i + 2], 16) : -1;
+            if (utf8[i] == '%' && lo >= 0) {
+                out[length++] = (byte) ((hi << 4) | lo);
+                i += 2;
+            } else {
+                out[length++] = utf8[i];
+            }
+        }
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String stripWildcard(String domain) {
+        if (domain.startsWith("*.")) {
+            return domain.substring(2);
+        }
+        return domain.startsWith(".") ? domain.substring(1) : domain;
+    }
+}
@@ -0,0 +1,79 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Holds the current {@link BlocklistMatcher} and swaps in a freshly compiled one whenever
+ * {@code blocklist.file} changes on disk. The replacement is built on the scheduler thread and
+ * published with a single volatile write, so request threads never wait on a reload.
+ *
+ * <p>A configured file that cannot be read or parsed at startup fails the context: running with
+ * an empty blocklist would let every destination through unnoticed. A later reload failure keeps
+ * the previous blocklist and logs an error until the file loads again.
+ */
+@Component
+public class BlocklistService {
+
+    private static final Logger log = LoggerFactory.getLogger(BlocklistService.class);
+
+    private final Path file;
+    private volatile BlocklistMatcher matcher = BlocklistMatcher.EMPTY;
+    private FileTime loadedVersion;
+    private boolean failing;
+
+    public BlocklistService(@Value("${blocklist.file:}") String file) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        if (this.file != null) {
+            try {
+                load(Files.getLastModifiedTime(this.file));
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Cannot load blocklist.file " + this.file, e);
+            }
+        }
+    }
+
+    public boolean isBlocked(URI uri) {
+        return matcher.isBlocked(uri);
+    }
+
+    @Scheduled(initialDelayString = "${blocklist.reload-interval:PT10S}",
+            fixedDelayString = "${blocklist.reload-interval:PT10S}")
+    public void reloadIfChanged() {
+        if (file == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(loadedVersion)) {
+                return;
+            }
+            load(modified);
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            // once per outage, not on every poll
+            if (!failing) {
+                log.error("Failed to load blocklist {}; keeping the previous one", file, e);
+                failing = true;
+            }
+        }
+    }
+
+    private void load(FileTime modified) throws IOException {
+        long start = System.nanoTime();
+        BlocklistMatcher compiled = BlocklistMatcher.load(file);
+        matcher = compiled;
+        loadedVersion = modified;
+        log.info("Loaded blocklist {}: {} domain(s), {} path pattern(s) in {} ms",
+                file, compiled.domainCount(), compiled.pathPatternCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
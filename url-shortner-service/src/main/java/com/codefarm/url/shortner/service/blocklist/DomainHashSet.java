@@ -0,0 +1,104 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import java.util.Collection;
+
+/**
+ * Open-addressing set of 64-bit domain hashes. Storing hashes instead of strings keeps millions of
+ * domains in a single {@code long[]}; the chance of a 64-bit collision at 5M entries is ~1e-6.
+ * <p>
+ * Hashes are computed right-to-left so one pass over a host yields the hash of every
+ * label-aligned suffix ({@code com}, {@code evil.com}, {@code a.evil.com}), which is how subdomains
+ * of a listed domain are matched without allocating substrings.
+ */
+final class DomainHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final long SEED = 0xcbf29ce484222325L;
+
+    private final long[] table;
+    private final int mask;
+    private final int size;
+
+    private DomainHashSet(long[] table, int size) {
+        this.table = table;
+        this.mask = table.length - 1;
+        this.size = size;
+    }
+
+    static DomainHashSet of(Collection<String> domains) {
+        int capacity = Integer.highestOneBit(Math.max(16, domains.size() * 2 - 1)) << 1;
+        long[] table = new long[capacity];
+        int size = 0;
+        for (String domain : domains) {
+            if (insert(table, capacity - 1, hash(domain))) {
+                size++;
+            }
+        }
+        return new DomainHashSet(table, size);
+    }
+
+    /** True when the host or any parent domain of it is in the set. */
+    boolean matchesHostOrParent(String host) {
+        long h = SEED;
+        for (int i = host.length() - 1; i >= 0; i--) {
+            char c = host.charAt(i);
+            if (c == '.' && contains(finish(h))) {
+                return true;
+            }
+            h = mix(h, Character.toLowerCase(c));
+        }
+        return contains(finish(h));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean contains(long hash) {
+        int slot = (int) hash & mask;
+        while (true) {
+            long existing = table[slot];
+            if (existing == EMPTY) {
+                return false;
+            }
+            if (existing == hash) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static boolean insert(long[] table, int mask, long hash) {
+        int slot = (int) hash & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == hash) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = hash;
+        return true;
+    }
+
+    private static long hash(String domain) {
+        long h = SEED;
+        for (int i = domain.length() - 1; i >= 0; i--) {
+            h = mix(h, Character.toLowerCase(domain.charAt(i)));
+        }
+        return finish(h);
+    }
+
+    private static long mix(long h, char c) {
+        return (h ^ c) * 0x100000001b3L;
+    }
+
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // 0 marks an empty slot
+        return h == EMPTY ? 1L : h;
+    }
+}
@@ -0,0 +1,143 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import com.codefarm.url.shortner.service.web.dto.ClickMinuteResponse;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-link, per-minute click roll-ups by device class, browser family and referrer domain.
+ * Each link reports at most {@code maxKeysPerLink} distinct values per dimension across all its
+ * minutes; later values are counted under {@code "other"}, so a link shared across many sites
+ * cannot grow without bound. Beyond {@code maxLinks} links, eviction drops the ones clicked
+ * least recently.
+ */
+final class ClickAggregates {
+
+    private static final String OTHER = "other";
+
+    private static final class MinuteStats {
+        final LongAdder clicks = new LongAdder();
+        final Map<String, LongAdder> devices = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> browsers = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> referrers = new ConcurrentHashMap<>();
+    }
+
+    private static final class LinkStats {
+        final ConcurrentNavigableMap<Long, MinuteStats> minutes = new ConcurrentSkipListMap<>();
+        final KeyBudget devices;
+        final KeyBudget browsers;
+        final KeyBudget referrers;
+
+        LinkStats(int maxKeys) {
+            devices = new KeyBudget(maxKeys);
+            browsers = new KeyBudget(maxKeys);
+            referrers = new KeyBudget(maxKeys);
+        }
+    }
+
+    // The first maxKeys distinct values of one dimension; a slot is taken at most once per value
+    private static final class KeyBudget {
+        private final Map<String, Boolean> admitted = new ConcurrentHashMap<>();
+        private final AtomicInteger free;
+
+        KeyBudget(int maxKeys) {
+            free = new AtomicInteger(maxKeys);
+        }
+
+        String admit(String key) {
+            Boolean known = admitted.computeIfAbsent(key,
+                    _ -> free.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? Boolean.TRUE : null);
+            return known != null ? key : OTHER;
+        }
+    }
+
+    private final Map<String, LinkStats> byLink = new ConcurrentHashMap<>();
+    private final int maxKeysPerLink;
+    private final int maxLinks;
+
+    ClickAggregates(int maxKeysPerLink, int maxLinks) {
+        this.maxKeysPerLink = maxKeysPerLink;
+        this.maxLinks = maxLinks;
+    }
+
+    void add(String shortCode, long timestampMillis, UserAgentInfo agent, String referrerDomain) {
+        long minute = timestampMillis / 60_000;
+        // the minute is in place before eviction can look at the link again, so a link it keeps
+        // counting into is never dropped as empty
+        LinkStats link = byLink.compute(shortCode, (_, existing) -> {
+            LinkStats current = existing != null ? existing : new LinkStats(maxKeysPerLink);
+            current.minutes.computeIfAbsent(minute, _ -> new MinuteStats());
+            return current;
+        });
+        MinuteStats stats = link.minutes.computeIfAbsent(minute, _ -> new MinuteStats());
+        increment(stats.devices, link.devices.admit(agent.deviceClass()));
+        increment(stats.browsers, link.browsers.admit(agent.browserFamily()));
+        increment(stats.referrers, link.referrers.admit(referrerDomain));
+        // last, so a reader that sees the click also sees its breakdown
+        stats.clicks.increment();
+    }
+
+    List<ClickMinuteResponse> minutes(String shortCode) {
+        LinkStats link = byLink.get(shortCode);
+        if (link == null) {
+            return List.of();
+        }
+        return link.minutes.entrySet().stream()
+                .map(e -> new ClickMinuteResponse(
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(e.getKey() * 60_000), ZoneId.systemDefault()),
+                        e.getValue().clicks.sum(),
+                        snapshot(e.getValue().devices),
+                        snapshot(e.getValue().browsers),
+                        snapshot(e.getValue().referrers)))
+                .toList();
+    }
+
+    // Each drop re-checks the link under compute, so a click that lands meanwhile keeps it
+    void evictBefore(long cutoffMillis) {
+        long cutoffMinute = cutoffMillis / 60_000;
+        for (String code : byLink.keySet()) {
+            byLink.computeIfPresent(code, (_, link) -> {
+                link.minutes.headMap(cutoffMinute).clear();
+                return link.minutes.isEmpty() ? null : link;
+            });
+        }
+        int excess = byLink.size() - maxLinks;
+        if (excess > 0) {
+            byLink.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), lastMinute(e.getValue())))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess)
+                    .forEach(e -> byLink.computeIfPresent(e.getKey(),
+                            (_, link) -> lastMinute(link) <= e.getValue() ? null : link));
+        }
+    }
+
+    int linkCount() {
+        return byLink.size();
+    }
+
+    private static long lastMinute(LinkStats link) {
+        Map.Entry<Long, MinuteStats> last = link.minutes.lastEntry();
+        return last == null ? Long.MIN_VALUE : last.getKey();
+    }
+
+    private static void increment(Map<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key, _ -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> copy = new TreeMap<>();
+        counters.forEach((k, v) -> copy.put(k, v.sum()));
+        return copy;
+    }
+}
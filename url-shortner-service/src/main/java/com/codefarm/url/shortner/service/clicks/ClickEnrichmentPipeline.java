@@ -0,0 +1,152 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import com.codefarm.url.shortner.service.util.BoundedMpmcQueue;
+import com.codefarm.url.shortner.service.web.dto.ClickStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Off-request-path click enrichment. The redirect hands each click to a bounded lock-free queue
+ * and returns; worker threads classify the User-Agent (memoized per worker) and referrer, then
+ * roll the click into per-minute aggregates. A full queue drops the event and counts it, so a
+ * slow or saturated pipeline never adds latency to redirects.
+ * <p>
+ * An idle worker parks until a submit wakes it, so an idle pipeline costs no CPU. A worker
+ * registers as idle before its final poll and a submit checks for idle workers after its offer,
+ * with a full fence on both sides, so a click is never left in the queue while every worker sleeps.
+ */
+@Component
+public class ClickEnrichmentPipeline {
+
+    private static final String DIRECT = "direct";
+
+    private final BoundedMpmcQueue<ClickEvent> queue;
+    private final ClickAggregates aggregates;
+    private final LongAdder dropped = new LongAdder();
+    private final int workerCount;
+    private final int uaCacheSize;
+    private final Duration retention;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Queue<Thread> idleWorkers = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    public ClickEnrichmentPipeline(
+            @Value("${clicks.enrichment.queue-capacity:65536}") int queueCapacity,
+            @Value("${clicks.enrichment.workers:2}") int workerCount,
+            @Value("${clicks.enrichment.ua-cache-size:10000}") int uaCacheSize,
+            @Value("${clicks.enrichment.max-keys-per-link:32}") int maxKeysPerLink,
+            @Value("${clicks.enrichment.max-links:100000}") int maxLinks,
+            @Value("${clicks.enrichment.retention:24h}") Duration retention) {
+        this.queue = new BoundedMpmcQueue<>(queueCapacity);
+        this.aggregates = new ClickAggregates(maxKeysPerLink, maxLinks);
+        this.workerCount = workerCount;
+        this.uaCacheSize = uaCacheSize;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = Thread.ofPlatform()
+                    .name("click-enricher-", i)
+                    .daemon()
+                    .start(this::runWorker);
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /** Never blocks; returns false (and counts a drop) when the queue is full. */
+    public boolean submit(String shortCode, String userAgent, String referer) {
+        if (queue.offer(new ClickEvent(shortCode, userAgent, referer, System.currentTimeMillis()))) {
+            wakeIdleWorker();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public ClickStatsResponse stats(String shortCode) {
+        return new ClickStatsResponse(shortCode, dropped.sum(), aggregates.minutes(shortCode));
+    }
+
+    @Scheduled(fixedDelayString = "${clicks.enrichment.evict-interval:PT1M}")
+    public void evictExpired() {
+        aggregates.evictBefore(System.currentTimeMillis() - retention.toMillis());
+    }
+
+    private void runWorker() {
+        UserAgentClassifier classifier = new UserAgentClassifier(uaCacheSize);
+        while (running) {
+            ClickEvent event = queue.poll();
+            if (event == null && (event = awaitEvent()) == null) {
+                continue;
+            }
+            aggregates.add(event.shortCode(), event.timestampMillis(),
+                    classifier.classify(event.userAgent()), referrerDomain(event.referer()));
+        }
+    }
+
+    // Parks until a submit (or stop) wakes this worker; null when woken without an event in hand
+    private ClickEvent awaitEvent() {
+        Thread self = Thread.currentThread();
+        idleWorkers.add(self);
+        VarHandle.fullFence();
+        ClickEvent event = queue.poll();
+        if (event == null && running) {
+            LockSupport.park(this);
+        }
+        idleWorkers.remove(self);
+        return event;
+    }
+
+    // When workers are busy the idle queue is empty and this is a fence plus one read
+    private void wakeIdleWorker() {
+        VarHandle.fullFence();
+        Thread idle = idleWorkers.poll();
+        if (idle != null) {
+            LockSupport.unpark(idle);
+        }
+    }
+
+    static String referrerDomain(String referer) {
+        if (referer == null || referer.isBlank()) {
+            return DIRECT;
+        }
+        try {
+            String host = URI.create(referer.trim()).getHost();
+            if (host == null) {
+                return DIRECT;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (IllegalArgumentException _) {
+            return "invalid";
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.codefarm.url.shortner.service.clicks;
+
+public record ClickEvent(String shortCode, String userAgent, String referer, long timestampMillis) {}
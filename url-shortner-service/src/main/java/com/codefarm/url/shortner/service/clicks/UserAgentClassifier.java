@@ -0,0 +1,72 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Classifies User-Agent strings into a device class and browser family, memoizing results in an
+ * access-ordered LRU. Real traffic is dominated by a few thousand distinct UA strings, so nearly
+ * every lookup is a hash hit. Not thread-safe: each enrichment worker owns its own instance.
+ */
+final class UserAgentClassifier {
+
+    static final UserAgentInfo UNKNOWN = new UserAgentInfo("unknown", "Other");
+
+    private static final String[] BOT_MARKERS = {
+            "bot", "crawler", "spider", "slurp", "curl/", "wget/", "python-requests", "headless", "preview"
+    };
+
+    private final Map<String, UserAgentInfo> cache;
+
+    UserAgentClassifier(int capacity) {
+        this.cache = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserAgentInfo> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    UserAgentInfo classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        return cache.computeIfAbsent(userAgent, UserAgentClassifier::parse);
+    }
+
+    private static UserAgentInfo parse(String userAgent) {
+        String ua = userAgent.toLowerCase(Locale.ROOT);
+        for (String marker : BOT_MARKERS) {
+            if (ua.contains(marker)) {
+                return new UserAgentInfo("bot", "Bot");
+            }
+        }
+        return new UserAgentInfo(deviceClass(ua), browserFamily(ua));
+    }
+
+    private static String deviceClass(String ua) {
+        if (ua.contains("ipad") || ua.contains("tablet") || (ua.contains("android") && !ua.contains("mobile"))) {
+            return "tablet";
+        }
+        if (ua.contains("mobi") || ua.contains("iphone") || ua.contains("android")) {
+            return "mobile";
+        }
+        if (ua.contains("windows") || ua.contains("macintosh") || ua.contains("x11") || ua.contains("cros")) {
+            return "desktop";
+        }
+        return "unknown";
+    }
+
+    private static String browserFamily(String ua) {
+        // order matters: Chromium derivatives also advertise "chrome/" and "safari/"
+        if (ua.contains("edg/") || ua.contains("edga/") || ua.contains("edgios/")) return "Edge";
+        if (ua.contains("opr/") || ua.contains("opera")) return "Opera";
+        if (ua.contains("samsungbrowser/")) return "Samsung Internet";
+        if (ua.contains("firefox/") || ua.contains("fxios/")) return "Firefox";
+        if (ua.contains("chrome/") || ua.contains("crios/")) return "Chrome";
+        if (ua.contains("safari/")) return "Safari";
+        if (ua.contains("msie") || ua.contains("trident/")) return "Internet Explorer";
+        return "Other";
+    }
+}
@@ -0,0 +1,3 @@
+package com.codefarm.url.shortner.service.clicks;
+
+public record UserAgentInfo(String deviceClass, String browserFamily) {}
@@ -1,16 +1,26 @@
 package com.codefarm.url.shortner.service.core;
 
+import com.codefarm.url.shortner.service.web.dto.ClickStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.ColdTierStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.DbBulkheadStatsResponse;
 import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
 import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import com.codefarm.url.shortner.service.web.dto.TopLinksResponse;
 import com.codefarm.url.shortner.service.web.dto.UserMetricsResponse;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UrlShortenerService {
     ShortenResponse shortenUrl(ShortenRequest request, String requestBaseUrl, String userUuid);
     ResponseEntity<Void> redirect(String shortCode);
+    ResponseEntity<byte[]> qrCode(String shortCode, String requestBaseUrl, int size, String format, String ifNoneMatch);
     List<UserMetricsResponse> userMetrics();
+    ColdTierStatsResponse coldTierStats();
+    TopLinksResponse topLinks(String window, int limit);
+    ClickStatsResponse clickStats(String shortCode);
+    Optional<DbBulkheadStatsResponse> dbBulkheadStats();
 }
 
 
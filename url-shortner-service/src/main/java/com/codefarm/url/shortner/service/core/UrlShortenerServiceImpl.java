@@ -1,40 +1,94 @@
 package com.codefarm.url.shortner.service.core;
 
+import com.codefarm.url.shortner.service.blocklist.BlocklistService;
+import com.codefarm.url.shortner.service.clicks.ClickEnrichmentPipeline;
+import com.codefarm.url.shortner.service.db.BulkheadDataSource;
 import com.codefarm.url.shortner.service.exception.CustomAliasAlreadyExistsException;
+import com.codefarm.url.shortner.service.exception.InvalidRequestException;
 import com.codefarm.url.shortner.service.exception.InvalidUrlException;
 import com.codefarm.url.shortner.service.exception.UrlNotFoundException;
+import com.codefarm.url.shortner.service.metrics.HotLinkTracker;
 import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.qr.QrCodeCache;
+import com.codefarm.url.shortner.service.qr.QrCodeRenderer;
+import com.codefarm.url.shortner.service.qr.QrFormat;
 import com.codefarm.url.shortner.service.repository.UrlMappingRepository;
+import com.codefarm.url.shortner.service.tiering.AccessRecorder;
+import com.codefarm.url.shortner.service.tiering.ColdTierArchiver;
+import com.codefarm.url.shortner.service.tiering.ColdTierStore;
 import com.codefarm.url.shortner.service.util.Base62Encoder;
 import com.codefarm.url.shortner.service.util.SnowflakeIdGenerator;
+import com.codefarm.url.shortner.service.web.dto.ClickStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.ColdTierStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.DbBulkheadStatsResponse;
 import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
 import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import com.codefarm.url.shortner.service.web.dto.TopLinksResponse;
 import com.codefarm.url.shortner.service.web.dto.UserMetricsResponse;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.Optional;
 
 @Service
 public class UrlShortenerServiceImpl implements UrlShortenerService {
 
+    private static final int QR_MIN_SIZE = 64;
+    private static final int QR_MAX_SIZE = 2048;
+    // bump when renderer output changes so clients drop stale ETags
+    private static final String QR_RENDER_VERSION = "1";
+
     private final UrlMappingRepository repository;
     private final SnowflakeIdGenerator idGenerator;
     private final Base62Encoder encoder;
+    private final ColdTierStore coldTier;
+    private final ColdTierArchiver coldTierArchiver;
+    private final AccessRecorder accessRecorder;
+    private final BlocklistService blocklist;
+    private final HotLinkTracker hotLinks;
+    private final ClickEnrichmentPipeline clicks;
+    private final DataSource dataSource;
+    private final QrCodeRenderer qrRenderer;
+    private final QrCodeCache qrCache;
 
     public UrlShortenerServiceImpl(
             UrlMappingRepository repository,
             SnowflakeIdGenerator idGenerator,
-            Base62Encoder encoder) {
+            Base62Encoder encoder,
+            ColdTierStore coldTier,
+            ColdTierArchiver coldTierArchiver,
+            AccessRecorder accessRecorder,
+            BlocklistService blocklist,
+            HotLinkTracker hotLinks,
+            ClickEnrichmentPipeline clicks,
+            DataSource dataSource,
+            QrCodeRenderer qrRenderer,
+            QrCodeCache qrCache) {
         this.repository = repository;
         this.idGenerator = idGenerator;
         this.encoder = encoder;
+        this.coldTier = coldTier;
+        this.coldTierArchiver = coldTierArchiver;
+        this.accessRecorder = accessRecorder;
+        this.blocklist = blocklist;
+        this.hotLinks = hotLinks;
+        this.clicks = clicks;
+        this.dataSource = dataSource;
+        this.qrRenderer = qrRenderer;
+        this.qrCache = qrCache;
     }
 
     @Override
@@ -46,7 +100,13 @@ public class UrlShortenerServiceImpl implements UrlShortenerService {
             throw new InvalidUrlException("Cannot shorten a URL from this service. Provide the original long URL.");
         }
 
-        Optional<UrlMapping> existing = repository.findByLongUrl(longUrl);
+        if (blocklist.isBlocked(URI.create(longUrl))) {
+            throw new InvalidUrlException("URL points to a blocklisted destination");
+        }
+
+        // an archived URL keeps its code; the redirect restores it, so no hot row is written here
+        Optional<UrlMapping> existing = repository.findByLongUrl(longUrl)
+                .or(() -> coldTier.findByLongUrl(longUrl));
         if (existing.isPresent()) {
             String shortCode = existing.get().getShortCode();
             return new ShortenResponse(shortCode, buildShortUrl(requestBaseUrl, shortCode), existing.get().getCreatedAt());
@@ -57,7 +117,7 @@ public class UrlShortenerServiceImpl implements UrlShortenerService {
         if (request.customAlias() != null && !request.customAlias().isBlank()) {
             String alias = request.customAlias().trim();
             validateAlias(alias);
-            if (repository.existsByShortCode(alias)) {
+            if (repository.existsByShortCode(alias) || coldTier.contains(alias)) {
                 throw new CustomAliasAlreadyExistsException("Alias already in use");
             }
             UrlMapping mapping = new UrlMapping(alias, longUrl, LocalDateTime.now(), true, normalizedUserId);
@@ -71,19 +131,52 @@ public class UrlShortenerServiceImpl implements UrlShortenerService {
         return new ShortenResponse(shortCode, buildShortUrl(requestBaseUrl, shortCode), mapping.getCreatedAt());
     }
 
+    // Not transactional: the hot lookup returns its connection before a cold miss opens the
+    // restore transaction, so a redirect never holds two pooled connections at once.
     @Override
-    @Transactional(readOnly = true)
     public ResponseEntity<Void> redirect(String shortCode) {
         UrlMapping mapping = repository.findById(shortCode)
+                .or(() -> coldTierArchiver.restore(shortCode))
                 .orElseThrow(() -> new UrlNotFoundException("Short code not found: " + shortCode));
+        accessRecorder.touch(shortCode);
+        hotLinks.record(shortCode);
+        return movedPermanently(mapping.getLongUrl());
+    }
 
+    static ResponseEntity<Void> movedPermanently(String longUrl) {
         HttpHeaders headers = new HttpHeaders();
-        headers.add("Location", mapping.getLongUrl());
+        headers.add("Location", longUrl);
         headers.add("Cache-Control", "private, max-age=90");
         headers.add("X-Robots-Tag", "noindex");
         return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
     }
 
+    @Override
+    public ResponseEntity<byte[]> qrCode(String shortCode, String requestBaseUrl, int size, String format, String ifNoneMatch) {
+        if (size < QR_MIN_SIZE || size > QR_MAX_SIZE) {
+            throw new InvalidRequestException("QR size must be between " + QR_MIN_SIZE + " and " + QR_MAX_SIZE);
+        }
+        QrFormat qrFormat = QrFormat.parse(format);
+        String shortUrl = buildShortUrl(requestBaseUrl, shortCode);
+        String etag = qrEtag(shortUrl, size, qrFormat);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+
+        // before the conditional shortcut, so a validator (or "*") never turns an unknown code into a 304
+        if (!repository.existsByShortCode(shortCode) && !coldTier.contains(shortCode)) {
+            throw new UrlNotFoundException("Short code not found: " + shortCode);
+        }
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        byte[] image = qrCache.get(new QrCodeCache.Key(shortUrl, size, qrFormat),
+                () -> qrRenderer.render(shortUrl, size, qrFormat));
+        return ResponseEntity.ok()
+                .contentType(qrFormat.mediaType())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(image);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public java.util.List<UserMetricsResponse> userMetrics() {
@@ -92,6 +185,26 @@ public class UrlShortenerServiceImpl implements UrlShortenerService {
                 .toList();
     }
 
+    @Override
+    public ColdTierStatsResponse coldTierStats() {
+        return coldTier.stats();
+    }
+
+    @Override
+    public TopLinksResponse topLinks(String window, int limit) {
+        return hotLinks.top(window, limit);
+    }
+
+    @Override
+    public ClickStatsResponse clickStats(String shortCode) {
+        return clicks.stats(shortCode);
+    }
+
+    @Override
+    public Optional<DbBulkheadStatsResponse> dbBulkheadStats() {
+        return dataSource instanceof BulkheadDataSource bulkhead ? Optional.of(bulkhead.stats()) : Optional.empty();
+    }
+
     private String generateUniqueShortCode() {
         for (int i = 0; i < 3; i++) {
             long id = idGenerator.nextId();
@@ -148,6 +261,35 @@ public class UrlShortenerServiceImpl implements UrlShortenerService {
         }
     }
 
+    // If-None-Match uses weak comparison (RFC 9110 13.1.2): W/"x" from a client or proxy matches "x"
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String qrEtag(String shortUrl, int size, QrFormat format) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    (QR_RENDER_VERSION + "|" + format + "|" + size + "|" + shortUrl).getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static String buildShortUrl(String baseUrl, String shortCode) {
         String normalized = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
         return normalized + shortCode;
@@ -0,0 +1,125 @@
+package com.codefarm.url.shortner.service.db;
+
+import com.codefarm.url.shortner.service.web.dto.DbBulkheadStatsResponse;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Semaphore bulkhead in front of the connection pool. A caller must hold a permit for as long as it
+ * holds a connection, so with virtual threads an unbounded number of requests queue cheaply on the
+ * semaphore (parking only the virtual thread) instead of piling into the pool's own wait queue.
+ * Callers that cannot get a permit within {@code db.bulkhead.max-wait} fail fast.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxObservedWaitNanos = new AtomicLong();
+
+    public BulkheadDataSource(DataSource target, int maxPermits, Duration maxWait) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public DbBulkheadStatsResponse stats() {
+        long count = acquired.sum();
+        return new DbBulkheadStatsResponse(
+                maxPermits,
+                maxPermits - permits.availablePermits(),
+                waiting.get(),
+                count,
+                rejected.sum(),
+                count == 0 ? 0 : totalWaitNanos.sum() / 1_000.0 / count,
+                maxObservedWaitNanos.get() / 1_000.0);
+    }
+
+    private void acquirePermit() throws SQLException {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean granted;
+        try {
+            granted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        long waited = System.nanoTime() - start;
+        if (!granted) {
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "Database bulkhead full: no permit within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+        }
+        acquired.increment();
+        totalWaitNanos.add(waited);
+        maxObservedWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    // returns the permit exactly once, when the caller closes (returns) the connection
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
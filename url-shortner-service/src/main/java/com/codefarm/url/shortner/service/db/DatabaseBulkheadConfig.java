@@ -0,0 +1,38 @@
+package com.codefarm.url.shortner.service.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link BulkheadDataSource}. Permits default to the
+ * Hikari pool size so the bulkhead admits exactly as many callers as there are connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int permits = env.getProperty("db.bulkhead.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    permits = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                Duration maxWait = env.getProperty("db.bulkhead.max-wait", Duration.class, Duration.ofSeconds(2));
+                return new BulkheadDataSource(dataSource, permits, maxWait);
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.codefarm.url.shortner.service.exception;
+
+/** A request parameter outside what the endpoint accepts; mapped to 400 Bad Request. */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
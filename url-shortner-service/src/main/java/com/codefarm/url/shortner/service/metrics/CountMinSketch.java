@@ -0,0 +1,64 @@
+package com.codefarm.url.shortner.service.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch with {@code depth} rows of {@code width} (power of two) counters. Estimates
+ * never undercount; overcount is at most {@code e/width * total} with probability
+ * {@code 1 - e^-depth}. Not thread-safe; owned by the {@link HotLinkTracker} aggregator.
+ */
+final class CountMinSketch {
+
+    private static final long[] ROW_SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > ROW_SEEDS.length || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("depth must be 1.." + ROW_SEEDS.length + " and width a power of two");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new int[depth * width];
+    }
+
+    void add(long keyHash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[index(row, keyHash)] += count;
+        }
+    }
+
+    int estimate(long keyHash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(row, keyHash)]);
+        }
+        return min;
+    }
+
+    void addAll(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+
+    void subtractAll(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int index(int row, long keyHash) {
+        long h = (keyHash ^ ROW_SEEDS[row]) * 0x9E3779B97F4A7C15L;
+        return row * (mask + 1) + ((int) (h >>> 32) & mask);
+    }
+}
@@ -0,0 +1,198 @@
+package com.codefarm.url.shortner.service.metrics;
+
+import com.codefarm.url.shortner.service.exception.InvalidRequestException;
+import com.codefarm.url.shortner.service.util.BloomFilter;
+import com.codefarm.url.shortner.service.util.BoundedMpmcQueue;
+import com.codefarm.url.shortner.service.web.dto.HotLinkResponse;
+import com.codefarm.url.shortner.service.web.dto.TopLinksResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximate top-K most redirected links over sliding 1m / 15m / 1h windows in fixed memory.
+ * <p>
+ * The redirect path only offers the code to a bounded lock-free queue ({@link #record}); a scheduled
+ * aggregator drains it into 15-second buckets, each holding a Count-Min Sketch and a Space-Saving
+ * summary. Per-window sketches are kept as running sums (bucket added on entry, subtracted on
+ * expiry), so a query takes the union of the buckets' Space-Saving keys as candidates and
+ * estimates each with one sketch lookup. The queue's per-slot sequence numbers mean the drain
+ * only ever reads slots whose store has been published; if the aggregator falls a full queue
+ * behind, new events are rejected and counted as dropped.
+ */
+@Component
+public class HotLinkTracker {
+
+    enum Window {
+        ONE_MINUTE("1m", 4),
+        FIFTEEN_MINUTES("15m", 60),
+        ONE_HOUR("1h", 240);
+
+        final String label;
+        final int buckets;
+
+        Window(String label, int buckets) {
+            this.label = label;
+            this.buckets = buckets;
+        }
+
+        static Window parse(String label) {
+            for (Window w : values()) {
+                if (w.label.equals(label)) {
+                    return w;
+                }
+            }
+            throw new InvalidRequestException("Unknown window '" + label + "', expected one of 1m, 15m, 1h");
+        }
+    }
+
+    private static final long BUCKET_MILLIS = 15_000;
+    private static final int BUCKET_COUNT = Window.ONE_HOUR.buckets;
+
+    private static final class Bucket {
+        final CountMinSketch sketch;
+        final SpaceSaving summary;
+        long id = Long.MIN_VALUE;
+        long total;
+
+        Bucket(int depth, int width, int capacity) {
+            sketch = new CountMinSketch(depth, width);
+            summary = new SpaceSaving(capacity);
+        }
+    }
+
+    private final BoundedMpmcQueue<String> ring;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+    private final CountMinSketch[] windowSketches = new CountMinSketch[Window.values().length];
+    private final long[] windowTotals = new long[Window.values().length];
+    private final int summaryCapacity;
+    private long currentBucketId = Long.MIN_VALUE;
+
+    public HotLinkTracker(
+            @Value("${metrics.top.ring-size:65536}") int ringSize,
+            @Value("${metrics.top.cms-depth:4}") int depth,
+            @Value("${metrics.top.cms-width:2048}") int width,
+            @Value("${metrics.top.summary-capacity:256}") int summaryCapacity) {
+        this.ring = new BoundedMpmcQueue<>(ringSize);
+        this.summaryCapacity = summaryCapacity;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new Bucket(depth, width, summaryCapacity);
+        }
+        for (int i = 0; i < windowSketches.length; i++) {
+            windowSketches[i] = new CountMinSketch(depth, width);
+        }
+    }
+
+    /** Called on every successful redirect. Lock-free: one CAS on the fast path, never blocks. */
+    public void record(String shortCode) {
+        if (!ring.offer(shortCode)) {
+            dropped.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.top.drain-interval:PT0.1S}")
+    public synchronized void drain() {
+        advanceTo(System.currentTimeMillis() / BUCKET_MILLIS);
+        Map<String, Integer> batch = new HashMap<>();
+        // at most one queue's worth per pass, so a steady stream of redirects cannot pin the drain
+        for (int i = ring.capacity(); i > 0; i--) {
+            String code = ring.poll();
+            if (code == null) {
+                break;
+            }
+            batch.merge(code, 1, Integer::sum);
+        }
+        Bucket bucket = buckets[Math.floorMod(currentBucketId, BUCKET_COUNT)];
+        batch.forEach((code, count) -> {
+            long hash = hash(code);
+            bucket.sketch.add(hash, count);
+            bucket.summary.offer(code, count);
+            bucket.total += count;
+            for (int w = 0; w < windowSketches.length; w++) {
+                windowSketches[w].add(hash, count);
+                windowTotals[w] += count;
+            }
+        });
+    }
+
+    public synchronized TopLinksResponse top(String windowLabel, int limit) {
+        Window window = Window.parse(windowLabel);
+        advanceTo(System.currentTimeMillis() / BUCKET_MILLIS);
+
+        Set<String> candidates = new HashSet<>();
+        for (int i = 0; i < window.buckets; i++) {
+            Bucket bucket = buckets[Math.floorMod(currentBucketId - i, BUCKET_COUNT)];
+            if (bucket.id == currentBucketId - i) {
+                bucket.summary.forEach((code, _) -> candidates.add(code));
+            }
+        }
+        CountMinSketch sketch = windowSketches[window.ordinal()];
+        List<HotLinkResponse> ranked = new ArrayList<>(candidates.size());
+        for (String code : candidates) {
+            int estimate = sketch.estimate(hash(code));
+            if (estimate > 0) {
+                ranked.add(new HotLinkResponse(code, estimate));
+            }
+        }
+        ranked.sort(Comparator.comparingLong(HotLinkResponse::clicks).reversed());
+        int k = Math.clamp(limit, 1, summaryCapacity);
+        return new TopLinksResponse(window.label, windowTotals[window.ordinal()], dropped.sum(),
+                List.copyOf(ranked.subList(0, Math.min(k, ranked.size()))));
+    }
+
+    private void advanceTo(long bucketId) {
+        if (bucketId <= currentBucketId) {
+            return;
+        }
+        if (currentBucketId == Long.MIN_VALUE || bucketId - currentBucketId >= BUCKET_COUNT) {
+            resetAll(bucketId);
+            return;
+        }
+        while (currentBucketId < bucketId) {
+            currentBucketId++;
+            for (Window w : Window.values()) {
+                Bucket leaving = buckets[Math.floorMod(currentBucketId - w.buckets, BUCKET_COUNT)];
+                if (leaving.id == currentBucketId - w.buckets) {
+                    windowSketches[w.ordinal()].subtractAll(leaving.sketch);
+                    windowTotals[w.ordinal()] -= leaving.total;
+                }
+            }
+            Bucket reused = buckets[Math.floorMod(currentBucketId, BUCKET_COUNT)];
+            reused.sketch.clear();
+            reused.summary.clear();
+            reused.total = 0;
+            reused.id = currentBucketId;
+        }
+    }
+
+    private void resetAll(long bucketId) {
+        for (Bucket bucket : buckets) {
+            bucket.sketch.clear();
+            bucket.summary.clear();
+            bucket.total = 0;
+            bucket.id = Long.MIN_VALUE;
+        }
+        for (int w = 0; w < windowSketches.length; w++) {
+            windowSketches[w].clear();
+            windowTotals[w] = 0;
+        }
+        currentBucketId = bucketId;
+        buckets[Math.floorMod(bucketId, BUCKET_COUNT)].id = bucketId;
+    }
+
+    // All 64 bits come from the whole string: codes with the same String.hashCode must not share every sketch row
+    private static long hash(String code) {
+        return BloomFilter.hash64(code);
+    }
+}
@@ -0,0 +1,102 @@
+package com.codefarm.url.shortner.service.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Space-Saving heavy-hitters summary holding at most {@code capacity} keys. When full, a new key
+ * replaces the current minimum and inherits its count, so any key with true frequency above
+ * {@code total / capacity} is guaranteed to be tracked. Counters live in an indexed min-heap, making
+ * both increments and evictions O(log capacity). Not thread-safe.
+ */
+final class SpaceSaving {
+
+    private static final class Counter {
+        String key;
+        long count;
+        int heapIndex;
+    }
+
+    private final int capacity;
+    private final Counter[] heap;
+    private final Map<String, Counter> index;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.heap = new Counter[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String key, int count) {
+        Counter counter = index.get(key);
+        if (counter == null) {
+            if (size < capacity) {
+                counter = new Counter();
+                counter.key = key;
+                counter.count = count;
+                counter.heapIndex = size;
+                heap[size++] = counter;
+                index.put(key, counter);
+                siftUp(counter.heapIndex);
+                return;
+            }
+            counter = heap[0];
+            index.remove(counter.key);
+            counter.key = key;
+            index.put(key, counter);
+        }
+        counter.count += count;
+        siftDown(counter.heapIndex);
+    }
+
+    void forEach(BiConsumer<String, Long> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(heap[i].key, heap[i].count);
+        }
+    }
+
+    void clear() {
+        index.clear();
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= heap[i].count) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = (right < size && heap[right].count < heap[left].count) ? right : left;
+            if (heap[i].count <= heap[smallest].count) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Counter tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        heap[a].heapIndex = a;
+        heap[b].heapIndex = b;
+    }
+}
@@ -27,6 +27,9 @@ public class UrlMapping {
     @Column(name = "user_id")
     private String userId;
 
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+
     protected UrlMapping() {
         // JPA only
     }
@@ -65,6 +68,14 @@ public class UrlMapping {
     public String getUserId() {
         return userId;
     }
+
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void markAccessed(LocalDateTime accessedAt) {
+        this.lastAccessedAt = accessedAt;
+    }
 }
 
 
@@ -0,0 +1,39 @@
+package com.codefarm.url.shortner.service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "worker_leases")
+public class WorkerLease {
+
+    @Id
+    @Column(name = "worker_id", nullable = false)
+    private int workerId;
+
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected WorkerLease() {
+        // JPA only
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
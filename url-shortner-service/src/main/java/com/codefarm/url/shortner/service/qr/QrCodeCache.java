@@ -0,0 +1,51 @@
+package com.codefarm.url.shortner.service.qr;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of rendered QR images bounded by total byte size rather than entry count, since a
+ * 1024px PNG is two orders of magnitude larger than a 128px one. Rendering happens outside the
+ * lock; two concurrent misses for the same key may both render, and the second insert wins.
+ */
+@Component
+public class QrCodeCache {
+
+    public record Key(String content, int size, QrFormat format) {}
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    public QrCodeCache(@Value("${qr.cache.max-bytes:33554432}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] get(Key key, Supplier<byte[]> renderer) {
+        synchronized (this) {
+            byte[] cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] rendered = renderer.get();
+        synchronized (this) {
+            byte[] previous = entries.put(key, rendered);
+            if (previous != null) {
+                currentBytes -= previous.length;
+            }
+            currentBytes += rendered.length;
+            Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,87 @@
+package com.codefarm.url.shortner.service.qr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes text as a QR code (ZXing core, pure Java) and serializes it as a 1-bit PNG or a compact
+ * SVG path. Output is deterministic for a given (text, size, format), which is what lets the
+ * controller derive ETags without rendering.
+ */
+@Component
+public class QrCodeRenderer {
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+            EncodeHintType.MARGIN, 2);
+
+    public byte[] render(String text, int size, QrFormat format) {
+        return switch (format) {
+            case PNG -> png(encode(text, size));
+            // SVG is vector: encode at one unit per module and let the viewBox scale it
+            case SVG -> svg(encode(text, 0), size);
+        };
+    }
+
+    private static BitMatrix encode(String text, int size) {
+        try {
+            return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, HINTS);
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("Cannot encode QR code for " + text, e);
+        }
+    }
+
+    private static byte[] png(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] svg(BitMatrix modules, int size) {
+        int n = modules.getWidth();
+        StringBuilder path = new StringBuilder(n * n);
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                if (modules.get(x, y)) {
+                    int run = 1;
+                    while (x + run < n && modules.get(x + run, y)) {
+                        run++;
+                    }
+                    path.append('M').append(x).append(' ').append(y).append('h').append(run).append("v1h-").append(run).append('z');
+                    x += run - 1;
+                }
+            }
+        }
+        String svg = """
+                <svg xmlns="http://www.w3.org/2000/svg" width="%d" height="%d" viewBox="0 0 %d %d" shape-rendering="crispEdges">\
+                <rect width="100%%" height="100%%" fill="#fff"/><path fill="#000" d="%s"/></svg>"""
+                .formatted(size, size, n, n, path);
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+}
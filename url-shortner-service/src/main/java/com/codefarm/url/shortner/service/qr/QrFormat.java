@@ -0,0 +1,29 @@
+package com.codefarm.url.shortner.service.qr;
+
+import com.codefarm.url.shortner.service.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum QrFormat {
+    PNG(MediaType.IMAGE_PNG),
+    SVG(MediaType.valueOf("image/svg+xml"));
+
+    private final MediaType mediaType;
+
+    QrFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static QrFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException _) {
+            throw new InvalidRequestException("Unsupported QR format '" + value + "', expected png or svg");
+        }
+    }
+}
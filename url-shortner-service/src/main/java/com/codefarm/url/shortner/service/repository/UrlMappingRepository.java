@@ -1,9 +1,14 @@
 package com.codefarm.url.shortner.service.repository;
 
 import com.codefarm.url.shortner.service.model.UrlMapping;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,13 @@ public interface UrlMappingRepository extends JpaRepository<UrlMapping, String>
 
     @Query("select m.userId as userId, count(m) as count from UrlMapping m where m.userId is not null group by m.userId")
     List<UserUrlCount> countUrlsPerUser();
+
+    @Query("select m from UrlMapping m where coalesce(m.lastAccessedAt, m.createdAt) < :cutoff order by m.shortCode")
+    List<UrlMapping> findIdleSince(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Modifying
+    @Query("update UrlMapping m set m.lastAccessedAt = :accessedAt where m.shortCode in :codes")
+    int markAccessed(@Param("codes") Collection<String> codes, @Param("accessedAt") LocalDateTime accessedAt);
 }
 
 
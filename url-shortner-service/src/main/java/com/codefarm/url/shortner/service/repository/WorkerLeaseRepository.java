@@ -0,0 +1,33 @@
+package com.codefarm.url.shortner.service.repository;
+
+import com.codefarm.url.shortner.service.model.WorkerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface WorkerLeaseRepository extends JpaRepository<WorkerLease, Integer> {
+
+    @Modifying
+    @Query(value = "insert into worker_leases (worker_id, owner_id, expires_at) values (:workerId, :ownerId, :expiresAt)",
+            nativeQuery = true)
+    int insertLease(@Param("workerId") int workerId, @Param("ownerId") String ownerId,
+                    @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update WorkerLease l set l.ownerId = :ownerId, l.expiresAt = :expiresAt "
+            + "where l.workerId = :workerId and l.expiresAt < :now")
+    int takeOverExpired(@Param("workerId") int workerId, @Param("ownerId") String ownerId,
+                        @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update WorkerLease l set l.expiresAt = :expiresAt where l.workerId = :workerId and l.ownerId = :ownerId")
+    int renew(@Param("workerId") int workerId, @Param("ownerId") String ownerId,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from WorkerLease l where l.workerId = :workerId and l.ownerId = :ownerId")
+    int release(@Param("workerId") int workerId, @Param("ownerId") String ownerId);
+}
@@ -0,0 +1,96 @@
+package com.codefarm.url.shortner.service.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Training workload for the fast-start build. With {@code startup.training.enabled=true} the app
+ * shortens a few URLs once it is ready, drives redirects (and a miss) through the real HTTP stack
+ * so the classes on the redirect path get loaded and linked, then exits. The JVM writes its
+ * class-data / AOT cache on that exit.
+ *
+ * <p>The flag is read at runtime rather than through {@code @ConditionalOnProperty}, because
+ * Spring AOT fixes bean conditions at build time.
+ */
+@Component
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingRun.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int TRAINING_LINKS = 16;
+
+    private final boolean enabled;
+    private final int redirects;
+
+    public TrainingRun(@Value("${startup.training.enabled:false}") boolean enabled,
+                       @Value("${startup.training.redirects:2000}") int redirects) {
+        this.enabled = enabled;
+        this.redirects = redirects;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext web)) {
+            return;
+        }
+        String baseUrl = "http://localhost:" + web.getWebServer().getPort();
+        int exitCode = 0;
+        try {
+            train(baseUrl);
+        } catch (Exception e) {
+            log.error("Training run failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> code));
+    }
+
+    private void train(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String[] codes = new String[TRAINING_LINKS];
+        for (int i = 0; i < codes.length; i++) {
+            HttpRequest shorten = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/shorten"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"longUrl\":\"https://example.com/training/" + i + "\"}"))
+                    .build();
+            HttpResponse<String> response = client.send(shorten, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Shorten failed with HTTP " + response.statusCode());
+            }
+            codes[i] = JSON.readTree(response.body()).path("shortCode").asText();
+        }
+
+        for (int i = 0; i < redirects; i++) {
+            HttpRequest redirect = HttpRequest.newBuilder(URI.create(baseUrl + "/" + codes[i % codes.length]))
+                    .header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) Chrome/120.0 Safari/537.36")
+                    .GET()
+                    .build();
+            int status = client.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 301) {
+                throw new IllegalStateException("Redirect returned HTTP " + status);
+            }
+        }
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/missing-training-code")).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        log.info("Training run finished: {} links, {} redirects", codes.length, redirects);
+    }
+}
@@ -0,0 +1,25 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buffers short codes hit since the last flush so the redirect path never writes to the database.
+ * Idleness is measured in weeks, so flush-interval granularity of the access time is enough.
+ */
+@Component
+public class AccessRecorder {
+
+    private final AtomicReference<Set<String>> touched = new AtomicReference<>(ConcurrentHashMap.newKeySet());
+
+    public void touch(String shortCode) {
+        touched.get().add(shortCode);
+    }
+
+    Set<String> drain() {
+        return touched.getAndSet(ConcurrentHashMap.newKeySet());
+    }
+}
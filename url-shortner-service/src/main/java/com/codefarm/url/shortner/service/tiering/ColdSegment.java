@@ -0,0 +1,303 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.util.BloomFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read side of a segment produced by {@link SegmentWriter}. The sparse index and Bloom filter are
+ * held in memory; a lookup that passes the filter reads and inflates exactly one block using a
+ * positional read, so concurrent lookups need no locking. A long-URL lookup works the same way
+ * over the URL index: one run of (hash, code) entries, then the code's block.
+ *
+ * <p>The channel is reference counted: the store holds one reference and each lookup in flight
+ * another, so a segment merged away while a redirect is still reading it closes only once that
+ * read is done.
+ */
+final class ColdSegment implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final String[] firstKeys;
+    private final long[] blockOffsets;
+    private final BloomFilter bloom;
+    private final long[] urlRunHashes;
+    private final long[] urlRunOffsets;
+    private final long urlRunsEnd;
+    private final BloomFilter urlBloom;
+    private final int entryCount;
+    private final long rawBytes;
+    private final long fileBytes;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private ColdSegment(Path path, FileChannel channel, String[] firstKeys, long[] blockOffsets, BloomFilter bloom,
+                        long[] urlRunHashes, long[] urlRunOffsets, long urlRunsEnd, BloomFilter urlBloom,
+                        int entryCount, long rawBytes, long fileBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.firstKeys = firstKeys;
+        this.blockOffsets = blockOffsets;
+        this.bloom = bloom;
+        this.urlRunHashes = urlRunHashes;
+        this.urlRunOffsets = urlRunOffsets;
+        this.urlRunsEnd = urlRunsEnd;
+        this.urlBloom = urlBloom;
+        this.entryCount = entryCount;
+        this.rawBytes = rawBytes;
+        this.fileBytes = fileBytes;
+    }
+
+    static ColdSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            int magic = readFully(channel, size - Integer.BYTES, Integer.BYTES).getInt();
+            if (magic != SegmentWriter.MAGIC) {
+                throw new IOException("Not a cold-tier segment: " + path);
+            }
+            long footerOffset = size - SegmentWriter.FOOTER_BYTES;
+            ByteBuffer footer = readFully(channel, footerOffset, SegmentWriter.FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            long bloomOffset = footer.getLong();
+            long urlsOffset = footer.getLong();
+            long urlIndexOffset = footer.getLong();
+            long urlBloomOffset = footer.getLong();
+            int entryCount = footer.getInt();
+            long rawBytes = footer.getLong();
+
+            ByteBuffer meta = readFully(channel, indexOffset, (int) (urlsOffset - indexOffset));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(meta.array()));
+            int blocks = in.readInt();
+            String[] keys = new String[blocks];
+            long[] offsets = new long[blocks];
+            for (int i = 0; i < blocks; i++) {
+                keys[i] = in.readUTF();
+                offsets[i] = in.readLong();
+            }
+            int bloomStart = (int) (bloomOffset - indexOffset);
+            BloomFilter bloom = BloomFilter.readFrom(new DataInputStream(
+                    new ByteArrayInputStream(meta.array(), bloomStart, meta.capacity() - bloomStart)));
+
+            ByteBuffer urlMeta = readFully(channel, urlIndexOffset, (int) (footerOffset - urlIndexOffset));
+            DataInputStream urlIn = new DataInputStream(new ByteArrayInputStream(urlMeta.array()));
+            int runs = urlIn.readInt();
+            long[] runHashes = new long[runs];
+            long[] runOffsets = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                runHashes[i] = urlIn.readLong();
+                runOffsets[i] = urlIn.readLong();
+            }
+            int urlBloomStart = (int) (urlBloomOffset - urlIndexOffset);
+            BloomFilter urlBloom = BloomFilter.readFrom(new DataInputStream(
+                    new ByteArrayInputStream(urlMeta.array(), urlBloomStart, urlMeta.capacity() - urlBloomStart)));
+            return new ColdSegment(path, channel, keys, offsets, bloom, runHashes, runOffsets, urlIndexOffset, urlBloom,
+                    entryCount, rawBytes, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Optional<UrlMapping> find(String shortCode) throws IOException {
+        if (!bloom.mightContain(shortCode)) {
+            return Optional.empty();
+        }
+        int idx = Arrays.binarySearch(firstKeys, shortCode);
+        int block = idx >= 0 ? idx : -idx - 2;
+        if (block < 0) {
+            return Optional.empty();
+        }
+
+        DataInputStream in = readBlock(block);
+        while (in.available() > 0) {
+            UrlMapping mapping = readEntry(in);
+            int cmp = mapping.getShortCode().compareTo(shortCode);
+            if (cmp == 0) {
+                return Optional.of(mapping);
+            }
+            if (cmp > 0) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    Optional<UrlMapping> findByLongUrl(String longUrl) throws IOException {
+        if (urlRunHashes.length == 0 || !urlBloom.mightContain(longUrl)) {
+            return Optional.empty();
+        }
+        long hash = BloomFilter.hash64(longUrl);
+        // runs are sorted by their first hash; entries with this hash can start in an earlier run
+        int idx = Arrays.binarySearch(urlRunHashes, hash);
+        int run = Math.max(0, idx >= 0 ? idx : -idx - 2);
+        while (run > 0 && urlRunHashes[run] == hash) {
+            run--;
+        }
+        for (; run < urlRunHashes.length && urlRunHashes[run] <= hash; run++) {
+            long end = run + 1 < urlRunOffsets.length ? urlRunOffsets[run + 1] : urlRunsEnd;
+            ByteBuffer entries = readFully(channel, urlRunOffsets[run], (int) (end - urlRunOffsets[run]));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(entries.array()));
+            while (in.available() > 0) {
+                long entryHash = in.readLong();
+                String code = in.readUTF();
+                if (entryHash > hash) {
+                    return Optional.empty();
+                }
+                if (entryHash == hash) {
+                    Optional<UrlMapping> mapping = find(code);
+                    if (mapping.isPresent() && mapping.get().getLongUrl().equals(longUrl)) {
+                        return mapping;
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Every mapping in the segment in short-code order, one block inflated at a time. An I/O
+     * error surfaces as an UncheckedIOException from the iterator.
+     */
+    Iterator<UrlMapping> entries() {
+        return new Iterator<>() {
+            private int block;
+            private DataInputStream current;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (current == null || current.available() == 0) {
+                        if (block == blockOffsets.length) {
+                            return false;
+                        }
+                        current = readBlock(block++);
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read cold-tier segment " + path, e);
+                }
+            }
+
+            @Override
+            public UrlMapping next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readEntry(current);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read cold-tier segment " + path, e);
+                }
+            }
+        };
+    }
+
+    private DataInputStream readBlock(int block) throws IOException {
+        ByteBuffer header = readFully(channel, blockOffsets[block], Integer.BYTES * 2);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        ByteBuffer compressed = readFully(channel, blockOffsets[block] + Integer.BYTES * 2, compressedLength);
+        return new DataInputStream(new ByteArrayInputStream(inflate(compressed.array(), rawLength)));
+    }
+
+    private static UrlMapping readEntry(DataInputStream in) throws IOException {
+        String code = in.readUTF();
+        String longUrl = in.readUTF();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        boolean custom = in.readBoolean();
+        String userId = in.readBoolean() ? in.readUTF() : null;
+        return new UrlMapping(code, longUrl, createdAt, custom, userId);
+    }
+
+    boolean mightContain(String shortCode) {
+        return bloom.mightContain(shortCode);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int entryCount() {
+        return entryCount;
+    }
+
+    long rawBytes() {
+        return rawBytes;
+    }
+
+    long fileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Takes a reference for one lookup; false once the segment has been closed, in which case it
+     * must not be read.
+     */
+    boolean retain() {
+        int n;
+        do {
+            n = references.get();
+            if (n <= 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(n, n + 1));
+        return true;
+    }
+
+    void release() throws IOException {
+        if (references.decrementAndGet() == 0) {
+            channel.close();
+        }
+    }
+
+    // Drops the owner's reference; lookups still holding one keep the channel open until they release
+    @Override
+    public void close() throws IOException {
+        release();
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt cold-tier block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+        }
+        return buffer.flip();
+    }
+}
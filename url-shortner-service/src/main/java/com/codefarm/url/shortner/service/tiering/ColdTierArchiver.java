@@ -0,0 +1,137 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.repository.UrlMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Background tiering job. Moves mappings not accessed for {@code tiering.cold.idle-after} from
+ * {@code url_mappings} into cold segments, and restores them to the hot table when a redirect
+ * misses the hot tier but finds the code in a segment.
+ */
+@Component
+public class ColdTierArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdTierArchiver.class);
+    private static final int ACCESS_FLUSH_CHUNK = 1_000;
+
+    private final UrlMappingRepository repository;
+    private final ColdTierStore store;
+    private final AccessRecorder accessRecorder;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration idleAfter;
+    private final int batchSize;
+
+    public ColdTierArchiver(
+            UrlMappingRepository repository,
+            ColdTierStore store,
+            AccessRecorder accessRecorder,
+            PlatformTransactionManager transactionManager,
+            @Value("${tiering.cold.enabled:true}") boolean enabled,
+            @Value("${tiering.cold.idle-after:30d}") Duration idleAfter,
+            @Value("${tiering.cold.batch-size:50000}") int batchSize) {
+        this.repository = repository;
+        this.store = store;
+        this.accessRecorder = accessRecorder;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.idleAfter = idleAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${tiering.cold.access-flush-interval:PT1M}",
+            fixedDelayString = "${tiering.cold.access-flush-interval:PT1M}")
+    public void flushAccesses() {
+        Set<String> codes = accessRecorder.drain();
+        if (codes.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> chunk = new ArrayList<>(ACCESS_FLUSH_CHUNK);
+        for (String code : codes) {
+            chunk.add(code);
+            if (chunk.size() == ACCESS_FLUSH_CHUNK) {
+                markAccessed(chunk, now);
+                chunk.clear();
+            }
+        }
+        markAccessed(chunk, now);
+    }
+
+    @Scheduled(initialDelayString = "${tiering.cold.sweep-interval:PT1H}",
+            fixedDelayString = "${tiering.cold.sweep-interval:PT1H}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        flushAccesses();
+        LocalDateTime cutoff = LocalDateTime.now().minus(idleAfter);
+        long archived = 0;
+        while (true) {
+            List<UrlMapping> idle = tx.execute(_ -> repository.findIdleSince(cutoff, PageRequest.of(0, batchSize)));
+            if (idle == null || idle.isEmpty()) {
+                break;
+            }
+            try {
+                store.archive(idle);
+            } catch (IOException e) {
+                log.error("Cold tier archival failed; mappings stay in the hot tier", e);
+                return;
+            }
+            List<String> codes = idle.stream().map(UrlMapping::getShortCode).toList();
+            tx.executeWithoutResult(_ -> repository.deleteAllByIdInBatch(codes));
+            archived += idle.size();
+            if (idle.size() < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} idle mapping(s) to the cold tier; {}", archived, store.stats());
+        }
+    }
+
+    /**
+     * Faults a mapping in from the cold tier and re-inserts it into the hot table. The segment copy
+     * stays behind and the hot row shadows it; when the mapping goes idle again the store sees
+     * the code is already archived and only the hot row is dropped. The insert runs in
+     * its own transaction, so call this outside any transaction the caller holds; otherwise the
+     * caller pins a second pooled connection while the insert waits for one.
+     */
+    public Optional<UrlMapping> restore(String shortCode) {
+        Optional<UrlMapping> cold = store.find(shortCode);
+        cold.ifPresent(mapping -> {
+            mapping.markAccessed(LocalDateTime.now());
+            try {
+                tx.executeWithoutResult(_ -> repository.save(mapping));
+            } catch (DataIntegrityViolationException _) {
+                // a concurrent redirect restored it first
+            }
+        });
+        return cold;
+    }
+
+    private void markAccessed(List<String> codes, LocalDateTime accessedAt) {
+        if (!codes.isEmpty()) {
+            tx.executeWithoutResult(_ -> repository.markAccessed(codes, accessedAt));
+        }
+    }
+}
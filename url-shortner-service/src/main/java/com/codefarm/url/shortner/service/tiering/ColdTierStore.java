@@ -0,0 +1,317 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.web.dto.ColdTierStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local-disk cold tier: a set of immutable segments searched newest first. Segment file names
+ * embed their creation time, so lexical order equals age order across restarts.
+ *
+ * <p>Each sweep adds a segment, so once there are more than {@code tiering.cold.max-segments}
+ * the two adjacent segments with the fewest entries are merged, keeping the Bloom filter probes
+ * per lookup bounded. A merged segment takes the newer input's name plus a merge generation, so
+ * it keeps that input's place in the age order.
+ *
+ * <p>Without {@code tiering.cold.dir} the segments live in a temporary directory of this instance,
+ * deleted on shutdown: archived mappings are gone from the hot table, so they must not outlive an
+ * in-memory database or be read by another instance with its own. Set it only alongside a
+ * persistent datasource.
+ */
+@Component
+public class ColdTierStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdTierStore.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Pattern MERGED_NAME = Pattern.compile("(segment-\\d+-\\d+)(?:-m(\\d+))?\\.seg");
+
+    private Path directory;
+    // true when the directory is this instance's own temporary one
+    private final boolean ephemeral;
+    private final int blockSizeBytes;
+    private final double bloomFalsePositiveRate;
+    private final int maxSegments;
+    private final List<ColdSegment> segments = new CopyOnWriteArrayList<>();
+    // names new segments; merges shrink the list, so its size could repeat within a millisecond
+    private int sequence;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder hitNanos = new LongAdder();
+    private final AtomicLong maxHitNanos = new AtomicLong();
+
+    public ColdTierStore(
+            @Value("${tiering.cold.dir:#{null}}") Path directory,
+            @Value("${tiering.cold.block-size-bytes:16384}") int blockSizeBytes,
+            @Value("${tiering.cold.bloom-fpp:0.01}") double bloomFalsePositiveRate,
+            @Value("${tiering.cold.max-segments:8}") int maxSegments) {
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("tiering.cold.max-segments must be at least 1");
+        }
+        this.directory = directory;
+        this.ephemeral = directory == null;
+        this.blockSizeBytes = blockSizeBytes;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.maxSegments = maxSegments;
+    }
+
+    @PostConstruct
+    void openExistingSegments() throws IOException {
+        if (ephemeral) {
+            directory = Files.createTempDirectory("url-shortener-cold-tier-");
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.reverseOrder())
+                    .toList()) {
+                segments.add(ColdSegment.open(file));
+            }
+        }
+        sequence = segments.size();
+        log.info("Cold tier opened {} segment(s) from {}", segments.size(), directory);
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        // emptied first, so a late lookup finds nothing instead of retrying on closed segments
+        List<ColdSegment> open = List.copyOf(segments);
+        segments.clear();
+        for (ColdSegment segment : open) {
+            segment.close();
+        }
+        if (ephemeral && directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Seals the given mappings into a new segment. Only returns once the segment is durable and
+     * visible to lookups, so callers may then drop the mappings from the hot tier. A mapping
+     * restored from a segment still has its copy there, so when it goes idle again it is not
+     * written a second time.
+     */
+    public synchronized void archive(List<UrlMapping> mappings) throws IOException {
+        List<UrlMapping> fresh = new ArrayList<>(mappings.size());
+        for (UrlMapping mapping : mappings) {
+            if (locate(mapping.getShortCode()).isEmpty()) {
+                fresh.add(mapping);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        Path target = directory.resolve("segment-%020d-%04d%s".formatted(
+                System.currentTimeMillis(), sequence++ % 10_000, SEGMENT_SUFFIX));
+        SegmentWriter.write(target, fresh, blockSizeBytes, bloomFalsePositiveRate);
+        segments.addFirst(ColdSegment.open(target));
+        while (segments.size() > maxSegments) {
+            mergeSmallestAdjacent();
+        }
+    }
+
+    // Caller holds the monitor. Merges segments i and i + 1 (newer, older) into one.
+    private void mergeSmallestAdjacent() throws IOException {
+        int best = 0;
+        for (int i = 1; i + 1 < segments.size(); i++) {
+            if (segments.get(i).entryCount() + segments.get(i + 1).entryCount()
+                    < segments.get(best).entryCount() + segments.get(best + 1).entryCount()) {
+                best = i;
+            }
+        }
+        ColdSegment newer = segments.get(best);
+        ColdSegment older = segments.get(best + 1);
+        Path target = directory.resolve(mergedName(newer.path().getFileName().toString()));
+        SegmentWriter.write(target, new MergingIterator(newer.entries(), older.entries()),
+                newer.entryCount() + older.entryCount(), blockSizeBytes, bloomFalsePositiveRate);
+        // the merged segment holds both, so a lookup sees every code at every step
+        segments.set(best, ColdSegment.open(target));
+        segments.remove(best + 1);
+        // a lookup that took its snapshot before the swap may still be reading the inputs; their
+        // channels close when it releases them
+        for (ColdSegment input : List.of(newer, older)) {
+            if (!input.path().equals(target)) {
+                Files.deleteIfExists(input.path());
+            }
+            input.close();
+        }
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    // segment-<millis>-<seq>.seg -> segment-<millis>-<seq>-m1.seg -> ...-m2.seg
+    static String mergedName(String newerName) {
+        Matcher matcher = MERGED_NAME.matcher(newerName);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unexpected segment name " + newerName);
+        }
+        int generation = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        return matcher.group(1) + "-m" + (generation + 1) + SEGMENT_SUFFIX;
+    }
+
+    public Optional<UrlMapping> find(String shortCode) {
+        long start = System.nanoTime();
+        lookups.increment();
+        Optional<UrlMapping> found = locate(shortCode);
+        if (found.isPresent()) {
+            long elapsed = System.nanoTime() - start;
+            hits.increment();
+            hitNanos.add(elapsed);
+            maxHitNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        return found;
+    }
+
+    // Existence only (alias and QR checks): same Bloom filter and index path as find, but not a
+    // redirect lookup, so it leaves the lookup and hit statistics alone
+    public boolean contains(String shortCode) {
+        return locate(shortCode).isPresent();
+    }
+
+    // The archived mapping of a long URL, so shortening it again returns the code it already has
+    public Optional<UrlMapping> findByLongUrl(String longUrl) {
+        try {
+            return search(segment -> segment.findByLongUrl(longUrl));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cold tier lookup failed for " + longUrl, e);
+        }
+    }
+
+    private Optional<UrlMapping> locate(String shortCode) {
+        try {
+            return search(segment -> segment.find(shortCode));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cold tier lookup failed for " + shortCode, e);
+        }
+    }
+
+    // Newest first, holding a reference to each segment while reading it. A segment that closed
+    // since the pass began was merged away; the current list holds its merged copy, so start over.
+    private Optional<UrlMapping> search(SegmentLookup lookup) throws IOException {
+        retry:
+        while (true) {
+            for (ColdSegment segment : segments) {
+                if (!segment.retain()) {
+                    continue retry;
+                }
+                try {
+                    Optional<UrlMapping> found = lookup.apply(segment);
+                    if (found.isPresent()) {
+                        return found;
+                    }
+                } finally {
+                    segment.release();
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public boolean mightContain(String shortCode) {
+        for (ColdSegment segment : segments) {
+            if (segment.mightContain(shortCode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ColdTierStatsResponse stats() {
+        long entries = 0;
+        long rawBytes = 0;
+        long segmentBytes = 0;
+        for (ColdSegment segment : segments) {
+            entries += segment.entryCount();
+            rawBytes += segment.rawBytes();
+            segmentBytes += segment.fileBytes();
+        }
+        long hitCount = hits.sum();
+        double avgHitMicros = hitCount == 0 ? 0 : hitNanos.sum() / 1_000.0 / hitCount;
+        return new ColdTierStatsResponse(
+                segments.size(),
+                entries,
+                rawBytes,
+                segmentBytes,
+                rawBytes - segmentBytes,
+                lookups.sum(),
+                hitCount,
+                avgHitMicros,
+                maxHitNanos.get() / 1_000.0);
+    }
+
+    @FunctionalInterface
+    private interface SegmentLookup {
+        Optional<UrlMapping> apply(ColdSegment segment) throws IOException;
+    }
+
+    // Two short-code-ordered streams as one; a code in both keeps the newer segment's copy
+    private static final class MergingIterator implements Iterator<UrlMapping> {
+        private final Iterator<UrlMapping> newer;
+        private final Iterator<UrlMapping> older;
+        private UrlMapping nextNewer;
+        private UrlMapping nextOlder;
+
+        MergingIterator(Iterator<UrlMapping> newer, Iterator<UrlMapping> older) {
+            this.newer = newer;
+            this.older = older;
+            this.nextNewer = newer.hasNext() ? newer.next() : null;
+            this.nextOlder = older.hasNext() ? older.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNewer != null || nextOlder != null;
+        }
+
+        @Override
+        public UrlMapping next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int cmp = nextNewer == null ? 1
+                    : nextOlder == null ? -1
+                    : nextNewer.getShortCode().compareTo(nextOlder.getShortCode());
+            UrlMapping result;
+            if (cmp <= 0) {
+                result = nextNewer;
+                nextNewer = newer.hasNext() ? newer.next() : null;
+                if (cmp == 0) {
+                    nextOlder = older.hasNext() ? older.next() : null;
+                }
+            } else {
+                result = nextOlder;
+                nextOlder = older.hasNext() ? older.next() : null;
+            }
+            return result;
+        }
+    }
+}
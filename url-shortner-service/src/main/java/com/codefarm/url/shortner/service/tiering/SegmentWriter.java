@@ -0,0 +1,204 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.util.BloomFilter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an immutable cold-tier segment:
+ * <pre>
+ * [block]*   int rawLength, int compressedLength, deflate(entries sorted by short code)
+ * index      int blockCount, (UTF firstKey, long blockOffset)*
+ * bloom      BloomFilter over every short code in the segment
+ * urls       (long hash64(longUrl), UTF shortCode)* sorted by hash
+ * url index  int runCount, (long firstHash, long runOffset)* for every URL_RUN-th url entry
+ * url bloom  BloomFilter over every long URL in the segment
+ * footer     long indexOffset, long bloomOffset, long urlsOffset, long urlIndexOffset,
+ *            long urlBloomOffset, int entryCount, long rawBytes, int magic
+ * </pre>
+ * The file is written under a temporary name, fsynced and atomically renamed into place so a
+ * reader never observes a partial segment.
+ */
+final class SegmentWriter {
+
+    static final int MAGIC = 0x55435332; // "UCS2"
+    static final int FOOTER_BYTES = Long.BYTES * 6 + Integer.BYTES * 2;
+    // url entries per sparse index slot; a long-URL lookup reads one run
+    static final int URL_RUN = 128;
+
+    private SegmentWriter() {
+    }
+
+    static void write(Path target, List<UrlMapping> mappings, int blockSizeBytes, double bloomFalsePositiveRate)
+            throws IOException {
+        List<UrlMapping> sorted = new ArrayList<>(mappings);
+        sorted.sort(Comparator.comparing(UrlMapping::getShortCode));
+        write(target, sorted.iterator(), sorted.size(), blockSizeBytes, bloomFalsePositiveRate);
+    }
+
+    /**
+     * Streams mappings already sorted by short code, without duplicates, into a segment; used to
+     * merge segments without loading them. expectedEntries sizes the Bloom filters and may
+     * overestimate.
+     */
+    static void write(Path target, Iterator<UrlMapping> sorted, int expectedEntries, int blockSizeBytes,
+                      double bloomFalsePositiveRate) throws IOException {
+        BloomFilter bloom = BloomFilter.create(expectedEntries, bloomFalsePositiveRate);
+        BloomFilter urlBloom = BloomFilter.create(expectedEntries, bloomFalsePositiveRate);
+        List<String> firstKeys = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        List<UrlKey> urlKeys = new ArrayList<>(expectedEntries);
+        long rawBytes = 0;
+        int entryCount = 0;
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (CountingOutputStream counting = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)));
+             DataOutputStream out = new DataOutputStream(counting)) {
+
+            ByteArrayOutputStream block = new ByteArrayOutputStream(blockSizeBytes * 2);
+            DataOutputStream blockOut = new DataOutputStream(block);
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] compressed = new byte[blockSizeBytes * 2];
+            try {
+                while (sorted.hasNext()) {
+                    UrlMapping mapping = sorted.next();
+                    if (block.size() == 0) {
+                        firstKeys.add(mapping.getShortCode());
+                        offsets.add(counting.count);
+                    }
+                    writeEntry(blockOut, mapping);
+                    bloom.put(mapping.getShortCode());
+                    urlBloom.put(mapping.getLongUrl());
+                    urlKeys.add(new UrlKey(BloomFilter.hash64(mapping.getLongUrl()), mapping.getShortCode()));
+                    entryCount++;
+                    if (block.size() >= blockSizeBytes) {
+                        rawBytes += block.size();
+                        compressed = flushBlock(out, block, deflater, compressed);
+                    }
+                }
+                if (block.size() > 0) {
+                    rawBytes += block.size();
+                    flushBlock(out, block, deflater, compressed);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long indexOffset = counting.count;
+            out.writeInt(firstKeys.size());
+            for (int i = 0; i < firstKeys.size(); i++) {
+                out.writeUTF(firstKeys.get(i));
+                out.writeLong(offsets.get(i));
+            }
+            long bloomOffset = counting.count;
+            bloom.writeTo(out);
+
+            urlKeys.sort(Comparator.comparingLong(UrlKey::hash).thenComparing(UrlKey::shortCode));
+            long urlsOffset = counting.count;
+            List<Long> runHashes = new ArrayList<>();
+            List<Long> runOffsets = new ArrayList<>();
+            for (int i = 0; i < urlKeys.size(); i++) {
+                if (i % URL_RUN == 0) {
+                    runHashes.add(urlKeys.get(i).hash());
+                    runOffsets.add(counting.count);
+                }
+                out.writeLong(urlKeys.get(i).hash());
+                out.writeUTF(urlKeys.get(i).shortCode());
+            }
+            long urlIndexOffset = counting.count;
+            out.writeInt(runHashes.size());
+            for (int i = 0; i < runHashes.size(); i++) {
+                out.writeLong(runHashes.get(i));
+                out.writeLong(runOffsets.get(i));
+            }
+            long urlBloomOffset = counting.count;
+            urlBloom.writeTo(out);
+
+            out.writeLong(indexOffset);
+            out.writeLong(bloomOffset);
+            out.writeLong(urlsOffset);
+            out.writeLong(urlIndexOffset);
+            out.writeLong(urlBloomOffset);
+            out.writeInt(entryCount);
+            out.writeLong(rawBytes);
+            out.writeInt(MAGIC);
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] flushBlock(DataOutputStream out, ByteArrayOutputStream block,
+                                     Deflater deflater, byte[] buffer) throws IOException {
+        byte[] raw = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        out.writeInt(raw.length);
+        out.writeInt(length);
+        out.write(buffer, 0, length);
+        block.reset();
+        return buffer;
+    }
+
+    private static void writeEntry(DataOutputStream out, UrlMapping mapping) throws IOException {
+        out.writeUTF(mapping.getShortCode());
+        out.writeUTF(mapping.getLongUrl());
+        out.writeLong(mapping.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(mapping.getCreatedAt().getNano());
+        out.writeBoolean(mapping.isCustom());
+        out.writeBoolean(mapping.getUserId() != null);
+        if (mapping.getUserId() != null) {
+            out.writeUTF(mapping.getUserId());
+        }
+    }
+
+    private record UrlKey(long hash, String shortCode) {}
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.codefarm.url.shortner.service.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over string keys, sized from an expected insert count and
+ * target false-positive rate. Uses Kirsch–Mitzenmacher double hashing over one 64-bit hash.
+ */
+public final class BloomFilter {
+
+    private final long[] words;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long[] words, int numHashes) {
+        this.words = words;
+        this.numBits = (long) words.length * Long.SIZE;
+        this.numHashes = numHashes;
+    }
+
+    public static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        return new BloomFilter(new long[wordCount], hashes);
+    }
+
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % numBits;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % numBits;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(numHashes);
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BloomFilter readFrom(DataInput in) throws IOException {
+        int hashes = in.readInt();
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(words, hashes);
+    }
+
+    // FNV-1a over UTF-8 bytes followed by a murmur3 fmix64 finalizer
+    public static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
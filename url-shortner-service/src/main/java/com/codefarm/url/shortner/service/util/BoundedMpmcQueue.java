@@ -0,0 +1,77 @@
+package com.codefarm.url.shortner.service.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer / multi-consumer queue (Vyukov's array queue). Each slot carries
+ * a sequence number that tells producers and consumers whether it is free for the current lap, so
+ * {@link #offer} and {@link #poll} are a single CAS on the fast path and fail immediately instead
+ * of blocking when the queue is full or empty.
+ */
+public final class BoundedMpmcQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    public BoundedMpmcQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Returns false without waiting when the queue is full. */
+    public boolean offer(E element) {
+        long pos = enqueuePosition.get();
+        while (true) {
+            int slot = (int) (pos & mask);
+            long diff = sequences.getAcquire(slot) - pos;
+            if (diff == 0) {
+                if (enqueuePosition.compareAndSet(pos, pos + 1)) {
+                    elements.setPlain(slot, element);
+                    sequences.setRelease(slot, pos + 1);
+                    return true;
+                }
+                pos = enqueuePosition.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = enqueuePosition.get();
+            }
+        }
+    }
+
+    /** Returns null without waiting when the queue is empty. */
+    public E poll() {
+        long pos = dequeuePosition.get();
+        while (true) {
+            int slot = (int) (pos & mask);
+            long diff = sequences.getAcquire(slot) - (pos + 1);
+            if (diff == 0) {
+                if (dequeuePosition.compareAndSet(pos, pos + 1)) {
+                    E element = elements.getPlain(slot);
+                    elements.setPlain(slot, null);
+                    sequences.setRelease(slot, pos + mask + 1);
+                    return element;
+                }
+                pos = dequeuePosition.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = dequeuePosition.get();
+            }
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
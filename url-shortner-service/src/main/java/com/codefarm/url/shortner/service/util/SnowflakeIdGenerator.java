@@ -1,6 +1,5 @@
 package com.codefarm.url.shortner.service.util;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -9,35 +8,21 @@ public class SnowflakeIdGenerator {
     private static final long EPOCH_START = 1609459200000L; // 2021-01-01
 
     private static final long SEQUENCE_BITS = 12L;
-    private static final long MACHINE_ID_BITS = 5L;
-    private static final long DATACENTER_ID_BITS = 5L;
 
-    private static final long MAX_MACHINE_ID = (1L << MACHINE_ID_BITS) - 1;
-    private static final long MAX_DATACENTER_ID = (1L << DATACENTER_ID_BITS) - 1;
+    // worker ID = datacenter ID (5 bits) << 5 | machine ID (5 bits), leased by WorkerLeaseManager
+    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WorkerLeaseManager.WORKER_ID_BITS;
 
-    private static final long MACHINE_ID_SHIFT = SEQUENCE_BITS;
-    private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + MACHINE_ID_BITS;
-    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + MACHINE_ID_BITS + DATACENTER_ID_BITS;
-
-    private final long datacenterId;
-    private final long machineId;
+    private final WorkerLeaseManager leaseManager;
     private long sequence = 0L;
     private long lastTimestamp = -1L;
 
-    public SnowflakeIdGenerator(
-            @Value("${snowflake.datacenter.id:1}") long datacenterId,
-            @Value("${snowflake.machine.id:1}") long machineId) {
-        if (machineId > MAX_MACHINE_ID || machineId < 0) {
-            throw new IllegalArgumentException("Machine ID out of range");
-        }
-        if (datacenterId > MAX_DATACENTER_ID || datacenterId < 0) {
-            throw new IllegalArgumentException("Datacenter ID out of range");
-        }
-        this.datacenterId = datacenterId;
-        this.machineId = machineId;
+    public SnowflakeIdGenerator(WorkerLeaseManager leaseManager) {
+        this.leaseManager = leaseManager;
     }
 
     public synchronized long nextId() {
+        long workerId = leaseManager.currentWorkerId();
         long timestamp = System.currentTimeMillis();
         if (timestamp < lastTimestamp) {
             throw new IllegalStateException("Clock moved backwards");
@@ -52,8 +37,7 @@ public class SnowflakeIdGenerator {
         }
         lastTimestamp = timestamp;
         return ((timestamp - EPOCH_START) << TIMESTAMP_SHIFT)
-                | (datacenterId << DATACENTER_ID_SHIFT)
-                | (machineId << MACHINE_ID_SHIFT)
+                | (workerId << WORKER_ID_SHIFT)
                 | sequence;
     }
 
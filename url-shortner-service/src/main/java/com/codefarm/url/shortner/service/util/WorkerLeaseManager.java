@@ -0,0 +1,193 @@
+package com.codefarm.url.shortner.service.util;
+
+import com.codefarm.url.shortner.service.repository.WorkerLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Claims a Snowflake worker ID (0..1023) from the {@code worker_leases} table and keeps it alive
+ * with a heartbeat, so instances can scale out without hand-assigned IDs.
+ * <p>
+ * A lease is only taken over once its {@code expires_at} has passed, and a holder stops handing out
+ * its ID {@code snowflake.lease.safety-margin} before that point (measured on the monotonic clock
+ * from the start of the last successful renewal). IDs issued by the previous holder therefore all
+ * carry timestamps older than anything the new holder can produce, as long as clock skew between
+ * nodes stays below the margin.
+ * <p>
+ * Leases only coordinate instances that share one database. On a per-process in-memory H2
+ * database every node sees an empty table and may claim the same ID, so a warning is logged.
+ * <p>
+ * With {@code snowflake.lease.enabled=false} the static {@code snowflake.datacenter.id} /
+ * {@code snowflake.machine.id} pair is used instead and the table is never touched.
+ */
+@Component
+public class WorkerLeaseManager {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerLeaseManager.class);
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+    private static final int MACHINE_ID_BITS = 5;
+
+    private final WorkerLeaseRepository repository;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration safetyMargin;
+    private final String ownerId = UUID.randomUUID().toString();
+    private final Clock clock;
+    private final LongSupplier nanoTime;
+
+    private volatile int workerId = -1;
+    private volatile long validUntilNanos;
+
+    @Autowired
+    public WorkerLeaseManager(
+            WorkerLeaseRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${snowflake.lease.enabled:true}") boolean enabled,
+            @Value("${snowflake.lease.ttl:30s}") Duration ttl,
+            @Value("${snowflake.lease.safety-margin:5s}") Duration safetyMargin,
+            @Value("${snowflake.datacenter.id:1}") long datacenterId,
+            @Value("${snowflake.machine.id:1}") long machineId,
+            @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this(repository, transactionManager, enabled, ttl, safetyMargin, datacenterId, machineId,
+                Clock.systemUTC(), System::nanoTime);
+        if (enabled && datasourceUrl.startsWith("jdbc:h2:mem:")) {
+            log.warn("Snowflake worker leases are kept in an in-memory database ({}); instances do not see each "
+                    + "other's leases, so run more than one only against a shared database", datasourceUrl);
+        }
+    }
+
+    // clock stamps lease expiry in the table as an instant, so nodes in different time zones agree
+    // on it; nanoTime bounds how long the local holder trusts it
+    WorkerLeaseManager(WorkerLeaseRepository repository, PlatformTransactionManager transactionManager,
+                       boolean enabled, Duration ttl, Duration safetyMargin, long datacenterId, long machineId,
+                       Clock clock, LongSupplier nanoTime) {
+        this.repository = repository;
+        this.clock = clock;
+        this.nanoTime = nanoTime;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.safetyMargin = safetyMargin;
+        if (safetyMargin.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("snowflake.lease.safety-margin must be shorter than snowflake.lease.ttl");
+        }
+        if (!enabled) {
+            long maxPart = (1L << MACHINE_ID_BITS) - 1;
+            if (machineId > maxPart || machineId < 0) {
+                throw new IllegalArgumentException("Machine ID out of range");
+            }
+            if (datacenterId > maxPart || datacenterId < 0) {
+                throw new IllegalArgumentException("Datacenter ID out of range");
+            }
+            this.workerId = (int) ((datacenterId << MACHINE_ID_BITS) | machineId);
+        }
+    }
+
+    @PostConstruct
+    void acquireOnStartup() {
+        if (enabled && !acquire()) {
+            throw new IllegalStateException("No free Snowflake worker ID: all " + (MAX_WORKER_ID + 1) + " leases are held");
+        }
+    }
+
+    /**
+     * Worker ID to embed in generated IDs. Throws if the lease has lapsed, so a node that lost
+     * contact with the database can never collide with whoever takes its ID over.
+     */
+    public int currentWorkerId() {
+        if (enabled && nanoTime.getAsLong() - validUntilNanos >= 0) {
+            throw new IllegalStateException("Snowflake worker lease lapsed; refusing to generate IDs");
+        }
+        return workerId;
+    }
+
+    @Scheduled(initialDelayString = "${snowflake.lease.heartbeat-interval:PT10S}",
+            fixedDelayString = "${snowflake.lease.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        int id = workerId;
+        long started = nanoTime.getAsLong();
+        try {
+            Integer renewed = tx.execute(_ -> repository.renew(id, ownerId, clock.instant().plus(ttl)));
+            if (renewed != null && renewed == 1) {
+                validUntilNanos = started + ttl.minus(safetyMargin).toNanos();
+                return;
+            }
+            log.warn("Lost Snowflake worker lease {}; claiming a new worker ID", id);
+            validUntilNanos = started;
+            acquire();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Snowflake worker lease {} renewal failed; lease stays valid until it lapses", id, e);
+        }
+    }
+
+    @PreDestroy
+    void release() {
+        if (!enabled || workerId < 0) {
+            return;
+        }
+        int id = workerId;
+        validUntilNanos = nanoTime.getAsLong();
+        try {
+            tx.executeWithoutResult(_ -> repository.release(id, ownerId));
+            log.info("Released Snowflake worker lease {}", id);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not release Snowflake worker lease {}; it will expire on its own", id, e);
+        }
+    }
+
+    private boolean acquire() {
+        // random start spreads simultaneously booting nodes across the ID space
+        int start = ThreadLocalRandom.current().nextInt(MAX_WORKER_ID + 1);
+        for (int i = 0; i <= MAX_WORKER_ID; i++) {
+            int candidate = (start + i) & MAX_WORKER_ID;
+            long started = nanoTime.getAsLong();
+            if (tryClaim(candidate)) {
+                workerId = candidate;
+                validUntilNanos = started + ttl.minus(safetyMargin).toNanos();
+                log.info("Claimed Snowflake worker ID {} (owner {})", candidate, ownerId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryClaim(int candidate) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        try {
+            Integer claimed = tx.execute(_ -> repository.existsById(candidate)
+                    ? repository.takeOverExpired(candidate, ownerId, expiresAt, now)
+                    : repository.insertLease(candidate, ownerId, expiresAt));
+            return claimed != null && claimed == 1;
+        } catch (DataIntegrityViolationException _) {
+            // another node inserted the same ID first
+            return false;
+        }
+    }
+}
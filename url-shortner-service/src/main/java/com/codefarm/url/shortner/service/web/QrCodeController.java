@@ -0,0 +1,40 @@
+package com.codefarm.url.shortner.service.web;
+
+import com.codefarm.url.shortner.service.core.UrlShortenerService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class QrCodeController {
+
+    private final UrlShortenerService service;
+
+    public QrCodeController(UrlShortenerService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{shortCode}/qr")
+    public ResponseEntity<byte[]> qrCode(@PathVariable String shortCode,
+                                         @RequestParam(defaultValue = "256") int size,
+                                         @RequestParam(defaultValue = "png") String format,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         HttpServletRequest request) {
+        return service.qrCode(shortCode, getBaseUrl(request), size, format, ifNoneMatch);
+    }
+
+    private static String getBaseUrl(HttpServletRequest request) {
+        String scheme = request.getScheme();
+        String host = request.getServerName();
+        int port = request.getServerPort();
+        boolean isDefault = (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+        return scheme + "://" + host + (isDefault ? "" : (":" + port));
+    }
+}
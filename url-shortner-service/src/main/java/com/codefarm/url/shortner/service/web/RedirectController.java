@@ -1,24 +1,33 @@
 package com.codefarm.url.shortner.service.web;
 
+import com.codefarm.url.shortner.service.clicks.ClickEnrichmentPipeline;
 import com.codefarm.url.shortner.service.core.UrlShortenerService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RedirectController {
 
     private final UrlShortenerService service;
+    private final ClickEnrichmentPipeline clicks;
 
-    public RedirectController(UrlShortenerService service) {
+    public RedirectController(UrlShortenerService service, ClickEnrichmentPipeline clicks) {
         this.service = service;
+        this.clicks = clicks;
     }
 
     @GetMapping("/{shortCode}")
-    public ResponseEntity<Void> redirect(@PathVariable String shortCode) {
-        return service.redirect(shortCode);
+    public ResponseEntity<Void> redirect(@PathVariable String shortCode,
+                                         @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent,
+                                         @RequestHeader(value = HttpHeaders.REFERER, required = false) String referer) {
+        ResponseEntity<Void> response = service.redirect(shortCode);
+        clicks.submit(shortCode, userAgent, referer);
+        return response;
     }
 }
-
-
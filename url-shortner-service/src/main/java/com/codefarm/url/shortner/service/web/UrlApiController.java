@@ -1,15 +1,21 @@
 package com.codefarm.url.shortner.service.web;
 
 import com.codefarm.url.shortner.service.core.UrlShortenerService;
+import com.codefarm.url.shortner.service.web.dto.ClickStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.ColdTierStatsResponse;
+import com.codefarm.url.shortner.service.web.dto.DbBulkheadStatsResponse;
 import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
 import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import com.codefarm.url.shortner.service.web.dto.TopLinksResponse;
 import com.codefarm.url.shortner.service.web.dto.UserMetricsResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UrlApiController {
 
     private final UrlShortenerService service;
@@ -32,6 +38,27 @@ public class UrlApiController {
         return ResponseEntity.ok(service.userMetrics());
     }
 
+    @GetMapping("/metrics/cold-tier")
+    public ResponseEntity<ColdTierStatsResponse> coldTierMetrics() {
+        return ResponseEntity.ok(service.coldTierStats());
+    }
+
+    @GetMapping("/metrics/top")
+    public ResponseEntity<TopLinksResponse> topLinks(@RequestParam(defaultValue = "1m") String window,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(service.topLinks(window, limit));
+    }
+
+    @GetMapping("/metrics/clicks/{shortCode}")
+    public ResponseEntity<ClickStatsResponse> clickMetrics(@PathVariable String shortCode) {
+        return ResponseEntity.ok(service.clickStats(shortCode));
+    }
+
+    @GetMapping("/metrics/db-bulkhead")
+    public ResponseEntity<DbBulkheadStatsResponse> dbBulkheadMetrics() {
+        return ResponseEntity.of(service.dbBulkheadStats());
+    }
+
     private static String getBaseUrl(HttpServletRequest request) {
         String scheme = request.getScheme();
         String host = request.getServerName();
@@ -4,6 +4,7 @@ import com.codefarm.url.shortner.service.core.UrlShortenerService;
 import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
 import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UrlWebController {
 
     private static final String VIEW_INDEX = "index";
@@ -0,0 +1,7 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record ClickMinuteResponse(LocalDateTime minute, long clicks, Map<String, Long> deviceClasses,
+                                  Map<String, Long> browsers, Map<String, Long> referrers) {}
@@ -0,0 +1,5 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+import java.util.List;
+
+public record ClickStatsResponse(String shortCode, long droppedEvents, List<ClickMinuteResponse> minutes) {}
@@ -0,0 +1,12 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+public record ColdTierStatsResponse(
+        int segments,
+        long archivedMappings,
+        long rawBytes,
+        long segmentBytes,
+        long bytesSaved,
+        long coldLookups,
+        long coldHits,
+        double avgColdHitMicros,
+        double maxColdHitMicros) {}
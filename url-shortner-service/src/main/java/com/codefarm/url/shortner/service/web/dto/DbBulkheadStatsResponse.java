@@ -0,0 +1,10 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+public record DbBulkheadStatsResponse(
+        int permits,
+        int inUse,
+        int waiting,
+        long acquired,
+        long rejected,
+        double avgQueueWaitMicros,
+        double maxQueueWaitMicros) {}
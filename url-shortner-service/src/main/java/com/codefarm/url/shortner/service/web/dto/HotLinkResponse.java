@@ -0,0 +1,3 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+public record HotLinkResponse(String shortCode, long clicks) {}
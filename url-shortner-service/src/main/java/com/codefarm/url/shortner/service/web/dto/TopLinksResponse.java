@@ -0,0 +1,5 @@
+package com.codefarm.url.shortner.service.web.dto;
+
+import java.util.List;
+
+public record TopLinksResponse(String window, long totalClicks, long droppedEvents, List<HotLinkResponse> links) {}
@@ -0,0 +1,50 @@
+package com.codefarm.url.shortner.service.core;
+
+import com.codefarm.url.shortner.service.exception.UrlNotFoundException;
+import com.codefarm.url.shortner.service.metrics.HotLinkTracker;
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.repository.ReactiveUrlMappingRepository;
+import com.codefarm.url.shortner.service.tiering.AccessRecorder;
+import com.codefarm.url.shortner.service.tiering.ColdTierArchiver;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Redirect lookup for the reactive build. Hot-table hits are served on the event loop through
+ * R2DBC; only a miss that has to fault a mapping back in from the cold tier (file IO plus a JPA
+ * insert) is shifted to the bounded-elastic scheduler.
+ */
+@Service
+public class ReactiveRedirectService {
+
+    private final ReactiveUrlMappingRepository repository;
+    private final ColdTierArchiver coldTierArchiver;
+    private final AccessRecorder accessRecorder;
+    private final HotLinkTracker hotLinks;
+
+    public ReactiveRedirectService(ReactiveUrlMappingRepository repository,
+                                   ColdTierArchiver coldTierArchiver,
+                                   AccessRecorder accessRecorder,
+                                   HotLinkTracker hotLinks) {
+        this.repository = repository;
+        this.coldTierArchiver = coldTierArchiver;
+        this.accessRecorder = accessRecorder;
+        this.hotLinks = hotLinks;
+    }
+
+    public Mono<ResponseEntity<Void>> redirect(String shortCode) {
+        return repository.findLongUrl(shortCode)
+                .switchIfEmpty(Mono.fromCallable(() -> coldTierArchiver.restore(shortCode))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(Mono::justOrEmpty)
+                        .map(UrlMapping::getLongUrl))
+                .switchIfEmpty(Mono.error(() -> new UrlNotFoundException("Short code not found: " + shortCode)))
+                .map(longUrl -> {
+                    accessRecorder.touch(shortCode);
+                    hotLinks.record(shortCode);
+                    return UrlShortenerServiceImpl.movedPermanently(longUrl);
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.codefarm.url.shortner.service.reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wiring for the reactive build: WebFlux on Netty, redirects read through R2DBC.
+ *
+ * <p>Boot drops its JDBC {@code DataSource} as soon as an R2DBC {@code ConnectionFactory} exists;
+ * JPA still backs shortening, leases and the cold tier, so the pooled {@code DataSource} is declared
+ * here from the usual {@code spring.datasource.*} properties.
+ */
+@Configuration
+public class ReactiveStackConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
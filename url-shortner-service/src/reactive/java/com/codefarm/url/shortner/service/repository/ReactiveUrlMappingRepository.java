@@ -0,0 +1,26 @@
+package com.codefarm.url.shortner.service.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read path over {@code url_mappings} for the reactive build. Writes stay on the
+ * JPA {@link UrlMappingRepository}; both point at the same H2 database.
+ */
+@Repository
+public class ReactiveUrlMappingRepository {
+
+    private final DatabaseClient db;
+
+    public ReactiveUrlMappingRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Mono<String> findLongUrl(String shortCode) {
+        return db.sql("select long_url from url_mappings where short_code = :shortCode")
+                .bind("shortCode", shortCode)
+                .map(row -> row.get("long_url", String.class))
+                .one();
+    }
+}
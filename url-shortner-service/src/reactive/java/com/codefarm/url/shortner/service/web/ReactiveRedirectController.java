@@ -0,0 +1,31 @@
+package com.codefarm.url.shortner.service.web;
+
+import com.codefarm.url.shortner.service.clicks.ClickEnrichmentPipeline;
+import com.codefarm.url.shortner.service.core.ReactiveRedirectService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class ReactiveRedirectController {
+
+    private final ReactiveRedirectService service;
+    private final ClickEnrichmentPipeline clicks;
+
+    public ReactiveRedirectController(ReactiveRedirectService service, ClickEnrichmentPipeline clicks) {
+        this.service = service;
+        this.clicks = clicks;
+    }
+
+    @GetMapping("/{shortCode}")
+    public Mono<ResponseEntity<Void>> redirect(@PathVariable String shortCode,
+                                               @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent,
+                                               @RequestHeader(value = HttpHeaders.REFERER, required = false) String referer) {
+        return service.redirect(shortCode)
+                .doOnNext(response -> clicks.submit(shortCode, userAgent, referer));
+    }
+}
@@ -0,0 +1,50 @@
+package com.codefarm.url.shortner.service.web;
+
+import com.codefarm.url.shortner.service.core.UrlShortenerService;
+import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
+import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+
+/**
+ * Shorten endpoint for the reactive build. Shortening stays on the transactional JPA service,
+ * so each call runs on the bounded-elastic scheduler and never blocks a Netty event loop.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class ReactiveUrlApiController {
+
+    private final UrlShortenerService service;
+
+    public ReactiveUrlApiController(UrlShortenerService service) {
+        this.service = service;
+    }
+
+    @PostMapping("/shorten")
+    public Mono<ResponseEntity<ShortenResponse>> shorten(@RequestBody ShortenRequest request,
+                                                         @RequestHeader(value = "user_uuid", required = false) String userUuid,
+                                                         ServerHttpRequest httpRequest) {
+        String baseUrl = getBaseUrl(httpRequest);
+        return Mono.fromCallable(() -> service.shortenUrl(request, baseUrl, userUuid))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    private static String getBaseUrl(ServerHttpRequest request) {
+        URI uri = request.getURI();
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        int port = uri.getPort();
+        boolean isDefault = port == -1 || (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+        return scheme + "://" + host + (isDefault ? "" : (":" + port));
+    }
+}
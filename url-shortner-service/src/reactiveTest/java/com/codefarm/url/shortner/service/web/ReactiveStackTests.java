@@ -0,0 +1,107 @@
+package com.codefarm.url.shortner.service.web;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.tiering.ColdTierStore;
+import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The reactive build end to end on Netty: redirects through R2DBC, shortening through JPA, and
+// both answering with the servlet stack's status codes, headers and bodies.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivestack;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivestack?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "snowflake.lease.enabled=false"
+})
+class ReactiveStackTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ColdTierStore coldTier;
+
+    private ShortenResponse shorten(String longUrl) {
+        return client.post().uri("/api/v1/shorten")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"longUrl\":\"" + longUrl + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ShortenResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    @Test
+    void shortenRespondsWithCodeShortUrlAndCreationTime() {
+        client.post().uri("/api/v1/shorten")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"longUrl\":\"https://example.com/reactive/shape\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.shortCode").isNotEmpty()
+                .jsonPath("$.shortUrl").value(url -> assertTrue(url.toString().startsWith("http://localhost:" + port + "/")))
+                .jsonPath("$.createdAt").isNotEmpty();
+    }
+
+    @Test
+    void invalidUrlIsABadRequest() {
+        client.post().uri("/api/v1/shorten")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"longUrl\":\"  \"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("URL cannot be empty");
+    }
+
+    @Test
+    void redirectIsAPermanentMoveWithTheServletHeaders() {
+        ShortenResponse shortened = shorten("https://example.com/reactive/redirect");
+        assertNotNull(shortened);
+
+        client.get().uri("/" + shortened.shortCode())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.MOVED_PERMANENTLY)
+                .expectHeader().valueEquals("Location", "https://example.com/reactive/redirect")
+                .expectHeader().valueEquals("Cache-Control", "private, max-age=90")
+                .expectHeader().valueEquals("X-Robots-Tag", "noindex")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void archivedCodeIsFaultedIn() throws Exception {
+        coldTier.archive(List.of(new UrlMapping("rcold1", "https://example.com/reactive/archived",
+                LocalDateTime.now().minusDays(90), true)));
+
+        client.get().uri("/rcold1")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.MOVED_PERMANENTLY)
+                .expectHeader().valueEquals("Location", "https://example.com/reactive/archived");
+    }
+
+    @Test
+    void unknownCodeIsNotFoundWithAJsonError() {
+        client.get().uri("/nosuchcode")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Short code not found: nosuchcode");
+    }
+}
@@ -0,0 +1,65 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlocklistMatcherTests {
+
+    private final BlocklistMatcher matcher = BlocklistMatcher.compile(
+            List.of("evil.com"), List.of("/wp-admin/", "redirect=http"));
+
+    @Test
+    void percentEncodedPathDoesNotBypassPatterns() {
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/%77p-admin/login")));
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/wp%2Dadmin%2Flogin")));
+        // double encoding: %25 decodes to '%', which then decodes the escape behind it
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/wp-admin%252Flogin")));
+    }
+
+    @Test
+    void dotSegmentsAndRepeatedSlashesAreRemovedBeforeMatching() {
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/static/../wp-admin/")));
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/static/%2e%2e/wp-admin/x")));
+        assertTrue(matcher.isBlocked(URI.create("https://example.org//wp-admin//x")));
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/./WP-Admin/x")));
+    }
+
+    @Test
+    void encodedQueryDoesNotBypassPatterns() {
+        assertTrue(matcher.isBlocked(URI.create("https://example.org/go?REDIRECT%3Dhttp%3A%2F%2Fx")));
+        assertFalse(matcher.isBlocked(URI.create("https://example.org/go?next=%2Fhome")));
+    }
+
+    @Test
+    void mixedCaseAndTrailingDotHostsMatchTheDomain() {
+        assertTrue(matcher.isBlocked(URI.create("https://EVIL.Com/")));
+        assertTrue(matcher.isBlocked(URI.create("https://Login.Evil.COM/account")));
+        assertTrue(matcher.isBlocked(URI.create("https://evil.com./")));
+        assertFalse(matcher.isBlocked(URI.create("https://notevil.com/")));
+    }
+
+    @Test
+    void cleanUrlsPass() {
+        assertFalse(matcher.isBlocked(URI.create("https://example.org/blog/wp-admin-guide")));
+        assertFalse(matcher.isBlocked(URI.create("https://example.org/100%25-natural")));
+    }
+
+    @Test
+    void normalizePathResolvesDotSegments() {
+        assertEquals("/b/", BlocklistMatcher.normalizePath("/a/../b/."));
+        assertEquals("/", BlocklistMatcher.normalizePath("/../.."));
+        assertEquals("/a/c", BlocklistMatcher.normalizePath("/A/b/%2E%2E/c"));
+    }
+
+    @Test
+    void malformedEscapesAreKept() {
+        assertEquals("50%zz", BlocklistMatcher.decode("50%zz"));
+        assertEquals("100%", BlocklistMatcher.decode("100%"));
+    }
+}
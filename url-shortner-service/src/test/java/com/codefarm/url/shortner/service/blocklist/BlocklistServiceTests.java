@@ -0,0 +1,50 @@
+package com.codefarm.url.shortner.service.blocklist;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlocklistServiceTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void missingConfiguredFileFailsStartup() {
+        String missing = dir.resolve("missing.txt").toString();
+
+        assertThrows(IllegalStateException.class, () -> new BlocklistService(missing));
+    }
+
+    @Test
+    void noFileConfiguredBlocksNothing() {
+        assertFalse(new BlocklistService("").isBlocked(URI.create("https://evil.com/")));
+    }
+
+    @Test
+    void reloadFailureKeepsThePreviousBlocklist() throws IOException {
+        Path file = Files.writeString(dir.resolve("blocklist.txt"), "evil.com\n");
+        BlocklistService service = new BlocklistService(file.toString());
+        assertTrue(service.isBlocked(URI.create("https://www.evil.com/")));
+
+        Files.delete(file);
+        service.reloadIfChanged();
+        assertTrue(service.isBlocked(URI.create("https://www.evil.com/")));
+
+        Files.writeString(file, "bad.example\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        service.reloadIfChanged();
+        assertTrue(service.isBlocked(URI.create("https://bad.example/")));
+        assertFalse(service.isBlocked(URI.create("https://www.evil.com/")));
+    }
+}
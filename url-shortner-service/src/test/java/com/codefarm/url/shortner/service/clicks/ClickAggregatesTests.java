@@ -0,0 +1,109 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import com.codefarm.url.shortner.service.web.dto.ClickMinuteResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClickAggregatesTests {
+
+    private static final long MINUTE = 60_000;
+    private static final long T0 = Instant.parse("2026-03-02T08:00:00Z").toEpochMilli();
+    private static final UserAgentInfo DESKTOP_CHROME = new UserAgentInfo("desktop", "Chrome");
+    private static final UserAgentInfo MOBILE_SAFARI = new UserAgentInfo("mobile", "Safari");
+
+    @Test
+    void clicksRollUpPerMinute() {
+        ClickAggregates aggregates = new ClickAggregates(32, 1_000);
+        aggregates.add("abc", T0 + 1_000, DESKTOP_CHROME, "news.example");
+        aggregates.add("abc", T0 + 59_999, MOBILE_SAFARI, "direct");
+        aggregates.add("abc", T0 + MINUTE, DESKTOP_CHROME, "news.example");
+        aggregates.add("other", T0, DESKTOP_CHROME, "direct");
+
+        List<ClickMinuteResponse> minutes = aggregates.minutes("abc");
+        assertEquals(2, minutes.size());
+        ClickMinuteResponse first = minutes.get(0);
+        assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(T0), ZoneId.systemDefault()), first.minute());
+        assertEquals(2, first.clicks());
+        assertEquals(Map.of("desktop", 1L, "mobile", 1L), first.deviceClasses());
+        assertEquals(Map.of("Chrome", 1L, "Safari", 1L), first.browsers());
+        assertEquals(Map.of("news.example", 1L, "direct", 1L), first.referrers());
+        assertEquals(1, minutes.get(1).clicks());
+        assertTrue(aggregates.minutes("missing").isEmpty());
+    }
+
+    @Test
+    void keysBeyondTheLinksCapAreCountedAsOtherInEveryMinute() {
+        ClickAggregates aggregates = new ClickAggregates(2, 1_000);
+        aggregates.add("abc", T0, DESKTOP_CHROME, "a.example");
+        aggregates.add("abc", T0, MOBILE_SAFARI, "b.example");
+        aggregates.add("abc", T0, new UserAgentInfo("tablet", "Firefox"), "c.example");
+        aggregates.add("abc", T0 + MINUTE, DESKTOP_CHROME, "d.example");
+        aggregates.add("abc", T0 + MINUTE, DESKTOP_CHROME, "a.example");
+
+        List<ClickMinuteResponse> minutes = aggregates.minutes("abc");
+        assertEquals(Map.of("a.example", 1L, "b.example", 1L, "other", 1L), minutes.get(0).referrers());
+        assertEquals(Map.of("desktop", 1L, "mobile", 1L, "other", 1L), minutes.get(0).deviceClasses());
+        assertEquals(Map.of("Chrome", 1L, "Safari", 1L, "other", 1L), minutes.get(0).browsers());
+        // the budget is per link, so a new minute does not admit new referrers
+        assertEquals(Map.of("a.example", 1L, "other", 1L), minutes.get(1).referrers());
+    }
+
+    @Test
+    void leastRecentlyClickedLinksAreEvictedBeyondTheLinkCap() {
+        ClickAggregates aggregates = new ClickAggregates(32, 2);
+        aggregates.add("old", T0, DESKTOP_CHROME, "direct");
+        aggregates.add("busy", T0, DESKTOP_CHROME, "direct");
+        aggregates.add("busy", T0 + 3 * MINUTE, DESKTOP_CHROME, "direct");
+        aggregates.add("new", T0 + 2 * MINUTE, DESKTOP_CHROME, "direct");
+
+        aggregates.evictBefore(T0);
+
+        assertEquals(2, aggregates.linkCount());
+        assertTrue(aggregates.minutes("old").isEmpty());
+        assertEquals(2, aggregates.minutes("busy").size());
+        assertEquals(1, aggregates.minutes("new").size());
+    }
+
+    @Test
+    void evictionRacingNewLinksNeverDropsAClick() throws InterruptedException {
+        ClickAggregates aggregates = new ClickAggregates(32, 1_000_000);
+        int links = 20_000;
+        Thread clicks = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < links; i++) {
+                aggregates.add("c" + i, T0, DESKTOP_CHROME, "direct");
+            }
+        });
+        // nothing is stale, so every pass must keep every link, including ones still being created
+        while (clicks.isAlive()) {
+            aggregates.evictBefore(T0);
+        }
+        clicks.join();
+
+        long counted = 0;
+        for (int i = 0; i < links; i++) {
+            counted += aggregates.minutes("c" + i).stream().mapToLong(ClickMinuteResponse::clicks).sum();
+        }
+        assertEquals(links, counted);
+    }
+
+    @Test
+    void minutesBeforeTheCutoffAreEvicted() {
+        ClickAggregates aggregates = new ClickAggregates(32, 1_000);
+        aggregates.add("abc", T0, DESKTOP_CHROME, "direct");
+        aggregates.add("abc", T0 + 2 * MINUTE, DESKTOP_CHROME, "direct");
+        aggregates.add("old", T0, DESKTOP_CHROME, "direct");
+
+        aggregates.evictBefore(T0 + MINUTE);
+
+        assertEquals(1, aggregates.minutes("abc").size());
+        assertTrue(aggregates.minutes("old").isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import com.codefarm.url.shortner.service.web.dto.ClickMinuteResponse;
+import com.codefarm.url.shortner.service.web.dto.ClickStatsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClickEnrichmentPipelineTests {
+
+    private static final String IPHONE = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_5 like Mac OS X) "
+            + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.5 Mobile/15E148 Safari/604.1";
+
+    private static long clicks(ClickStatsResponse stats) {
+        return stats.minutes().stream().mapToLong(ClickMinuteResponse::clicks).sum();
+    }
+
+    private static ClickStatsResponse awaitClicks(ClickEnrichmentPipeline pipeline, String shortCode, long expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        ClickStatsResponse stats = pipeline.stats(shortCode);
+        while (clicks(stats) < expected && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+            stats = pipeline.stats(shortCode);
+        }
+        return stats;
+    }
+
+    @Test
+    void fullQueueDropsAndCountsTheClick() {
+        // workers never started, so nothing drains the queue
+        ClickEnrichmentPipeline pipeline = new ClickEnrichmentPipeline(4, 1, 16, 32, 1_000, Duration.ofHours(1));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pipeline.submit("abc", IPHONE, null));
+        }
+
+        assertFalse(pipeline.submit("abc", IPHONE, null));
+        assertFalse(pipeline.submit("abc", IPHONE, null));
+
+        assertEquals(2, pipeline.stats("abc").droppedEvents());
+        assertTrue(pipeline.stats("abc").minutes().isEmpty());
+    }
+
+    @Test
+    void parkedWorkersWakeForEveryBurst() throws InterruptedException {
+        ClickEnrichmentPipeline pipeline = new ClickEnrichmentPipeline(1024, 2, 16, 32, 1_000, Duration.ofHours(1));
+        pipeline.start();
+        try {
+            for (int burst = 1; burst <= 3; burst++) {
+                // long enough for both workers to go idle and park
+                Thread.sleep(50);
+                for (int i = 0; i < 100; i++) {
+                    pipeline.submit("abc", IPHONE, "https://www.news.example/story");
+                }
+                assertEquals(burst * 100L, clicks(awaitClicks(pipeline, "abc", burst * 100L)));
+            }
+            List<ClickMinuteResponse> minutes = pipeline.stats("abc").minutes();
+            ClickMinuteResponse last = minutes.get(minutes.size() - 1);
+            assertEquals(Map.of("mobile", last.clicks()), last.deviceClasses());
+            assertEquals(Map.of("Safari", last.clicks()), last.browsers());
+            assertEquals(Map.of("news.example", last.clicks()), last.referrers());
+            assertEquals(0, pipeline.stats("abc").droppedEvents());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void referrerDomainIsNormalized() {
+        assertEquals("direct", ClickEnrichmentPipeline.referrerDomain(null));
+        assertEquals("direct", ClickEnrichmentPipeline.referrerDomain(" "));
+        assertEquals("news.example", ClickEnrichmentPipeline.referrerDomain("https://WWW.News.Example/a?b=c"));
+        assertEquals("invalid", ClickEnrichmentPipeline.referrerDomain("http://bad host/"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.codefarm.url.shortner.service.clicks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UserAgentClassifierTests {
+
+    private final UserAgentClassifier classifier = new UserAgentClassifier(16);
+
+    private void assertAgent(String device, String browser, String userAgent) {
+        assertEquals(new UserAgentInfo(device, browser), classifier.classify(userAgent));
+    }
+
+    @Test
+    void classifiesDeviceAndBrowser() {
+        assertAgent("desktop", "Chrome", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36");
+        assertAgent("desktop", "Edge", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36 Edg/126.0.2592.56");
+        assertAgent("desktop", "Firefox", "Mozilla/5.0 (X11; Linux x86_64; rv:127.0) Gecko/20100101 Firefox/127.0");
+        assertAgent("mobile", "Safari", "Mozilla/5.0 (iPhone; CPU iPhone OS 17_5 like Mac OS X) AppleWebKit/605.1.15 "
+                + "(KHTML, like Gecko) Version/17.5 Mobile/15E148 Safari/604.1");
+        assertAgent("mobile", "Samsung Internet", "Mozilla/5.0 (Linux; Android 14; SM-S918B) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) SamsungBrowser/25.0 Chrome/121.0.0.0 Mobile Safari/537.36");
+        assertAgent("tablet", "Chrome", "Mozilla/5.0 (Linux; Android 13; SM-X700) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36");
+        assertAgent("tablet", "Safari", "Mozilla/5.0 (iPad; CPU OS 17_5 like Mac OS X) AppleWebKit/605.1.15 "
+                + "(KHTML, like Gecko) Version/17.5 Mobile/15E148 Safari/604.1");
+    }
+
+    @Test
+    void botsAndMissingAgentsAreSeparated() {
+        assertAgent("bot", "Bot", "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)");
+        assertAgent("bot", "Bot", "curl/8.7.1");
+        assertAgent("bot", "Bot", "Mozilla/5.0 (X11; Linux x86_64) HeadlessChrome/126.0.0.0 Safari/537.36");
+        assertSame(UserAgentClassifier.UNKNOWN, classifier.classify(null));
+        assertSame(UserAgentClassifier.UNKNOWN, classifier.classify(" "));
+        assertAgent("unknown", "Other", "SomeEmbeddedClient/1.0");
+    }
+
+    @Test
+    void repeatAgentsAreServedFromTheCache() {
+        String agent = "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_5) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+                + "Version/17.5 Safari/605.1.15";
+        assertSame(classifier.classify(agent), classifier.classify(agent));
+    }
+}
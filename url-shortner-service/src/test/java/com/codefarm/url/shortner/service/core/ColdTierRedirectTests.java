@@ -0,0 +1,65 @@
+package com.codefarm.url.shortner.service.core;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import com.codefarm.url.shortner.service.repository.UrlMappingRepository;
+import com.codefarm.url.shortner.service.tiering.ColdTierStore;
+import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
+import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A single pooled connection: a redirect that held its read connection while restoring from the
+// cold tier would wait on itself until the bulkhead gave up.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coldtierredirect;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250",
+        "db.bulkhead.permits=1",
+        "db.bulkhead.max-wait=200ms",
+        "snowflake.lease.enabled=false"
+})
+class ColdTierRedirectTests {
+
+    @Autowired
+    private UrlShortenerService service;
+
+    @Autowired
+    private ColdTierStore coldTier;
+
+    @Autowired
+    private UrlMappingRepository repository;
+
+    @Test
+    void coldHitIsRestoredWithASingleConnection() throws Exception {
+        coldTier.archive(List.of(new UrlMapping("cold1", "https://example.com/archived",
+                LocalDateTime.now().minusDays(90), true)));
+        assertTrue(repository.findById("cold1").isEmpty());
+
+        ResponseEntity<Void> response = service.redirect("cold1");
+
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, response.getStatusCode());
+        assertEquals("https://example.com/archived", response.getHeaders().getFirst("Location"));
+        assertTrue(repository.findById("cold1").isPresent());
+    }
+
+    @Test
+    void shorteningAnArchivedUrlReturnsItsCode() throws Exception {
+        coldTier.archive(List.of(new UrlMapping("cold2", "https://example.com/archived-again",
+                LocalDateTime.now().minusDays(90), false)));
+
+        ShortenResponse response = service.shortenUrl(
+                new ShortenRequest("https://example.com/archived-again", null), "http://localhost", null);
+
+        assertEquals("cold2", response.shortCode());
+        assertTrue(repository.findByLongUrl("https://example.com/archived-again").isEmpty());
+    }
+}
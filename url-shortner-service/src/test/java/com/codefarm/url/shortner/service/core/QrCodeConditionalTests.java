@@ -0,0 +1,52 @@
+package com.codefarm.url.shortner.service.core;
+
+import com.codefarm.url.shortner.service.exception.UrlNotFoundException;
+import com.codefarm.url.shortner.service.web.dto.ShortenRequest;
+import com.codefarm.url.shortner.service.web.dto.ShortenResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class QrCodeConditionalTests {
+
+    private static final String BASE_URL = "http://sho.rt/";
+
+    @Autowired
+    private UrlShortenerService service;
+
+    @Test
+    void unknownCodeIsNotFoundEvenForWildcardValidator() {
+        assertThrows(UrlNotFoundException.class, () -> service.qrCode("nosuchcode", BASE_URL, 256, "png", "*"));
+    }
+
+    @Test
+    void knownCodeWithMatchingValidatorIsNotModified() {
+        ShortenResponse shortened = service.shortenUrl(
+                new ShortenRequest("https://example.com/qr-conditional", null), BASE_URL, null);
+        ResponseEntity<byte[]> first = service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+
+        String etag = first.getHeaders().getETag();
+        ResponseEntity<byte[]> second = service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", "*").getStatusCode());
+    }
+
+    @Test
+    void weakValidatorMatchesTheStrongTag() {
+        ShortenResponse shortened = service.shortenUrl(
+                new ShortenRequest("https://example.com/qr-weak", null), BASE_URL, null);
+        String etag = service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> weak = service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", "\"other\", W/" + etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, weak.getStatusCode());
+        assertEquals(etag, weak.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, service.qrCode(shortened.shortCode(), BASE_URL, 256, "png", "W/\"other\"").getStatusCode());
+    }
+}
@@ -0,0 +1,94 @@
+package com.codefarm.url.shortner.service.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadDataSourceTests {
+
+    // Hands out stub connections; can be told to fail the next checkout or the next close
+    private static final class StubDataSource extends AbstractDataSource {
+        final AtomicBoolean failCheckout = new AtomicBoolean();
+        final AtomicBoolean failClose = new AtomicBoolean();
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failCheckout.getAndSet(false)) {
+                throw new SQLException("pool exhausted");
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && failClose.getAndSet(false)) {
+                            throw new SQLException("connection reset");
+                        }
+                        return method.getReturnType() == boolean.class ? false : null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    private final StubDataSource target = new StubDataSource();
+    private final BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, Duration.ofMillis(100));
+
+    @Test
+    void closingTheConnectionReturnsThePermitOnce() throws SQLException {
+        Connection connection = bulkhead.getConnection();
+        assertEquals(1, bulkhead.stats().inUse());
+
+        connection.close();
+        connection.close();
+
+        // a second release would leave -1 in use
+        assertEquals(0, bulkhead.stats().inUse());
+        bulkhead.getConnection().close();
+        assertEquals(0, bulkhead.stats().inUse());
+    }
+
+    @Test
+    void permitIsReturnedWhenCloseFails() throws SQLException {
+        Connection connection = bulkhead.getConnection();
+        target.failClose.set(true);
+
+        SQLException failed = assertThrows(SQLException.class, connection::close);
+
+        assertEquals("connection reset", failed.getMessage());
+        assertEquals(0, bulkhead.stats().inUse());
+    }
+
+    @Test
+    void permitIsReturnedWhenTheCheckoutFails() throws SQLException {
+        target.failCheckout.set(true);
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+
+        assertEquals(0, bulkhead.stats().inUse());
+        bulkhead.getConnection().close();
+    }
+
+    @Test
+    void callerIsRejectedAfterTheMaxWait() throws SQLException {
+        try (Connection _ = bulkhead.getConnection()) {
+            long start = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+        }
+
+        assertEquals(1, bulkhead.stats().rejected());
+        assertEquals(0, bulkhead.stats().waiting());
+        assertEquals(0, bulkhead.stats().inUse());
+    }
+}
@@ -0,0 +1,57 @@
+package com.codefarm.url.shortner.service.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// One permit in front of a larger pool: while the test holds it, a request can only time out on
+// the bulkhead, never on the pool.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkheadrejection;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "db.bulkhead.permits=1",
+        "db.bulkhead.max-wait=200ms",
+        "snowflake.lease.enabled=false"
+})
+@AutoConfigureMockMvc
+class BulkheadRejectionTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void requestWaitingPastMaxWaitGets503WithRetryAfter() throws Exception {
+        try (Connection _ = dataSource.getConnection()) {
+            long start = System.nanoTime();
+            mvc.perform(post("/api/v1/shorten")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"longUrl\":\"https://example.com/bulkhead\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").exists());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+        }
+
+        mvc.perform(post("/api/v1/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"longUrl\":\"https://example.com/bulkhead\"}"))
+                .andExpect(status().isOk());
+        assertTrue(((BulkheadDataSource) dataSource).stats().rejected() >= 1);
+    }
+}
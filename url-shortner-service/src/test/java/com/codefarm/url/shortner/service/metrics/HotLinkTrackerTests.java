@@ -0,0 +1,86 @@
+package com.codefarm.url.shortner.service.metrics;
+
+import com.codefarm.url.shortner.service.exception.InvalidRequestException;
+import com.codefarm.url.shortner.service.web.dto.TopLinksResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotLinkTrackerTests {
+
+    @Test
+    void concurrentRecordsAreCountedExactlyOnceWhileDraining() throws InterruptedException {
+        HotLinkTracker tracker = new HotLinkTracker(1 << 12, 4, 2048, 256);
+        int threads = 8;
+        int perThread = 20_000;
+        AtomicBoolean producing = new AtomicBoolean(true);
+        Thread drainer = new Thread(() -> {
+            while (producing.get()) {
+                tracker.drain();
+            }
+        });
+        drainer.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String code = "code" + t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    tracker.record(code);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        producing.set(false);
+        drainer.join();
+        tracker.drain();
+
+        TopLinksResponse top = tracker.top("1m", 256);
+        assertEquals((long) threads * perThread, top.totalClicks() + top.droppedEvents());
+    }
+
+    @Test
+    void fullQueueRejectsAndCountsNewEvents() {
+        HotLinkTracker tracker = new HotLinkTracker(4, 4, 2048, 256);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("abc");
+        }
+        tracker.drain();
+
+        TopLinksResponse top = tracker.top("1m", 10);
+        assertEquals(4, top.totalClicks());
+        assertEquals(6, top.droppedEvents());
+        assertEquals(4, top.links().getFirst().clicks());
+    }
+
+    @Test
+    void codesWithTheSameStringHashAreCountedApart() {
+        HotLinkTracker tracker = new HotLinkTracker(1024, 4, 2048, 256);
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        for (int i = 0; i < 100; i++) {
+            tracker.record("Aa");
+        }
+        tracker.record("BB");
+        tracker.drain();
+
+        Map<String, Long> clicks = new HashMap<>();
+        tracker.top("1m", 10).links().forEach(link -> clicks.put(link.shortCode(), link.clicks()));
+        assertEquals(Map.of("Aa", 100L, "BB", 1L), clicks);
+    }
+
+    @Test
+    void unknownWindowIsABadRequest() {
+        HotLinkTracker tracker = new HotLinkTracker(16, 4, 2048, 256);
+        assertThrows(InvalidRequestException.class, () -> tracker.top("5m", 10));
+    }
+}
@@ -0,0 +1,198 @@
+package com.codefarm.url.shortner.service.tiering;
+
+import com.codefarm.url.shortner.service.model.UrlMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColdTierStoreTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 5, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private ColdTierStore store;
+
+    @AfterEach
+    void closeStore() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private ColdTierStore open(int maxSegments) throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        // small blocks so every segment spans several
+        store = new ColdTierStore(dir, 256, 0.01, maxSegments);
+        store.openExistingSegments();
+        return store;
+    }
+
+    private static List<UrlMapping> batch(int from, int to, String version) {
+        List<UrlMapping> mappings = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            mappings.add(new UrlMapping("c" + i, "https://example.com/" + version + "/" + i, CREATED, false));
+        }
+        return mappings;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void rearchivingARestoredMappingDoesNotCountItTwice() throws IOException {
+        open(8).archive(batch(0, 10, "v1"));
+        long bytesSaved = store.stats().bytesSaved();
+
+        // restored by a redirect, then idle again: the sweep hands the same codes back
+        store.archive(batch(0, 10, "v1"));
+        store.archive(batch(5, 10, "v1"));
+
+        assertEquals(1, store.stats().segments());
+        assertEquals(10, store.stats().archivedMappings());
+        assertEquals(bytesSaved, store.stats().bytesSaved());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void compactionBoundsTheSegmentCountAndKeepsEveryCode() throws IOException {
+        open(3);
+        for (int sweep = 0; sweep < 10; sweep++) {
+            store.archive(batch(sweep * 50, sweep * 50 + 50, "v1"));
+            assertTrue(store.stats().segments() <= 3);
+        }
+
+        assertEquals(500, store.stats().archivedMappings());
+        assertEquals(store.stats().segments(), segmentFiles());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("https://example.com/v1/" + i, store.find("c" + i).orElseThrow().getLongUrl());
+        }
+
+        // merged segments keep their place in the age order across a restart
+        open(3);
+        assertEquals(500, store.stats().archivedMappings());
+        assertEquals("https://example.com/v1/499", store.find("c499").orElseThrow().getLongUrl());
+    }
+
+    @Test
+    void aSegmentMergedAwayMidLookupStaysReadableUntilReleased() throws IOException {
+        Path file = dir.resolve("segment-00000000000000000001-0000.seg");
+        SegmentWriter.write(file, batch(0, 50, "v1"), 256, 0.01);
+        ColdSegment segment = ColdSegment.open(file);
+
+        assertTrue(segment.retain());
+        // the store drops it after a merge while the lookup still holds it
+        segment.close();
+        assertEquals("https://example.com/v1/7", segment.find("c7").orElseThrow().getLongUrl());
+
+        segment.release();
+        assertFalse(segment.retain());
+        assertThrows(ClosedChannelException.class, () -> segment.find("c7"));
+    }
+
+    @Test
+    void lookupsRacingCompactionAlwaysFindArchivedCodes() throws Exception {
+        open(2).archive(batch(0, 50, "v1"));
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            try {
+                while (!done.get()) {
+                    for (int i = 0; i < 50; i++) {
+                        store.find("c" + i).orElseThrow();
+                        store.findByLongUrl("https://example.com/v1/" + i).orElseThrow();
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+
+        // every sweep past the first merges, swapping out segments the reader may be inside
+        for (int sweep = 1; sweep < 100; sweep++) {
+            store.archive(batch(sweep * 50, sweep * 50 + 50, "v1"));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void segmentsFindArchivedLongUrls() throws IOException {
+        open(2);
+        for (int sweep = 0; sweep < 4; sweep++) {
+            store.archive(batch(sweep * 300, sweep * 300 + 300, "v1"));
+        }
+
+        for (int i = 0; i < 1_200; i += 7) {
+            assertEquals("c" + i, store.findByLongUrl("https://example.com/v1/" + i).orElseThrow().getShortCode());
+        }
+        assertTrue(store.findByLongUrl("https://example.com/v1/1200").isEmpty());
+
+        open(2);
+        assertEquals("c1199", store.findByLongUrl("https://example.com/v1/1199").orElseThrow().getShortCode());
+    }
+
+    @Test
+    void existenceChecksAreNotCountedAsLookups() throws IOException {
+        open(8).archive(batch(0, 10, "v1"));
+
+        assertTrue(store.contains("c3"));
+        assertFalse(store.contains("c10"));
+        assertEquals(0, store.stats().coldLookups());
+        assertEquals(0, store.stats().coldHits());
+
+        assertTrue(store.find("c3").isPresent());
+        assertEquals(1, store.stats().coldLookups());
+        assertEquals(1, store.stats().coldHits());
+    }
+
+    @Test
+    void withoutADirectoryEachStoreUsesItsOwnAndRemovesItOnClose() throws IOException {
+        ColdTierStore first = new ColdTierStore(null, 256, 0.01, 8);
+        ColdTierStore second = new ColdTierStore(null, 256, 0.01, 8);
+        first.openExistingSegments();
+        second.openExistingSegments();
+        first.archive(batch(0, 10, "v1"));
+
+        assertNotEquals(first.directory(), second.directory());
+        assertFalse(second.contains("c3"));
+        first.close();
+        second.close();
+        assertFalse(Files.exists(first.directory()));
+        assertFalse(Files.exists(second.directory()));
+    }
+
+    @Test
+    void mergedNamesCarryAGeneration() {
+        assertEquals("segment-00000000000000000042-0007-m1.seg",
+                ColdTierStore.mergedName("segment-00000000000000000042-0007.seg"));
+        assertEquals("segment-00000000000000000042-0007-m3.seg",
+                ColdTierStore.mergedName("segment-00000000000000000042-0007-m2.seg"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.codefarm.url.shortner.service.util;
+
+import com.codefarm.url.shortner.service.repository.WorkerLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Leases against the real table, on a clock the test moves: ttl 30s, safety margin 5s, so a lease
+// is trusted for 25s after its last successful claim or renewal.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workerleases;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "snowflake.lease.enabled=false"
+})
+class WorkerLeaseManagerTests {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration MARGIN = Duration.ofSeconds(5);
+    private static final Instant START = Instant.parse("2026-03-02T08:00:00Z");
+
+    // Wall time and the monotonic clock move together, and only when the test says so
+    private static final class TestClock extends Clock {
+        private final ZoneId zone;
+        private Instant now = START;
+        private long nanos = 1_000_000_000L;
+
+        TestClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void advance(Duration step) {
+            now = now.plus(step);
+            nanos += step.toNanos();
+        }
+
+        long nanos() {
+            return nanos;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Autowired
+    private WorkerLeaseRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TestClock clock = new TestClock(ZoneOffset.UTC);
+
+    @BeforeEach
+    void clearLeases() {
+        repository.deleteAllInBatch();
+    }
+
+    private WorkerLeaseManager newManager() {
+        return newManager(clock);
+    }
+
+    private WorkerLeaseManager newManager(TestClock nodeClock) {
+        return new WorkerLeaseManager(repository, transactionManager, true, TTL, MARGIN, 1, 1, nodeClock, nodeClock::nanos);
+    }
+
+    private void holdAllBut(int freeId, Instant freeIdExpiresAt) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(_ -> {
+            for (int id = 0; id <= WorkerLeaseManager.MAX_WORKER_ID; id++) {
+                repository.insertLease(id, "other-node", id == freeId ? freeIdExpiresAt : START.plus(TTL));
+            }
+        });
+    }
+
+    private Instant expiresAt(int workerId) {
+        return repository.findById(workerId).orElseThrow().getExpiresAt();
+    }
+
+    @Test
+    void startupClaimsAFreeWorkerId() {
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+
+        int id = manager.currentWorkerId();
+        assertTrue(id >= 0 && id <= WorkerLeaseManager.MAX_WORKER_ID);
+        assertEquals(START.plus(TTL), expiresAt(id));
+    }
+
+    @Test
+    void onlyAnExpiredLeaseIsTakenOver() {
+        holdAllBut(7, START.minusSeconds(1));
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+        assertEquals(7, manager.currentWorkerId());
+        assertEquals(START.plus(TTL), expiresAt(7));
+
+        // every lease is live now, so a second node has nothing to claim
+        assertThrows(IllegalStateException.class, () -> newManager().acquireOnStartup());
+    }
+
+    @Test
+    void nodesInDifferentTimeZonesAgreeOnExpiry() {
+        holdAllBut(7, START.minusSeconds(1));
+        // the holder's local time is hours behind the challenger's at the same instant
+        TestClock newYork = new TestClock(ZoneId.of("America/New_York"));
+        TestClock tokyo = new TestClock(ZoneId.of("Asia/Tokyo"));
+        WorkerLeaseManager holder = newManager(newYork);
+        holder.acquireOnStartup();
+        assertEquals(7, holder.currentWorkerId());
+
+        newYork.advance(TTL.minusSeconds(1));
+        tokyo.advance(TTL.minusSeconds(1));
+        assertThrows(IllegalStateException.class, () -> newManager(tokyo).acquireOnStartup());
+
+        // once the lease has really expired, the node ahead in local time may take it
+        tokyo.advance(Duration.ofSeconds(2));
+        assertDoesNotThrow(() -> newManager(tokyo).acquireOnStartup());
+    }
+
+    @Test
+    void heartbeatExtendsTheLease() {
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+        int id = manager.currentWorkerId();
+
+        clock.advance(Duration.ofSeconds(20));
+        manager.heartbeat();
+        clock.advance(Duration.ofSeconds(20));
+
+        // 40s after the claim, but only 20s after the renewal
+        assertEquals(id, manager.currentWorkerId());
+        assertEquals(START.plusSeconds(20).plus(TTL), expiresAt(id));
+    }
+
+    @Test
+    void idsAreRefusedOnceTheLeaseLapses() {
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(manager);
+
+        clock.advance(TTL.minus(MARGIN).minusMillis(1));
+        assertDoesNotThrow(ids::nextId);
+
+        // the heartbeat could not reach the database; the node stops before anyone may take over
+        clock.advance(Duration.ofMillis(1));
+        assertThrows(IllegalStateException.class, ids::nextId);
+        assertTrue(START.plus(TTL).isAfter(clock.instant()));
+    }
+
+    @Test
+    void heartbeatClaimsANewIdWhenTheLeaseWasLost() {
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+        int lost = manager.currentWorkerId();
+        int free = lost == 0 ? 1 : 0;
+        // another node now owns our ID; the only claimable one expires as the heartbeat runs
+        repository.deleteAllInBatch();
+        holdAllBut(free, START);
+
+        clock.advance(Duration.ofSeconds(10));
+        manager.heartbeat();
+
+        assertNotEquals(lost, manager.currentWorkerId());
+        assertEquals(free, manager.currentWorkerId());
+    }
+
+    @Test
+    void shutdownReleasesTheLease() {
+        WorkerLeaseManager manager = newManager();
+        manager.acquireOnStartup();
+        int id = manager.currentWorkerId();
+
+        manager.release();
+
+        assertTrue(repository.findById(id).isEmpty());
+        assertThrows(IllegalStateException.class, manager::currentWorkerId);
+    }
+}